@@ -3,13 +3,17 @@ package com.rakesh.admin_server;
 import de.codecentric.boot.admin.server.config.EnableAdminServer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 @EnableAdminServer
 public class AdminServerApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(AdminServerApplication.class, args);
+		SpringApplication application = new SpringApplication(AdminServerApplication.class);
+		// Keeps the startup steps (context refresh, bean creation, ...) in memory for /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,26 @@
+package com.rakesh.admin_server.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rakesh.admin_server.profiling.ProfilingProperties;
+import com.rakesh.admin_server.profiling.ProfilingService;
+import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
+import de.codecentric.boot.admin.server.web.client.InstanceWebClient;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Fleet-wide JFR profiling: admin_server drives the /actuator/jfr endpoint of every instance it knows about.
+ */
+@Configuration
+@EnableConfigurationProperties(ProfilingProperties.class)
+public class ProfilingConfig {
+
+    @Bean
+    public ProfilingService profilingService(InstanceRepository instanceRepository,
+                                             InstanceWebClient.Builder instanceWebClientBuilder,
+                                             ObjectMapper objectMapper, ProfilingProperties properties) {
+        // Same client Spring Boot Admin uses for health/metrics: resolves "jfr" to the instance's endpoint URL
+        return new ProfilingService(instanceRepository, instanceWebClientBuilder.build(), objectMapper, properties);
+    }
+}
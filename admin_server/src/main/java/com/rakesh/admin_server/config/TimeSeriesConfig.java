@@ -0,0 +1,43 @@
+package com.rakesh.admin_server.config;
+
+import com.rakesh.admin_server.timeseries.MetricsScraper;
+import com.rakesh.admin_server.timeseries.TimeSeriesProperties;
+import com.rakesh.admin_server.timeseries.TimeSeriesStore;
+import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
+import de.codecentric.boot.admin.server.web.client.InstanceWebClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Metrics history of all registered instances (see {@link MetricsScraper} and {@link TimeSeriesStore}),
+ * on unless {@code admin.timeseries.enabled=false}.
+ */
+@Configuration
+@EnableScheduling // Drives the periodic scrape
+@EnableConfigurationProperties(TimeSeriesProperties.class)
+@ConditionalOnProperty(prefix = "admin.timeseries", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TimeSeriesConfig {
+
+    private MetricsScraper scraper;
+
+    @Bean
+    public TimeSeriesStore timeSeriesStore(TimeSeriesProperties properties) {
+        return new TimeSeriesStore(properties);
+    }
+
+    @Bean
+    public MetricsScraper metricsScraper(InstanceRepository instanceRepository, InstanceWebClient.Builder instanceWebClientBuilder,
+                                         TimeSeriesStore timeSeriesStore, TimeSeriesProperties properties) {
+        scraper = new MetricsScraper(instanceRepository, instanceWebClientBuilder.build(), timeSeriesStore, properties);
+        return scraper;
+    }
+
+    @Scheduled(fixedRateString = "${admin.timeseries.scrape-interval:PT15S}", initialDelayString = "${admin.timeseries.scrape-interval:PT15S}")
+    public void scrape() {
+        scraper.scrape();
+    }
+}
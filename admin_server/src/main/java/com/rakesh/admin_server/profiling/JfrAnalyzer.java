@@ -0,0 +1,250 @@
+package com.rakesh.admin_server.profiling;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns .jfr files into a {@link JfrSummary}, using only the JDK's jdk.jfr.consumer API.
+ *
+ * Each file is read twice: first for the HTTP request events (written by the jfr-profiling module in the services),
+ * which give per thread the time ranges in which it handled a request of a given route, then for the profiling events,
+ * which are matched against those ranges by thread and timestamp.
+ */
+public final class JfrAnalyzer {
+
+    static final String HTTP_REQUEST_EVENT = "com.rakesh.HttpRequest"; // HttpRequestEvent.NAME in jfr-profiling
+
+    private static final String UNATTRIBUTED = "(outside requests)";
+
+    private JfrAnalyzer() {
+    }
+
+    public static JfrSummary summarize(List<Path> recordings, int top) throws IOException {
+        Totals totals = new Totals();
+        for (Path recording : recordings) {
+            analyze(recording, totals);
+        }
+        List<JfrSummary.EndpointProfile> endpoints = totals.endpoints.entrySet().stream()
+                .map(entry -> entry.getValue().toProfile(entry.getKey(), Math.min(top, 5)))
+                .sorted(Comparator.comparingLong(JfrSummary.EndpointProfile::executionSamples).reversed())
+                .toList();
+        return new JfrSummary(recordings.size(), totals.recordedNanos / 1e9,
+                ranking(totals.hotMethods, top), ranking(totals.allocationSites, top), rankingMillis(totals.lockWaitNanos, top),
+                new JfrSummary.GcPauses(totals.gcCount, totals.gcPauseNanos / 1e6, totals.gcLongestPauseNanos / 1e6),
+                endpoints);
+    }
+
+    private static void analyze(Path file, Totals totals) throws IOException {
+        // Pass 1: which thread served which route when
+        Map<Long, List<Request>> requestsByThread = new HashMap<>();
+        List<Request> allRequests = new ArrayList<>();
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        try (RecordingFile reader = new RecordingFile(file)) {
+            while (reader.hasMoreEvents()) {
+                RecordedEvent event = reader.readEvent();
+                first = Math.min(first, nanos(event.getStartTime()));
+                last = Math.max(last, nanos(event.getEndTime()));
+                if (event.getEventType().getName().equals(HTTP_REQUEST_EVENT) && event.getThread() != null) {
+                    Request request = new Request(nanos(event.getStartTime()), nanos(event.getEndTime()), event.getString("route"));
+                    requestsByThread.computeIfAbsent(event.getThread().getJavaThreadId(), id -> new ArrayList<>()).add(request);
+                    allRequests.add(request);
+                    totals.endpoint(request.route()).addRequest(request.end() - request.start());
+                }
+            }
+        }
+        if (first < last) {
+            totals.recordedNanos += last - first;
+        }
+        requestsByThread.values().forEach(list -> list.sort(Comparator.comparingLong(Request::start)));
+        allRequests.sort(Comparator.comparingLong(Request::start));
+
+        // Pass 2: profiling events, attributed to the request running on the same thread at that moment
+        try (RecordingFile reader = new RecordingFile(file)) {
+            while (reader.hasMoreEvents()) {
+                RecordedEvent event = reader.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        String frame = applicationFrame(event.getStackTrace());
+                        totals.hotMethods.merge(frame, 1L, Long::sum);
+                        Endpoint endpoint = totals.endpointAt(requestsByThread, event.getThread("sampledThread"), event.getStartTime());
+                        endpoint.executionSamples++;
+                        endpoint.hotMethods.merge(frame, 1L, Long::sum);
+                    }
+                    case "jdk.ObjectAllocationSample" -> {
+                        String frame = applicationFrame(event.getStackTrace());
+                        long bytes = event.getLong("weight"); // Bytes this sample stands for
+                        totals.allocationSites.merge(frame, bytes, Long::sum);
+                        Endpoint endpoint = totals.endpointAt(requestsByThread, event.getThread(), event.getStartTime());
+                        endpoint.allocatedBytes += bytes;
+                        endpoint.allocationSites.merge(frame, bytes, Long::sum);
+                    }
+                    case "jdk.JavaMonitorEnter" -> {
+                        long waited = event.getDuration().toNanos();
+                        totals.lockWaitNanos.merge(lockKey(event.getClass("monitorClass"), event.getStackTrace()), waited, Long::sum);
+                        totals.endpointAt(requestsByThread, event.getThread(), event.getStartTime()).lockWaitNanos += waited;
+                    }
+                    case "jdk.ThreadPark" -> {
+                        // Only parks inside a request: idle pool threads park all the time and would drown everything else
+                        Request request = requestAt(requestsByThread, event.getThread(), event.getStartTime());
+                        if (request != null) {
+                            long waited = event.getDuration().toNanos();
+                            totals.lockWaitNanos.merge(lockKey(event.getClass("parkedClass"), event.getStackTrace()), waited, Long::sum);
+                            totals.endpoint(request.route()).lockWaitNanos += waited;
+                        }
+                    }
+                    case "jdk.GarbageCollection" -> {
+                        long pause = event.getDuration("sumOfPauses").toNanos();
+                        totals.gcCount++;
+                        totals.gcPauseNanos += pause;
+                        totals.gcLongestPauseNanos = Math.max(totals.gcLongestPauseNanos, event.getDuration("longestPause").toNanos());
+                        long start = nanos(event.getStartTime());
+                        long end = nanos(event.getEndTime());
+                        for (Request request : allRequests) {
+                            if (request.start() > end) {
+                                break; // Sorted by start, none of the rest was running yet
+                            }
+                            if (request.end() >= start) {
+                                totals.endpoint(request.route()).gcPauseNanos += pause;
+                            }
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+    }
+
+    private static Request requestAt(Map<Long, List<Request>> requestsByThread, RecordedThread thread, Instant time) {
+        if (thread == null) {
+            return null;
+        }
+        List<Request> requests = requestsByThread.get(thread.getJavaThreadId());
+        if (requests == null) {
+            return null;
+        }
+        long at = nanos(time);
+        int low = 0;
+        int high = requests.size() - 1;
+        Request candidate = null;
+        while (low <= high) { // Last request that started at or before the timestamp
+            int mid = (low + high) >>> 1;
+            if (requests.get(mid).start() <= at) {
+                candidate = requests.get(mid);
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return candidate != null && candidate.end() >= at ? candidate : null;
+    }
+
+    // First frame outside the JDK, so the ranking points at code that can be changed
+    private static String applicationFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "(no stack trace)";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return format(frame);
+            }
+        }
+        return format(stackTrace.getFrames().get(0));
+    }
+
+    private static String lockKey(RecordedClass lockClass, RecordedStackTrace stackTrace) {
+        return (lockClass != null ? lockClass.getName() : "(unknown)") + " at " + applicationFrame(stackTrace);
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static long nanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static List<JfrSummary.Hotspot> ranking(Map<String, Long> values, int top) {
+        long total = values.values().stream().mapToLong(Long::longValue).sum();
+        return values.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(top)
+                .map(entry -> new JfrSummary.Hotspot(entry.getKey(), entry.getValue(), percent(entry.getValue(), total)))
+                .toList();
+    }
+
+    private static List<JfrSummary.Hotspot> rankingMillis(Map<String, Long> nanos, int top) {
+        long total = nanos.values().stream().mapToLong(Long::longValue).sum();
+        return nanos.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(top)
+                .map(entry -> new JfrSummary.Hotspot(entry.getKey(), entry.getValue() / 1_000_000, percent(entry.getValue(), total)))
+                .toList();
+    }
+
+    private static double percent(long value, long total) {
+        return total == 0 ? 0 : Math.round(value * 1000.0 / total) / 10.0;
+    }
+
+    private record Request(long start, long end, String route) {
+    }
+
+    private static final class Totals {
+        final Map<String, Long> hotMethods = new HashMap<>();
+        final Map<String, Long> allocationSites = new HashMap<>();
+        final Map<String, Long> lockWaitNanos = new HashMap<>();
+        final Map<String, Endpoint> endpoints = new HashMap<>();
+        long recordedNanos;
+        int gcCount;
+        long gcPauseNanos;
+        long gcLongestPauseNanos;
+
+        Endpoint endpoint(String route) {
+            return endpoints.computeIfAbsent(route, r -> new Endpoint());
+        }
+
+        Endpoint endpointAt(Map<Long, List<Request>> requestsByThread, RecordedThread thread, Instant time) {
+            Request request = requestAt(requestsByThread, thread, time);
+            return endpoint(request != null ? request.route() : UNATTRIBUTED);
+        }
+    }
+
+    private static final class Endpoint {
+        final Map<String, Long> hotMethods = new HashMap<>();
+        final Map<String, Long> allocationSites = new HashMap<>();
+        long requests;
+        long totalNanos;
+        long maxNanos;
+        long executionSamples;
+        long allocatedBytes;
+        long lockWaitNanos;
+        long gcPauseNanos;
+
+        void addRequest(long nanos) {
+            requests++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        JfrSummary.EndpointProfile toProfile(String route, int top) {
+            return new JfrSummary.EndpointProfile(route, requests, requests == 0 ? 0 : totalNanos / 1e6 / requests, maxNanos / 1e6,
+                    executionSamples, allocatedBytes, lockWaitNanos / 1e6, gcPauseNanos / 1e6,
+                    ranking(hotMethods, top), ranking(allocationSites, top));
+        }
+    }
+}
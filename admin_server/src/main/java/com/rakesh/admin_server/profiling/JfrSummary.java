@@ -0,0 +1,43 @@
+package com.rakesh.admin_server.profiling;
+
+import java.util.List;
+
+/**
+ * What a profiling session found, merged over the recordings of all instances.
+ *
+ * Frames are "class.method:line" of the first application frame (JDK frames are skipped, so an allocation in
+ * ArrayList.grow shows up at the code that filled the list). Per-endpoint figures come from the HTTP request events
+ * the services write into their recordings: a sample, allocation or lock wait counts for an endpoint when it happened
+ * on the thread handling one of its requests; a GC pause counts for every request that was in flight during it.
+ */
+public record JfrSummary(
+        int recordings,
+        double recordedSeconds,
+        List<Hotspot> hotMethods,
+        List<Hotspot> allocationSites,
+        List<Hotspot> lockContention,
+        GcPauses gcPauses,
+        List<EndpointProfile> endpoints) {
+
+    /**
+     * value is samples for hot methods, bytes for allocation sites and milliseconds of waiting for lock contention.
+     */
+    public record Hotspot(String frame, long value, double percent) {
+    }
+
+    public record GcPauses(int collections, double totalPauseMillis, double longestPauseMillis) {
+    }
+
+    public record EndpointProfile(
+            String route,
+            long requests,
+            double meanMillis,
+            double maxMillis,
+            long executionSamples,
+            long allocatedBytes,
+            double lockWaitMillis,
+            double gcPauseMillis,
+            List<Hotspot> hotMethods,
+            List<Hotspot> allocationSites) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.rakesh.admin_server.profiling;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Profiling sessions over all instances of a service.
+ *
+ * Example: `POST /profiling/product-service?duration=PT60S&settings=profile`, then poll
+ * `GET /profiling/sessions/{id}` until state is DONE and read the summary. settings is "default" or "profile".
+ */
+@RestController
+@RequestMapping("/profiling")
+public class ProfilingController {
+
+    private final ProfilingService profilingService;
+    private final ProfilingProperties properties;
+
+    public ProfilingController(ProfilingService profilingService, ProfilingProperties properties) {
+        this.profilingService = profilingService;
+        this.properties = properties;
+    }
+
+    @PostMapping("/{application}")
+    public ResponseEntity<ProfilingSession> start(@PathVariable String application,
+                                                  @RequestParam(defaultValue = "PT60S") Duration duration,
+                                                  @RequestParam(defaultValue = "profile") String settings) {
+        if (duration.compareTo(Duration.ofSeconds(1)) < 0 || duration.compareTo(properties.getMaxDuration()) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "duration must be between PT1S and " + properties.getMaxDuration());
+        }
+        // 202: the recordings are running, the summary follows once they are downloaded and analyzed
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(profilingService.start(application, settings, duration));
+    }
+
+    @GetMapping("/sessions")
+    public List<ProfilingSession> sessions() {
+        return profilingService.sessions();
+    }
+
+    @GetMapping("/sessions/{id}")
+    public ResponseEntity<ProfilingSession> session(@PathVariable String id) {
+        return ResponseEntity.of(profilingService.session(id));
+    }
+
+    /**
+     * Raw recording of one instance, to open in JDK Mission Control.
+     */
+    @GetMapping("/sessions/{id}/instances/{instanceId}/recording")
+    public ResponseEntity<Resource> recording(@PathVariable String id, @PathVariable String instanceId) {
+        return profilingService.recordingFile(id, instanceId)
+                .map(file -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + id + "-" + instanceId + ".jfr\"")
+                        .<Resource>body(new FileSystemResource(file)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
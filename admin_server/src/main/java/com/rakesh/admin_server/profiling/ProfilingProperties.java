@@ -0,0 +1,24 @@
+package com.rakesh.admin_server.profiling;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the fleet-wide JFR profiling, bound from {@code admin.profiling.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "admin.profiling")
+public class ProfilingProperties {
+
+    private String storageDir = "profiling-sessions"; // One sub-directory per session with the .jfr files and the summary
+
+    private Duration startLead = Duration.ofSeconds(3); // All instances are told to start this far in the future, at the same instant
+
+    private Duration maxDuration = Duration.ofMinutes(10); // Longer requests are refused; the instances cap at jfr.max-duration as well
+
+    private Duration downloadGrace = Duration.ofSeconds(5); // Extra wait after the recording should have ended before downloading
+
+    private int topFrames = 20; // Entries per ranking in the summary
+}
@@ -0,0 +1,255 @@
+package com.rakesh.admin_server.profiling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
+import de.codecentric.boot.admin.server.domain.values.InstanceId;
+import de.codecentric.boot.admin.server.web.client.InstanceWebClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jdk.jfr.consumer.RecordingFile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Runs synchronized JFR recordings on all instances of an application through their /actuator/jfr endpoint
+ * (jfr-profiling module), downloads the .jfr files and summarizes them with {@link JfrAnalyzer}.
+ *
+ * Every instance is told the same start instant a few seconds ahead (admin.profiling.start-lead), so the recordings
+ * cover the same period even though the start requests go out one after another. The instances stop by themselves
+ * after the duration; once that has passed the files are fetched, deleted on the instance and analyzed.
+ * Sessions live in admin.profiling.storage-dir/{session id}/ and are loaded again when admin_server restarts.
+ *
+ * The instances leave out the events that carry their secrets (system properties, environment, command lines); a
+ * downloaded file is filtered once more before it is stored, for instances still running an older jfr-profiling.
+ */
+public class ProfilingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfilingService.class);
+    private static final DateTimeFormatter SESSION_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final String SESSION_FILE = "session.json";
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final Set<String> SECRET_EVENTS = Set.of("jdk.InitialSystemProperty", "jdk.InitialEnvironmentVariable",
+            "jdk.JVMInformation", "jdk.SystemProcess");
+
+    private final InstanceRepository instanceRepository;
+    private final InstanceWebClient instanceWebClient;
+    private final ObjectMapper objectMapper;
+    private final ProfilingProperties properties;
+    private final Path storageDir;
+    private final Map<String, ProfilingSession> sessions = new ConcurrentHashMap<>();
+
+    public ProfilingService(InstanceRepository instanceRepository, InstanceWebClient instanceWebClient,
+                            ObjectMapper objectMapper, ProfilingProperties properties) {
+        this.instanceRepository = instanceRepository;
+        this.instanceWebClient = instanceWebClient;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.storageDir = Path.of(properties.getStorageDir());
+        loadSessions();
+    }
+
+    public ProfilingSession start(String application, String settings, Duration duration) {
+        if (!SETTINGS.contains(settings)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "settings must be default or profile");
+        }
+        List<Instance> instances = instanceRepository.findByName(application)
+                .filter(instance -> instance.isRegistered() && instance.getStatusInfo().isUp()
+                        && instance.getEndpoints().isPresent("jfr"))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        if (instances == null || instances.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "No running instance of " + application + " exposes /actuator/jfr");
+        }
+        Instant startAt = Instant.now().plus(properties.getStartLead());
+        // The random suffix keeps two sessions started within the same second apart
+        String id = application + "-" + SESSION_TIME.format(startAt) + "-" + HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextInt());
+        Map<String, Object> request = Map.of("settings", settings, "duration", duration.toString(),
+                "startAt", startAt.toEpochMilli(), "label", id);
+
+        List<ProfilingSession.InstanceRecording> recordings = Flux.fromIterable(instances)
+                .flatMap(instance -> startRecording(instance, request))
+                .collectList()
+                .block(Duration.ofSeconds(30));
+        // Instances cut requests above their own maximum, the session lasts as long as the longest recording really runs
+        long durationSeconds = recordings.stream()
+                .filter(recording -> recording.recordingId() != null)
+                .mapToLong(ProfilingSession.InstanceRecording::durationSeconds)
+                .max()
+                .orElse(duration.toSeconds());
+        ProfilingSession session = new ProfilingSession(id, application, settings, durationSeconds, startAt,
+                ProfilingSession.State.RECORDING, recordings, null, null);
+        save(session);
+        Thread.ofVirtual().name("profiling-" + id).start(() -> complete(session));
+        log.info("Profiling session {} started on {} instances of {}", id, instances.size(), application);
+        return session;
+    }
+
+    public List<ProfilingSession> sessions() {
+        return sessions.values().stream()
+                .sorted(Comparator.comparing(ProfilingSession::startAt).reversed())
+                .toList();
+    }
+
+    public Optional<ProfilingSession> session(String id) {
+        return Optional.ofNullable(sessions.get(id));
+    }
+
+    /**
+     * The downloaded .jfr of one instance, for opening in JDK Mission Control.
+     */
+    public Optional<Path> recordingFile(String sessionId, String instanceId) {
+        return session(sessionId).flatMap(session -> session.instances().stream()
+                        .filter(recording -> recording.instanceId().equals(instanceId) && recording.file() != null)
+                        .findFirst())
+                .map(recording -> storageDir.resolve(sessionId).resolve(recording.file()))
+                .filter(Files::exists);
+    }
+
+    private Mono<ProfilingSession.InstanceRecording> startRecording(Instance instance, Map<String, Object> request) {
+        String instanceId = instance.getId().getValue();
+        String managementUrl = instance.getRegistration().getManagementUrl();
+        return instanceWebClient.instance(instance).post()
+                .uri("jfr")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .map(body -> new ProfilingSession.InstanceRecording(instanceId, managementUrl,
+                        ((Number) body.get("id")).longValue(), ((Number) body.get("durationSeconds")).longValue(), null, null))
+                .onErrorResume(e -> Mono.just(new ProfilingSession.InstanceRecording(instanceId, managementUrl, null, 0, null,
+                        "Start failed: " + e.getMessage())));
+    }
+
+    private void complete(ProfilingSession session) {
+        try {
+            Instant downloadAt = session.startAt().plusSeconds(session.durationSeconds()).plus(properties.getDownloadGrace());
+            Thread.sleep(Math.max(0, Duration.between(Instant.now(), downloadAt).toMillis()));
+
+            ProfilingSession downloading = session.withState(ProfilingSession.State.DOWNLOADING);
+            save(downloading);
+            List<ProfilingSession.InstanceRecording> downloaded = new ArrayList<>();
+            for (ProfilingSession.InstanceRecording recording : session.instances()) {
+                downloaded.add(recording.recordingId() == null ? recording : download(session.id(), recording));
+            }
+            ProfilingSession analyzing = downloading.withInstances(downloaded).withState(ProfilingSession.State.ANALYZING);
+            save(analyzing);
+
+            Path sessionDir = storageDir.resolve(session.id());
+            List<Path> files = downloaded.stream()
+                    .filter(recording -> recording.file() != null)
+                    .map(recording -> sessionDir.resolve(recording.file()))
+                    .toList();
+            if (files.isEmpty()) {
+                save(analyzing.failed("No recording could be downloaded"));
+                return;
+            }
+            save(analyzing.done(JfrAnalyzer.summarize(files, properties.getTopFrames())));
+            log.info("Profiling session {} done, {} recordings analyzed", session.id(), files.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            save(sessions.get(session.id()).failed("Interrupted"));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Profiling session {} failed", session.id(), e);
+            save(sessions.get(session.id()).failed(e.getMessage()));
+        }
+    }
+
+    private ProfilingSession.InstanceRecording download(String sessionId, ProfilingSession.InstanceRecording recording) {
+        String fileName = recording.instanceId() + ".jfr";
+        Path target = storageDir.resolve(sessionId).resolve(fileName);
+        Path downloaded = target.resolveSibling(fileName + ".part");
+        try {
+            Instance instance = instanceRepository.find(InstanceId.of(recording.instanceId())).block(Duration.ofSeconds(10));
+            if (instance == null) {
+                return withError(recording, "Instance is no longer registered");
+            }
+            WebClient client = instanceWebClient.instance(instance);
+            Flux<DataBuffer> body = client.get()
+                    .uri("jfr/{id}", recording.recordingId())
+                    .accept(MediaType.APPLICATION_OCTET_STREAM)
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class);
+            DataBufferUtils.write(body, downloaded).block(); // Streamed to disk, recordings can be large
+            try (RecordingFile file = new RecordingFile(downloaded)) {
+                file.write(target, event -> !SECRET_EVENTS.contains(event.getEventType().getName()));
+            }
+            client.delete().uri("jfr/{id}", recording.recordingId()).retrieve().toBodilessEntity()
+                    .onErrorResume(e -> Mono.empty())
+                    .block(Duration.ofSeconds(10)); // Best effort: the instance also caps how many it keeps
+            return new ProfilingSession.InstanceRecording(recording.instanceId(), recording.managementUrl(),
+                    recording.recordingId(), recording.durationSeconds(), fileName, null);
+        } catch (IOException | RuntimeException e) {
+            return withError(recording, "Download failed: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(downloaded);
+            } catch (IOException e) {
+                log.warn("Could not delete {}", downloaded, e);
+            }
+        }
+    }
+
+    private static ProfilingSession.InstanceRecording withError(ProfilingSession.InstanceRecording recording, String error) {
+        return new ProfilingSession.InstanceRecording(recording.instanceId(), recording.managementUrl(),
+                recording.recordingId(), recording.durationSeconds(), null, error);
+    }
+
+    private void save(ProfilingSession session) {
+        sessions.put(session.id(), session);
+        Path sessionDir = storageDir.resolve(session.id());
+        try {
+            Files.createDirectories(sessionDir);
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(sessionDir.resolve(SESSION_FILE).toFile(), session);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write profiling session " + session.id(), e);
+        }
+    }
+
+    private void loadSessions() {
+        if (!Files.isDirectory(storageDir)) {
+            return;
+        }
+        try (Stream<Path> dirs = Files.list(storageDir)) {
+            dirs.map(dir -> dir.resolve(SESSION_FILE)).filter(Files::exists).forEach(file -> {
+                try {
+                    ProfilingSession session = objectMapper.readValue(file.toFile(), ProfilingSession.class);
+                    if (session.state() != ProfilingSession.State.DONE && session.state() != ProfilingSession.State.FAILED) {
+                        session = session.failed("admin_server restarted while the session was running");
+                    }
+                    sessions.put(session.id(), session);
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable profiling session {}", file, e);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Could not read the profiling sessions in {}", storageDir.toAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.rakesh.admin_server.profiling;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One synchronized profiling run over all instances of an application. Immutable: every state change
+ * produces a new copy, which {@link ProfilingService} stores and writes to session.json next to the recordings.
+ */
+public record ProfilingSession(
+        String id,
+        String application,
+        String settings,
+        long durationSeconds,
+        Instant startAt,
+        State state,
+        List<InstanceRecording> instances,
+        JfrSummary summary,
+        String error) {
+
+    public enum State { RECORDING, DOWNLOADING, ANALYZING, DONE, FAILED }
+
+    /**
+     * The recording of one instance; durationSeconds is what the instance actually records (it caps long requests),
+     * file is relative to the session directory, error is set when that instance failed.
+     */
+    public record InstanceRecording(String instanceId, String managementUrl, Long recordingId, long durationSeconds,
+                                    String file, String error) {
+    }
+
+    ProfilingSession withState(State newState) {
+        return new ProfilingSession(id, application, settings, durationSeconds, startAt, newState, instances, summary, error);
+    }
+
+    ProfilingSession withInstances(List<InstanceRecording> newInstances) {
+        return new ProfilingSession(id, application, settings, durationSeconds, startAt, state, newInstances, summary, error);
+    }
+
+    ProfilingSession done(JfrSummary newSummary) {
+        return new ProfilingSession(id, application, settings, durationSeconds, startAt, State.DONE, instances, newSummary, error);
+    }
+
+    ProfilingSession failed(String message) {
+        return new ProfilingSession(id, application, settings, durationSeconds, startAt, State.FAILED, instances, summary, message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.rakesh.admin_server.timeseries;
+
+/**
+ * How the points of one downsampling bucket are combined into a single point of a coarser tier.
+ */
+public enum Aggregation {
+    MEAN, // Rates, pool usage, heap
+    MAX   // Latency percentiles and maxima: a 1h point shows the worst p99 in that hour, not a flattened average
+}
@@ -0,0 +1,81 @@
+package com.rakesh.admin_server.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Growable bit string, written from the most significant bit of each long. Backs {@link GorillaChunk}.
+ */
+final class BitBuffer {
+
+    private long[] words;
+    private int size; // Bits written so far
+
+    BitBuffer(int initialWords) {
+        this.words = new long[Math.max(1, initialWords)];
+    }
+
+    void write(long value, int bits) {
+        if (bits == 0) {
+            return;
+        }
+        if (size + bits > words.length * 64L) {
+            words = Arrays.copyOf(words, Math.max(words.length * 2, (size + bits + 63) / 64));
+        }
+        long masked = bits == 64 ? value : value & ((1L << bits) - 1);
+        int index = size >>> 6;
+        int free = 64 - (size & 63);
+        if (bits <= free) {
+            words[index] |= masked << (free - bits);
+        } else {
+            int rest = bits - free; // Spills into the next word
+            words[index] |= masked >>> rest;
+            words[index + 1] |= masked << (64 - rest);
+        }
+        size += bits;
+    }
+
+    void writeBit(boolean bit) {
+        write(bit ? 1 : 0, 1);
+    }
+
+    /**
+     * Drops the unused capacity once nothing more will be written.
+     */
+    void trim() {
+        words = Arrays.copyOf(words, Math.max(1, (size + 63) / 64));
+    }
+
+    long sizeInBytes() {
+        return words.length * 8L;
+    }
+
+    Reader reader() {
+        return new Reader();
+    }
+
+    final class Reader {
+
+        private int position;
+
+        long read(int bits) {
+            if (bits == 0) {
+                return 0;
+            }
+            int index = position >>> 6;
+            int available = 64 - (position & 63);
+            long result;
+            if (bits <= available) {
+                result = words[index] >>> (available - bits);
+            } else {
+                int rest = bits - available;
+                result = (words[index] << rest) | (words[index + 1] >>> (64 - rest));
+            }
+            position += bits;
+            return bits == 64 ? result : result & ((1L << bits) - 1);
+        }
+
+        boolean readBit() {
+            return read(1) == 1;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.rakesh.admin_server.timeseries;
+
+/**
+ * A block of up to {@code capacity} points compressed as in Facebook's Gorilla paper:
+ * <ul>
+ *     <li>timestamps (epoch seconds) as delta-of-delta: points arrive at a fixed interval, so nearly every
+ *     timestamp costs a single '0' bit,</li>
+ *     <li>values as the XOR with the previous value: '0' when unchanged, otherwise only the meaningful bits between
+ *     the leading and trailing zeros, reusing the previous window when the new bits fit in it.</li>
+ * </ul>
+ * Values are kept to two decimals and encoded as whole hundredths: an integer-valued double has a short mantissa,
+ * which leaves the XOR with far fewer meaningful bits than a decimal fraction would (about half the size for
+ * noisy latencies). Points must be appended in time order; the block is only ever read from the start.
+ */
+final class GorillaChunk {
+
+    private static final double SCALE = 100; // Two decimals: ms latencies, requests/s, pool usage ratios
+
+    private final BitBuffer bits = new BitBuffer(16);
+    private final int capacity;
+    private int count;
+    private long firstTimestamp;
+    private long lastTimestamp;
+
+    // Encoder state
+    private long lastDelta;
+    private long lastValueBits;
+    private int lastLeading = -1; // -1: no XOR window yet
+    private int lastTrailing;
+
+    GorillaChunk(int capacity) {
+        this.capacity = capacity;
+    }
+
+    boolean isFull() {
+        return count >= capacity;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long firstTimestamp() {
+        return firstTimestamp;
+    }
+
+    long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    long sizeInBytes() {
+        return bits.sizeInBytes();
+    }
+
+    void append(long timestamp, double value) {
+        long valueBits = Double.doubleToRawLongBits(Math.rint(value * SCALE));
+        if (count == 0) {
+            firstTimestamp = timestamp;
+            bits.write(timestamp, 64);
+            bits.write(valueBits, 64);
+        } else {
+            long delta = timestamp - lastTimestamp;
+            writeDeltaOfDelta(delta - lastDelta);
+            lastDelta = delta;
+            writeValue(valueBits ^ lastValueBits);
+        }
+        lastTimestamp = timestamp;
+        lastValueBits = valueBits;
+        count++;
+        if (count == capacity) {
+            bits.trim(); // Sealed, give back the spare capacity
+        }
+    }
+
+    /**
+     * Decodes the points with from <= timestamp <= to, oldest first.
+     */
+    void forEach(long from, long to, PointConsumer consumer) {
+        if (count == 0 || lastTimestamp < from || firstTimestamp > to) {
+            return;
+        }
+        BitBuffer.Reader reader = bits.reader();
+        long timestamp = reader.read(64);
+        long valueBits = reader.read(64);
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                delta += readDeltaOfDelta(reader);
+                timestamp += delta;
+                if (reader.readBit()) { // Value changed
+                    if (reader.readBit()) { // New XOR window
+                        leading = (int) reader.read(5);
+                        int length = (int) reader.read(6);
+                        trailing = 64 - leading - (length == 0 ? 64 : length);
+                    }
+                    valueBits ^= reader.read(64 - leading - trailing) << trailing;
+                }
+            }
+            if (timestamp > to) {
+                return;
+            }
+            if (timestamp >= from) {
+                consumer.accept(timestamp, Double.longBitsToDouble(valueBits) / SCALE);
+            }
+        }
+    }
+
+    private void writeDeltaOfDelta(long dod) {
+        if (dod == 0) {
+            bits.writeBit(false);
+        } else if (dod >= -64 && dod <= 63) {
+            bits.write(0b10, 2);
+            bits.write(dod, 7);
+        } else if (dod >= -256 && dod <= 255) {
+            bits.write(0b110, 3);
+            bits.write(dod, 9);
+        } else if (dod >= -2048 && dod <= 2047) {
+            bits.write(0b1110, 4);
+            bits.write(dod, 12);
+        } else {
+            bits.write(0b1111, 4);
+            bits.write(dod, 64); // Gaps (instance down, admin_server restarted) are rare enough to take the full width
+        }
+    }
+
+    private static long readDeltaOfDelta(BitBuffer.Reader reader) {
+        if (!reader.readBit()) {
+            return 0;
+        }
+        if (!reader.readBit()) {
+            return signExtend(reader.read(7), 7);
+        }
+        if (!reader.readBit()) {
+            return signExtend(reader.read(9), 9);
+        }
+        if (!reader.readBit()) {
+            return signExtend(reader.read(12), 12);
+        }
+        return reader.read(64);
+    }
+
+    private void writeValue(long xor) {
+        if (xor == 0) {
+            bits.writeBit(false);
+            return;
+        }
+        bits.writeBit(true);
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31); // Stored in 5 bits
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (lastLeading >= 0 && leading >= lastLeading && trailing >= lastTrailing) {
+            bits.writeBit(false); // Fits in the previous window
+            bits.write(xor >>> lastTrailing, 64 - lastLeading - lastTrailing);
+            return;
+        }
+        int length = 64 - leading - trailing;
+        bits.writeBit(true);
+        bits.write(leading, 5);
+        bits.write(length == 64 ? 0 : length, 6); // 64 does not fit in 6 bits, 0 never occurs otherwise
+        bits.write(xor >>> trailing, length);
+        lastLeading = leading;
+        lastTrailing = trailing;
+    }
+
+    /**
+     * The value as it will read back once stored.
+     */
+    static double round(double value) {
+        return Math.rint(value * SCALE) / SCALE;
+    }
+
+    private static long signExtend(long value, int bits) {
+        return (value << (64 - bits)) >> (64 - bits);
+    }
+}
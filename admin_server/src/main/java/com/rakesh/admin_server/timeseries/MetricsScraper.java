@@ -0,0 +1,211 @@
+package com.rakesh.admin_server.timeseries;
+
+import de.codecentric.boot.admin.server.domain.entities.Instance;
+import de.codecentric.boot.admin.server.domain.entities.InstanceRepository;
+import de.codecentric.boot.admin.server.web.client.InstanceWebClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads /actuator/metrics of every running instance and records into the {@link TimeSeriesStore}:
+ * <ul>
+ *     <li>http.requests.rate (requests/s), http.latency.mean and http.latency.max (ms),</li>
+ *     <li>http.latency.p50/p95/p99 (ms), interpolated from the http.server.requests SLO buckets the services
+ *     publish (management.metrics.distribution.slo); bucket counts add up over uris and statuses where
+ *     percentile gauges would not,</li>
+ *     <li>hikari.active, hikari.pending and hikari.usage (active / max) over all pools of the instance,</li>
+ *     <li>gc.pause.rate (ms paused per second), gc.pause.max (ms) and jvm.heap.used (MB).</li>
+ * </ul>
+ * Counters are turned into rates against the previous scrape; a metric an instance does not have (no datasource,
+ * no buckets configured) is simply skipped.
+ */
+public class MetricsScraper {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsScraper.class);
+
+    record MetricResponse(String name, List<Measurement> measurements, List<AvailableTag> availableTags) {
+
+        double value(String statistic) {
+            return measurements.stream()
+                    .filter(measurement -> measurement.statistic().equals(statistic))
+                    .mapToDouble(Measurement::value)
+                    .findFirst()
+                    .orElse(Double.NaN);
+        }
+
+        List<String> tagValues(String tag) {
+            return availableTags.stream()
+                    .filter(availableTag -> availableTag.tag().equals(tag))
+                    .flatMap(availableTag -> availableTag.values().stream())
+                    .toList();
+        }
+    }
+
+    record Measurement(String statistic, double value) {
+    }
+
+    record AvailableTag(String tag, List<String> values) {
+    }
+
+    private record Sample(long epochSecond, double value) {
+    }
+
+    private record Delta(double value, long seconds) {
+    }
+
+    private final InstanceRepository instanceRepository;
+    private final InstanceWebClient instanceWebClient;
+    private final TimeSeriesStore store;
+    private final TimeSeriesProperties properties;
+    private final Map<String, Map<String, Sample>> counters = new ConcurrentHashMap<>(); // Per instance id: last cumulative values
+
+    public MetricsScraper(InstanceRepository instanceRepository, InstanceWebClient instanceWebClient,
+                          TimeSeriesStore store, TimeSeriesProperties properties) {
+        this.instanceRepository = instanceRepository;
+        this.instanceWebClient = instanceWebClient;
+        this.store = store;
+        this.properties = properties;
+    }
+
+    public void scrape() {
+        long now = Instant.now().getEpochSecond();
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        try {
+            instanceRepository.findAll()
+                    .filter(instance -> instance.isRegistered() && instance.getStatusInfo().isUp()
+                            && instance.getEndpoints().isPresent("metrics"))
+                    .doOnNext(instance -> seen.add(instance.getId().getValue()))
+                    .flatMap(instance -> scrape(instance, now), properties.getConcurrency())
+                    .then()
+                    .block(properties.getScrapeInterval().multipliedBy(2));
+        } catch (RuntimeException e) {
+            log.warn("Metrics scrape did not finish: {}", e.getMessage());
+        }
+        counters.keySet().retainAll(seen); // Instances gone: a restarted one starts counting from zero again
+
+        long longestRetention = properties.getTiers().stream()
+                .mapToLong(tier -> tier.getRetention().toSeconds())
+                .max()
+                .orElse(0);
+        store.evictIdle(now - longestRetention);
+    }
+
+    private Mono<Void> scrape(Instance instance, long now) {
+        WebClient client = instanceWebClient.instance(instance);
+        return Mono.when(
+                metric(client, "http.server.requests", null).doOnNext(response -> recordRequests(instance, now, response)),
+                latencyBuckets(client).doOnNext(buckets -> recordLatencyQuantiles(instance, now, buckets)),
+                metric(client, "hikaricp.connections.active", null)
+                        .zipWith(metric(client, "hikaricp.connections.max", null))
+                        .doOnNext(pool -> recordPool(instance, now, pool.getT1().value("VALUE"), pool.getT2().value("VALUE"))),
+                metric(client, "hikaricp.connections.pending", null)
+                        .doOnNext(response -> record(instance, "hikari.pending", Aggregation.MAX, now, response.value("VALUE"))),
+                metric(client, "jvm.gc.pause", null).doOnNext(response -> recordGc(instance, now, response)),
+                metric(client, "jvm.memory.used", "area:heap")
+                        .doOnNext(response -> record(instance, "jvm.heap.used", Aggregation.MEAN, now, response.value("VALUE") / (1024 * 1024))));
+    }
+
+    private Mono<MetricResponse> metric(WebClient client, String name, String tag) {
+        WebClient.RequestHeadersSpec<?> request = tag == null
+                ? client.get().uri("metrics/{name}", name)
+                : client.get().uri("metrics/{name}?tag={tag}", name, tag);
+        return request.retrieve()
+                .bodyToMono(MetricResponse.class)
+                .onErrorResume(e -> {
+                    log.debug("No {} from {}: {}", name, client, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    // Upper bound in seconds -> requests at or below it within the histogram's rolling window
+    private Mono<NavigableMap<Double, Double>> latencyBuckets(WebClient client) {
+        return metric(client, "http.server.requests.histogram", null)
+                .flatMapMany(response -> Flux.fromIterable(response.tagValues("le")))
+                .flatMap(le -> metric(client, "http.server.requests.histogram", "le:" + le)
+                        .map(response -> Map.entry(Double.parseDouble(le), response.value("VALUE"))))
+                .collect(TreeMap::new, (buckets, bucket) -> buckets.put(bucket.getKey(), bucket.getValue()));
+    }
+
+    private void recordRequests(Instance instance, long now, MetricResponse response) {
+        Delta count = delta(instance, "http.count", now, response.value("COUNT"));
+        Delta totalTime = delta(instance, "http.time", now, response.value("TOTAL_TIME"));
+        if (count != null) {
+            record(instance, "http.requests.rate", Aggregation.MEAN, now, count.value() / count.seconds());
+            if (totalTime != null && count.value() > 0) {
+                record(instance, "http.latency.mean", Aggregation.MEAN, now, totalTime.value() / count.value() * 1000);
+            }
+        }
+        record(instance, "http.latency.max", Aggregation.MAX, now, response.value("MAX") * 1000);
+    }
+
+    private void recordLatencyQuantiles(Instance instance, long now, NavigableMap<Double, Double> buckets) {
+        if (buckets.isEmpty() || buckets.lastEntry().getValue() == 0) {
+            return; // No buckets configured, or no requests in the window
+        }
+        for (double quantile : properties.getLatencyQuantiles()) {
+            String name = "http.latency.p" + BigDecimal.valueOf(quantile * 100).stripTrailingZeros().toPlainString();
+            record(instance, name, Aggregation.MAX, now, quantile(buckets, quantile) * 1000);
+        }
+    }
+
+    /**
+     * Linear interpolation inside the bucket the rank falls into, as Prometheus' histogram_quantile does.
+     * The largest bucket is taken as the total, so it should be a catch-all (60s in the services).
+     */
+    static double quantile(NavigableMap<Double, Double> buckets, double quantile) {
+        double rank = quantile * buckets.lastEntry().getValue();
+        double lowerBound = 0;
+        double lowerCount = 0;
+        for (Map.Entry<Double, Double> bucket : buckets.entrySet()) {
+            if (bucket.getValue() >= rank) {
+                double inBucket = bucket.getValue() - lowerCount;
+                return inBucket == 0 ? bucket.getKey()
+                        : lowerBound + (bucket.getKey() - lowerBound) * (rank - lowerCount) / inBucket;
+            }
+            lowerBound = bucket.getKey();
+            lowerCount = bucket.getValue();
+        }
+        return buckets.lastKey();
+    }
+
+    private void recordPool(Instance instance, long now, double active, double max) {
+        record(instance, "hikari.active", Aggregation.MEAN, now, active);
+        if (max > 0) {
+            record(instance, "hikari.usage", Aggregation.MAX, now, active / max);
+        }
+    }
+
+    private void recordGc(Instance instance, long now, MetricResponse response) {
+        Delta pauseTime = delta(instance, "gc.time", now, response.value("TOTAL_TIME"));
+        if (pauseTime != null) {
+            record(instance, "gc.pause.rate", Aggregation.MEAN, now, pauseTime.value() * 1000 / pauseTime.seconds());
+        }
+        record(instance, "gc.pause.max", Aggregation.MAX, now, response.value("MAX") * 1000);
+    }
+
+    // Change of a cumulative value since the previous scrape; null on the first scrape or after a restart (counter went down)
+    private Delta delta(Instance instance, String counter, long now, double value) {
+        Sample previous = counters.computeIfAbsent(instance.getId().getValue(), id -> new ConcurrentHashMap<>())
+                .put(counter, new Sample(now, value));
+        if (previous == null || now <= previous.epochSecond() || value < previous.value()) {
+            return null;
+        }
+        return new Delta(value - previous.value(), now - previous.epochSecond());
+    }
+
+    private void record(Instance instance, String metric, Aggregation aggregation, long now, double value) {
+        store.record(instance.getRegistration().getName(), instance.getId().getValue(), metric, aggregation, now, value);
+    }
+}
@@ -0,0 +1,7 @@
+package com.rakesh.admin_server.timeseries;
+
+@FunctionalInterface
+interface PointConsumer {
+
+    void accept(long epochSecond, double value);
+}
@@ -0,0 +1,106 @@
+package com.rakesh.admin_server.timeseries;
+
+/**
+ * One resolution of a series: a fixed ring of {@link GorillaChunk}s. Incoming points are aggregated per bucket of
+ * {@code resolution}; a bucket is written when the first point of the next one arrives. When the ring is full the
+ * oldest chunk is overwritten, so memory per series is bounded by the retention.
+ */
+final class SeriesTier {
+
+    private final long resolution; // Seconds
+    private final long retention; // Seconds
+    private final Aggregation aggregation;
+    private final int pointsPerChunk;
+    private final GorillaChunk[] ring;
+    private int head = -1; // Chunk currently written
+
+    // Bucket being aggregated
+    private long bucket = Long.MIN_VALUE;
+    private double sum;
+    private double max;
+    private int samples;
+
+    SeriesTier(long resolution, long retention, Aggregation aggregation, int pointsPerChunk) {
+        this.resolution = resolution;
+        this.retention = retention;
+        this.aggregation = aggregation;
+        this.pointsPerChunk = pointsPerChunk;
+        // One extra chunk so the full retention is still there while the newest chunk fills up
+        this.ring = new GorillaChunk[(int) Math.ceilDiv(retention, resolution * pointsPerChunk) + 1];
+    }
+
+    long resolution() {
+        return resolution;
+    }
+
+    long retention() {
+        return retention;
+    }
+
+    void add(long timestamp, double value) {
+        long start = timestamp - Math.floorMod(timestamp, resolution);
+        if (start < bucket) {
+            return; // Out of order, the bucket has been written already
+        }
+        if (start != bucket) {
+            flush();
+            bucket = start;
+            sum = 0;
+            max = Double.NEGATIVE_INFINITY;
+            samples = 0;
+        }
+        sum += value;
+        max = Math.max(max, value);
+        samples++;
+    }
+
+    void read(long from, long to, PointConsumer consumer) {
+        for (int i = 1; i <= ring.length; i++) { // Oldest chunk first: the one after head
+            GorillaChunk chunk = ring[(head + i) % ring.length];
+            if (chunk != null) {
+                chunk.forEach(from, to, consumer);
+            }
+        }
+        if (samples > 0 && bucket >= from && bucket <= to) {
+            consumer.accept(bucket, GorillaChunk.round(current())); // Not written yet, but the newest point is what a dashboard wants most
+        }
+    }
+
+    long lastTimestamp() {
+        if (samples > 0) {
+            return bucket;
+        }
+        return head < 0 ? Long.MIN_VALUE : ring[head].lastTimestamp();
+    }
+
+    long points() {
+        long points = samples > 0 ? 1 : 0;
+        for (GorillaChunk chunk : ring) {
+            points += chunk == null ? 0 : chunk.count();
+        }
+        return points;
+    }
+
+    long sizeInBytes() {
+        long bytes = 0;
+        for (GorillaChunk chunk : ring) {
+            bytes += chunk == null ? 0 : chunk.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private void flush() {
+        if (samples == 0) {
+            return;
+        }
+        if (head < 0 || ring[head].isFull()) {
+            head = (head + 1) % ring.length;
+            ring[head] = new GorillaChunk(pointsPerChunk); // Replaces the oldest chunk once the ring has gone round
+        }
+        ring[head].append(bucket, current());
+    }
+
+    private double current() {
+        return aggregation == Aggregation.MAX ? max : sum / samples;
+    }
+}
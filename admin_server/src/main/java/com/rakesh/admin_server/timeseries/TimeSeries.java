@@ -0,0 +1,61 @@
+package com.rakesh.admin_server.timeseries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The history of one metric of one instance, kept at every tier at once: each point goes to all tiers, which
+ * downsample it to their own resolution.
+ */
+final class TimeSeries {
+
+    private final SeriesTier[] tiers;
+
+    TimeSeries(List<TimeSeriesProperties.Tier> tierSettings, Aggregation aggregation, int pointsPerChunk) {
+        this.tiers = tierSettings.stream()
+                .map(tier -> new SeriesTier(tier.getResolution().toSeconds(), tier.getRetention().toSeconds(), aggregation, pointsPerChunk))
+                .toArray(SeriesTier[]::new);
+    }
+
+    synchronized void add(long epochSecond, double value) {
+        for (SeriesTier tier : tiers) {
+            tier.add(epochSecond, value);
+        }
+    }
+
+    /**
+     * Reads from the finest tier whose retention still reaches back to from.
+     */
+    synchronized TimeSeriesStore.SeriesData read(String instanceId, long from, long to, long now) {
+        SeriesTier tier = tiers[tiers.length - 1];
+        for (SeriesTier candidate : tiers) {
+            if (now - candidate.retention() <= from) {
+                tier = candidate;
+                break;
+            }
+        }
+        List<TimeSeriesStore.Point> points = new ArrayList<>();
+        tier.read(from, to, (timestamp, value) -> points.add(new TimeSeriesStore.Point(timestamp, value)));
+        return new TimeSeriesStore.SeriesData(instanceId, tier.resolution(), points);
+    }
+
+    synchronized long lastTimestamp() {
+        return tiers[0].lastTimestamp();
+    }
+
+    synchronized long points() {
+        long points = 0;
+        for (SeriesTier tier : tiers) {
+            points += tier.points();
+        }
+        return points;
+    }
+
+    synchronized long sizeInBytes() {
+        long bytes = 0;
+        for (SeriesTier tier : tiers) {
+            bytes += tier.sizeInBytes();
+        }
+        return bytes;
+    }
+}
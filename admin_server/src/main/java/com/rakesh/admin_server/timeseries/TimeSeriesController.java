@@ -0,0 +1,52 @@
+package com.rakesh.admin_server.timeseries;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Metrics history of the fleet.
+ *
+ * Example: compare p99 before and after a deploy with
+ * `GET /timeseries/product-service/http.latency.p99?from=2024-05-01T10:00:00Z&to=2024-05-01T14:00:00Z`
+ * (or `?last=PT6H`). Each instance comes back as its own series, at the finest resolution that still covers from.
+ */
+@RestController
+@RequestMapping("/timeseries")
+@ConditionalOnProperty(prefix = "admin.timeseries", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TimeSeriesController {
+
+    private final TimeSeriesStore store;
+
+    public TimeSeriesController(TimeSeriesStore store) {
+        this.store = store;
+    }
+
+    public record Overview(TimeSeriesStore.Stats storage, Map<String, Set<String>> metrics) {
+    }
+
+    @GetMapping
+    public Overview overview() {
+        return new Overview(store.stats(), store.metrics());
+    }
+
+    @GetMapping("/{application}/{metric}")
+    public List<TimeSeriesStore.SeriesData> query(@PathVariable String application, @PathVariable String metric,
+                                                  @RequestParam(required = false) Instant from,
+                                                  @RequestParam(required = false) Instant to,
+                                                  @RequestParam(defaultValue = "PT1H") Duration last,
+                                                  @RequestParam(required = false) String instance) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(last);
+        return store.query(application, metric, instance, start, end);
+    }
+}
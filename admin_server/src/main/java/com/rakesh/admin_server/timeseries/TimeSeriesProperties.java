@@ -0,0 +1,48 @@
+package com.rakesh.admin_server.timeseries;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the metrics history kept by admin_server, bound from {@code admin.timeseries.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "admin.timeseries")
+public class TimeSeriesProperties {
+
+    private boolean enabled = true; // Scrape the instances and keep the history
+
+    private Duration scrapeInterval = Duration.ofSeconds(15); // Also the resolution of the first tier
+
+    private int concurrency = 8; // Instances scraped in parallel
+
+    private int pointsPerChunk = 240; // Points per compressed block; a ring slot is freed one whole block at a time
+
+    private List<Double> latencyQuantiles = new ArrayList<>(List.of(0.5, 0.95, 0.99));
+
+    // Downsampling tiers, finest first. A query uses the finest tier that still covers its start.
+    private List<Tier> tiers = new ArrayList<>(List.of(
+            new Tier(Duration.ofSeconds(15), Duration.ofDays(2)),
+            new Tier(Duration.ofMinutes(5), Duration.ofDays(30)),
+            new Tier(Duration.ofHours(1), Duration.ofDays(365))));
+
+    @Data
+    public static class Tier {
+
+        private Duration resolution;
+
+        private Duration retention;
+
+        public Tier() {
+        }
+
+        public Tier(Duration resolution, Duration retention) {
+            this.resolution = resolution;
+            this.retention = retention;
+        }
+    }
+}
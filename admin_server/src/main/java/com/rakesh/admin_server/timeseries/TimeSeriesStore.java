@@ -0,0 +1,88 @@
+package com.rakesh.admin_server.timeseries;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process time-series store for the metrics scraped from the instances, one series per
+ * (application, instance, metric). Points are Gorilla-compressed ({@link GorillaChunk}) in fixed rings per
+ * downsampling tier ({@link SeriesTier}), so memory is bounded by the configured retentions and stays small:
+ * a point scraped at a fixed interval with a slowly changing value costs a few bits.
+ */
+public class TimeSeriesStore {
+
+    public record Point(long t, double v) {
+    }
+
+    public record SeriesData(String instanceId, long resolutionSeconds, List<Point> points) {
+    }
+
+    public record Stats(int series, long points, long bytes, double bytesPerPoint) {
+    }
+
+    private record SeriesKey(String application, String instanceId, String metric) {
+    }
+
+    private final Map<SeriesKey, TimeSeries> series = new ConcurrentHashMap<>();
+    private final TimeSeriesProperties properties;
+
+    public TimeSeriesStore(TimeSeriesProperties properties) {
+        this.properties = properties;
+    }
+
+    public void record(String application, String instanceId, String metric, Aggregation aggregation,
+                       long epochSecond, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        series.computeIfAbsent(new SeriesKey(application, instanceId, metric),
+                        key -> new TimeSeries(properties.getTiers(), aggregation, properties.getPointsPerChunk()))
+                .add(epochSecond, value);
+    }
+
+    /**
+     * The points of a metric between from and to, one entry per instance (or only instanceId when given).
+     */
+    public List<SeriesData> query(String application, String metric, String instanceId, Instant from, Instant to) {
+        long now = Instant.now().getEpochSecond();
+        return series.entrySet().stream()
+                .filter(entry -> entry.getKey().application().equals(application) && entry.getKey().metric().equals(metric))
+                .filter(entry -> instanceId == null || entry.getKey().instanceId().equals(instanceId))
+                .map(entry -> entry.getValue().read(entry.getKey().instanceId(), from.getEpochSecond(), to.getEpochSecond(), now))
+                .sorted(Comparator.comparing(SeriesData::instanceId))
+                .toList();
+    }
+
+    /**
+     * Metric names per application.
+     */
+    public Map<String, Set<String>> metrics() {
+        Map<String, Set<String>> metrics = new TreeMap<>();
+        series.keySet().forEach(key -> metrics.computeIfAbsent(key.application(), application -> new TreeSet<>()).add(key.metric()));
+        return metrics;
+    }
+
+    public Stats stats() {
+        long points = 0;
+        long bytes = 0;
+        for (TimeSeries timeSeries : series.values()) {
+            points += timeSeries.points();
+            bytes += timeSeries.sizeInBytes();
+        }
+        return new Stats(series.size(), points, bytes, points == 0 ? 0 : Math.round(bytes * 100.0 / points) / 100.0);
+    }
+
+    /**
+     * Drops the series of instances that have not reported since before the given time, e.g. instances replaced by
+     * a deploy once their history has aged out of every tier.
+     */
+    public void evictIdle(long olderThanEpochSecond) {
+        series.values().removeIf(timeSeries -> timeSeries.lastTimestamp() < olderThanEpochSecond);
+    }
+}
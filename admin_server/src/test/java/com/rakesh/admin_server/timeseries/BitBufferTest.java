@@ -0,0 +1,73 @@
+package com.rakesh.admin_server.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BitBufferTest {
+
+    @Test
+    void readsBackWhatWasWrittenAcrossWordBoundaries() {
+        Random random = new Random(42);
+        BitBuffer buffer = new BitBuffer(1); // Grows many times over
+        List<long[]> written = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            int bits = 1 + random.nextInt(64);
+            long value = random.nextLong(); // Bits above the width must be ignored
+            buffer.write(value, bits);
+            written.add(new long[]{bits, bits == 64 ? value : value & ((1L << bits) - 1)});
+        }
+
+        BitBuffer.Reader reader = buffer.reader();
+        for (long[] entry : written) {
+            assertThat(reader.read((int) entry[0])).isEqualTo(entry[1]);
+        }
+    }
+
+    @Test
+    void fullWidthValuesStraddlingAWord() {
+        BitBuffer buffer = new BitBuffer(1);
+        buffer.write(0b101, 3);
+        buffer.write(-1L, 64);
+        buffer.write(Long.MIN_VALUE, 64);
+        buffer.write(0, 0); // Writes nothing
+
+        BitBuffer.Reader reader = buffer.reader();
+        assertThat(reader.read(3)).isEqualTo(0b101);
+        assertThat(reader.read(64)).isEqualTo(-1L);
+        assertThat(reader.read(64)).isEqualTo(Long.MIN_VALUE);
+        assertThat(reader.read(0)).isZero();
+    }
+
+    @Test
+    void singleBits() {
+        BitBuffer buffer = new BitBuffer(1);
+        boolean[] bits = new boolean[130];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = i % 3 == 0;
+            buffer.writeBit(bits[i]);
+        }
+
+        BitBuffer.Reader reader = buffer.reader();
+        for (boolean bit : bits) {
+            assertThat(reader.readBit()).isEqualTo(bit);
+        }
+    }
+
+    @Test
+    void trimKeepsTheWrittenBits() {
+        BitBuffer buffer = new BitBuffer(16);
+        buffer.write(0x1234_5678_9ABCL, 48);
+        buffer.write(0x3F, 6);
+        buffer.trim();
+
+        assertThat(buffer.sizeInBytes()).isEqualTo(8);
+        BitBuffer.Reader reader = buffer.reader();
+        assertThat(reader.read(48)).isEqualTo(0x1234_5678_9ABCL);
+        assertThat(reader.read(6)).isEqualTo(0x3F);
+    }
+}
@@ -0,0 +1,120 @@
+package com.rakesh.admin_server.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GorillaChunkTest {
+
+    private static final long START = 1_700_000_000L;
+
+    private record Point(long timestamp, double value) {
+    }
+
+    @Test
+    void regularIntervalRoundTrip() {
+        Random random = new Random(7);
+        GorillaChunk chunk = new GorillaChunk(1000);
+        List<Point> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            double value = 20 + random.nextGaussian() * 5; // Noisy latency in ms
+            chunk.append(START + 10L * i, value);
+            expected.add(new Point(START + 10L * i, GorillaChunk.round(value)));
+        }
+
+        assertThat(read(chunk, Long.MIN_VALUE, Long.MAX_VALUE)).isEqualTo(expected);
+    }
+
+    @Test
+    void specialValuesKeepTheirBits() {
+        double[] values = {Double.NaN, 0.0, -0.0, -0.0, 0.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN,
+                -5e6, 123_456_789.12, Double.MAX_VALUE / 1000, 0.001};
+        GorillaChunk chunk = new GorillaChunk(values.length);
+        for (int i = 0; i < values.length; i++) {
+            chunk.append(START + i, values[i]);
+        }
+
+        List<Point> points = read(chunk, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertThat(points).hasSize(values.length);
+        for (int i = 0; i < values.length; i++) {
+            // Raw bits, so -0.0 is told apart from 0.0 and NaN is compared as a value
+            assertThat(Double.doubleToRawLongBits(points.get(i).value()))
+                    .as("value %d (%s)", i, values[i])
+                    .isEqualTo(Double.doubleToRawLongBits(GorillaChunk.round(values[i])));
+        }
+        assertThat(points.get(11).value()).isZero(); // Below two decimals
+    }
+
+    @Test
+    void repeatedValuesCostOneBitEach() {
+        GorillaChunk chunk = new GorillaChunk(1000);
+        for (int i = 0; i < 1000; i++) {
+            chunk.append(START + 10L * i, 42.5);
+        }
+
+        // 128 bits for the first point, 9 + 1 for the second (its delta is new), then 1 bit each for timestamp and value
+        assertThat(chunk.sizeInBytes()).isEqualTo((128 + 10 + 998 * 2 + 63) / 64 * 8);
+        assertThat(read(chunk, Long.MIN_VALUE, Long.MAX_VALUE)).allSatisfy(point -> assertThat(point.value()).isEqualTo(42.5));
+    }
+
+    @Test
+    void everyDeltaOfDeltaWidthAndLargeGaps() {
+        long[] deltas = {10, 10, 73, 9, 264, 8, 2055, 7, 2056, 6, 86_400 * 30L, 10, 3, 10, 3_000_000_000L, 1};
+        GorillaChunk chunk = new GorillaChunk(deltas.length + 1);
+        List<Point> expected = new ArrayList<>();
+        long timestamp = START;
+        chunk.append(timestamp, 1);
+        expected.add(new Point(timestamp, 1));
+        for (int i = 0; i < deltas.length; i++) {
+            timestamp += deltas[i];
+            chunk.append(timestamp, i);
+            expected.add(new Point(timestamp, i));
+        }
+
+        assertThat(read(chunk, Long.MIN_VALUE, Long.MAX_VALUE)).isEqualTo(expected);
+    }
+
+    @Test
+    void fullChunkIsTrimmedAndStillReadable() {
+        GorillaChunk chunk = new GorillaChunk(3);
+        chunk.append(START, 1.5);
+        chunk.append(START + 10, 2.5);
+        assertThat(chunk.isFull()).isFalse();
+        long growing = chunk.sizeInBytes();
+        chunk.append(START + 20, 3.5);
+
+        assertThat(chunk.isFull()).isTrue();
+        assertThat(chunk.count()).isEqualTo(3);
+        assertThat(chunk.sizeInBytes()).isLessThan(growing);
+        assertThat(chunk.firstTimestamp()).isEqualTo(START);
+        assertThat(chunk.lastTimestamp()).isEqualTo(START + 20);
+        assertThat(read(chunk, Long.MIN_VALUE, Long.MAX_VALUE))
+                .containsExactly(new Point(START, 1.5), new Point(START + 10, 2.5), new Point(START + 20, 3.5));
+    }
+
+    @Test
+    void rangeIsInclusiveAtBothEnds() {
+        GorillaChunk chunk = new GorillaChunk(10);
+        for (int i = 0; i < 10; i++) {
+            chunk.append(START + 10L * i, i);
+        }
+
+        assertThat(read(chunk, START + 10, START + 30))
+                .containsExactly(new Point(START + 10, 1), new Point(START + 20, 2), new Point(START + 30, 3));
+        assertThat(read(chunk, START, START)).containsExactly(new Point(START, 0));
+        assertThat(read(chunk, START + 90, Long.MAX_VALUE)).containsExactly(new Point(START + 90, 9));
+        assertThat(read(chunk, START + 91, Long.MAX_VALUE)).isEmpty();
+        assertThat(read(chunk, Long.MIN_VALUE, START - 1)).isEmpty();
+        assertThat(read(new GorillaChunk(10), Long.MIN_VALUE, Long.MAX_VALUE)).isEmpty();
+    }
+
+    private static List<Point> read(GorillaChunk chunk, long from, long to) {
+        List<Point> points = new ArrayList<>();
+        chunk.forEach(from, to, (timestamp, value) -> points.add(new Point(timestamp, value)));
+        return points;
+    }
+}
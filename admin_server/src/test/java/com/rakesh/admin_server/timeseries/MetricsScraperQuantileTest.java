@@ -0,0 +1,46 @@
+package com.rakesh.admin_server.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MetricsScraperQuantileTest {
+
+    @Test
+    void interpolatesInsideTheBucketTheRankFallsInto() {
+        NavigableMap<Double, Double> buckets = buckets(0.005, 10, 0.01, 20, 0.025, 20, 0.05, 40, 60, 40);
+
+        assertThat(MetricsScraper.quantile(buckets, 0.25)).isCloseTo(0.005, within(1e-12)); // Rank 10, top of the first bucket
+        assertThat(MetricsScraper.quantile(buckets, 0.5)).isCloseTo(0.01, within(1e-12));
+        assertThat(MetricsScraper.quantile(buckets, 0.95)).isCloseTo(0.0475, within(1e-12)); // Rank 38 of 20..40 in 25..50ms
+        assertThat(MetricsScraper.quantile(buckets, 0.1)).isCloseTo(0.002, within(1e-12)); // First bucket starts at 0
+    }
+
+    @Test
+    void emptyBucketsAreSkipped() {
+        NavigableMap<Double, Double> buckets = buckets(0.1, 10, 0.25, 10, 0.5, 20);
+
+        assertThat(MetricsScraper.quantile(buckets, 0.75)).isCloseTo(0.375, within(1e-12));
+        assertThat(MetricsScraper.quantile(buckets, 0)).isZero();
+    }
+
+    @Test
+    void requestsOnlyInTheCatchAllBucket() {
+        NavigableMap<Double, Double> buckets = buckets(0.005, 0, 1, 0, 60, 10);
+
+        assertThat(MetricsScraper.quantile(buckets, 0.5)).isCloseTo(30.5, within(1e-9));
+        assertThat(MetricsScraper.quantile(buckets, 1)).isEqualTo(60);
+    }
+
+    private static NavigableMap<Double, Double> buckets(double... boundsAndCounts) {
+        NavigableMap<Double, Double> buckets = new TreeMap<>();
+        for (int i = 0; i < boundsAndCounts.length; i += 2) {
+            buckets.put(boundsAndCounts[i], boundsAndCounts[i + 1]);
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,194 @@
+package com.rakesh.api_gateway.composite;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Serves one composite route: calls all legs concurrently through the load balancer, each with its own timeout,
+ * and answers with one JSON object holding every leg's body under the leg name, plus
+ * <pre>
+ * "_legs": {"order": {"outcome": "OK", "status": 200, "millis": 23.4}, "payment": {"outcome": "TIMEOUT", ...}},
+ * "_partial": true
+ * </pre>
+ * A failed optional leg is null in the body and marked in _legs; a failed required leg fails the whole request
+ * (its own 4xx, otherwise 502, or 504 on timeout). Leg timings also go out as a Server-Timing header, which browser
+ * dev tools show next to the request, and into the gateway.composite.leg timer.
+ */
+public class CompositeRouteHandler implements HandlerFunction<ServerResponse> {
+
+    public enum Outcome { OK, HTTP_ERROR, TIMEOUT, ERROR, SKIPPED }
+
+    record LegResult(CompositeRouteProperties.Leg leg, Outcome outcome, Integer status, JsonNode body, double millis, String error) {
+    }
+
+    private record Response(int status, byte[] body) {
+    }
+
+    private final CompositeRouteProperties.Route route;
+    private final CompositeRouteProperties properties;
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public CompositeRouteHandler(CompositeRouteProperties.Route route, CompositeRouteProperties properties, WebClient webClient,
+                                 ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.route = route;
+        this.properties = properties;
+        this.webClient = webClient;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ServerResponse> handle(ServerRequest request) {
+        Map<String, String> variables = new HashMap<>(request.queryParams().toSingleValueMap());
+        variables.putAll(request.pathVariables());
+        HttpHeaders forwarded = new HttpHeaders();
+        properties.getForwardHeaders().forEach(name -> {
+            List<String> values = request.headers().header(name);
+            if (!values.isEmpty()) {
+                forwarded.addAll(name, values);
+            }
+        });
+
+        // Flux.merge subscribes to every leg right away, so they run concurrently and the page waits for the slowest only
+        return Flux.merge(route.getLegs().stream().map(leg -> call(leg, variables, forwarded)).toList())
+                .collectMap(result -> result.leg().getName())
+                .flatMap(this::respond);
+    }
+
+    private Mono<LegResult> call(CompositeRouteProperties.Leg leg, Map<String, String> variables, HttpHeaders forwarded) {
+        UriTemplate template = new UriTemplate(leg.getUri());
+        if (!variables.keySet().containsAll(template.getVariableNames())) {
+            return Mono.just(new LegResult(leg, Outcome.SKIPPED, null, null, 0, "Missing " + template.getVariableNames()));
+        }
+        Duration timeout = leg.getTimeout() != null ? leg.getTimeout() : properties.getDefaultTimeout();
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.get()
+                    .uri(downstreamUri(template.expand(variables)))
+                    .headers(headers -> headers.addAll(forwarded))
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                            .defaultIfEmpty(new byte[0])
+                            .map(body -> new Response(response.statusCode().value(), body)))
+                    .timeout(timeout)
+                    .map(response -> new LegResult(leg, response.status() < 400 ? Outcome.OK : Outcome.HTTP_ERROR,
+                            response.status(), parse(response.body()), millisSince(start), null))
+                    .onErrorResume(TimeoutException.class, e -> Mono.just(new LegResult(leg, Outcome.TIMEOUT, null, null,
+                            millisSince(start), "No response within " + timeout)))
+                    .onErrorResume(e -> Mono.just(new LegResult(leg, Outcome.ERROR, null, null, millisSince(start), e.getMessage())))
+                    .doOnNext(this::recordTiming);
+        });
+    }
+
+    // lb://order-service/... -> http://order-service/...: the load-balancer filter resolves the host as a service id
+    // and switches to https itself for secure instances, but keeps any other scheme it does not know
+    private static URI downstreamUri(URI uri) {
+        return "lb".equals(uri.getScheme()) ? UriComponentsBuilder.fromUri(uri).scheme("http").build(true).toUri() : uri;
+    }
+
+    private Mono<ServerResponse> respond(Map<String, LegResult> results) {
+        ObjectNode body = objectMapper.createObjectNode();
+        ObjectNode legs = objectMapper.createObjectNode();
+        HttpStatusCode status = HttpStatus.OK;
+        boolean partial = false;
+        for (CompositeRouteProperties.Leg leg : route.getLegs()) { // Configured order, not completion order
+            LegResult result = results.get(leg.getName());
+            body.set(leg.getName(), result.outcome() == Outcome.OK ? result.body() : NullNode.getInstance());
+            ObjectNode marker = legs.putObject(leg.getName());
+            marker.put("outcome", result.outcome().name());
+            if (result.status() != null) {
+                marker.put("status", result.status());
+            }
+            marker.put("millis", result.millis());
+            if (result.outcome() == Outcome.HTTP_ERROR) {
+                marker.set("error", result.body()); // The service's own error body
+            } else if (result.error() != null) {
+                marker.put("error", result.error());
+            }
+            if (result.outcome() != Outcome.OK) {
+                partial = true;
+                if (leg.isRequired() && status.value() == HttpStatus.OK.value()) {
+                    status = failureStatus(result);
+                }
+            }
+        }
+        body.set("_legs", legs);
+        body.put("_partial", partial);
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Server-Timing", serverTiming(results))
+                .bodyValue(body);
+    }
+
+    private static HttpStatusCode failureStatus(LegResult result) {
+        return switch (result.outcome()) {
+            case HTTP_ERROR -> result.status() < 500 ? HttpStatusCode.valueOf(result.status()) : HttpStatus.BAD_GATEWAY;
+            case TIMEOUT -> HttpStatus.GATEWAY_TIMEOUT;
+            case SKIPPED -> HttpStatus.BAD_REQUEST; // A required variable is missing from the request
+            default -> HttpStatus.BAD_GATEWAY;
+        };
+    }
+
+    // e.g. order;dur=23.4;desc="OK", payment;dur=1000.2;desc="TIMEOUT"
+    private String serverTiming(Map<String, LegResult> results) {
+        return route.getLegs().stream()
+                .map(leg -> results.get(leg.getName()))
+                .map(result -> String.format(Locale.ROOT, "%s;dur=%.1f;desc=\"%s\"", result.leg().getName(), result.millis(), result.outcome()))
+                .collect(Collectors.joining(", "));
+    }
+
+    private JsonNode parse(byte[] body) {
+        if (body.length == 0) {
+            return NullNode.getInstance();
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            return TextNode.valueOf(new String(body, StandardCharsets.UTF_8)); // Not JSON, pass it on as a string
+        }
+    }
+
+    private void recordTiming(LegResult result) {
+        Timer.builder("gateway.composite.leg")
+                .tag("route", route.getId())
+                .tag("leg", result.leg().getName())
+                .tag("outcome", result.outcome().name())
+                .register(meterRegistry)
+                .record((long) (result.millis() * 1_000_000), TimeUnit.NANOSECONDS);
+    }
+
+    private static double millisSince(long start) {
+        return Math.round((System.nanoTime() - start) / 100_000.0) / 10.0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.rakesh.api_gateway.composite;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Composite routes, bound from {@code gateway.composite.*}: one GET on the gateway fans out to several services
+ * at once and answers with the merged JSON (see {@link CompositeRouteHandler}).
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "gateway.composite")
+public class CompositeRouteProperties {
+
+    private boolean enabled = true;
+
+    private Duration defaultTimeout = Duration.ofSeconds(2); // Per leg, when the leg sets none
+
+    private DataSize maxLegBodySize = DataSize.ofMegabytes(1); // A bigger leg response fails that leg
+
+    private List<String> forwardHeaders = new ArrayList<>(List.of("Authorization", "Accept-Language")); // Copied from the incoming request to every leg
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+
+        private String id;
+
+        private String path; // Gateway path, e.g. /api/composite/order-detail/{orderId}
+
+        private List<Leg> legs = new ArrayList<>();
+    }
+
+    @Data
+    public static class Leg {
+
+        private String name; // Key of this leg's body in the merged response
+
+        // Downstream URI template, e.g. lb://order-service/api/orders/{orderId}. Variables come from the path variables
+        // and query parameters of the gateway request; a leg whose variables are not all given is skipped
+        private String uri;
+
+        private Duration timeout;
+
+        private boolean required; // When it fails, the whole composite fails instead of answering with a partial result
+    }
+}
@@ -0,0 +1,54 @@
+package com.rakesh.api_gateway.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rakesh.api_gateway.composite.CompositeRouteHandler;
+import com.rakesh.api_gateway.composite.CompositeRouteProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Composite routes from {@code gateway.composite.routes}. They are WebFlux router functions, which are matched
+ * before the gateway's own routes, so a composite path wins over a /api/** proxy route it overlaps with.
+ */
+@Configuration
+@EnableConfigurationProperties(CompositeRouteProperties.class)
+@ConditionalOnProperty(prefix = "gateway.composite", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CompositeRouteConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> compositeRoutes(CompositeRouteProperties properties, WebClient.Builder webClientBuilder,
+                                                          LoadBalancedExchangeFilterFunction loadBalancer,
+                                                          ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        if (properties.getRoutes().isEmpty()) {
+            return request -> Mono.empty(); // Matches nothing
+        }
+        // Own client instead of a @LoadBalanced builder bean, which would make every WebClient in the gateway resolve hosts as service ids
+        WebClient webClient = webClientBuilder.clone()
+                .filter(loadBalancer)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) properties.getMaxLegBodySize().toBytes()))
+                .build();
+        RouterFunctions.Builder routes = RouterFunctions.route();
+        for (CompositeRouteProperties.Route route : properties.getRoutes()) {
+            Set<String> names = new HashSet<>();
+            route.getLegs().forEach(leg -> {
+                if (!names.add(leg.getName())) {
+                    throw new IllegalStateException("Composite route " + route.getId() + " has two legs named " + leg.getName());
+                }
+            });
+            routes.GET(route.getPath(), new CompositeRouteHandler(route, properties, webClient, objectMapper, meterRegistry));
+        }
+        return routes.build();
+    }
+}
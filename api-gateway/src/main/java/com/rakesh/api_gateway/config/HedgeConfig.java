@@ -0,0 +1,30 @@
+package com.rakesh.api_gateway.config;
+
+import com.rakesh.api_gateway.hedge.HedgeGatewayFilterFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+
+/**
+ * Makes the {@code Hedge} filter available to routes (see {@link HedgeGatewayFilterFactory}); it only acts on routes
+ * that list it.
+ */
+@Configuration
+public class HedgeConfig {
+
+    @Bean
+    public HedgeGatewayFilterFactory hedgeGatewayFilterFactory(ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers,
+                                                               WebClient.Builder webClientBuilder,
+                                                               ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                                               MeterRegistry meterRegistry) {
+        // Hedged responses are buffered by the filter itself, up to each route's max-response-size
+        return new HedgeGatewayFilterFactory(loadBalancers, webClientBuilder.clone().build(), headersFilters, meterRegistry);
+    }
+}
@@ -0,0 +1,31 @@
+package com.rakesh.api_gateway.hedge;
+
+/**
+ * Token bucket that caps hedges to a share of the traffic: every request deposits {@code percent / 100} of a token,
+ * every hedge takes a whole one, and at most {@code burst} tokens are saved up. With 10% no more than about one
+ * request in ten is hedged, however slow the upstream gets, so hedging cannot double the load on a struggling service.
+ */
+final class HedgeBudget {
+
+    private final double depositPerRequest;
+    private final double maxTokens;
+    private double tokens;
+
+    HedgeBudget(double percent, int burst) {
+        this.depositPerRequest = percent / 100;
+        this.maxTokens = burst;
+        this.tokens = burst;
+    }
+
+    synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + depositPerRequest);
+    }
+
+    synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,348 @@
+package com.rakesh.api_gateway.hedge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.Data;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * {@code Hedge} route filter: hedged requests for idempotent (GET/HEAD) lb:// routes.
+ *
+ * The filter sends the request to one instance itself. If that instance has not answered after the route's observed
+ * latency quantile (p95 by default, over the last minute), it sends the same request to a different instance and
+ * returns whichever answers first; the other call is cancelled. Hedges are capped by a {@link HedgeBudget}.
+ *
+ * Because the filter does the upstream call itself, the gateway's NettyRoutingFilter and load balancer filter
+ * leave the exchange alone, and the upstream response is buffered up to the route's max-response-size (fine for API
+ * responses, not for downloads: list those under exclude-paths, they are routed as usual without hedging).
+ * The threshold, budget and meters are kept per route id, so a route refresh that recreates the filter keeps them.
+ * Metrics per route: gateway.hedge.requests, .sent, .wins (the hedge answered first), .skipped (reason budget or
+ * no-alternate), gateway.hedge.delay (current threshold) and gateway.hedge.upstream (attempt latency; a first attempt
+ * cancelled because the hedge won, or one that timed out, counts with the time it took until then).
+ */
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+
+    // After RouteToRequestUrlFilter has resolved the lb:// URL, before ReactiveLoadBalancerClientFilter (10150) would pick an instance
+    public static final int ORDER = RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 100;
+
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Data // Lombok: getters/setters so the route's args can be bound
+    public static class Config implements HasRouteId {
+
+        private double quantile = 0.95; // Hedge when the first attempt is slower than this share of recent attempts
+
+        private Duration initialDelay = Duration.ofMillis(100); // Used until minSamples attempts have been seen
+
+        private int minSamples = 50;
+
+        private Duration minDelay = Duration.ofMillis(5); // Bounds for the adaptive delay
+
+        private Duration maxDelay = Duration.ofSeconds(2);
+
+        private double budgetPercent = 10; // At most this share of the requests gets a hedge
+
+        private int budgetBurst = 10; // Hedges that can be saved up for a burst of slow responses
+
+        private Duration timeout = Duration.ofSeconds(10); // Per attempt
+
+        private DataSize maxResponseSize = DataSize.ofMegabytes(1); // A larger upstream response fails the request with 502
+
+        private List<String> excludePaths = List.of(); // Path patterns routed without hedging, e.g. file downloads
+
+        private String routeId;
+    }
+
+    private record Attempt(boolean hedge, URI url, HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers;
+    private final WebClient webClient;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteState> routes = new ConcurrentHashMap<>(); // Outlives the filters recreated on route refresh
+
+    public HedgeGatewayFilterFactory(ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers, WebClient webClient,
+                                     ObjectProvider<List<HttpHeadersFilter>> headersFilters, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.loadBalancers = loadBalancers;
+        this.webClient = webClient;
+        this.headersFilters = headersFilters;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter(new HedgeFilter(config), ORDER);
+    }
+
+    /**
+     * What a route's filter learns while it runs: its latency, the current threshold and the saved-up hedges.
+     */
+    private final class RouteState {
+
+        private final double budgetPercent;
+        private final int budgetBurst;
+        private final HedgeBudget budget;
+        private final Timer upstreamLatency;
+        private final Counter requests;
+        private final Counter sent;
+        private final Counter wins;
+        private final Counter noBudget;
+        private final Counter noAlternate;
+        private final AtomicLong delayNanos;
+        private volatile long delayComputedAt;
+
+        RouteState(String route, Config config, RouteState previous) {
+            this.budgetPercent = config.getBudgetPercent();
+            this.budgetBurst = config.getBudgetBurst();
+            this.budget = new HedgeBudget(budgetPercent, budgetBurst);
+            this.upstreamLatency = Timer.builder("gateway.hedge.upstream")
+                    .tag("route", route)
+                    .publishPercentiles(config.getQuantile())
+                    .distributionStatisticExpiry(Duration.ofMinutes(1)) // The threshold follows the upstream as it speeds up or slows down
+                    .register(meterRegistry);
+            this.requests = meterRegistry.counter("gateway.hedge.requests", "route", route);
+            this.sent = meterRegistry.counter("gateway.hedge.sent", "route", route);
+            this.wins = meterRegistry.counter("gateway.hedge.wins", "route", route);
+            this.noBudget = meterRegistry.counter("gateway.hedge.skipped", "route", route, "reason", "budget");
+            this.noAlternate = meterRegistry.counter("gateway.hedge.skipped", "route", route, "reason", "no-alternate");
+            if (previous != null) {
+                this.delayNanos = previous.delayNanos; // Also the gauge's holder
+                this.delayComputedAt = previous.delayComputedAt;
+            } else {
+                this.delayNanos = new AtomicLong(config.getInitialDelay().toNanos());
+                Gauge.builder("gateway.hedge.delay", delayNanos, nanos -> nanos.get() / 1e6)
+                        .tag("route", route)
+                        .baseUnit("milliseconds")
+                        .register(meterRegistry);
+                this.delayComputedAt = System.nanoTime();
+            }
+        }
+
+        // A refresh that changed the budget settings starts a new budget, any other keeps the state as it is
+        RouteState refreshedFor(String route, Config config) {
+            if (budgetPercent == config.getBudgetPercent() && budgetBurst == config.getBudgetBurst()) {
+                return this;
+            }
+            return new RouteState(route, config, this);
+        }
+    }
+
+    private final class HedgeFilter implements GatewayFilter {
+
+        private final Config config;
+        private final RouteState state;
+        private final List<PathPattern> excludedPaths;
+        private final int maxResponseBytes;
+
+        HedgeFilter(Config config) {
+            this.config = config;
+            this.maxResponseBytes = (int) Math.min(Integer.MAX_VALUE, config.getMaxResponseSize().toBytes());
+            String route = Objects.requireNonNullElse(config.getRouteId(), "unknown");
+            this.state = routes.compute(route, (id, existing) ->
+                    existing == null ? new RouteState(id, config, null) : existing.refreshedFor(id, config));
+            this.excludedPaths = config.getExcludePaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+            HttpMethod method = exchange.getRequest().getMethod();
+            if (url == null || !"lb".equals(url.getScheme()) || isAlreadyRouted(exchange)
+                    || !(HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method))) {
+                return chain.filter(exchange); // Only idempotent requests may be sent twice
+            }
+            PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+            if (excludedPaths.stream().anyMatch(pattern -> pattern.matches(path))) {
+                return chain.filter(exchange); // Streamed by NettyRoutingFilter instead of buffered here
+            }
+            setAlreadyRouted(exchange); // NettyRoutingFilter skips the exchange, the response is written here
+            state.requests.increment();
+            state.budget.deposit();
+
+            ReactiveLoadBalancer<ServiceInstance> loadBalancer = loadBalancers.getInstance(url.getHost());
+            HttpHeaders headers = new HttpHeaders();
+            headers.addAll(HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(List::of), exchange));
+            headers.remove(HttpHeaders.HOST); // Set by the client for the chosen instance
+            Duration delay = currentDelay();
+
+            return choose(loadBalancer)
+                    .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Unable to find instance for " + url.getHost())))
+                    .flatMap(primary -> Mono.firstWithValue(
+                            attempt(primary, url, method, headers, false),
+                            Mono.delay(delay).flatMap(tick -> hedge(primary, url, method, headers))))
+                    .onErrorMap(error -> !(error instanceof ResponseStatusException), HedgeFilter::attemptFailure)
+                    .flatMap(attempt -> write(exchange, attempt));
+        }
+
+        private Mono<Attempt> hedge(ServiceInstance primary, URI url, HttpMethod method, HttpHeaders headers) {
+            // Any other instance from the service's list. Not loadBalancer.choose(): extra picks would shift a round-robin
+            // balancer so that the next primaries keep landing on the instance that was slow
+            ServiceInstanceListSupplier instances = loadBalancers.getInstance(url.getHost(), ServiceInstanceListSupplier.class);
+            Mono<ServiceInstance> alternate = instances == null ? Mono.empty() : instances.get().next()
+                    .mapNotNull(list -> {
+                        List<ServiceInstance> others = list.stream()
+                                .filter(instance -> !instance.getHost().equals(primary.getHost()) || instance.getPort() != primary.getPort())
+                                .toList();
+                        return others.isEmpty() ? null : others.get(ThreadLocalRandom.current().nextInt(others.size()));
+                    });
+            return alternate
+                    .switchIfEmpty(Mono.<ServiceInstance>fromRunnable(state.noAlternate::increment))
+                    .filter(instance -> {
+                        boolean allowed = state.budget.tryWithdraw();
+                        if (!allowed) {
+                            state.noBudget.increment();
+                        }
+                        return allowed;
+                    })
+                    .flatMap(instance -> {
+                        state.sent.increment();
+                        return attempt(instance, url, method, headers, true);
+                    });
+        }
+
+        private Mono<ServiceInstance> choose(ReactiveLoadBalancer<ServiceInstance> loadBalancer) {
+            return Mono.from(loadBalancer.choose())
+                    .filter(Response::hasServer)
+                    .map(Response::getServer);
+        }
+
+        private Mono<Attempt> attempt(ServiceInstance instance, URI url, HttpMethod method, HttpHeaders headers, boolean hedge) {
+            URI target = UriComponentsBuilder.fromUri(url)
+                    .scheme(instance.isSecure() ? "https" : "http")
+                    .host(instance.getHost())
+                    .port(instance.getPort())
+                    .build(true)
+                    .toUri();
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return webClient.method(method)
+                        .uri(target)
+                        .headers(requestHeaders -> requestHeaders.addAll(headers))
+                        .exchangeToMono(response -> DataBufferUtils.join(response.body(BodyExtractors.toDataBuffers()), maxResponseBytes)
+                                .map(HedgeFilter::toBytes)
+                                .defaultIfEmpty(new byte[0])
+                                .map(body -> new Attempt(hedge, target, response.statusCode(), response.headers().asHttpHeaders(), body)))
+                        .timeout(config.getTimeout())
+                        .doOnNext(attempt -> state.upstreamLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                        .doOnError(TimeoutException.class, timeout -> state.upstreamLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                        .doOnCancel(() -> {
+                            // A first attempt the hedge beat took at least this long. Leaving it out would keep only
+                            // the fast answers and pull the threshold down. A cancelled hedge says nothing about that
+                            if (!hedge) {
+                                state.upstreamLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                            }
+                        });
+            });
+        }
+
+        private Mono<Void> write(ServerWebExchange exchange, Attempt attempt) {
+            if (attempt.hedge()) {
+                state.wins.increment();
+            }
+            exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, attempt.url()); // The instance that answered, for logs
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(attempt.status());
+            response.getHeaders().putAll(HttpHeadersFilter.filter(headersFilters.getIfAvailable(List::of), attempt.headers(),
+                    exchange, HttpHeadersFilter.Type.RESPONSE));
+            response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING); // The body is sent in one piece
+            if (HttpMethod.HEAD.equals(exchange.getRequest().getMethod())) {
+                return response.setComplete();
+            }
+            response.getHeaders().setContentLength(attempt.body().length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(attempt.body())));
+        }
+
+        private Duration currentDelay() {
+            long now = System.nanoTime();
+            if (now - state.delayComputedAt > DELAY_REFRESH_NANOS) { // Taking a histogram snapshot per request would cost more than it is worth
+                state.delayComputedAt = now;
+                state.delayNanos.set(computeDelay());
+            }
+            return Duration.ofNanos(state.delayNanos.get());
+        }
+
+        private long computeDelay() {
+            ValueAtPercentile[] percentiles = state.upstreamLatency.takeSnapshot().percentileValues();
+            if (state.upstreamLatency.count() < config.getMinSamples() || percentiles.length == 0) {
+                return config.getInitialDelay().toNanos();
+            }
+            long observed = (long) percentiles[0].value(TimeUnit.NANOSECONDS);
+            return Math.max(config.getMinDelay().toNanos(), Math.min(config.getMaxDelay().toNanos(), observed));
+        }
+
+        private static byte[] toBytes(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                return bytes;
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        // Both attempts failed, or the only one did: the first timeout decides between 504 and 502
+        private static Throwable attemptFailure(Throwable error) {
+            boolean timedOut = error instanceof TimeoutException;
+            boolean tooLarge = error instanceof DataBufferLimitException;
+            for (Throwable suppressed : error.getSuppressed()) {
+                timedOut |= suppressed instanceof TimeoutException;
+                tooLarge |= suppressed instanceof DataBufferLimitException;
+            }
+            if (timedOut) {
+                return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Upstream did not answer in time", error);
+            }
+            return new ResponseStatusException(HttpStatus.BAD_GATEWAY,
+                    tooLarge ? "Upstream response exceeds the route's hedge max-response-size" : "Upstream request failed", error);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.rakesh.discovery_service.config;
+
+import com.rakesh.discovery_service.registry.RegistryRequestMetricsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-operation cost of the Eureka REST API (fetch-full vs fetch-delta, renew, register, ...), see /actuator/metrics.
+ */
+@Configuration
+public class RegistryMetricsConfig {
+
+    @Bean
+    public FilterRegistrationBean<RegistryRequestMetricsFilter> registryRequestMetricsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RegistryRequestMetricsFilter> registration =
+                new FilterRegistrationBean<>(new RegistryRequestMetricsFilter(meterRegistry));
+        registration.addUrlPatterns("/eureka/apps/*");
+        // Right after the character encoding filter, so the timing covers every other filter in front of the Eureka API
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
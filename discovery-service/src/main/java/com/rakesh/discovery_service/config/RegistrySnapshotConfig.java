@@ -0,0 +1,41 @@
+package com.rakesh.discovery_service.config;
+
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.rakesh.discovery_service.registry.RegistrySnapshotProperties;
+import com.rakesh.discovery_service.registry.RegistrySnapshotter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Registry snapshots on local disk (see {@link RegistrySnapshotter}), active only with {@code discovery.snapshot.enabled=true}.
+ */
+@Configuration
+@EnableScheduling // Drives the periodic snapshot and the expiry check of restored instances
+@EnableConfigurationProperties(RegistrySnapshotProperties.class)
+@ConditionalOnProperty(prefix = "discovery.snapshot", name = "enabled", havingValue = "true")
+public class RegistrySnapshotConfig {
+
+    private RegistrySnapshotter snapshotter;
+
+    @Bean
+    public RegistrySnapshotter registrySnapshotter(PeerAwareInstanceRegistry registry, RegistrySnapshotProperties properties,
+                                                   MeterRegistry meterRegistry) {
+        snapshotter = new RegistrySnapshotter(registry, properties, meterRegistry);
+        return snapshotter;
+    }
+
+    @Scheduled(fixedDelayString = "${discovery.snapshot.interval:PT30S}", initialDelayString = "${discovery.snapshot.interval:PT30S}")
+    public void writeSnapshot() {
+        snapshotter.snapshot();
+    }
+
+    @Scheduled(fixedDelayString = "${discovery.snapshot.expiry-check-interval:PT5S}")
+    public void expireRestoredInstances() {
+        snapshotter.expireUnrenewed();
+    }
+}
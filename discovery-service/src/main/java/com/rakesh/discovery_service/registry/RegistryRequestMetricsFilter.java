@@ -0,0 +1,120 @@
+package com.rakesh.discovery_service.registry;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and response size of every call to the Eureka REST API (/eureka/apps/**), tagged by operation:
+ * <ul>
+ *     <li>{@code eureka.server.requests} (timer) with tags operation and status,</li>
+ *     <li>{@code eureka.server.response.bytes} (summary) with tag operation.</li>
+ * </ul>
+ * A healthy fleet mostly sends "renew" and small "fetch-delta" calls. A rise of "fetch-full" means clients
+ * could not apply the delta (hash mismatch, e.g. right after a restart) and fall back to the whole registry,
+ * which is the expensive call; the bytes summary shows what each kind costs on the wire.
+ */
+public class RegistryRequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public RegistryRequestMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String operation = operation(request.getMethod(), request.getRequestURI());
+        CountingResponse counting = new CountingResponse(response);
+        long startedAt = System.nanoTime();
+        try {
+            filterChain.doFilter(request, counting);
+        } finally {
+            Timer.builder("eureka.server.requests")
+                    .tag("operation", operation)
+                    .tag("status", String.valueOf(counting.getStatus()))
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            DistributionSummary.builder("eureka.server.response.bytes")
+                    .baseUnit("bytes")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .record(counting.bytesWritten);
+        }
+    }
+
+    // Paths below /eureka/apps: "" or "/" full fetch, "/delta", "/{app}", "/{app}/{id}", "/{app}/{id}/status"
+    private static String operation(String method, String uri) {
+        int apps = uri.indexOf("/apps");
+        String path = apps < 0 ? "" : uri.substring(apps + "/apps".length());
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        int segments = path.isEmpty() ? 0 : path.split("/").length - 1;
+        return switch (method) {
+            case "GET" -> path.isEmpty() ? "fetch-full" : path.equals("/delta") ? "fetch-delta" : segments == 1 ? "fetch-app" : "fetch-instance";
+            case "POST" -> "register";
+            case "PUT" -> segments == 3 ? "status-update" : "renew";
+            case "DELETE" -> segments == 3 ? "status-delete" : "cancel";
+            default -> "other";
+        };
+    }
+
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private long bytesWritten;
+        private ServletOutputStream stream;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (stream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                stream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytesWritten++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytesWritten += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return stream;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.rakesh.discovery_service.registry;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.converters.wrappers.CodecWrapper;
+import com.netflix.discovery.converters.wrappers.CodecWrappers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes the registry snapshot file.
+ *
+ * Layout (all of it gzip-compressed):
+ * <pre>
+ * int   magic "EKRS"
+ * short format version
+ * long  time the snapshot was taken (epoch millis)
+ * int   number of instances, then per instance:
+ *   long  lease expiry (epoch millis), as Eureka computes it from the last renewal
+ *   int   lease duration in seconds
+ *   int   length + bytes of the InstanceInfo in Eureka's own JSON codec
+ * </pre>
+ * The InstanceInfo goes through Eureka's codec so every field (metadata, ports, status, dirty timestamps) survives
+ * exactly as a client registered it; gzip takes the repetition between instances of the same service out again.
+ */
+public final class RegistrySnapshotFile {
+
+    private static final int MAGIC = 0x454B5253; // "EKRS"
+    private static final short VERSION = 1;
+    private static final CodecWrapper CODEC = CodecWrappers.getCodec(CodecWrappers.JacksonJson.class);
+
+    private RegistrySnapshotFile() {
+    }
+
+    public record Entry(InstanceInfo instance, long leaseExpiresAt, int leaseDurationSecs) {
+    }
+
+    public record Snapshot(long takenAt, List<Entry> entries) {
+    }
+
+    /**
+     * Written to a temporary file next to the target and moved over it, so a crash never leaves half a snapshot.
+     */
+    public static void write(Path file, Snapshot snapshot) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "registry", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeLong(snapshot.takenAt());
+                out.writeInt(snapshot.entries().size());
+                for (Entry entry : snapshot.entries()) {
+                    out.writeLong(entry.leaseExpiresAt());
+                    out.writeInt(entry.leaseDurationSecs());
+                    byte[] json = CODEC.encode(entry.instance()).getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(json.length);
+                    out.write(json);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp); // Only still there if something failed
+        }
+    }
+
+    public static Snapshot read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a registry snapshot");
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported registry snapshot version " + version + " in " + file);
+            }
+            long takenAt = in.readLong();
+            int count = in.readInt();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long expiresAt = in.readLong();
+                int durationSecs = in.readInt();
+                byte[] json = in.readNBytes(in.readInt());
+                entries.add(new Entry(CODEC.decode(new String(json, StandardCharsets.UTF_8), InstanceInfo.class), expiresAt, durationSecs));
+            }
+            return new Snapshot(takenAt, entries);
+        }
+    }
+}
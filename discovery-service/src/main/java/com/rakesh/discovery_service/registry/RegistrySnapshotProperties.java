@@ -0,0 +1,22 @@
+package com.rakesh.discovery_service.registry;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the registry snapshots, bound from {@code discovery.snapshot.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "discovery.snapshot")
+public class RegistrySnapshotProperties {
+
+    private boolean enabled = false; // Off by default: the registry starts empty after a restart, like before
+
+    private String file = "registry-snapshot/registry.bin"; // Local file the registry is written to and restored from
+
+    private Duration interval = Duration.ofSeconds(30); // How often the registry is written; also written on shutdown
+
+    private Duration expiryCheckInterval = Duration.ofSeconds(5); // How often restored instances that never renewed are checked
+}
@@ -0,0 +1,141 @@
+package com.rakesh.discovery_service.registry;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.LeaseInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaRegistryAvailableEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a copy of the registry on local disk ({@link RegistrySnapshotFile}) and restores it when the server starts,
+ * so clients fetching right after a restart get the last known instances instead of an empty registry, and
+ * the instances are not all forced to re-register at once.
+ *
+ * Restored leases keep their age: an instance is only restored if its lease had not expired yet, and it is
+ * cancelled when that original expiry passes without the instance renewing in the meantime. An instance that is
+ * still alive renews within its renewal interval and from then on is an ordinary registration again.
+ */
+public class RegistrySnapshotter {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrySnapshotter.class);
+
+    private final PeerAwareInstanceRegistry registry;
+    private final Path file;
+    private final Timer snapshotTimer;
+    private final Counter restoredCounter;
+    private final Map<String, Restored> pending = new ConcurrentHashMap<>(); // Restored and not renewed yet, by instance id
+
+    private record Restored(String appName, long leaseExpiresAt, long renewalTimestampAtRestore) {
+    }
+
+    public RegistrySnapshotter(PeerAwareInstanceRegistry registry, RegistrySnapshotProperties properties, MeterRegistry meterRegistry) {
+        this.registry = registry;
+        this.file = Path.of(properties.getFile());
+        this.snapshotTimer = meterRegistry.timer("eureka.registry.snapshot.write");
+        this.restoredCounter = meterRegistry.counter("eureka.registry.snapshot.restored");
+        Gauge.builder("eureka.registry.snapshot.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Published once the Eureka server has opened its registry for traffic; early registrations from clients
+     * are newer than the snapshot and win over the restored entries.
+     */
+    @EventListener(EurekaRegistryAvailableEvent.class)
+    public void restore() {
+        if (!Files.isReadable(file)) {
+            log.info("No registry snapshot at {}, starting with an empty registry", file.toAbsolutePath());
+            return;
+        }
+        try {
+            RegistrySnapshotFile.Snapshot snapshot = RegistrySnapshotFile.read(file);
+            long now = System.currentTimeMillis();
+            int restored = 0;
+            for (RegistrySnapshotFile.Entry entry : snapshot.entries()) {
+                if (entry.leaseExpiresAt() <= now) {
+                    continue; // Would have been evicted by now anyway
+                }
+                InstanceInfo instance = entry.instance();
+                // isReplication=true: no replication to peers, and the server treats it like data from a peer
+                registry.register(instance, entry.leaseDurationSecs(), true);
+                InstanceInfo registered = registry.getInstanceByAppAndId(instance.getAppName(), instance.getId(), false);
+                if (registered != null && registered.getLeaseInfo() != null) {
+                    pending.put(instance.getId(), new Restored(instance.getAppName(), entry.leaseExpiresAt(),
+                            registered.getLeaseInfo().getRenewalTimestamp()));
+                }
+                restored++;
+            }
+            restoredCounter.increment(restored);
+            log.info("Restored {} of {} instances from the registry snapshot taken {} s ago",
+                    restored, snapshot.entries().size(), (now - snapshot.takenAt()) / 1000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore the registry snapshot from {}, starting with an empty registry", file.toAbsolutePath(), e);
+        }
+    }
+
+    public void snapshot() {
+        long startedAt = System.nanoTime();
+        List<RegistrySnapshotFile.Entry> entries = new ArrayList<>();
+        for (Application application : registry.getApplications().getRegisteredApplications()) {
+            for (InstanceInfo instance : application.getInstances()) {
+                LeaseInfo lease = instance.getLeaseInfo();
+                if (lease == null) {
+                    continue;
+                }
+                // Same rule as Eureka's Lease.isExpired: the lease ends one duration after the (recorded) last renewal
+                long expiresAt = lease.getRenewalTimestamp() + lease.getDurationInSecs() * 1000L;
+                Restored restored = pending.get(instance.getId());
+                if (restored != null) {
+                    expiresAt = Math.min(expiresAt, restored.leaseExpiresAt()); // Restarting again must not extend an old lease
+                }
+                entries.add(new RegistrySnapshotFile.Entry(instance, expiresAt, lease.getDurationInSecs()));
+            }
+        }
+        try {
+            RegistrySnapshotFile.write(file, new RegistrySnapshotFile.Snapshot(System.currentTimeMillis(), entries));
+            snapshotTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        } catch (IOException e) {
+            log.warn("Could not write the registry snapshot to {}", file.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Cancels restored instances whose original lease has run out without them renewing since the restore.
+     */
+    public void expireUnrenewed() {
+        long now = System.currentTimeMillis();
+        pending.forEach((id, restored) -> {
+            InstanceInfo current = registry.getInstanceByAppAndId(restored.appName(), id, false);
+            if (current == null || current.getLeaseInfo() == null
+                    || current.getLeaseInfo().getRenewalTimestamp() != restored.renewalTimestampAtRestore()) {
+                pending.remove(id); // Gone, re-registered or renewed: Eureka's own lease handling takes over
+            } else if (now > restored.leaseExpiresAt()) {
+                registry.cancel(restored.appName(), id, true);
+                pending.remove(id);
+                log.info("Cancelled restored instance {}/{}, it did not renew before its lease expired", restored.appName(), id);
+            }
+        });
+    }
+
+    // Runs before the Eureka server shuts its registry down (that happens when the lifecycle beans stop)
+    @EventListener(ContextClosedEvent.class)
+    public void snapshotOnShutdown() {
+        snapshot();
+    }
+}
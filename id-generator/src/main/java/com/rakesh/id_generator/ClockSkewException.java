@@ -0,0 +1,11 @@
+package com.rakesh.id_generator;
+
+/**
+ * Thrown when the system clock jumped backwards further than the generator tolerates.
+ */
+public class ClockSkewException extends IllegalStateException {
+
+    public ClockSkewException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,41 @@
+package com.rakesh.id_generator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import java.time.Clock;
+
+/**
+ * Registers a {@link SnowflakeIdGenerator} bean in every service that has this module on the classpath
+ * (listed in META-INF/spring/org.springframework.boot.autoconfigure.AutoConfiguration.imports).
+ *
+ * The worker id must be set explicitly with {@code idgen.worker-id}, unique among the running instances of a service
+ * (e.g. the pod ordinal of a StatefulSet). Startup fails without it: two instances sharing a worker id issue the same ids
+ * in the same millisecond, and a value hashed from the instance id cannot rule that out.
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(IdGeneratorProperties.class)
+public class IdGeneratorAutoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorAutoConfiguration.class);
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SnowflakeIdGenerator snowflakeIdGenerator(IdGeneratorProperties properties, Environment environment) {
+        long workerId = properties.getWorkerId();
+        if (workerId < 0) {
+            throw new IllegalStateException("idgen.worker-id is not set for " + environment.getProperty("spring.application.name", "this service")
+                    + ": give every instance its own worker id between 0 and " + SnowflakeIdGenerator.MAX_WORKER_ID);
+        }
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(workerId, properties.getEpoch(),
+                properties.getMaxClockBackward().toMillis(), Clock.systemUTC());
+        SnowflakeIds.install(generator); // Make it reachable for the Hibernate @SnowflakeId adapter
+        log.info("Snowflake id generator ready with worker id {}", workerId);
+        return generator;
+    }
+}
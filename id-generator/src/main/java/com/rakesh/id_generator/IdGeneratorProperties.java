@@ -0,0 +1,21 @@
+package com.rakesh.id_generator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Settings of the shared id generator, bound from {@code idgen.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "idgen")
+public class IdGeneratorProperties {
+
+    private long workerId = -1; // Worker id (0..1023), unique per running instance; required, startup fails while it is -1
+
+    private Instant epoch = Instant.parse("2024-01-01T00:00:00Z"); // Never change this once ids have been issued
+
+    private Duration maxClockBackward = Duration.ofSeconds(10); // Larger backward clock jumps make id generation fail
+}
@@ -0,0 +1,19 @@
+package com.rakesh.id_generator;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Put this on an entity's {@code @Id} field instead of {@code @GeneratedValue(strategy = GenerationType.IDENTITY)}.
+ * The id is then assigned in memory before the INSERT, so Hibernate can batch inserts
+ * and ids are ordered by creation time across all services.
+ */
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
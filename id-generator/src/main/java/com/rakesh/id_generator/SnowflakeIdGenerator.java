@@ -0,0 +1,114 @@
+package com.rakesh.id_generator;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free generator of time-ordered, cluster-unique 64-bit ids (Snowflake layout).
+ *
+ * <pre>
+ *  0 | 41 bits milliseconds since {@code epoch} | 10 bits worker id | 12 bits sequence
+ * </pre>
+ * About 69 years of timestamps, 1024 workers and 4096 ids per millisecond per worker.
+ *
+ * The last timestamp and sequence are packed into one {@link AtomicLong}, so {@link #nextId()} is a single CAS loop
+ * with no lock. Clock skew handling:
+ *  - clock goes backwards a little: keep issuing ids on the last timestamp we used, so ids stay unique and ordered;
+ *  - sequence exhausted within one millisecond: borrow the next millisecond instead of spinning;
+ *  - borrowed more than {@code maxBackwardMillis} ahead of the clock: wait for the clock to catch up, the ids are
+ *    only being asked for faster than 4096 per millisecond;
+ *  - clock goes backwards by more than {@code maxBackwardMillis}: refuse with {@link ClockSkewException},
+ *    something is badly wrong with the host clock.
+ */
+public class SnowflakeIdGenerator {
+
+    public static final int WORKER_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_TIMESTAMP = (1L << 41) - 1;
+
+    private final long workerId;
+    private final long epochMillis;
+    private final long maxBackwardMillis;
+    private final Clock clock;
+    private final AtomicLong state; // (timestamp since epoch << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong latestClock; // Highest clock reading an id was issued on, since epoch; state may be ahead of it by borrowing
+
+    public SnowflakeIdGenerator(long workerId, Instant epoch, long maxBackwardMillis, Clock clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + MAX_WORKER_ID + " but was " + workerId);
+        }
+        this.workerId = workerId;
+        this.epochMillis = epoch.toEpochMilli();
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.clock = clock;
+        long now = clock.millis() - epochMillis;
+        if (now < 0) {
+            throw new IllegalArgumentException("Id epoch " + epoch + " is in the future");
+        }
+        this.state = new AtomicLong(now << SEQUENCE_BITS | SEQUENCE_MASK); // Next call moves on to a fresh timestamp
+        this.latestClock = new AtomicLong(now);
+    }
+
+    public SnowflakeIdGenerator(long workerId) {
+        this(workerId, Instant.parse("2024-01-01T00:00:00Z"), 10_000, Clock.systemUTC());
+    }
+
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            long sequence = current & SEQUENCE_MASK;
+            long now = clock.millis() - epochMillis;
+
+            long timestamp;
+            long nextSequence;
+            if (now > lastTimestamp) {
+                timestamp = now;
+                nextSequence = 0;
+            } else {
+                if (lastTimestamp - now > maxBackwardMillis) {
+                    long backward = latestClock.get() - now;
+                    if (backward > maxBackwardMillis) {
+                        throw new ClockSkewException("Clock moved backwards by " + backward + " ms, refusing to generate ids");
+                    }
+                    // Ahead by borrowed milliseconds, not by the clock: wait until it is back within maxBackwardMillis
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(lastTimestamp - now - maxBackwardMillis));
+                    continue;
+                }
+                if (sequence < SEQUENCE_MASK) {
+                    timestamp = lastTimestamp;
+                    nextSequence = sequence + 1;
+                } else {
+                    timestamp = lastTimestamp + 1; // Sequence exhausted: borrow the next millisecond
+                    nextSequence = 0;
+                }
+            }
+            if (timestamp > MAX_TIMESTAMP) {
+                throw new IllegalStateException("Id timestamp space exhausted, move the epoch");
+            }
+            if (state.compareAndSet(current, timestamp << SEQUENCE_BITS | nextSequence)) {
+                if (now > lastTimestamp) {
+                    latestClock.accumulateAndGet(now, Math::max); // Once per millisecond at most
+                }
+                return timestamp << (WORKER_BITS + SEQUENCE_BITS) | workerId << SEQUENCE_BITS | nextSequence;
+            }
+            // Another thread won the CAS, retry with the fresh state
+        }
+    }
+
+    public long workerId() {
+        return workerId;
+    }
+
+    /**
+     * Extracts the creation time encoded in an id, handy for debugging and for time-range queries on id columns.
+     */
+    public Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (WORKER_BITS + SEQUENCE_BITS)) + epochMillis);
+    }
+}
@@ -0,0 +1,15 @@
+package com.rakesh.id_generator;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Hibernate adapter for {@link SnowflakeIdGenerator}, activated by the {@link SnowflakeId} annotation.
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return SnowflakeIds.nextId();
+    }
+}
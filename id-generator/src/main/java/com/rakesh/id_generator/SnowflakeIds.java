@@ -0,0 +1,41 @@
+package com.rakesh.id_generator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Static access point to the application's {@link SnowflakeIdGenerator}.
+ * Hibernate instantiates id generators itself, outside of Spring, so {@link SnowflakeIdentifierGenerator}
+ * reaches the Spring-configured generator through here. {@link IdGeneratorAutoConfiguration} installs it at startup.
+ */
+public final class SnowflakeIds {
+
+    private static final Logger log = LoggerFactory.getLogger(SnowflakeIds.class);
+
+    private static volatile SnowflakeIdGenerator generator;
+
+    private SnowflakeIds() {
+    }
+
+    public static void install(SnowflakeIdGenerator idGenerator) {
+        generator = idGenerator;
+    }
+
+    public static long nextId() {
+        SnowflakeIdGenerator current = generator;
+        if (current == null) {
+            synchronized (SnowflakeIds.class) {
+                if (generator == null) {
+                    // Only happens outside a Spring context (e.g. a plain Hibernate bootstrap), so pick a random worker
+                    long workerId = ThreadLocalRandom.current().nextLong(SnowflakeIdGenerator.MAX_WORKER_ID + 1);
+                    log.warn("No SnowflakeIdGenerator installed, falling back to random worker id {}", workerId);
+                    generator = new SnowflakeIdGenerator(workerId);
+                }
+                current = generator;
+            }
+        }
+        return current.nextId();
+    }
+}
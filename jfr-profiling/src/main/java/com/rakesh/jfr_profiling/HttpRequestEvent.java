@@ -0,0 +1,34 @@
+package com.rakesh.jfr_profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP request as a JFR event: start, duration and thread come with every event, so any other event
+ * (execution samples, allocations, lock waits) on the same thread within that time belongs to this request.
+ * That is how admin_server breaks a recording down per endpoint.
+ *
+ * Committing is cheap when no recording is running: {@link #shouldCommit()} is false and nothing is written.
+ */
+@Name(HttpRequestEvent.NAME)
+@Label("HTTP Request")
+@Category({"Application", "HTTP"})
+@Description("A request handled by the service, with its route pattern")
+@StackTrace(false) // The stack of the filter is always the same, not worth recording
+public class HttpRequestEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.rakesh.HttpRequest";
+
+    @Label("Method")
+    public String method;
+
+    @Label("Route")
+    @Description("Route pattern, e.g. /api/products/{id}, or UNMATCHED when no handler matched")
+    public String route;
+
+    @Label("Status")
+    public int status;
+}
@@ -0,0 +1,48 @@
+package com.rakesh.jfr_profiling;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the {@link JfrRecordingEndpoint} in every service that has this module on the classpath
+ * (listed in META-INF/spring/org.springframework.boot.autoconfigure.AutoConfiguration.imports).
+ * It is available once "jfr" is in management.endpoints.web.exposure.include; {@code profiling.jfr.enabled=false} turns it off.
+ *
+ * Servlet services also get {@link JfrRequestEventFilter}, which makes per-endpoint breakdowns possible. Reactive services
+ * (api-gateway) do not: a reactive request hops between event-loop threads, so thread-based attribution would be wrong.
+ */
+@AutoConfiguration
+@ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+@ConditionalOnProperty(prefix = "profiling.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(JfrProfilingProperties.class)
+public class JfrProfilingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnAvailableEndpoint
+    public JfrRecordingEndpoint jfrRecordingEndpoint(JfrProfilingProperties properties) {
+        return new JfrRecordingEndpoint(properties);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(prefix = "profiling.jfr", name = "request-events", havingValue = "true", matchIfMissing = true)
+    static class RequestEventConfiguration {
+
+        @Bean
+        public FilterRegistrationBean<JfrRequestEventFilter> jfrRequestEventFilter() {
+            FilterRegistrationBean<JfrRequestEventFilter> registration = new FilterRegistrationBean<>(new JfrRequestEventFilter());
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1); // Around everything else, so the whole request is inside the event
+            return registration;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.rakesh.jfr_profiling;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the on-demand JFR endpoint, bound from {@code profiling.jfr.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "profiling.jfr")
+public class JfrProfilingProperties {
+
+    private boolean enabled = true; // The endpoint still has to be exposed (management.endpoints.web.exposure.include)
+
+    private String directory = System.getProperty("java.io.tmpdir") + "/jfr-recordings"; // Where finished recordings are dumped
+
+    private String defaultSettings = "profile"; // JFR configuration when the caller names none: "default" (~1% overhead) or "profile" (~2%)
+
+    private Duration defaultDuration = Duration.ofSeconds(60);
+
+    private Duration maxDuration = Duration.ofMinutes(10); // Longer requests are cut to this, a forgotten recording must end
+
+    private Duration maxStartDelay = Duration.ofMinutes(1); // How far in the future a synchronized start may be scheduled
+
+    private DataSize maxSize = DataSize.ofMegabytes(256); // Disk limit per recording, older chunks are dropped beyond it
+
+    private int maxRecordings = 5; // Recordings kept at once (running or dumped); the oldest finished one is removed first
+
+    private boolean requestEvents = true; // Emit a JFR event per HTTP request, so samples can be attributed to endpoints
+}
@@ -0,0 +1,219 @@
+package com.rakesh.jfr_profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-demand Java Flight Recorder recordings over actuator:
+ * <ul>
+ *     <li>{@code POST /actuator/jfr} {"settings": "profile", "duration": "60s", "startAt": epochMillis, "label": "..."}
+ *     starts a recording; it stops by itself after the duration. startAt lets admin_server start all instances
+ *     of a service at the same moment,</li>
+ *     <li>{@code GET /actuator/jfr} lists the recordings started here,</li>
+ *     <li>{@code POST /actuator/jfr/{id}} stops a recording early,</li>
+ *     <li>{@code GET /actuator/jfr/{id}} streams the .jfr file (a running recording is dumped as far as it got),</li>
+ *     <li>{@code DELETE /actuator/jfr/{id}} closes the recording and deletes its file.</li>
+ * </ul>
+ * settings is one of the JDK's JFR configurations, "default" or "profile". Recordings leave the instance, so the
+ * events that copy its secrets into the file are always off: the system properties and environment variables, the
+ * JVM's command line (a -Dpassword=... would be in it) and the command lines of the other processes on the host.
+ */
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final List<String> SECRET_EVENTS = List.of("jdk.InitialSystemProperty", "jdk.InitialEnvironmentVariable",
+            "jdk.JVMInformation", "jdk.SystemProcess");
+
+    private final JfrProfilingProperties properties;
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+    private final Map<Long, String> settingsNames = new ConcurrentHashMap<>(); // Configuration each recording was started with
+
+    public JfrRecordingEndpoint(JfrProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    public record RecordingInfo(long id, String name, String state, String settings, Instant startTime,
+                                Instant stopTime, long durationSeconds, long sizeBytes) {
+
+        static RecordingInfo of(Recording recording, String settings) {
+            return new RecordingInfo(recording.getId(), recording.getName(), recording.getState().name(), settings,
+                    recording.getStartTime(), recording.getStopTime(),
+                    recording.getDuration() == null ? 0 : recording.getDuration().toSeconds(), recording.getSize());
+        }
+    }
+
+    @ReadOperation
+    public List<RecordingInfo> recordings() {
+        return recordings.values().stream()
+                .sorted(Comparator.comparingLong(Recording::getId))
+                .map(this::info)
+                .toList();
+    }
+
+    @WriteOperation
+    public RecordingInfo start(@Nullable String settings, @Nullable Duration duration, @Nullable Long startAt,
+                               @Nullable String label) {
+        String settingsName = settings != null ? settings : properties.getDefaultSettings();
+        Duration requested = duration != null ? duration : properties.getDefaultDuration();
+        Duration length = requested.compareTo(properties.getMaxDuration()) > 0 ? properties.getMaxDuration() : requested;
+        makeRoom();
+
+        Recording recording = new Recording(settingsWithoutSecrets(settingsName));
+        recording.setName(label != null ? "jfr-" + label : "jfr-" + Instant.now());
+        recording.setToDisk(true);
+        recording.setMaxSize(properties.getMaxSize().toBytes());
+        recording.setDuration(length); // Stops by itself, so an instance never records forever
+        try {
+            recording.setDestination(file(recording.getId())); // Written here when the recording stops
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException("Could not set the destination of JFR recording " + recording.getId(), e);
+        }
+
+        long delayMillis = startAt == null ? 0 : startAt - System.currentTimeMillis();
+        if (delayMillis > properties.getMaxStartDelay().toMillis()) {
+            recording.close();
+            throw new InvalidEndpointRequestException("startAt is more than " + properties.getMaxStartDelay() + " in the future",
+                    "Invalid startAt");
+        }
+        if (delayMillis > 0) {
+            recording.scheduleStart(Duration.ofMillis(delayMillis));
+        } else {
+            recording.start();
+        }
+        recordings.put(recording.getId(), recording);
+        settingsNames.put(recording.getId(), settingsName);
+        log.info("JFR recording {} ({}) with settings '{}' for {}", recording.getId(), recording.getName(), settingsName, length);
+        return info(recording);
+    }
+
+    @WriteOperation
+    public RecordingInfo stop(@Selector long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return null; // 404
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop(); // Writes the destination file
+        }
+        return info(recording);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public Resource download(@Selector long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return null; // 404
+        }
+        Path file = file(id);
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                Path partial = file.resolveSibling("recording-" + id + "-partial.jfr");
+                recording.dump(partial); // Copy of what has been recorded so far, the recording keeps running
+                return new FileSystemResource(partial);
+            }
+            if (recording.getState() != RecordingState.STOPPED || !Files.exists(file)) {
+                return null; // Not started yet (scheduled) or closed: 404
+            }
+            return new FileSystemResource(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not dump JFR recording " + id, e);
+        }
+    }
+
+    @DeleteOperation
+    public void delete(@Selector long id) {
+        Recording recording = recordings.remove(id);
+        settingsNames.remove(id);
+        if (recording != null) {
+            recording.close();
+        }
+        deleteFiles(id);
+    }
+
+    private RecordingInfo info(Recording recording) {
+        return RecordingInfo.of(recording, settingsNames.getOrDefault(recording.getId(), ""));
+    }
+
+    // No .jfc paths: a caller could otherwise switch the secret events back on, or probe the instance's files
+    private static Map<String, String> settingsWithoutSecrets(String settings) {
+        if (!SETTINGS.contains(settings)) {
+            throw new InvalidEndpointRequestException("Unknown JFR settings '" + settings + "', use default or profile",
+                    "Unknown settings");
+        }
+        Map<String, String> values;
+        try {
+            values = new HashMap<>(Configuration.getConfiguration(settings).getSettings());
+        } catch (IOException | ParseException e) {
+            throw new UncheckedIOException("Could not load the JFR configuration " + settings,
+                    e instanceof IOException io ? io : new IOException(e));
+        }
+        SECRET_EVENTS.forEach(event -> values.put(event + "#enabled", "false"));
+        return values;
+    }
+
+    // Keeps at most maxRecordings, removing the oldest finished ones; running ones are never removed
+    private void makeRoom() {
+        List<Recording> finished = recordings.values().stream()
+                .filter(recording -> recording.getState() == RecordingState.STOPPED || recording.getState() == RecordingState.CLOSED)
+                .sorted(Comparator.comparingLong(Recording::getId))
+                .toList();
+        int excess = recordings.size() + 1 - properties.getMaxRecordings();
+        for (int i = 0; i < Math.min(excess, finished.size()); i++) {
+            delete(finished.get(i).getId());
+        }
+        if (recordings.size() >= properties.getMaxRecordings()) {
+            throw new InvalidEndpointRequestException("Already " + recordings.size() + " JFR recordings running here, stop one first",
+                    "Too many recordings");
+        }
+    }
+
+    private Path file(long id) {
+        Path directory = Path.of(properties.getDirectory());
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the JFR directory " + directory, e);
+        }
+        return directory.resolve("recording-" + id + ".jfr");
+    }
+
+    private void deleteFiles(long id) {
+        Path file = file(id);
+        try {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.resolveSibling("recording-" + id + "-partial.jfr"));
+        } catch (IOException e) {
+            log.warn("Could not delete the files of JFR recording {}", id, e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.rakesh.jfr_profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Wraps every request in an {@link HttpRequestEvent}. The route is the Spring MVC pattern
+ * (/api/products/{id}), so all ids of one endpoint end up in the same bucket.
+ */
+public class JfrRequestEventFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpRequestEvent event = new HttpRequestEvent();
+        if (!event.isEnabled()) {
+            filterChain.doFilter(request, response); // No recording with this event running, skip the bookkeeping
+            return;
+        }
+        event.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                event.method = request.getMethod();
+                event.route = pattern != null ? pattern.toString() : "UNMATCHED"; // Raw paths (404 scans, static files) would explode the breakdown
+                event.status = response.getStatus();
+                event.commit();
+            }
+        }
+    }
+}
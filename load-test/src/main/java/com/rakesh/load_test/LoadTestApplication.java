@@ -0,0 +1,17 @@
+package com.rakesh.load_test;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Command-line load test (see {@link com.rakesh.load_test.config.LoadTestConfig}): no web server, the application
+ * exits once the last load step is reported. The exit code is 1 when the stack could not be started.
+ */
+@SpringBootApplication
+public class LoadTestApplication {
+
+	public static void main(String[] args) {
+		System.exit(SpringApplication.exit(SpringApplication.run(LoadTestApplication.class, args)));
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.rakesh.load_test;
+
+import com.rakesh.load_test.traffic.Operation;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of the load test, bound from {@code loadtest.*} (defaults in application.yml).
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "loadtest")
+public class LoadTestProperties {
+
+    private String targetUrl = "http://localhost:8080"; // Gateway to load when loadtest.stack.enabled=false
+
+    // Weight of each operation in the traffic mix, e.g. by-id: 50 and write: 10 makes 5 by-id lookups per write
+    private Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+    private int seedProducts = 2000; // Created through the gateway before the first step, the data set all reads go against
+
+    private int seedConcurrency = 16;
+
+    private double missRatio = 0.02; // Share of by-id lookups for ids that do not exist (404)
+
+    private int pageSize = 20; // For paginated requests
+
+    private Duration warmUp = Duration.ofSeconds(20); // Run at warm-up-rate first and not reported: JIT, pools and caches
+
+    private double warmUpRate = 50;
+
+    // Offered load of each step in requests/s. Arrivals follow a Poisson process at this rate whatever the response
+    // times are (open model), like independent users do; a closed loop of N threads would slow down with the system
+    private List<Double> rates = new ArrayList<>(List.of(25.0, 50.0, 100.0, 200.0, 400.0, 800.0));
+
+    private Duration stepDuration = Duration.ofSeconds(30);
+
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    // Requests outstanding at once. Arrivals beyond it are counted as dropped instead of queued in the client,
+    // so an overloaded system shows up as drops and timeouts rather than as a stalled generator
+    private int maxInFlight = 2000;
+
+    private String reportDir = "load-test/target/reports"; // One sub-directory per run
+
+    private Stack stack = new Stack();
+
+    @Data
+    public static class Stack {
+
+        private boolean enabled = true; // Start the services from their jars; false to load an already running gateway (target-url)
+
+        private String projectDir = "."; // Root of this project, the jars are read from <module>/target
+
+        private String javaOptions = "-Xmx512m"; // JVM options of every service
+
+        private int discoveryPort = 18761;
+
+        private int productPort = 18083;
+
+        private int gatewayPort = 18080;
+
+        private String productDatabaseUrl = "jdbc:h2:mem:products;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+        private String productLoaderPath = "load-test/target/stack-lib"; // Jars added to product-service: the H2 driver
+
+        private Duration startupTimeout = Duration.ofMinutes(3); // Until the gateway routes to product-service
+    }
+}
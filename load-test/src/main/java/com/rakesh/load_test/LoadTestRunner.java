@@ -0,0 +1,68 @@
+package com.rakesh.load_test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rakesh.load_test.report.LoadTestReport;
+import com.rakesh.load_test.stack.ServiceStack;
+import com.rakesh.load_test.traffic.OpenModelDriver;
+import com.rakesh.load_test.traffic.ProductCatalog;
+import com.rakesh.load_test.traffic.TrafficMix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import java.net.http.HttpClient;
+import java.util.Locale;
+
+/**
+ * One load test run: start the stack, seed the products, warm up, then one step per rate in loadtest.rates,
+ * lowest first, each reported as soon as it is done.
+ */
+public class LoadTestRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private final LoadTestProperties properties;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final ServiceStack serviceStack; // Null when loading an already running gateway
+
+    public LoadTestRunner(LoadTestProperties properties, HttpClient httpClient, ObjectMapper objectMapper, ServiceStack serviceStack) {
+        this.properties = properties;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.serviceStack = serviceStack;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        try (LoadTestReport report = new LoadTestReport(properties.getReportDir())) {
+            String targetUrl = properties.getTargetUrl();
+            if (serviceStack != null) {
+                serviceStack.start(report.runDir().resolve("logs"));
+                targetUrl = serviceStack.gatewayUrl();
+            }
+            TrafficMix mix = new TrafficMix(properties.getMix());
+            ProductCatalog catalog = new ProductCatalog(httpClient, objectMapper, targetUrl, properties);
+            catalog.seed(properties.getSeedProducts(), properties.getSeedConcurrency());
+            OpenModelDriver driver = new OpenModelDriver(httpClient, catalog, mix, properties);
+
+            if (!properties.getWarmUp().isZero()) {
+                log.info("Warming up at {} requests/s for {}", properties.getWarmUpRate(), properties.getWarmUp());
+                driver.run("warm-up", properties.getWarmUpRate(), properties.getWarmUp(), null);
+            }
+            for (double rate : properties.getRates()) {
+                log.info("Offering {} requests/s for {} against {}", rate, properties.getStepDuration(), targetUrl);
+                report.add(driver.run(label(rate), rate, properties.getStepDuration(), report.intervalLog()));
+            }
+        } finally {
+            if (serviceStack != null) {
+                serviceStack.close();
+            }
+        }
+    }
+
+    private static String label(double rate) {
+        return (rate == Math.rint(rate) ? String.valueOf((long) rate) : String.format(Locale.ROOT, "%.1f", rate)) + "rps";
+    }
+}
@@ -0,0 +1,45 @@
+package com.rakesh.load_test.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rakesh.load_test.LoadTestProperties;
+import com.rakesh.load_test.LoadTestRunner;
+import com.rakesh.load_test.stack.ServiceStack;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Wires the load test: one shared HTTP client, the service stack unless {@code loadtest.stack.enabled=false},
+ * and the {@link LoadTestRunner} that runs when the application starts.
+ */
+@Configuration
+@EnableConfigurationProperties(LoadTestProperties.class)
+public class LoadTestConfig {
+
+    @Bean
+    public HttpClient loadTestHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1) // Like browsers and most clients in front of the gateway
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @Bean // Closed with the context, which stops the services
+    @ConditionalOnProperty(prefix = "loadtest.stack", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ServiceStack serviceStack(LoadTestProperties properties, HttpClient loadTestHttpClient) {
+        return new ServiceStack(properties.getStack(), loadTestHttpClient);
+    }
+
+    @Bean
+    public LoadTestRunner loadTestRunner(LoadTestProperties properties, HttpClient loadTestHttpClient,
+                                         ObjectMapper objectMapper, ObjectProvider<ServiceStack> serviceStack) {
+        return new LoadTestRunner(properties, loadTestHttpClient, objectMapper, serviceStack.getIfAvailable());
+    }
+}
@@ -0,0 +1,141 @@
+package com.rakesh.load_test.report;
+
+import com.rakesh.load_test.traffic.Operation;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes the results of a run to {@code loadtest.report-dir/<yyyyMMdd-HHmmss>/}:
+ * <ul>
+ *     <li>throughput-vs-concurrency.csv: one row per step (offered rate, achieved throughput, mean and max requests
+ *     in flight, latency percentiles, error counts), the curve where throughput stops following the offered load
+ *     while concurrency and latency climb,</li>
+ *     <li>{step}/{operation}.hgrm and {step}/all.hgrm: percentile distributions in milliseconds, the format
+ *     HdrHistogram's plotter (hdrhistogram.github.io/HdrHistogram/plotFiles.html) reads,</li>
+ *     <li>latency.hlog: a histogram per operation and second, tagged {step}/{operation}, for HistogramLogAnalyzer,</li>
+ *     <li>summary.txt: the step table also printed at the end of the run.</li>
+ * </ul>
+ */
+public class LoadTestReport implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestReport.class);
+    private static final DateTimeFormatter RUN_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final String CSV_HEADER = "offered_rps,achieved_rps,mean_concurrency,max_concurrency,"
+            + "p50_ms,p90_ms,p99_ms,p999_ms,max_ms,sent,dropped,client_errors,server_errors,timeouts,errors";
+
+    private final Path runDir;
+    private final PrintStream intervalLogStream;
+    private final HistogramLogWriter intervalLog;
+    private final List<StepResult> steps = new ArrayList<>();
+
+    public LoadTestReport(String reportDir) {
+        runDir = Path.of(reportDir, RUN_NAME.format(LocalDateTime.now()));
+        try {
+            Files.createDirectories(runDir);
+            intervalLogStream = new PrintStream(runDir.resolve("latency.hlog").toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the report directory " + runDir.toAbsolutePath(), e);
+        }
+        intervalLog = new HistogramLogWriter(intervalLogStream);
+        long now = System.currentTimeMillis();
+        intervalLog.outputLogFormatVersion();
+        intervalLog.outputStartTime(now);
+        intervalLog.setBaseTime(now);
+        intervalLog.outputLegend();
+    }
+
+    public Path runDir() {
+        return runDir;
+    }
+
+    public HistogramLogWriter intervalLog() {
+        return intervalLog;
+    }
+
+    public void add(StepResult step) {
+        steps.add(step);
+        Path stepDir = runDir.resolve(step.label());
+        try {
+            Files.createDirectories(stepDir);
+            for (Map.Entry<Operation, Histogram> latency : step.latencies().entrySet()) {
+                writePercentiles(stepDir.resolve(latency.getKey().key() + ".hgrm"), latency.getValue());
+            }
+            writePercentiles(stepDir.resolve("all.hgrm"), step.overall());
+            Files.write(runDir.resolve("throughput-vs-concurrency.csv"), csv());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the report of step " + step.label(), e);
+        }
+        log.info(row(step));
+    }
+
+    @Override
+    public void close() {
+        intervalLogStream.close();
+        List<String> summary = new ArrayList<>();
+        summary.add(String.format(Locale.ROOT, "%-10s %9s %9s %7s %6s %8s %8s %8s %8s %7s %6s %6s",
+                "step", "offered", "achieved", "conc", "max", "p50 ms", "p90 ms", "p99 ms", "max ms", "dropped", "5xx", "t/o"));
+        steps.forEach(step -> summary.add(row(step)));
+        summary.add("");
+        summary.add("Per operation p50 / p99 ms:");
+        for (StepResult step : steps) {
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-10s", step.label()));
+            step.latencies().forEach((operation, histogram) -> line.append(String.format(Locale.ROOT, "  %s %.1f / %.1f",
+                    operation.key(), millis(histogram, 50), millis(histogram, 99))));
+            summary.add(line.toString());
+        }
+        try {
+            Files.write(runDir.resolve("summary.txt"), summary);
+        } catch (IOException e) {
+            log.warn("Could not write the summary", e);
+        }
+        log.info("Load test done, report in {}\n{}", runDir.toAbsolutePath(), String.join("\n", summary));
+    }
+
+    private List<String> csv() {
+        List<String> lines = new ArrayList<>();
+        lines.add(CSV_HEADER);
+        for (StepResult step : steps) {
+            Histogram overall = step.overall();
+            lines.add(String.format(Locale.ROOT, "%.1f,%.1f,%.2f,%d,%.2f,%.2f,%.2f,%.2f,%.2f,%d,%d,%d,%d,%d,%d",
+                    step.offeredRate(), step.throughput(), step.meanConcurrency(), step.maxConcurrency(),
+                    millis(overall, 50), millis(overall, 90), millis(overall, 99), millis(overall, 99.9),
+                    overall.getMaxValue() / MICROS_PER_MILLI, step.sent(), step.dropped(), step.clientErrors(),
+                    step.serverErrors(), step.timeouts(), step.errors()));
+        }
+        return lines;
+    }
+
+    private static String row(StepResult step) {
+        Histogram overall = step.overall();
+        return String.format(Locale.ROOT, "%-10s %9.1f %9.1f %7.2f %6d %8.2f %8.2f %8.2f %8.2f %7d %6d %6d",
+                step.label(), step.offeredRate(), step.throughput(), step.meanConcurrency(), step.maxConcurrency(),
+                millis(overall, 50), millis(overall, 90), millis(overall, 99), overall.getMaxValue() / MICROS_PER_MILLI,
+                step.dropped(), step.serverErrors(), step.timeouts());
+    }
+
+    private static void writePercentiles(Path file, Histogram histogram) throws FileNotFoundException {
+        try (PrintStream out = new PrintStream(file.toFile())) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI); // Recorded in µs, written in ms
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
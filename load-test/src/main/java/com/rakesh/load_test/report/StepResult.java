@@ -0,0 +1,28 @@
+package com.rakesh.load_test.report;
+
+import com.rakesh.load_test.traffic.Operation;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+
+/**
+ * Outcome of one load step: what was offered, what came back, and the latency of every operation in microseconds,
+ * measured from the intended send time of each request.
+ *
+ * @param seconds         from the first arrival until the last response
+ * @param meanConcurrency requests in flight on average (Little's law: total time in flight / seconds)
+ */
+public record StepResult(String label, double offeredRate, double seconds, long sent, long dropped,
+                         long success, long clientErrors, long serverErrors, long timeouts, long errors,
+                         double meanConcurrency, long maxConcurrency,
+                         Map<Operation, Histogram> latencies, Histogram overall) {
+
+    public long responses() {
+        return success + clientErrors + serverErrors;
+    }
+
+    // Responses per second that were not server errors: 404s of the deliberate misses count, 5xx do not
+    public double throughput() {
+        return (success + clientErrors) / seconds;
+    }
+}
@@ -0,0 +1,176 @@
+package com.rakesh.load_test.stack;
+
+import com.rakesh.load_test.LoadTestProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs discovery-service, product-service and api-gateway from their built jars as child processes, the same
+ * way they run in production, only on their own ports (loadtest.stack.*) so they do not clash with a local setup:
+ * <ul>
+ *     <li>product-service uses the dev profile with an in-memory H2 database in MySQL mode; Flyway creates the
+ *     schema. The H2 driver is added with Spring Boot's PropertiesLauncher and -Dloader.path,</li>
+ *     <li>Spring Boot Admin registration and the registry snapshot are off, logging is at INFO (the dev profile
+ *     logs every SQL statement, which would be measured too),</li>
+ *     <li>Eureka's response cache and the gateway's registry fetch are shortened, so the gateway finds
+ *     product-service in seconds instead of after the usual 30s+ rounds.</li>
+ * </ul>
+ * Output of each service goes to {@code logs/<service>.log} in the run's report directory. {@link #close()} stops
+ * the services in reverse order; Spring calls it on shutdown too, so Ctrl+C leaves no processes behind.
+ */
+public class ServiceStack implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceStack.class);
+    private static final String PROPERTIES_LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+
+    private final LoadTestProperties.Stack properties;
+    private final HttpClient httpClient;
+    private final List<Process> processes = new ArrayList<>();
+
+    public ServiceStack(LoadTestProperties.Stack properties, HttpClient httpClient) {
+        this.properties = properties;
+        this.httpClient = httpClient;
+    }
+
+    public String gatewayUrl() {
+        return "http://localhost:" + properties.getGatewayPort();
+    }
+
+    /**
+     * Starts the three services one after another and returns once the gateway answers product requests.
+     */
+    public void start(Path logDir) throws InterruptedException {
+        long deadline = System.nanoTime() + properties.getStartupTimeout().toNanos();
+        String eurekaUrl = "http://localhost:" + properties.getDiscoveryPort() + "/eureka/";
+
+        Process discovery = launch("discovery-service", logDir, null, List.of(
+                "--server.port=" + properties.getDiscoveryPort(),
+                "--discovery.snapshot.enabled=false",
+                "--eureka.server.use-read-only-response-cache=false",
+                "--spring.boot.admin.client.enabled=false"));
+        awaitHealthy("discovery-service", discovery, properties.getDiscoveryPort(), deadline);
+
+        Path loaderPath = Path.of(properties.getProjectDir()).resolve(properties.getProductLoaderPath()).toAbsolutePath();
+        Process product = launch("product-service", logDir, loaderPath, List.of(
+                "--server.port=" + properties.getProductPort(),
+                "--spring.profiles.active=dev",
+                "--spring.datasource.url=" + properties.getProductDatabaseUrl(),
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--product.schema.verify-on-startup=false", // Checks MySQL EXPLAIN output
+                "--logging.level.org.springframework=INFO",
+                "--logging.level.com.rakesh.product_service=INFO",
+                "--eureka.client.service-url.defaultZone=" + eurekaUrl,
+                "--spring.boot.admin.client.enabled=false"));
+        awaitHealthy("product-service", product, properties.getProductPort(), deadline);
+
+        Process gateway = launch("api-gateway", logDir, null, List.of(
+                "--server.port=" + properties.getGatewayPort(),
+                "--eureka.client.service-url.defaultZone=" + eurekaUrl,
+                "--eureka.client.registry-fetch-interval-seconds=2",
+                "--spring.cloud.loadbalancer.cache.ttl=2s",
+                "--spring.boot.admin.client.enabled=false"));
+        awaitHealthy("api-gateway", gateway, properties.getGatewayPort(), deadline);
+
+        // Healthy is not routable yet: the gateway needs product-service in its registry copy
+        awaitOk("api-gateway -> product-service", gateway, gatewayUrl() + "/api/products/paginated?size=1", deadline);
+        log.info("Stack is up: gateway on {}", gatewayUrl());
+    }
+
+    @Override
+    public synchronized void close() {
+        for (int i = processes.size() - 1; i >= 0; i--) {
+            Process process = processes.get(i);
+            process.destroy(); // SIGTERM: graceful shutdown, product-service deregisters from Eureka
+            try {
+                if (!process.waitFor(20, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        processes.clear();
+    }
+
+    // loaderPath: extra jars or directories for the service's classpath, null for none
+    private synchronized Process launch(String module, Path logDir, Path loaderPath, List<String> arguments) {
+        Path jar = findJar(module).toAbsolutePath();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        Arrays.stream(properties.getJavaOptions().trim().split("\\s+")).filter(option -> !option.isEmpty()).forEach(command::add);
+        if (loaderPath != null) {
+            // java -jar always uses the JarLauncher, which ignores loader.path
+            command.addAll(List.of("-Dloader.path=" + loaderPath, "-cp", jar.toString(), PROPERTIES_LAUNCHER));
+        } else {
+            command.addAll(List.of("-jar", jar.toString()));
+        }
+        command.addAll(arguments);
+        try {
+            Files.createDirectories(logDir);
+            Process process = new ProcessBuilder(command)
+                    .directory(logDir.toFile()) // Files a service writes to relative paths end up with the logs
+                    .redirectErrorStream(true)
+                    .redirectOutput(logDir.resolve(module + ".log").toAbsolutePath().toFile())
+                    .start();
+            processes.add(process);
+            log.info("Started {} (pid {}) from {}", module, process.pid(), jar);
+            return process;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start " + module, e);
+        }
+    }
+
+    private Path findJar(String module) {
+        Path target = Path.of(properties.getProjectDir(), module, "target");
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(module + "-")
+                            && file.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar in " + target.toAbsolutePath() + ", build it first: mvn -B install -DskipTests"));
+        } catch (IOException e) {
+            throw new IllegalStateException("No jar in " + target.toAbsolutePath() + ", build it first: mvn -B install -DskipTests", e);
+        }
+    }
+
+    private void awaitHealthy(String module, Process process, int port, long deadline) throws InterruptedException {
+        awaitOk(module, process, "http://localhost:" + port + "/actuator/health", deadline);
+    }
+
+    private void awaitOk(String what, Process process, String url, long deadline) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(5)).GET().build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(what + " exited with code " + process.exitValue() + ", see its log");
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(what + " not ready within " + properties.getStartupTimeout());
+    }
+}
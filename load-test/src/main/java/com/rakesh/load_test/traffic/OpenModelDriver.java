@@ -0,0 +1,101 @@
+package com.rakesh.load_test.traffic;
+
+import com.rakesh.load_test.LoadTestProperties;
+import com.rakesh.load_test.report.StepResult;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sends requests at a fixed average rate whatever the system does with them (open model): arrivals are a Poisson
+ * process, so the gaps between them are exponentially distributed, and every request runs on its own virtual thread.
+ *
+ * Latency is measured from the time a request was due, not from when it actually went out. When the generator
+ * falls behind (GC pause, machine busy) the late requests still count the delay, so the histograms do not suffer
+ * from coordinated omission the way a closed loop of worker threads does.
+ */
+public class OpenModelDriver {
+
+    private final HttpClient httpClient;
+    private final ProductCatalog catalog;
+    private final TrafficMix mix;
+    private final int maxInFlight;
+
+    public OpenModelDriver(HttpClient httpClient, ProductCatalog catalog, TrafficMix mix, LoadTestProperties properties) {
+        this.httpClient = httpClient;
+        this.catalog = catalog;
+        this.mix = mix;
+        this.maxInFlight = properties.getMaxInFlight();
+    }
+
+    /**
+     * Offers {@code rate} requests/s for {@code duration}, then waits for the outstanding responses.
+     *
+     * @param intervalLog receives a histogram per operation every second, null to skip
+     */
+    public StepResult run(String label, double rate, Duration duration, HistogramLogWriter intervalLog) {
+        StepRecorder recorder = new StepRecorder(label, mix.operations(), intervalLog);
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+        flusher.scheduleAtFixedRate(recorder::flush, 1, 1, TimeUnit.SECONDS);
+        RandomGenerator random = ThreadLocalRandom.current();
+        double meanGapNanos = 1e9 / rate;
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long due = start; due < end; due += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos)) {
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = mix.next(random);
+                if (!recorder.tryStart(maxInFlight)) {
+                    recorder.dropped();
+                    continue;
+                }
+                long intendedStart = due;
+                executor.execute(() -> send(operation, intendedStart, recorder));
+            }
+        } // close() waits for the requests still in flight, at most the request timeout
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return recorder.result(rate, seconds);
+    }
+
+    private void send(Operation operation, long intendedStart, StepRecorder recorder) {
+        long sendStart = System.nanoTime();
+        StepRecorder.Outcome outcome;
+        try {
+            HttpResponse<Void> response = httpClient.send(catalog.request(operation, ThreadLocalRandom.current()),
+                    HttpResponse.BodyHandlers.discarding()); // Still reads the whole body, so transfer time counts
+            outcome = response.statusCode() >= 500 ? StepRecorder.Outcome.SERVER_ERROR
+                    : response.statusCode() >= 400 ? StepRecorder.Outcome.CLIENT_ERROR
+                    : StepRecorder.Outcome.SUCCESS;
+        } catch (HttpTimeoutException e) {
+            outcome = StepRecorder.Outcome.TIMEOUT;
+        } catch (IOException e) {
+            outcome = StepRecorder.Outcome.ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = StepRecorder.Outcome.ERROR;
+        }
+        recorder.completed(operation, intendedStart, sendStart, outcome);
+    }
+}
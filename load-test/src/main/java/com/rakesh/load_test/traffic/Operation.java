@@ -0,0 +1,16 @@
+package com.rakesh.load_test.traffic;
+
+/**
+ * The request types of the traffic mix, each reported with its own latency histogram.
+ */
+public enum Operation {
+    BY_ID,       // GET /api/products/{id}
+    SEARCH,      // GET /api/products/search?nameKeyword=
+    PAGINATED,   // GET /api/products/paginated?page=&size=&sort=
+    PRICE_RANGE, // GET /api/products/price-range?minPrice=&maxPrice=
+    WRITE;       // POST /api/products
+
+    public String key() {
+        return name().toLowerCase().replace('_', '-'); // As in the loadtest.mix keys
+    }
+}
@@ -0,0 +1,169 @@
+package com.rakesh.load_test.traffic;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rakesh.load_test.LoadTestProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * The product data set of a run: creates the products through the gateway before the first step, then builds the
+ * request of every arrival against them. Names are made of a small vocabulary ("Wireless Camera 412"), so a search
+ * for one noun matches about a tenth of the catalog, as a category keyword would; prices spread from 1 to 1000.
+ */
+public class ProductCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalog.class);
+
+    private static final List<String> ADJECTIVES = List.of("Compact", "Wireless", "Premium", "Rugged", "Smart",
+            "Classic", "Portable", "Ergonomic");
+    private static final List<String> NOUNS = List.of("Phone", "Laptop", "Headphones", "Camera", "Monitor",
+            "Keyboard", "Speaker", "Watch", "Charger", "Router");
+    private static final List<String> SORTS = List.of("name,asc", "price,asc", "price,desc", "updatedAt,desc");
+    private static final List<String> STATUSES = List.of("AVAILABLE", "AVAILABLE", "AVAILABLE", "OUT_OF_STOCK");
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final int pageSize;
+    private final double missRatio;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36); // Keeps SKUs unique across runs on one database
+    private final AtomicLong skuSequence = new AtomicLong();
+    private long[] ids = new long[0];
+
+    public ProductCatalog(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, LoadTestProperties properties) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.requestTimeout = properties.getRequestTimeout();
+        this.pageSize = properties.getPageSize();
+        this.missRatio = properties.getMissRatio();
+    }
+
+    /**
+     * Creates {@code count} products, {@code concurrency} at a time, and keeps their ids for the reads.
+     */
+    public void seed(int count, int concurrency) throws InterruptedException {
+        long start = System.nanoTime();
+        List<Long> created = Collections.synchronizedList(new ArrayList<>(count));
+        AtomicInteger failures = new AtomicInteger();
+        Semaphore permits = new Semaphore(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                permits.acquire();
+                executor.submit(() -> {
+                    try {
+                        HttpResponse<byte[]> response = httpClient.send(request(Operation.WRITE, ThreadLocalRandom.current()),
+                                HttpResponse.BodyHandlers.ofByteArray());
+                        JsonNode id = response.statusCode() == 201 || response.statusCode() == 200
+                                ? objectMapper.readTree(response.body()).get("productId") : null;
+                        if (id != null) {
+                            created.add(id.asLong());
+                        } else {
+                            failures.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        if (created.size() < count * 0.9) {
+            throw new IllegalStateException("Seeding failed: only " + created.size() + " of " + count + " products created");
+        }
+        ids = created.stream().mapToLong(Long::longValue).toArray();
+        log.info("Seeded {} products in {} ms ({} failed)", ids.length, (System.nanoTime() - start) / 1_000_000, failures.get());
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public HttpRequest request(Operation operation, RandomGenerator random) {
+        return switch (operation) {
+            case BY_ID -> get("/api/products/" + randomId(random));
+            case SEARCH -> get("/api/products/search?nameKeyword=" + pick(NOUNS, random).toLowerCase());
+            case PAGINATED -> get("/api/products/paginated?page=" + random.nextInt(Math.max(1, ids.length / pageSize))
+                    + "&size=" + pageSize + "&sort=" + pick(SORTS, random));
+            case PRICE_RANGE -> {
+                // A window of 1 to 5% of the price range: tens of products, like a price filter on a listing page
+                double min = 1 + random.nextDouble(900);
+                double max = min + 10 + random.nextDouble(40);
+                yield get("/api/products/price-range?minPrice=" + price(min) + "&maxPrice=" + price(max));
+            }
+            case WRITE -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/products"))
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(newProduct(random)))
+                    .build();
+        };
+    }
+
+    private long randomId(RandomGenerator random) {
+        if (ids.length == 0 || random.nextDouble() < missRatio) {
+            return 1 + random.nextLong(1_000_000_000L); // Far below Snowflake ids, never exists
+        }
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private byte[] newProduct(RandomGenerator random) {
+        long sequence = skuSequence.incrementAndGet();
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put("productName", pick(ADJECTIVES, random) + " " + pick(NOUNS, random) + " " + sequence);
+        product.put("productDescription", "Load test product " + sequence + " of run " + runId);
+        product.put("price", price(1 + random.nextDouble(999)));
+        product.put("sku", "LT-" + runId + "-" + sequence);
+        product.put("quantityInStock", random.nextInt(500));
+        product.put("status", pick(STATUSES, random));
+        product.put("details", Map.of("manufacturerName", "Load Test Inc.", "itemWeightGrams", 50 + random.nextInt(5000)));
+        try {
+            return objectMapper.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BigDecimal price(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static <T> T pick(List<T> values, RandomGenerator random) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,102 @@
+package com.rakesh.load_test.traffic;
+
+import com.rakesh.load_test.report.StepResult;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the measurements of one step from the request threads. Latencies go into one HdrHistogram
+ * {@link Recorder} per operation, which records without locking; {@link #flush()} takes the interval histograms
+ * (once a second), writes them to the run's histogram log and adds them to the step totals.
+ */
+class StepRecorder {
+
+    enum Outcome { SUCCESS, CLIENT_ERROR, SERVER_ERROR, TIMEOUT, ERROR }
+
+    private static final int SIGNIFICANT_DIGITS = 3; // 0.1% resolution at any latency
+
+    private final String label;
+    private final HistogramLogWriter intervalLog;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> totals = new EnumMap<>(Operation.class);
+    private final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder nanosInFlight = new LongAdder();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong maxInFlight = new AtomicLong();
+    private final Map<Operation, Histogram> intervals = new EnumMap<>(Operation.class); // Handed back to their recorder for reuse
+
+    StepRecorder(String label, List<Operation> operations, HistogramLogWriter intervalLog) {
+        this.label = label;
+        this.intervalLog = intervalLog;
+        for (Operation operation : operations) {
+            recorders.put(operation, new Recorder(SIGNIFICANT_DIGITS));
+            totals.put(operation, new Histogram(SIGNIFICANT_DIGITS));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+    }
+
+    /**
+     * Takes an in-flight slot, false when {@code limit} requests are already outstanding.
+     */
+    boolean tryStart(int limit) {
+        long current = inFlight.incrementAndGet();
+        if (current > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        maxInFlight.accumulateAndGet(current, Math::max);
+        sent.increment();
+        return true;
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    void completed(Operation operation, long intendedStart, long sendStart, Outcome outcome) {
+        long now = System.nanoTime();
+        inFlight.decrementAndGet();
+        nanosInFlight.add(now - sendStart);
+        outcomes.get(outcome).increment();
+        if (outcome != Outcome.ERROR) { // Connection failures return at once, their latency says nothing
+            recorders.get(operation).recordValue(Math.max(1, (now - intendedStart) / 1000));
+        }
+    }
+
+    synchronized void flush() {
+        recorders.forEach((operation, recorder) -> {
+            Histogram interval = recorder.getIntervalHistogram(intervals.get(operation));
+            intervals.put(operation, interval);
+            totals.get(operation).add(interval);
+            if (intervalLog != null && interval.getTotalCount() > 0) {
+                interval.setTag(label + "/" + operation.key());
+                intervalLog.outputIntervalHistogram(interval);
+            }
+        });
+    }
+
+    StepResult result(double offeredRate, double seconds) {
+        flush();
+        Histogram overall = new Histogram(SIGNIFICANT_DIGITS);
+        totals.values().forEach(overall::add);
+        return new StepResult(label, offeredRate, seconds, sent.sum(), dropped.sum(),
+                count(Outcome.SUCCESS), count(Outcome.CLIENT_ERROR), count(Outcome.SERVER_ERROR),
+                count(Outcome.TIMEOUT), count(Outcome.ERROR),
+                nanosInFlight.sum() / (seconds * 1e9), maxInFlight.get(), totals, overall);
+    }
+
+    private long count(Outcome outcome) {
+        return outcomes.get(outcome).sum();
+    }
+}
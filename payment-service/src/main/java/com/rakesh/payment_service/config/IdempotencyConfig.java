@@ -0,0 +1,29 @@
+package com.rakesh.payment_service.config;
+
+import com.rakesh.payment_service.idempotency.IdempotencyFilter;
+import com.rakesh.payment_service.idempotency.IdempotencyProperties;
+import com.rakesh.payment_service.idempotency.IdempotencyStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling // Needed for the periodic journal compaction in IdempotencyStore
+@EnableConfigurationProperties(IdempotencyProperties.class) // Binds payment.idempotency.* from application.properties
+public class IdempotencyConfig {
+
+    /*
+    Registering the filter through a FilterRegistrationBean (instead of @Component) lets us limit it to the payment API,
+    so actuator, swagger and other endpoints never pay for the body buffering.
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store, IdempotencyProperties properties) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(new IdempotencyFilter(store, properties));
+        registration.addUrlPatterns("/api/payments/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10); // Run before anything that might do real work
+        return registration;
+    }
+}
@@ -0,0 +1,10 @@
+package com.rakesh.payment_service.config;
+
+import com.rakesh.payment_service.ledger.LedgerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LedgerProperties.class) // Binds payment.ledger.* from application.properties
+public class LedgerConfig {
+}
@@ -0,0 +1,10 @@
+package com.rakesh.payment_service.config;
+
+import com.rakesh.payment_service.settlement.SettlementProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SettlementProperties.class) // Binds payment.settlement.* from application.properties
+public class SettlementConfig {
+}
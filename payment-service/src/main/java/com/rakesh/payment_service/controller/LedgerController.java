@@ -0,0 +1,53 @@
+package com.rakesh.payment_service.controller;
+
+import com.rakesh.payment_service.dto.LedgerAppendRequestDto;
+import com.rakesh.payment_service.ledger.LedgerEntry;
+import com.rakesh.payment_service.ledger.PaymentLedger;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/payments")
+@Tag(name = "Payment Ledger API", description = "Append-only ledger of payment events")
+public class LedgerController {
+
+    private final PaymentLedger paymentLedger;
+
+    @Autowired
+    public LedgerController(PaymentLedger paymentLedger) {
+        this.paymentLedger = paymentLedger;
+    }
+
+    /**
+     * Records a payment event. The response is only sent once the record is durable on disk;
+     * returning the CompletableFuture lets Spring MVC release the request thread while the group commit is pending.
+     *
+     * Example URL: `POST /api/payments/ledger`
+     */
+    @PostMapping("/ledger")
+    @Operation(summary = "Append a ledger entry", description = "Durably record a payment event")
+    public CompletableFuture<ResponseEntity<LedgerEntry>> append(@Valid @RequestBody LedgerAppendRequestDto request) {
+        return paymentLedger.append(request.getPaymentId(), request.getMerchantId(), request.getAmountMinor(),
+                        request.getCurrency(), request.getType())
+                .thenApply(entry -> ResponseEntity.status(HttpStatus.CREATED).body(entry));
+    }
+
+    /**
+     * Returns every ledger entry of a payment, newest first.
+     *
+     * Example URL: `GET /api/payments/42/ledger`
+     */
+    @GetMapping("/{paymentId}/ledger")
+    @Operation(summary = "Get ledger history of a payment", description = "All events of a payment, newest first")
+    public ResponseEntity<List<LedgerEntry>> history(@PathVariable long paymentId) {
+        return ResponseEntity.ok(paymentLedger.history(paymentId));
+    }
+}
@@ -0,0 +1,36 @@
+package com.rakesh.payment_service.dto;
+
+import com.rakesh.payment_service.ledger.LedgerEntryType;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request body for recording a payment event in the ledger.
+ * Amounts are sent in minor units (cents) so no rounding ever happens on the way into the ledger.
+ */
+@Data // Lombok: getters, setters, toString, equals and hashCode
+@NoArgsConstructor // Needed by Jackson for deserialization
+@AllArgsConstructor
+public class LedgerAppendRequestDto {
+
+    @NotNull(message = "Payment id is required")
+    private Long paymentId;
+
+    @NotNull(message = "Merchant id is required")
+    private Long merchantId;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be greater than zero")
+    private Long amountMinor; // Amount in cents, e.g. 1999 for 19.99
+
+    @NotNull(message = "Currency is required")
+    @Pattern(regexp = "[A-Z]{3}", message = "Currency must be a 3 letter ISO code")
+    private String currency;
+
+    @NotNull(message = "Entry type is required")
+    private LedgerEntryType type;
+}
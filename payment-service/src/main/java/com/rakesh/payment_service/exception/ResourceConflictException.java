@@ -0,0 +1,16 @@
+package com.rakesh.payment_service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request clashes with work already in progress, e.g. starting a settlement run while one is running.
+ * It is an expected outcome, so no stack trace is captured.
+ */
+@ResponseStatus(HttpStatus.CONFLICT) // Sets the HTTP status code for this exception, also on actuator endpoints
+public class ResourceConflictException extends RuntimeException {
+
+    public ResourceConflictException(String message) {
+        super(message, null, false, false); // No suppression, no stack trace
+    }
+}
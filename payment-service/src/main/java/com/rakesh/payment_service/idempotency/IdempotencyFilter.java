@@ -0,0 +1,325 @@
+package com.rakesh.payment_service.idempotency;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Answers retried payment requests from the {@link IdempotencyStore} instead of executing them twice.
+ *
+ * Flow for an unsafe request (POST/PUT/PATCH/DELETE) carrying the Idempotency-Key header:
+ *  - key already completed with the same request  -> replay the stored status/body, header {@code Idempotent-Replayed: true}
+ *  - key already completed with a different request -> 422, the client reused a key for another payment
+ *  - key currently being processed                  -> 409, the client should retry later
+ *  - unknown key                                    -> run the request and store the response (unless it was a 5xx)
+ * Requests without the header, and safe methods like GET, pass straight through.
+ *
+ * A request body bigger than maxRequestBodyBytes is refused with 413 before anything is buffered beyond that limit.
+ * A response bigger than maxBodyBytes is not stored; the key is remembered with a 422 instead, so a retry is refused
+ * rather than executed a second time.
+ *
+ * Asynchronous handlers (the ledger returns a CompletableFuture) finish after the first dispatch returns. The filter
+ * then also runs on the ASYNC dispatch and stores the response once that one completes; an async request that ends
+ * without it (timeout or client gone) releases the key through an AsyncListener.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String EXCHANGE_ATTRIBUTE = IdempotencyFilter.class.getName() + ".exchange";
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties) {
+        this.store = store;
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !properties.isEnabled()
+                || request.getHeader(properties.getHeaderName()) == null
+                || "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false; // The response of an async handler is only there on the ASYNC dispatch
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            resumeAsync(request, response, filterChain);
+            return;
+        }
+        String key = request.getHeader(properties.getHeaderName());
+        if (key.isBlank() || key.length() > 255) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Idempotency-Key must be between 1 and 255 characters");
+            return;
+        }
+
+        // The body is read once here so it can be fingerprinted and still be handed to the controller afterwards
+        byte[] body = readBody(request);
+        if (body == null) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is larger than " + properties.getMaxRequestBodyBytes() + " bytes");
+            return;
+        }
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request, body);
+        byte[] fingerprint = fingerprint(request, body);
+
+        if (answeredFromStore(key, fingerprint, response)) {
+            return;
+        }
+        if (!store.tryBegin(key, fingerprint)) {
+            writeError(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+            return;
+        }
+        // The request holding the key may have completed between find() and tryBegin()
+        if (store.find(key) != null) {
+            store.abandon(key);
+            answeredFromStore(key, fingerprint, response);
+            return;
+        }
+
+        Exchange exchange = new Exchange(key, fingerprint, new ContentCachingResponseWrapper(response));
+        try {
+            filterChain.doFilter(cachedRequest, exchange.response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.setAttribute(EXCHANGE_ATTRIBUTE, exchange);
+                request.getAsyncContext().addListener(exchange);
+            } else {
+                finish(exchange);
+            }
+        }
+    }
+
+    private void resumeAsync(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Exchange exchange = (Exchange) request.getAttribute(EXCHANGE_ATTRIBUTE);
+        if (exchange == null || WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null) {
+            filterChain.doFilter(request, response); // Not one of ours, e.g. the key was answered from the store
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                finish(exchange);
+            }
+        }
+    }
+
+    /**
+     * Replays or rejects the request when the key already has a stored response.
+     */
+    private boolean answeredFromStore(String key, byte[] fingerprint, HttpServletResponse response) throws IOException {
+        IdempotencyRecord existing = store.find(key);
+        if (existing == null) {
+            return false;
+        }
+        if (!MessageDigest.isEqual(existing.fingerprint(), fingerprint)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used for a different request");
+        } else {
+            replay(existing, response);
+        }
+        return true;
+    }
+
+    private void finish(Exchange exchange) throws IOException {
+        if (!exchange.finished.compareAndSet(false, true)) {
+            return;
+        }
+        ContentCachingResponseWrapper cachedResponse = exchange.response;
+        boolean stored = false;
+        try {
+            int status = cachedResponse.getStatus();
+            byte[] body = cachedResponse.getContentAsByteArray();
+            // 5xx means the payment was not processed, so the client must be able to retry it for real
+            if (status < 500) {
+                long now = System.currentTimeMillis();
+                store.complete(body.length <= properties.getMaxBodyBytes()
+                        ? new IdempotencyRecord(exchange.key, exchange.fingerprint, status, cachedResponse.getContentType(), body, now)
+                        : tooLargeToReplay(exchange, now));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.abandon(exchange.key);
+            }
+            cachedResponse.copyBodyToResponse(); // Write the buffered body to the real response
+        }
+    }
+
+    // The request was executed, so its key must not run it again; a retry gets this instead of the lost response
+    private static IdempotencyRecord tooLargeToReplay(Exchange exchange, long now) {
+        HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY;
+        byte[] body = ("{\"errorCode\":\"" + status.name() + "\",\"message\":\"The request with this Idempotency-Key was "
+                + "processed, but its response was too large to be kept for replay\"}").getBytes(StandardCharsets.UTF_8);
+        return new IdempotencyRecord(exchange.key, exchange.fingerprint, status.value(), MediaType.APPLICATION_JSON_VALUE, body, now);
+    }
+
+    private void replay(IdempotencyRecord record, HttpServletResponse response) throws IOException {
+        response.setStatus(record.status());
+        if (record.contentType() != null) {
+            response.setContentType(record.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(record.body().length);
+        response.getOutputStream().write(record.body());
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"errorCode\":\"" + status.name() + "\",\"message\":\"" + message + "\"}");
+    }
+
+    /**
+     * Reads the whole body, or returns null once it exceeds maxRequestBodyBytes, without buffering more than that.
+     */
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        int max = properties.getMaxRequestBodyBytes();
+        if (request.getContentLengthLong() > max) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes(max + 1);
+        return body.length > max ? null : body;
+    }
+
+    /**
+     * SHA-256 over method, path, query string and body, each followed by a NUL so neighbouring fields cannot run into each other.
+     * A 32-bit hash would let a different request under a reused key collide and be answered with the wrong payment.
+     */
+    private static byte[] fingerprint(HttpServletRequest request, byte[] body) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Every JRE must provide it
+        }
+        for (String part : new String[]{request.getMethod(), request.getRequestURI(), request.getQueryString()}) {
+            if (part != null) {
+                sha256.update(part.getBytes(StandardCharsets.UTF_8));
+            }
+            sha256.update((byte) 0);
+        }
+        return sha256.digest(body);
+    }
+
+    /**
+     * A request being executed under its key, until its response is stored or the key released.
+     * Also listens to the async request, so a key is not left in flight when the ASYNC dispatch never comes.
+     */
+    private final class Exchange implements AsyncListener {
+
+        private final String key;
+        private final byte[] fingerprint;
+        private final ContentCachingResponseWrapper response;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        Exchange(String key, byte[] fingerprint, ContentCachingResponseWrapper response) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (finished.compareAndSet(false, true)) {
+                store.abandon(key);
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // Spring MVC answers the timeout on an ASYNC dispatch, finish() sees its 503
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // Followed by onComplete
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this); // Listeners are dropped when the request goes async again
+        }
+    }
+
+    /**
+     * Request wrapper that keeps the already-read body in memory and serves it again to the rest of the chain.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Async reads are not supported for cached bodies");
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.rakesh.payment_service.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only local journal backing the in-memory idempotency index.
+ *
+ * Every stored response is appended as one framed record: {@code [int length][int crc32][payload]}.
+ * The CRC lets {@link #replay()} detect a torn last write after a crash; everything from the first bad frame
+ * onwards is cut off so the next append starts on a clean boundary.
+ * Records are never updated in place, expired ones are dropped during compaction ({@link #writeCompacted(Collection)}
+ * followed by {@link #replaceWith(Path, Collection)}).
+ *
+ * Every payload starts with a format byte. Records of another format (journals written before the request fingerprint
+ * became a SHA-256) end the replay like a torn record, so such a journal starts over empty.
+ */
+public class IdempotencyJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyJournal.class);
+    private static final byte FORMAT = 2;
+    private static final int FINGERPRINT_BYTES = 32; // SHA-256
+
+    private final Path path;
+    private DataOutputStream out;
+
+    public IdempotencyJournal(Path path) throws IOException {
+        this.path = path;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+    }
+
+    /**
+     * Reads every intact record from disk, then opens the journal for appending.
+     * Must be called once before {@link #append(IdempotencyRecord)}.
+     */
+    public synchronized List<IdempotencyRecord> replay() throws IOException {
+        List<IdempotencyRecord> records = new ArrayList<>();
+        long validLength = 0;
+        if (Files.exists(path)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                while (true) {
+                    byte[] payload = readFrame(in);
+                    if (payload == null) {
+                        break;
+                    }
+                    if (payload[0] != FORMAT) {
+                        log.warn("Idempotency journal {} holds records of an older format, they are dropped", path);
+                        break;
+                    }
+                    records.add(decode(payload));
+                    validLength += 8 + payload.length; // length + crc header plus the payload itself
+                }
+            }
+            if (Files.size(path) > validLength) {
+                log.warn("Truncating idempotency journal {} from {} to {} bytes (torn tail record)", path, Files.size(path), validLength);
+                try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "rw")) {
+                    raf.setLength(validLength);
+                }
+            }
+        }
+        openForAppend();
+        return records;
+    }
+
+    /**
+     * Appends one record and flushes it to the OS, so it survives a process crash.
+     */
+    public synchronized void append(IdempotencyRecord record) throws IOException {
+        writeFrame(out, record);
+        out.flush();
+    }
+
+    /**
+     * Writes the given live records to a new file next to the journal and returns it. Not synchronized:
+     * appends to the current journal go on meanwhile, the caller hands them to {@link #replaceWith(Path, Collection)}.
+     */
+    public Path writeCompacted(Collection<IdempotencyRecord> liveRecords) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        writeSynced(compacted, liveRecords, false);
+        return compacted;
+    }
+
+    /**
+     * Adds the records appended since the compacted file was written, then moves it over the journal atomically,
+     * so a crash mid-compaction leaves the previous journal intact. The caller must stop appends while this runs.
+     */
+    public synchronized void replaceWith(Path compacted, Collection<IdempotencyRecord> appendedSince) throws IOException {
+        if (!appendedSince.isEmpty()) {
+            writeSynced(compacted, appendedSince, true);
+        }
+        out.close();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        openForAppend();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+    }
+
+    private static void writeSynced(Path file, Collection<IdempotencyRecord> records, boolean append) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(file.toFile(), append);
+             DataOutputStream fileOut = new DataOutputStream(new BufferedOutputStream(fos))) {
+            for (IdempotencyRecord record : records) {
+                writeFrame(fileOut, record);
+            }
+            fileOut.flush();
+            fos.getFD().sync(); // Make sure the compacted file is on disk before it replaces the old one
+        }
+    }
+
+    private static void writeFrame(DataOutputStream target, IdempotencyRecord record) throws IOException {
+        byte[] payload = encode(record);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        target.writeInt(payload.length);
+        target.writeInt((int) crc.getValue());
+        target.write(payload);
+    }
+
+    private void openForAppend() throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path.toFile(), true)));
+    }
+
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        int length;
+        int expectedCrc;
+        byte[] payload;
+        try {
+            length = in.readInt();
+            expectedCrc = in.readInt();
+            if (length <= 0 || length > 64 * 1024 * 1024) {
+                return null; // Garbage length, treat the rest of the file as torn
+            }
+            payload = in.readNBytes(length);
+        } catch (EOFException e) {
+            return null;
+        }
+        if (payload.length != length) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != expectedCrc) {
+            return null;
+        }
+        return payload;
+    }
+
+    private static byte[] encode(IdempotencyRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + record.body().length);
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeByte(FORMAT);
+        data.writeUTF(record.key());
+        data.write(record.fingerprint());
+        data.writeInt(record.status());
+        data.writeUTF(record.contentType() == null ? "" : record.contentType());
+        data.writeLong(record.createdAt());
+        data.writeInt(record.body().length);
+        data.write(record.body());
+        return bytes.toByteArray();
+    }
+
+    private static IdempotencyRecord decode(byte[] payload) throws IOException {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload, 1, payload.length - 1));
+        String key = data.readUTF();
+        byte[] fingerprint = data.readNBytes(FINGERPRINT_BYTES);
+        int status = data.readInt();
+        String contentType = data.readUTF();
+        long createdAt = data.readLong();
+        byte[] body = data.readNBytes(data.readInt());
+        return new IdempotencyRecord(key, fingerprint, status, contentType.isEmpty() ? null : contentType, body, createdAt);
+    }
+}
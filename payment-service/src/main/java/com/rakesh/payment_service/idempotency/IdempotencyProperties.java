@@ -0,0 +1,33 @@
+package com.rakesh.payment_service.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the idempotency layer, bound from the {@code payment.idempotency.*} properties.
+ * Defaults are sized for a single payment-service instance; tune them in application.properties.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "payment.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true; // Switch the whole filter off without removing the bean
+
+    private String headerName = "Idempotency-Key"; // Header the gateway and order-service send on retries
+
+    private int maxEntries = 100_000; // Upper bound of keys kept in memory, least recently used keys are dropped first
+
+    // Responses bigger than this are not cached; the key is still remembered and a retry with it gets a 422
+    private int maxBodyBytes = 64 * 1024;
+
+    // Request bodies are buffered to fingerprint them; bigger ones are refused with 413 instead of being read into memory
+    private int maxRequestBodyBytes = 64 * 1024;
+
+    private Duration ttl = Duration.ofHours(24); // How long a key is honoured before it may be reused
+
+    private String journalPath = "data/idempotency/journal.log"; // Append-only journal used to rebuild the index on restart
+
+    private Duration compactionInterval = Duration.ofMinutes(15); // How often expired keys are purged from memory and journal
+}
@@ -0,0 +1,24 @@
+package com.rakesh.payment_service.idempotency;
+
+/**
+ * The remembered outcome of a request carrying an idempotency key.
+ * A duplicate request with the same key is answered straight from this record without touching the payment logic.
+ *
+ * @param key         the value of the Idempotency-Key header
+ * @param fingerprint SHA-256 of method, path, query string and body, used to reject the same key reused for a different request
+ * @param status      HTTP status of the original response
+ * @param contentType content type of the original response, may be null
+ * @param body        raw bytes of the original response body
+ * @param createdAt   epoch millis when the original response was stored
+ */
+public record IdempotencyRecord(String key,
+                                byte[] fingerprint,
+                                int status,
+                                String contentType,
+                                byte[] body,
+                                long createdAt) {
+
+    public boolean isExpired(long now, long ttlMillis) {
+        return now - createdAt > ttlMillis;
+    }
+}
@@ -0,0 +1,161 @@
+package com.rakesh.payment_service.idempotency;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded in-memory index of recently seen idempotency keys, backed by an {@link IdempotencyJournal}.
+ *
+ * Lookups never hit the database or the disk: the index is a LinkedHashMap in access order, so the least recently
+ * used key is evicted once {@code maxEntries} is reached. The journal is only read at startup (to rebuild the index)
+ * and rewritten by the scheduled compaction, which also drops keys older than the configured TTL.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final IdempotencyProperties properties;
+    private final Map<String, IdempotencyRecord> index;
+    private final Map<String, byte[]> inFlight = new ConcurrentHashMap<>(); // key -> fingerprint of the request currently being processed
+    private IdempotencyJournal journal;
+    private List<IdempotencyRecord> completedDuringCompaction; // Non-null while compact() writes the new journal, guarded by index
+
+    @Autowired
+    public IdempotencyStore(IdempotencyProperties properties) {
+        this.properties = properties;
+        int maxEntries = properties.getMaxEntries();
+        // accessOrder = true turns the LinkedHashMap into an LRU list, removeEldestEntry keeps it bounded
+        this.index = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @PostConstruct
+    void loadJournal() throws IOException {
+        journal = new IdempotencyJournal(Path.of(properties.getJournalPath()));
+        long now = System.currentTimeMillis();
+        long ttlMillis = properties.getTtl().toMillis();
+        int loaded = 0;
+        for (IdempotencyRecord record : journal.replay()) {
+            if (!record.isExpired(now, ttlMillis)) {
+                index.put(record.key(), record); // Later records for the same key win, as they were appended later
+                loaded++;
+            }
+        }
+        log.info("Idempotency index rebuilt from {} with {} live keys", properties.getJournalPath(), loaded);
+    }
+
+    @PreDestroy
+    void closeJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Returns the stored response for the key, or null if the key is unknown or expired.
+     */
+    public IdempotencyRecord find(String key) {
+        IdempotencyRecord record;
+        synchronized (index) {
+            record = index.get(key);
+        }
+        if (record != null && record.isExpired(System.currentTimeMillis(), properties.getTtl().toMillis())) {
+            return null;
+        }
+        return record;
+    }
+
+    /**
+     * Marks the key as being processed. Returns false if another request with the same key is already in flight.
+     */
+    public boolean tryBegin(String key, byte[] fingerprint) {
+        return inFlight.putIfAbsent(key, fingerprint) == null;
+    }
+
+    /**
+     * Releases the in-flight marker without storing anything, e.g. when the original request failed with a 5xx
+     * and the client should be allowed to retry for real.
+     */
+    public void abandon(String key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * Stores the final response for the key: journal first so the result survives a restart, then the index.
+     */
+    public void complete(IdempotencyRecord record) {
+        try {
+            // Same lock as the swap in compact(), so a record lands either in the old journal and the catch-up list,
+            // or in the new journal
+            synchronized (index) {
+                journal.append(record);
+                index.put(record.key(), record);
+                if (completedDuringCompaction != null) {
+                    completedDuringCompaction.add(record);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append idempotency record for key " + record.key(), e);
+        } finally {
+            inFlight.remove(record.key());
+        }
+    }
+
+    /**
+     * Drops expired keys from memory and rewrites the journal with the remaining ones,
+     * so the file does not grow without bound.
+     *
+     * Only the snapshot and the final swap hold the index lock. The new file is written in between, while requests
+     * keep completing into the old journal; those records are appended to the new file right before it replaces the old one.
+     */
+    @Scheduled(fixedDelayString = "${payment.idempotency.compaction-interval:PT15M}")
+    public synchronized void compact() { // synchronized: one compaction at a time, the index lock is separate
+        long now = System.currentTimeMillis();
+        long ttlMillis = properties.getTtl().toMillis();
+        List<IdempotencyRecord> live;
+        synchronized (index) {
+            index.values().removeIf(record -> record.isExpired(now, ttlMillis));
+            live = new ArrayList<>(index.values());
+            completedDuringCompaction = new ArrayList<>();
+        }
+        try {
+            Path compacted = journal.writeCompacted(live);
+            synchronized (index) {
+                journal.replaceWith(compacted, completedDuringCompaction);
+            }
+        } catch (IOException e) {
+            log.error("Idempotency journal compaction failed, keeping the previous journal", e);
+            return;
+        } finally {
+            synchronized (index) {
+                completedDuringCompaction = null;
+            }
+        }
+        log.debug("Idempotency journal compacted to {} live keys", live.size());
+    }
+
+    public int size() {
+        synchronized (index) {
+            return index.size();
+        }
+    }
+}
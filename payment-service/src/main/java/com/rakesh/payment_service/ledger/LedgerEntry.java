@@ -0,0 +1,21 @@
+package com.rakesh.payment_service.ledger;
+
+/**
+ * One immutable ledger record as it is stored on disk.
+ *
+ * @param sequence    global, gap-free sequence number assigned by the ledger
+ * @param paymentId   payment the event belongs to
+ * @param merchantId  merchant receiving the money
+ * @param amountMinor amount in minor units (cents), never a floating point value
+ * @param currency    ISO-4217 currency code, e.g. "EUR"
+ * @param type        what happened to the payment
+ * @param timestamp   epoch millis of the event
+ */
+public record LedgerEntry(long sequence,
+                          long paymentId,
+                          long merchantId,
+                          long amountMinor,
+                          String currency,
+                          LedgerEntryType type,
+                          long timestamp) {
+}
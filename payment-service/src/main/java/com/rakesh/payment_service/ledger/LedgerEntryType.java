@@ -0,0 +1,9 @@
+package com.rakesh.payment_service.ledger;
+
+/**
+ * Kind of payment event written to the ledger. The ordinal is stored in the binary record,
+ * so new constants must only ever be appended at the end.
+ */
+public enum LedgerEntryType {
+    AUTHORIZED, CAPTURED, REFUNDED, VOIDED
+}
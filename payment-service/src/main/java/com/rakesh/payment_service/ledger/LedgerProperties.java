@@ -0,0 +1,20 @@
+package com.rakesh.payment_service.ledger;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the append-only payment ledger, bound from {@code payment.ledger.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "payment.ledger")
+public class LedgerProperties {
+
+    private String directory = "data/ledger"; // Folder holding the segment files
+
+    private int segmentSizeBytes = 64 * 1024 * 1024; // Size of one memory-mapped segment, must be a multiple of the record size
+
+    private Duration groupCommitInterval = Duration.ofMillis(2); // How long appends may wait so one fsync covers a whole batch
+}
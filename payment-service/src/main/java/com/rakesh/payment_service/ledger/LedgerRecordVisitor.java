@@ -0,0 +1,12 @@
+package com.rakesh.payment_service.ledger;
+
+/**
+ * Allocation-free callback receiving the raw fields of one ledger record.
+ * {@code currencyCode} is the packed form returned by {@link PaymentLedger#currencyCode(String)},
+ * {@code typeOrdinal} the ordinal of {@link LedgerEntryType}.
+ */
+@FunctionalInterface
+public interface LedgerRecordVisitor {
+
+    void visit(long sequence, long paymentId, long merchantId, long amountMinor, int currencyCode, int typeOrdinal, long timestamp);
+}
@@ -0,0 +1,174 @@
+package com.rakesh.payment_service.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size, memory-mapped ledger file holding {@link #RECORD_SIZE}-byte records back to back.
+ *
+ * Record layout (all big endian):
+ * <pre>
+ *  0  int   magic          "LEDG", written last so a half written record is never taken as valid
+ *  4  int   crc32c         over bytes 8..63
+ *  8  long  sequence
+ * 16  long  paymentId
+ * 24  long  merchantId
+ * 32  long  amountMinor
+ * 40  long  timestamp
+ * 48  long  previousPosition   position of the previous record of the same payment, -1 if none
+ * 56  int   currency           three ASCII characters packed into an int
+ * 60  byte  type               LedgerEntryType ordinal
+ * 61  3 bytes padding
+ * </pre>
+ * The file is pre-allocated with zeros, so the first slot without the magic marks the end of the data.
+ */
+class LedgerSegment implements Closeable {
+
+    static final int RECORD_SIZE = 64;
+    private static final int MAGIC = 0x4C454447; // "LEDG"
+
+    private final long number;
+    private long firstSequence; // Sequence of the first record in this segment, sequences are contiguous inside a segment
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int writeOffset;
+
+    LedgerSegment(Path file, long number, long firstSequence, int sizeBytes) throws IOException {
+        this.number = number;
+        this.firstSequence = firstSequence;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes); // Grows the file to sizeBytes if it is new
+        this.capacity = sizeBytes;
+    }
+
+    long number() {
+        return number;
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    int writeOffset() {
+        return writeOffset;
+    }
+
+    boolean hasRoom() {
+        return writeOffset + RECORD_SIZE <= capacity;
+    }
+
+    /**
+     * Writes one record at the current end of the segment and returns its offset.
+     * Only the single ledger writer calls this, under the ledger lock.
+     */
+    int append(long sequence, long paymentId, long merchantId, long amountMinor, long timestamp,
+               long previousPosition, String currency, LedgerEntryType type) {
+        int offset = writeOffset;
+        buffer.putLong(offset + 8, sequence);
+        buffer.putLong(offset + 16, paymentId);
+        buffer.putLong(offset + 24, merchantId);
+        buffer.putLong(offset + 32, amountMinor);
+        buffer.putLong(offset + 40, timestamp);
+        buffer.putLong(offset + 48, previousPosition);
+        buffer.putInt(offset + 56, packCurrency(currency));
+        buffer.put(offset + 60, (byte) type.ordinal());
+        buffer.putInt(offset + 4, checksum(offset));
+        buffer.putInt(offset, MAGIC); // Publish the record only after everything else is in place
+        writeOffset = offset + RECORD_SIZE;
+        return offset;
+    }
+
+    /**
+     * Walks the segment from the start and positions the write offset after the last intact record.
+     * The visitor is called for every intact record, in order, so the caller can rebuild its indexes.
+     */
+    void recover(RecordVisitor visitor) {
+        int offset = 0;
+        while (offset + RECORD_SIZE <= capacity
+                && buffer.getInt(offset) == MAGIC
+                && buffer.getInt(offset + 4) == checksum(offset)) {
+            if (offset == 0) {
+                firstSequence = buffer.getLong(8);
+            }
+            visitor.visit(offset, buffer.getLong(offset + 8), buffer.getLong(offset + 16), buffer.getLong(offset + 40));
+            offset += RECORD_SIZE;
+        }
+        writeOffset = offset;
+    }
+
+    LedgerEntry read(int offset) {
+        return new LedgerEntry(
+                buffer.getLong(offset + 8),
+                buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24),
+                buffer.getLong(offset + 32),
+                unpackCurrency(buffer.getInt(offset + 56)),
+                LedgerEntryType.values()[buffer.get(offset + 60)],
+                buffer.getLong(offset + 40));
+    }
+
+    /**
+     * Hands the raw fields of one record to the visitor without allocating anything,
+     * which is what batch jobs walking millions of records want.
+     */
+    void visit(int offset, LedgerRecordVisitor visitor) {
+        visitor.visit(
+                buffer.getLong(offset + 8),
+                buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24),
+                buffer.getLong(offset + 32),
+                buffer.getInt(offset + 56),
+                buffer.get(offset + 60),
+                buffer.getLong(offset + 40));
+    }
+
+    long timestamp(int offset) {
+        return buffer.getLong(offset + 40);
+    }
+
+    long previousPosition(int offset) {
+        return buffer.getLong(offset + 48);
+    }
+
+    /**
+     * Forces the dirty pages of this segment to disk (the fsync of the group commit).
+     */
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close(); // The mapping itself stays valid until the buffer is garbage collected
+    }
+
+    private int checksum(int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + 8, RECORD_SIZE - 8));
+        return (int) crc.getValue();
+    }
+
+    static int packCurrency(String currency) {
+        byte[] bytes = currency.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length != 3) {
+            throw new IllegalArgumentException("Currency must be a 3 letter ISO code: " + currency);
+        }
+        return (bytes[0] << 16) | (bytes[1] << 8) | bytes[2];
+    }
+
+    private static String unpackCurrency(int packed) {
+        return new String(new byte[]{(byte) (packed >> 16), (byte) (packed >> 8), (byte) packed}, StandardCharsets.US_ASCII);
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(int offset, long sequence, long paymentId, long timestamp);
+    }
+}
@@ -0,0 +1,88 @@
+package com.rakesh.payment_service.ledger;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from a long key to a long value, without boxing.
+ * A HashMap&lt;Long, Long&gt; would cost two objects plus a node per entry; with millions of payment ids that is
+ * hundreds of MB of garbage, while this keeps the whole index in two flat arrays.
+ * Not thread safe: callers guard it with their own lock.
+ */
+public class LongLongIndex {
+
+    private static final long EMPTY = Long.MIN_VALUE; // Reserved key marking a free slot
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private int mask;
+
+    public LongLongIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Stores the value and returns the previous one, or {@code missingValue} if the key was absent.
+     */
+    public long put(long key, long value, long missingValue) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key " + EMPTY + " is reserved");
+        }
+        if ((size + 1) * 4 > keys.length * 3) { // Keep the load factor under 0.75
+            allocateAndRehash(keys.length << 1);
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                long previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return missingValue;
+    }
+
+    public long get(long key, long missingValue) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing spreads sequential ids over the table
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private void allocateAndRehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i], 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.rakesh.payment_service.ledger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append-only ledger of payment events stored in memory-mapped segment files.
+ *
+ * Writes: {@link #append} copies the record into the active segment under a short lock and returns a future.
+ * A background flusher forces the segment to disk every {@code groupCommitInterval} and completes all futures
+ * written before that force, so one fsync is shared by every append of the batch (group commit).
+ * When a segment is full it is forced, and a new segment file is started.
+ *
+ * Reads: an offset index (payment id -> position of its latest record) answers lookups without scanning;
+ * every record points back to the previous record of the same payment, so the full history is a short chain walk.
+ * Timestamps never decrease in append order (a clock stepping back repeats the last one), so the records of a period
+ * are one sequence range, found by binary search with {@link #firstSequenceAt}.
+ *
+ * Startup: all segments are replayed in order to rebuild the index and find the write position.
+ */
+@Component
+public class PaymentLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentLedger.class);
+    private static final long NO_POSITION = -1L;
+
+    private final LedgerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<LedgerSegment> segments = new ArrayList<>(); // Index in the list == segment number
+    private final LongLongIndex latestPositionByPayment = new LongLongIndex(1 << 16);
+    private final Queue<PendingAppend> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ledger-group-commit");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private LedgerSegment active;
+    private long nextSequence;
+    private long lastTimestamp; // Of the last record appended
+    private Counter appendCounter;
+    private volatile long recoveryMillis;
+
+    @Autowired
+    public PaymentLedger(LedgerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        if (properties.getSegmentSizeBytes() % LedgerSegment.RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("payment.ledger.segment-size-bytes must be a multiple of " + LedgerSegment.RECORD_SIZE);
+        }
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        long startedAt = System.nanoTime();
+        Path directory = Path.of(properties.getDirectory());
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(p -> p.getFileName().toString().endsWith(".ledger")).sorted().toList();
+        }
+        for (Path file : files) {
+            LedgerSegment segment = new LedgerSegment(file, segments.size(), nextSequence, properties.getSegmentSizeBytes());
+            segment.recover((offset, sequence, paymentId, timestamp) -> {
+                latestPositionByPayment.put(paymentId, position(segment.number(), offset), NO_POSITION);
+                nextSequence = sequence + 1;
+                lastTimestamp = Math.max(lastTimestamp, timestamp);
+            });
+            segments.add(segment);
+        }
+        active = segments.isEmpty() ? openSegment(0) : segments.get(segments.size() - 1);
+        if (!active.hasRoom()) {
+            active = openSegment(active.number() + 1);
+        }
+        recoveryMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("Payment ledger recovered {} records for {} payments from {} segment(s) in {} ms",
+                nextSequence, latestPositionByPayment.size(), segments.size(), recoveryMillis);
+
+        appendCounter = meterRegistry.counter("payment.ledger.appends");
+        Gauge.builder("payment.ledger.recovery.time", () -> recoveryMillis).baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("payment.ledger.segments", segments, List::size).register(meterRegistry);
+
+        long intervalMicros = properties.getGroupCommitInterval().toNanos() / 1000;
+        flusher.scheduleWithFixedDelay(this::groupCommit, intervalMicros, intervalMicros, TimeUnit.MICROSECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(1, TimeUnit.SECONDS);
+        groupCommit(); // Make sure nothing acknowledged-to-be is left unflushed
+        synchronized (this) {
+            for (LedgerSegment segment : segments) {
+                segment.close();
+            }
+        }
+    }
+
+    /**
+     * Appends an event and returns a future that completes once the record is durable on disk.
+     */
+    public CompletableFuture<LedgerEntry> append(long paymentId, long merchantId, long amountMinor, String currency, LedgerEntryType type) {
+        CompletableFuture<LedgerEntry> future = new CompletableFuture<>();
+        LedgerEntry entry;
+        synchronized (this) {
+            if (!active.hasRoom()) {
+                active.force(); // Everything in the full segment must be durable before we stop forcing it
+                active = openSegment(active.number() + 1);
+            }
+            long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+            lastTimestamp = timestamp;
+            long sequence = nextSequence++;
+            long previous = latestPositionByPayment.get(paymentId, NO_POSITION);
+            int offset = active.append(sequence, paymentId, merchantId, amountMinor, timestamp, previous, currency, type);
+            latestPositionByPayment.put(paymentId, position(active.number(), offset), NO_POSITION);
+            entry = new LedgerEntry(sequence, paymentId, merchantId, amountMinor, currency, type, timestamp);
+            pending.add(new PendingAppend(sequence, entry, future));
+        }
+        appendCounter.increment();
+        return future;
+    }
+
+    /**
+     * Returns every event of the payment, newest first, or an empty list if the payment is unknown.
+     */
+    public synchronized List<LedgerEntry> history(long paymentId) {
+        List<LedgerEntry> entries = new ArrayList<>();
+        long position = latestPositionByPayment.get(paymentId, NO_POSITION);
+        while (position != NO_POSITION) {
+            LedgerSegment segment = segments.get(segmentNumber(position));
+            int offset = offset(position);
+            entries.add(segment.read(offset));
+            position = segment.previousPosition(offset);
+        }
+        return entries;
+    }
+
+    /**
+     * Visits the records with sequence in {@code [fromSequence, toSequence)} in append order, without allocating
+     * per record. Safe to call from many threads at once, e.g. one per chunk of a batch job.
+     */
+    public void scanRange(long fromSequence, long toSequence, LedgerRecordVisitor visitor) {
+        List<LedgerSegment> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(segments);
+            toSequence = Math.min(toSequence, nextSequence);
+        }
+        long sequence = fromSequence;
+        int segmentIndex = findSegment(snapshot, sequence);
+        while (sequence < toSequence && segmentIndex < snapshot.size()) {
+            LedgerSegment segment = snapshot.get(segmentIndex);
+            long segmentEnd = segmentIndex + 1 < snapshot.size() ? snapshot.get(segmentIndex + 1).firstSequence() : toSequence;
+            long end = Math.min(segmentEnd, toSequence);
+            for (; sequence < end; sequence++) {
+                segment.visit((int) (sequence - segment.firstSequence()) * LedgerSegment.RECORD_SIZE, visitor);
+            }
+            segmentIndex++;
+        }
+    }
+
+    /**
+     * Returns the sequence of the first record with a timestamp at or after {@code timestampMillis}, or {@link #size()}
+     * when there is none. A binary search over the records, reading one timestamp per step.
+     */
+    public long firstSequenceAt(long timestampMillis) {
+        List<LedgerSegment> snapshot;
+        long low = 0;
+        long high;
+        synchronized (this) {
+            snapshot = new ArrayList<>(segments);
+            high = nextSequence;
+        }
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            LedgerSegment segment = snapshot.get(findSegment(snapshot, middle));
+            if (segment.timestamp((int) (middle - segment.firstSequence()) * LedgerSegment.RECORD_SIZE) < timestampMillis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Packs an ISO currency code the same way it is stored in the records, for comparing inside a {@link LedgerRecordVisitor}.
+     */
+    public static int currencyCode(String currency) {
+        return LedgerSegment.packCurrency(currency);
+    }
+
+    public synchronized long size() {
+        return nextSequence;
+    }
+
+    /**
+     * One group commit: force the active segment once and acknowledge every append written before the force.
+     */
+    private void groupCommit() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long durableUpTo;
+        LedgerSegment toForce;
+        synchronized (this) {
+            durableUpTo = nextSequence - 1; // Every record up to here is fully written into the mapped buffer
+            toForce = active;
+        }
+        try {
+            toForce.force();
+        } catch (RuntimeException e) {
+            log.error("Ledger force failed, failing pending appends", e);
+            PendingAppend failed;
+            while ((failed = pending.peek()) != null && failed.sequence() <= durableUpTo) {
+                pending.poll().future().completeExceptionally(e);
+            }
+            return;
+        }
+        PendingAppend done;
+        while ((done = pending.peek()) != null && done.sequence() <= durableUpTo) {
+            pending.poll().future().complete(done.entry());
+        }
+    }
+
+    private static int findSegment(List<LedgerSegment> snapshot, long sequence) {
+        // Segments are ordered by first sequence, so a binary search finds the one holding the sequence
+        int low = 0;
+        int high = snapshot.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (snapshot.get(mid).firstSequence() <= sequence) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private LedgerSegment openSegment(long number) {
+        Path file = Path.of(properties.getDirectory(), String.format("%020d.ledger", number));
+        try {
+            LedgerSegment segment = new LedgerSegment(file, number, nextSequence, properties.getSegmentSizeBytes());
+            segments.add(segment);
+            log.info("Opened ledger segment {}", file);
+            return segment;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open ledger segment " + file, e);
+        }
+    }
+
+    private static long position(long segmentNumber, int offset) {
+        return (segmentNumber << 32) | offset;
+    }
+
+    private static int segmentNumber(long position) {
+        return (int) (position >>> 32);
+    }
+
+    private static int offset(long position) {
+        return (int) position;
+    }
+
+    private record PendingAppend(long sequence, LedgerEntry entry, CompletableFuture<LedgerEntry> future) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.rakesh.payment_service.settlement;
+
+import com.rakesh.payment_service.ledger.LongLongIndex;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Per-partition settlement totals kept in parallel primitive arrays.
+ *
+ * Amounts stay in minor units as longs the whole way, so aggregating a row is an index lookup and two additions;
+ * no BigDecimal or boxed value is created per ledger record. Each fork-join leaf task owns its own accumulator,
+ * results are combined with {@link #merge(SettlementAccumulator)} on the way back up, so no locking is needed.
+ */
+public class SettlementAccumulator {
+
+    private static final long MISSING = -1L;
+
+    private final LongLongIndex slotByKey = new LongLongIndex(1024); // partition key -> slot in the arrays below
+    private long[] keys = new long[256];
+    private long[] capturedMinor = new long[256];
+    private long[] refundedMinor = new long[256];
+    private long[] entryCount = new long[256];
+    private int size;
+
+    public void addCapture(long partitionKey, long amountMinor) {
+        int slot = slot(partitionKey);
+        capturedMinor[slot] += amountMinor;
+        entryCount[slot]++;
+    }
+
+    public void addRefund(long partitionKey, long amountMinor) {
+        int slot = slot(partitionKey);
+        refundedMinor[slot] += amountMinor;
+        entryCount[slot]++;
+    }
+
+    /**
+     * Adds every total of the other accumulator to this one.
+     */
+    public SettlementAccumulator merge(SettlementAccumulator other) {
+        for (int i = 0; i < other.size; i++) {
+            int slot = slot(other.keys[i]);
+            capturedMinor[slot] += other.capturedMinor[i];
+            refundedMinor[slot] += other.refundedMinor[i];
+            entryCount[slot] += other.entryCount[i];
+        }
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Materialises the totals as DTO-like objects, largest net amount first. Only called once per run, off the hot path.
+     */
+    public List<SettlementTotal> toTotals() {
+        List<SettlementTotal> totals = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            totals.add(new SettlementTotal(keys[i], capturedMinor[i], refundedMinor[i],
+                    capturedMinor[i] - refundedMinor[i], entryCount[i]));
+        }
+        totals.sort(Comparator.comparingLong(SettlementTotal::netMinor).reversed());
+        return totals;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(keys[i]);
+            out.writeLong(capturedMinor[i]);
+            out.writeLong(refundedMinor[i]);
+            out.writeLong(entryCount[i]);
+        }
+    }
+
+    static SettlementAccumulator readFrom(DataInput in) throws IOException {
+        SettlementAccumulator accumulator = new SettlementAccumulator();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int slot = accumulator.slot(in.readLong());
+            accumulator.capturedMinor[slot] = in.readLong();
+            accumulator.refundedMinor[slot] = in.readLong();
+            accumulator.entryCount[slot] = in.readLong();
+        }
+        return accumulator;
+    }
+
+    private int slot(long partitionKey) {
+        long slot = slotByKey.get(partitionKey, MISSING);
+        if (slot != MISSING) {
+            return (int) slot;
+        }
+        if (size == keys.length) {
+            int capacity = size << 1;
+            keys = Arrays.copyOf(keys, capacity);
+            capturedMinor = Arrays.copyOf(capturedMinor, capacity);
+            refundedMinor = Arrays.copyOf(refundedMinor, capacity);
+            entryCount = Arrays.copyOf(entryCount, capacity);
+        }
+        keys[size] = partitionKey;
+        slotByKey.put(partitionKey, size, MISSING);
+        return size++;
+    }
+}
@@ -0,0 +1,68 @@
+package com.rakesh.payment_service.settlement;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Progress of an unfinished settlement run: everything before {@code nextSequence} is already in {@code totals}.
+ * Saved after every wave of chunks, so a crash only loses the wave that was in flight.
+ */
+record SettlementCheckpoint(SettlementRun run, long nextSequence, SettlementAccumulator totals) {
+
+    private static final int FORMAT_VERSION = 2; // Checkpoints of any other version are refused
+
+    /**
+     * Writes the checkpoint to a temporary file, fsyncs it and atomically moves it over the previous one.
+     */
+    void save(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(run.runId());
+            out.writeInt(run.partitionBy().ordinal());
+            out.writeLong(run.timeBucketMillis());
+            out.writeInt(run.currencyCode());
+            out.writeLong(run.fromMillis());
+            out.writeLong(run.toMillis());
+            out.writeLong(run.startSequence());
+            out.writeLong(run.endSequence());
+            out.writeLong(nextSequence);
+            totals.writeTo(out);
+            out.flush();
+            fos.getFD().sync();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the checkpoint, or returns null if there is none (no run was interrupted).
+     */
+    static SettlementCheckpoint load(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported settlement checkpoint version " + version);
+            }
+            SettlementRun run = new SettlementRun(
+                    in.readUTF(),
+                    SettlementPartitioning.values()[in.readInt()],
+                    in.readLong(),
+                    in.readInt(),
+                    in.readLong(),
+                    in.readLong(),
+                    in.readLong(),
+                    in.readLong());
+            long nextSequence = in.readLong();
+            return new SettlementCheckpoint(run, nextSequence, SettlementAccumulator.readFrom(in));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.rakesh.payment_service.settlement;
+
+import com.rakesh.payment_service.ledger.LedgerEntryType;
+import com.rakesh.payment_service.ledger.PaymentLedger;
+
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fork-join task aggregating the ledger records with sequence in {@code [from, to)}.
+ * Ranges bigger than one chunk are split in half until every leaf scans at most {@code chunkSize} records;
+ * the leaves' accumulators are merged as the tasks join.
+ */
+class SettlementChunkTask extends RecursiveTask<SettlementAccumulator> {
+
+    private static final int CAPTURED = LedgerEntryType.CAPTURED.ordinal();
+    private static final int REFUNDED = LedgerEntryType.REFUNDED.ordinal();
+
+    private final PaymentLedger ledger;
+    private final SettlementRun run;
+    private final long from;
+    private final long to;
+    private final int chunkSize;
+    private final LongAdder processed;
+
+    SettlementChunkTask(PaymentLedger ledger, SettlementRun run, long from, long to, int chunkSize, LongAdder processed) {
+        this.ledger = ledger;
+        this.run = run;
+        this.from = from;
+        this.to = to;
+        this.chunkSize = chunkSize;
+        this.processed = processed;
+    }
+
+    @Override
+    protected SettlementAccumulator compute() {
+        if (to - from > chunkSize) {
+            long middle = from + (to - from) / 2;
+            SettlementChunkTask left = new SettlementChunkTask(ledger, run, from, middle, chunkSize, processed);
+            SettlementChunkTask right = new SettlementChunkTask(ledger, run, middle, to, chunkSize, processed);
+            left.fork(); // Let another worker steal the left half
+            SettlementAccumulator rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+
+        SettlementAccumulator accumulator = new SettlementAccumulator();
+        boolean byMerchant = run.partitionBy() == SettlementPartitioning.MERCHANT;
+        long bucketMillis = run.timeBucketMillis();
+        ledger.scanRange(from, to, (sequence, paymentId, merchantId, amountMinor, currencyCode, typeOrdinal, timestamp) -> {
+            if (currencyCode != run.currencyCode() || timestamp < run.fromMillis() || timestamp >= run.toMillis()) {
+                return;
+            }
+            long key = byMerchant ? merchantId : timestamp - Math.floorMod(timestamp, bucketMillis);
+            if (typeOrdinal == CAPTURED) {
+                accumulator.addCapture(key, amountMinor);
+            } else if (typeOrdinal == REFUNDED) {
+                accumulator.addRefund(key, amountMinor);
+            }
+        });
+        processed.add(to - from); // Once per chunk, not per record, to keep the counter off the hot path
+        return accumulator;
+    }
+}
@@ -0,0 +1,49 @@
+package com.rakesh.payment_service.settlement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the settlement job.
+ *
+ *  - `GET  /actuator/settlement`                       progress, throughput and the top partitions of the last run
+ *  - `POST /actuator/settlement {"day":"2026-10-18"}`  start a run for the given day (yesterday when omitted)
+ */
+@Component
+@Endpoint(id = "settlement")
+public class SettlementEndpoint {
+
+    private static final int TOP_PARTITIONS = 50;
+
+    private final SettlementEngine engine;
+    private final SettlementProperties properties;
+
+    @Autowired
+    public SettlementEndpoint(SettlementEngine engine, SettlementProperties properties) {
+        this.engine = engine;
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public Map<String, Object> settlement() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("progress", engine.progress());
+        body.put("topPartitions", engine.lastResult().stream().limit(TOP_PARTITIONS).toList());
+        return body;
+    }
+
+    @WriteOperation
+    public SettlementEngine.SettlementProgress start(@Nullable String day) {
+        LocalDate settlementDay = day != null ? LocalDate.parse(day) : LocalDate.now(ZoneId.of(properties.getZone())).minusDays(1);
+        return engine.start(settlementDay);
+    }
+}
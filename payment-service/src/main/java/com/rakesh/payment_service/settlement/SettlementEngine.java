@@ -0,0 +1,222 @@
+package com.rakesh.payment_service.settlement;
+
+import com.rakesh.payment_service.exception.ResourceConflictException;
+import com.rakesh.payment_service.ledger.PaymentLedger;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-of-day settlement over the {@link PaymentLedger}.
+ *
+ * A run covers one day in one currency. Its ledger range, the records appended during the day, is found by a binary
+ * search on the timestamps, so a run reads only that day however long the ledger has grown. The range is processed
+ * in waves of {@code chunksPerCheckpoint * chunkSize} records; each wave is split into chunks aggregated in parallel
+ * on a dedicated fork-join pool, then merged into the running totals and checkpointed to disk.
+ * If the process dies, the checkpoint is picked up on the next start and the run resumes from the last wave.
+ *
+ * Only one run executes at a time. Progress and the last result are exposed by {@link SettlementEndpoint}.
+ */
+@Component
+public class SettlementEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementEngine.class);
+
+    private final PaymentLedger ledger;
+    private final SettlementProperties properties;
+    private final ForkJoinPool pool;
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(r -> new Thread(r, "settlement-coordinator"));
+    private final LongAdder processed = new LongAdder();
+
+    private volatile SettlementProgress progress = SettlementProgress.idle();
+    private volatile List<SettlementTotal> lastResult = List.of();
+
+    @Autowired
+    public SettlementEngine(PaymentLedger ledger, SettlementProperties properties, MeterRegistry meterRegistry) {
+        this.ledger = ledger;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(properties.getParallelism());
+        Gauge.builder("payment.settlement.processed.records", processed, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("payment.settlement.throughput", this, engine -> engine.progress().recordsPerSecond())
+                .baseUnit("records/s").register(meterRegistry);
+    }
+
+    /**
+     * Resumes a run interrupted by a crash or restart, if a checkpoint was left behind.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        try {
+            SettlementCheckpoint checkpoint = SettlementCheckpoint.load(checkpointPath());
+            if (checkpoint != null) {
+                log.info("Resuming settlement run {} from ledger sequence {}", checkpoint.run().runId(), checkpoint.nextSequence());
+                submit(checkpoint);
+            }
+        } catch (IOException e) {
+            log.error("Could not read settlement checkpoint {}, the interrupted run must be restarted manually", checkpointPath(), e);
+        }
+    }
+
+    /**
+     * Settles the previous day every night (cron configurable through payment.settlement.cron).
+     */
+    @Scheduled(cron = "${payment.settlement.cron:0 5 0 * * *}", zone = "${payment.settlement.zone:UTC}")
+    public void settleYesterday() {
+        try {
+            start(LocalDate.now(ZoneId.of(properties.getZone())).minusDays(1));
+        } catch (ResourceConflictException e) {
+            log.warn("Nightly settlement skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Starts settling the given day in the background.
+     *
+     * @throws ResourceConflictException if a run is already in progress (409 on the actuator endpoint)
+     */
+    public synchronized SettlementProgress start(LocalDate day) {
+        if (progress.running()) {
+            throw new ResourceConflictException("Settlement run " + progress.runId() + " is still in progress");
+        }
+        ZoneId zone = ZoneId.of(properties.getZone());
+        long fromMillis = day.atStartOfDay(zone).toInstant().toEpochMilli();
+        long toMillis = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        SettlementRun run = new SettlementRun(
+                day + "-" + properties.getCurrency() + "-" + properties.getPartitionBy(),
+                properties.getPartitionBy(),
+                properties.getTimeBucket().toMillis(),
+                PaymentLedger.currencyCode(properties.getCurrency()),
+                fromMillis,
+                toMillis,
+                ledger.firstSequenceAt(fromMillis),
+                ledger.firstSequenceAt(toMillis));
+        submit(new SettlementCheckpoint(run, run.startSequence(), new SettlementAccumulator()));
+        return progress;
+    }
+
+    public SettlementProgress progress() {
+        SettlementProgress current = progress;
+        return current.running() ? current.withProcessed(processed.sum()) : current;
+    }
+
+    public List<SettlementTotal> lastResult() {
+        return lastResult;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private synchronized void submit(SettlementCheckpoint checkpoint) {
+        SettlementRun run = checkpoint.run();
+        long done = checkpoint.nextSequence() - run.startSequence();
+        processed.reset();
+        processed.add(done);
+        progress = SettlementProgress.started(run.runId(), run.endSequence() - run.startSequence(), checkpoint.nextSequence(), done);
+        coordinator.submit(() -> execute(checkpoint));
+    }
+
+    private void execute(SettlementCheckpoint checkpoint) {
+        SettlementRun run = checkpoint.run();
+        SettlementAccumulator totals = checkpoint.totals();
+        long next = checkpoint.nextSequence();
+        long waveSize = (long) properties.getChunkSize() * properties.getChunksPerCheckpoint();
+        try {
+            while (next < run.endSequence()) {
+                long waveEnd = Math.min(run.endSequence(), next + waveSize);
+                totals.merge(pool.invoke(new SettlementChunkTask(ledger, run, next, waveEnd, properties.getChunkSize(), processed)));
+                next = waveEnd;
+                new SettlementCheckpoint(run, next, totals).save(checkpointPath());
+                progress = progress.checkpointed(next, next - run.startSequence());
+            }
+            lastResult = totals.toTotals();
+            Files.deleteIfExists(checkpointPath()); // The run is complete, nothing to resume any more
+            progress = progress.completed(processed.sum(), lastResult.size());
+            log.info("Settlement run {} completed: {} records, {} partitions, {} records/s",
+                    run.runId(), processed.sum(), lastResult.size(), progress.recordsPerSecond());
+        } catch (Exception e) {
+            progress = progress.failed(processed.sum(), e.getMessage());
+            log.error("Settlement run {} failed at ledger sequence {}, it will resume from the last checkpoint on restart",
+                    run.runId(), next, e);
+        }
+    }
+
+    private Path checkpointPath() {
+        return Path.of(properties.getCheckpointPath());
+    }
+
+    /**
+     * Snapshot of the current or last settlement run, as shown on the actuator endpoint.
+     */
+    public record SettlementProgress(String runId,
+                                     String status,
+                                     long totalRecords,
+                                     long processedRecords,
+                                     long lastCheckpointSequence,
+                                     Instant startedAt,
+                                     Instant finishedAt,
+                                     long recordsPerSecond,
+                                     int partitions,
+                                     String error) {
+
+        static SettlementProgress idle() {
+            return new SettlementProgress(null, "IDLE", 0, 0, 0, null, null, 0, 0, null);
+        }
+
+        static SettlementProgress started(String runId, long totalRecords, long resumedFrom, long processedRecords) {
+            return new SettlementProgress(runId, "RUNNING", totalRecords, processedRecords, resumedFrom, Instant.now(), null, 0, 0, null);
+        }
+
+        public boolean running() {
+            return "RUNNING".equals(status);
+        }
+
+        SettlementProgress withProcessed(long processedNow) {
+            return new SettlementProgress(runId, status, totalRecords, processedNow, lastCheckpointSequence, startedAt,
+                    finishedAt, rate(processedNow, Instant.now()), partitions, error);
+        }
+
+        SettlementProgress checkpointed(long sequence, long processedNow) {
+            return new SettlementProgress(runId, status, totalRecords, processedNow, sequence, startedAt, null,
+                    rate(processedNow, Instant.now()), partitions, error);
+        }
+
+        SettlementProgress completed(long processedNow, int partitionCount) {
+            Instant now = Instant.now();
+            return new SettlementProgress(runId, "COMPLETED", totalRecords, processedNow, lastCheckpointSequence, startedAt, now,
+                    rate(processedNow, now), partitionCount, null);
+        }
+
+        SettlementProgress failed(long processedNow, String message) {
+            Instant now = Instant.now();
+            return new SettlementProgress(runId, "FAILED", totalRecords, processedNow, lastCheckpointSequence, startedAt, now,
+                    rate(processedNow, now), partitions, message);
+        }
+
+        private long rate(long records, Instant now) {
+            long millis = Math.max(1, now.toEpochMilli() - startedAt.toEpochMilli());
+            return records * 1000 / millis;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.rakesh.payment_service.settlement;
+
+/**
+ * How settlement totals are grouped. The ordinal is stored in the checkpoint file.
+ */
+public enum SettlementPartitioning {
+    MERCHANT, // One total per merchant id
+    TIME      // One total per time bucket (see payment.settlement.time-bucket)
+}
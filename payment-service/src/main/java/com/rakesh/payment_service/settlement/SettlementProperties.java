@@ -0,0 +1,30 @@
+package com.rakesh.payment_service.settlement;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the end-of-day settlement job, bound from {@code payment.settlement.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "payment.settlement")
+public class SettlementProperties {
+
+    private SettlementPartitioning partitionBy = SettlementPartitioning.MERCHANT; // Group totals per merchant or per time bucket
+
+    private Duration timeBucket = Duration.ofHours(1); // Bucket width when partitioning by TIME
+
+    private String currency = "EUR"; // Only ledger entries in this currency are settled
+
+    private String zone = "UTC"; // Time zone defining where a settlement day starts and ends
+
+    private int chunkSize = 64 * 1024; // Ledger records aggregated by one fork-join leaf task
+
+    private int parallelism = Runtime.getRuntime().availableProcessors(); // Worker threads of the settlement fork-join pool
+
+    private int chunksPerCheckpoint = 64; // A checkpoint is written after this many chunks have been aggregated
+
+    private String checkpointPath = "data/settlement/checkpoint.bin"; // Where the in-progress run is saved for crash recovery
+}
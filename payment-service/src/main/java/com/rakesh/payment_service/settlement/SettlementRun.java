@@ -0,0 +1,24 @@
+package com.rakesh.payment_service.settlement;
+
+/**
+ * Immutable description of one settlement run: which slice of the ledger it covers and how totals are grouped.
+ *
+ * @param runId            human readable id, e.g. "2026-10-18-EUR-MERCHANT"
+ * @param partitionBy      grouping of the totals
+ * @param timeBucketMillis bucket width when partitioning by time
+ * @param currencyCode     packed currency, see {@link com.rakesh.payment_service.ledger.PaymentLedger#currencyCode(String)}
+ * @param fromMillis       inclusive start of the settled period (epoch millis)
+ * @param toMillis         exclusive end of the settled period (epoch millis)
+ * @param startSequence    first ledger record of the period
+ * @param endSequence      first ledger record after the period, or the ledger size when the run started if there was
+ *                         none yet; records appended later belong to the next run
+ */
+record SettlementRun(String runId,
+                     SettlementPartitioning partitionBy,
+                     long timeBucketMillis,
+                     int currencyCode,
+                     long fromMillis,
+                     long toMillis,
+                     long startSequence,
+                     long endSequence) {
+}
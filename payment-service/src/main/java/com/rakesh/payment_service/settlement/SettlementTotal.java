@@ -0,0 +1,12 @@
+package com.rakesh.payment_service.settlement;
+
+/**
+ * Settled totals of one partition (a merchant id, or the start of a time bucket in epoch millis).
+ * All amounts are in minor units (cents).
+ */
+public record SettlementTotal(long partitionKey,
+                              long capturedMinor,
+                              long refundedMinor,
+                              long netMinor,
+                              long entries) {
+}
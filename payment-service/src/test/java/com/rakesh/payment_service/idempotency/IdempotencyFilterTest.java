@@ -0,0 +1,117 @@
+package com.rakesh.payment_service.idempotency;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The filter in front of a handler that counts its executions and echoes the request body with a 201.
+ */
+class IdempotencyFilterTest {
+
+    @TempDir
+    Path directory;
+
+    private IdempotencyProperties properties;
+    private IdempotencyStore store;
+    private IdempotencyFilter filter;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new IdempotencyProperties();
+        properties.setJournalPath(directory.resolve("journal.log").toString());
+        properties.setMaxRequestBodyBytes(16);
+        store = new IdempotencyStore(properties);
+        store.loadJournal();
+        filter = new IdempotencyFilter(store, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.closeJournal();
+    }
+
+    @Test
+    void replaysTheStoredResponseForTheSameRequest() throws Exception {
+        MockHttpServletResponse first = post("key-1", "/api/payments", "{\"amount\":1}");
+        MockHttpServletResponse retry = post("key-1", "/api/payments", "{\"amount\":1}");
+
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getStatus()).isEqualTo(HttpServletResponse.SC_CREATED);
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void rejectsTheKeyReusedWithADifferentBodyOrQuery() throws Exception {
+        post("key-1", "/api/payments", "{\"amount\":1}");
+
+        assertThat(post("key-1", "/api/payments", "{\"amount\":2}").getStatus()).isEqualTo(422);
+        assertThat(post("key-1", "/api/payments?capture=true", "{\"amount\":1}").getStatus()).isEqualTo(422);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void refusesBodiesAboveTheLimitWithoutExecutingThem() throws Exception {
+        assertThat(post("key-1", "/api/payments", "{\"amount\":100000000}").getStatus())
+                .isEqualTo(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+
+        // Chunked, without a Content-Length: only reading tells the size
+        HttpServletRequest chunked = new HttpServletRequestWrapper(request("key-1", "/api/payments", "{\"amount\":100000000}")) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(chunked, response, new MockFilterChain(new EchoServlet()));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+        assertThat(executions).hasValue(0);
+        assertThat(store.tryBegin("key-1", new byte[32])).isTrue(); // The key was never taken
+    }
+
+    private MockHttpServletResponse post(String key, String uri, String body) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(key, uri, body), response, new MockFilterChain(new EchoServlet()));
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String key, String uri, String body) {
+        int query = uri.indexOf('?');
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", query < 0 ? uri : uri.substring(0, query));
+        if (query >= 0) {
+            request.setQueryString(uri.substring(query + 1));
+        }
+        request.addHeader("Idempotency-Key", key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private final class EchoServlet extends HttpServlet {
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            executions.incrementAndGet();
+            response.setStatus(HttpServletResponse.SC_CREATED);
+            response.setContentType("application/json");
+            response.getOutputStream().write(request.getInputStream().readAllBytes());
+        }
+    }
+}
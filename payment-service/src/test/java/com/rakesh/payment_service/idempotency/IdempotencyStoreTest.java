@@ -0,0 +1,147 @@
+package com.rakesh.payment_service.idempotency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A store with a journal in a temporary directory and a TTL of one hour, reloaded the way a restart does.
+ */
+class IdempotencyStoreTest {
+
+    private static final byte[] FINGERPRINT = new byte[32];
+
+    @TempDir
+    Path directory;
+
+    private IdempotencyProperties properties;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new IdempotencyProperties();
+        properties.setJournalPath(directory.resolve("journal.log").toString());
+        properties.setTtl(Duration.ofHours(1));
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.closeJournal();
+    }
+
+    @Test
+    void keepsCompletedKeysAcrossARestart() throws IOException {
+        assertThat(store.tryBegin("a", FINGERPRINT)).isTrue();
+        assertThat(store.tryBegin("a", FINGERPRINT)).isFalse();
+        store.complete(record("a", System.currentTimeMillis()));
+        assertThat(store.tryBegin("a", FINGERPRINT)).isTrue(); // Completing released the in-flight marker
+
+        restart();
+
+        assertThat(store.find("a")).isNotNull();
+        assertThat(store.find("a").body()).isEqualTo("a".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void compactionDropsExpiredKeysAndKeepsLaterAppends() throws IOException {
+        long now = System.currentTimeMillis();
+        store.complete(record("expired", now - Duration.ofHours(2).toMillis()));
+        store.complete(record("live", now));
+
+        store.compact();
+        store.complete(record("after", now));
+        store.closeJournal();
+
+        IdempotencyJournal journal = new IdempotencyJournal(journal());
+        assertThat(journal.replay()).extracting(IdempotencyRecord::key).containsExactly("live", "after");
+        journal.close();
+        store = open();
+        assertThat(store.find("live")).isNotNull();
+        assertThat(store.find("after")).isNotNull();
+    }
+
+    @Test
+    void journalSwapKeepsRecordsAppendedWhileTheCompactedFileWasWritten() throws IOException {
+        IdempotencyJournal journal = new IdempotencyJournal(directory.resolve("swap.log"));
+        journal.replay();
+        IdempotencyRecord before = record("before", 1);
+        journal.append(before);
+
+        Path compacted = journal.writeCompacted(List.of(before));
+        IdempotencyRecord during = record("during", 2);
+        journal.append(during);
+        journal.replaceWith(compacted, List.of(during));
+        journal.append(record("after", 3));
+        journal.close();
+
+        IdempotencyJournal reopened = new IdempotencyJournal(directory.resolve("swap.log"));
+        assertThat(reopened.replay()).extracting(IdempotencyRecord::key).containsExactly("before", "during", "after");
+        reopened.close();
+    }
+
+    @Test
+    void startsOverWhenTheJournalHoldsAnOlderFormat() throws IOException {
+        store.closeJournal();
+        byte[] payload = oldFormatPayload("legacy");
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(journal()))) {
+            out.writeInt(payload.length);
+            out.writeInt((int) crc.getValue());
+            out.write(payload);
+        }
+
+        store = open();
+        store.complete(record("fresh", System.currentTimeMillis()));
+        restart();
+
+        assertThat(store.find("legacy")).isNull();
+        assertThat(store.find("fresh")).isNotNull();
+    }
+
+    private IdempotencyStore open() throws IOException {
+        IdempotencyStore opened = new IdempotencyStore(properties);
+        opened.loadJournal();
+        return opened;
+    }
+
+    private void restart() throws IOException {
+        store.closeJournal();
+        store = open();
+    }
+
+    private Path journal() {
+        return Path.of(properties.getJournalPath());
+    }
+
+    private static IdempotencyRecord record(String key, long createdAt) {
+        return new IdempotencyRecord(key, FINGERPRINT, 201, "application/json", key.getBytes(StandardCharsets.UTF_8), createdAt);
+    }
+
+    // Key, int request hash, status, content type, created at, body: the layout before the format byte
+    private static byte[] oldFormatPayload(String key) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeUTF(key);
+        data.writeInt(42);
+        data.writeInt(201);
+        data.writeUTF("");
+        data.writeLong(System.currentTimeMillis());
+        data.writeInt(0);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,179 @@
+package com.rakesh.payment_service.ledger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A ledger in a temporary directory with segments of 4 records, reopened the way a restart does.
+ */
+class PaymentLedgerTest {
+
+    private static final int RECORDS_PER_SEGMENT = 4;
+
+    @TempDir
+    Path directory;
+
+    private LedgerProperties properties;
+    private PaymentLedger ledger;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new LedgerProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSizeBytes(RECORDS_PER_SEGMENT * LedgerSegment.RECORD_SIZE);
+        properties.setGroupCommitInterval(Duration.ofMillis(1));
+        ledger = open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ledger.stop();
+    }
+
+    @Test
+    void acknowledgesAppendsOnceDurableAndReturnsTheHistoryNewestFirst() throws Exception {
+        LedgerEntry authorized = append(1, LedgerEntryType.AUTHORIZED);
+        append(2, LedgerEntryType.AUTHORIZED);
+        LedgerEntry last = append(1, LedgerEntryType.CAPTURED);
+
+        assertThat(authorized.sequence()).isZero();
+        assertThat(last.sequence()).isEqualTo(2);
+        assertThat(ledger.size()).isEqualTo(3);
+        assertThat(ledger.history(1)).containsExactly(last, authorized);
+        assertThat(ledger.history(99)).isEmpty();
+    }
+
+    @Test
+    void rollsOverToANewSegmentWhenTheActiveOneIsFull() throws Exception {
+        for (int i = 0; i < 2 * RECORDS_PER_SEGMENT + 1; i++) {
+            append(i % 2, LedgerEntryType.AUTHORIZED);
+        }
+
+        assertThat(segmentFiles()).hasSize(3);
+        assertThat(ledger.history(0)).extracting(LedgerEntry::sequence).containsExactly(8L, 6L, 4L, 2L, 0L);
+
+        List<Long> scanned = new ArrayList<>();
+        ledger.scanRange(3, 7, (sequence, paymentId, merchantId, amountMinor, currency, type, timestamp) -> scanned.add(sequence));
+        assertThat(scanned).containsExactly(3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void findsTheFirstRecordOfAPeriodAcrossSegments() throws Exception {
+        List<LedgerEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 2 * RECORDS_PER_SEGMENT; i++) {
+            entries.add(append(i, LedgerEntryType.AUTHORIZED));
+        }
+
+        assertThat(ledger.firstSequenceAt(Long.MIN_VALUE)).isZero();
+        assertThat(ledger.firstSequenceAt(entries.get(5).timestamp()))
+                .isEqualTo(entries.stream().filter(e -> e.timestamp() == entries.get(5).timestamp())
+                        .mapToLong(LedgerEntry::sequence).min().orElseThrow());
+        assertThat(ledger.firstSequenceAt(Long.MAX_VALUE)).isEqualTo(ledger.size());
+    }
+
+    @Test
+    void rebuildsTheIndexAndContinuesTheSequenceAfterARestart() throws Exception {
+        for (int i = 0; i < RECORDS_PER_SEGMENT + 2; i++) {
+            append(7, LedgerEntryType.AUTHORIZED);
+        }
+        append(8, LedgerEntryType.AUTHORIZED);
+        List<LedgerEntry> before = ledger.history(7);
+
+        restart();
+
+        assertThat(ledger.size()).isEqualTo(RECORDS_PER_SEGMENT + 3);
+        assertThat(ledger.history(7)).isEqualTo(before);
+        assertThat(ledger.history(8)).hasSize(1);
+        LedgerEntry next = append(7, LedgerEntryType.CAPTURED);
+        assertThat(next.sequence()).isEqualTo(RECORDS_PER_SEGMENT + 3);
+        assertThat(ledger.history(7)).first().isEqualTo(next);
+    }
+
+    @Test
+    void opensANewSegmentWhenTheLastOneIsFullAtStartup() throws Exception {
+        for (int i = 0; i < RECORDS_PER_SEGMENT; i++) {
+            append(1, LedgerEntryType.AUTHORIZED);
+        }
+
+        restart();
+        append(1, LedgerEntryType.AUTHORIZED);
+
+        assertThat(segmentFiles()).hasSize(2);
+        assertThat(ledger.history(1)).hasSize(RECORDS_PER_SEGMENT + 1);
+    }
+
+    @Test
+    void dropsATornRecordAtTheTailAndOverwritesIt() throws Exception {
+        append(1, LedgerEntryType.AUTHORIZED);
+        append(2, LedgerEntryType.AUTHORIZED);
+        ledger.stop();
+        corrupt(segmentFiles().get(0), LedgerSegment.RECORD_SIZE + 20); // Inside the payment id of record 1: the checksum no longer matches
+
+        ledger = open();
+
+        assertThat(ledger.size()).isEqualTo(1);
+        assertThat(ledger.history(2)).isEmpty();
+        LedgerEntry rewritten = append(3, LedgerEntryType.AUTHORIZED);
+        assertThat(rewritten.sequence()).isEqualTo(1);
+
+        restart();
+        assertThat(ledger.history(3)).containsExactly(rewritten);
+        assertThat(ledger.history(1)).hasSize(1);
+    }
+
+    @Test
+    void rejectsASegmentSizeThatIsNotAMultipleOfTheRecordSize() {
+        properties.setSegmentSizeBytes(LedgerSegment.RECORD_SIZE + 1);
+
+        assertThatThrownBy(() -> new PaymentLedger(properties, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private LedgerEntry append(long paymentId, LedgerEntryType type) throws Exception {
+        return ledger.append(paymentId, 42, 1999, "EUR", type).get(5, TimeUnit.SECONDS);
+    }
+
+    private PaymentLedger open() throws IOException {
+        PaymentLedger opened = new PaymentLedger(properties, new SimpleMeterRegistry());
+        opened.start();
+        return opened;
+    }
+
+    private void restart() throws Exception {
+        ledger.stop();
+        ledger = open();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".ledger")).sorted().toList();
+        }
+    }
+
+    private static void corrupt(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, position);
+            one.put(0, (byte) ~one.get(0)).rewind();
+            channel.write(one, position);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.rakesh.product_service.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One datagram of the invalidation channel:
+ * {@code [int magic][long sender][long oldestChangeMillis][short count][count x (long productId, int version)]},
+ * 22 bytes plus 12 per product. {@link #MAX_PRODUCTS} keeps a datagram within a 1472-byte Ethernet payload,
+ * so it is never fragmented.
+ *
+ * @param sender random id of the sending instance, so an instance ignores its own datagrams
+ * @param oldestChangeMillis when the oldest change of the batch committed; the receiver's lag is measured from it
+ */
+public record InvalidationBatch(long sender, long oldestChangeMillis, List<Invalidation> invalidations) {
+
+    public static final int MAX_PRODUCTS = 120;
+
+    private static final int MAGIC = 0x50494E56; // "PINV"
+    private static final int HEADER_BYTES = 22;
+    private static final int ENTRY_BYTES = 12;
+
+    public record Invalidation(long productId, int version) {
+    }
+
+    public void encodeTo(ByteBuffer buffer) {
+        buffer.clear();
+        buffer.putInt(MAGIC).putLong(sender).putLong(oldestChangeMillis).putShort((short) invalidations.size());
+        for (Invalidation invalidation : invalidations) {
+            buffer.putLong(invalidation.productId()).putInt(invalidation.version());
+        }
+        buffer.flip();
+    }
+
+    /**
+     * @return the batch, or null when the datagram is not one
+     */
+    public static InvalidationBatch decode(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            return null;
+        }
+        long sender = buffer.getLong();
+        long oldestChangeMillis = buffer.getLong();
+        int count = buffer.getShort();
+        if (count < 0 || buffer.remaining() != count * ENTRY_BYTES) {
+            return null;
+        }
+        List<Invalidation> invalidations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            invalidations.add(new Invalidation(buffer.getLong(), buffer.getInt()));
+        }
+        return new InvalidationBatch(sender, oldestChangeMillis, invalidations);
+    }
+
+    public static int maxBytes() {
+        return HEADER_BYTES + MAX_PRODUCTS * ENTRY_BYTES;
+    }
+}
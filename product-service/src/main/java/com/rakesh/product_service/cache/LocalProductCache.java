@@ -0,0 +1,131 @@
+package com.rakesh.product_service.cache;
+
+import com.rakesh.product_service.dto.ProductDto;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Products by id in this instance's memory, each with the version it was read at.
+ *
+ * An invalidation carries the product's version after the change. It drops a cached entry older than that and
+ * leaves a marker with the version behind, so a read that started before the change (or went to a lagging replica)
+ * cannot put the old version back afterwards. {@link #UNKNOWN_VERSION}, for changes that do not know the new version,
+ * leaves a marker one above the cached entry's version, or when nothing is cached a marker that keeps the product
+ * out until it expires, like {@link #DELETED} does.
+ * The writers look their new versions up, so that only happens for rows without a version.
+ *
+ * Nothing is cached before {@link #startServing()}: until the other instances know where to send their
+ * invalidations, an entry cached here could stay stale for the whole TTL.
+ *
+ * Cached DTOs are shared between callers and must not be modified.
+ */
+public class LocalProductCache {
+
+    public static final int UNKNOWN_VERSION = -1;
+    public static final int DELETED = Integer.MAX_VALUE;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+    private volatile boolean serving;
+
+    public LocalProductCache(int maxEntries, long ttlNanos) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+    }
+
+    /**
+     * @return the cached product, or null
+     */
+    public ProductDto get(long id) {
+        if (!serving) {
+            return null;
+        }
+        Entry entry = entries.get(id);
+        if (entry == null || entry.product == null || entry.expiresAt - System.nanoTime() < 0) {
+            return null;
+        }
+        return entry.product;
+    }
+
+    /**
+     * Caches a product just read, unless an invalidation of a later version has been seen already.
+     */
+    public void put(ProductDto product) {
+        if (!serving) {
+            return;
+        }
+        int version = product.getVersion() == null ? 0 : product.getVersion();
+        Entry fresh = new Entry(product, version, System.nanoTime() + ttlNanos);
+        entries.merge(product.getId(), fresh, (current, update) ->
+                current.version > update.version && current.expiresAt - System.nanoTime() > 0 ? current : update);
+        if (entries.size() > maxEntries) {
+            trim();
+        }
+    }
+
+    /**
+     * @return true when a cached product was dropped
+     */
+    public boolean invalidate(long id, int version) {
+        long expiresAt = System.nanoTime() + ttlNanos;
+        Entry[] replaced = new Entry[1];
+        entries.compute(id, (key, current) -> {
+            if (version == UNKNOWN_VERSION) {
+                replaced[0] = current;
+                // Whatever was read before the change is at most the cached version; without one any read may be old
+                int newer = current == null || current.version >= DELETED - 1 ? DELETED : current.version + 1;
+                return new Entry(null, newer, expiresAt);
+            }
+            if (current != null && current.version >= version) {
+                return current; // Already as new as the change, e.g. read after it committed
+            }
+            replaced[0] = current;
+            return new Entry(null, version, expiresAt);
+        });
+        if (entries.size() > maxEntries) {
+            trim();
+        }
+        return replaced[0] != null && replaced[0].product != null;
+    }
+
+    /**
+     * Lets lookups and reads be cached from now on; invalidations are applied from the start.
+     */
+    public void startServing() {
+        serving = true;
+    }
+
+    public boolean isServing() {
+        return serving;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Expired entries first, then cached products in map order, a sixteenth of the limit below it. Markers go last:
+    // dropping one lets a read that started before its change put the old version back
+    private void trim() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.expiresAt - now < 0);
+        int excess = entries.size() - maxEntries + maxEntries / 16;
+        excess = evict(excess, true);
+        evict(excess, false);
+    }
+
+    private int evict(int excess, boolean products) {
+        for (Iterator<Entry> values = entries.values().iterator(); excess > 0 && values.hasNext(); ) {
+            if ((values.next().product != null) == products) {
+                values.remove();
+                excess--;
+            }
+        }
+        return excess;
+    }
+
+    private record Entry(ProductDto product, int version, long expiresAt) { // product is null for an invalidation marker
+    }
+}
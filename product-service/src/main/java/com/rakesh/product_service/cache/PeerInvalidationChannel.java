@@ -0,0 +1,306 @@
+package com.rakesh.product_service.cache;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells the other product-service instances which products changed here, over UDP.
+ *
+ * Changes are collected for batch-interval and sent as one {@link InvalidationBatch} datagram per peer, whatever
+ * the number of changes up to {@link InvalidationBatch#MAX_PRODUCTS}. Peers are the product-service instances in the
+ * local copy of the Eureka registry that publish a "cache.port"; this instance publishes its own on start, before
+ * it registers with Eureka, so the port is part of the registration.
+ *
+ * The other instances only see the port once their registry copies and peer lists have caught up, and until then
+ * they do not send their changes here. The {@link LocalProductCache} therefore only starts serving peer-discovery-delay
+ * after this instance is UP in Eureka (after the warm-up, when there is one); without Eureka there are no peers and
+ * it serves at once.
+ *
+ * Datagrams may be lost or arrive out of order. Both are harmless for correctness: an invalidation only ever drops
+ * entries older than its version, and a lost one is made up for by the cache's TTL. Received batches feed
+ * product.cache.invalidation.lag, from the commit of the oldest change of a batch to its arrival here; across hosts
+ * it includes their clock difference.
+ *
+ * Datagrams are only accepted from the address and port of a registered peer; others are dropped, the registry being
+ * read again first in case the sender just registered. The datagrams are not authenticated beyond that, so the port
+ * must only be reachable from the service network, never exposed through a load balancer or to the internet.
+ */
+public class PeerInvalidationChannel implements SmartLifecycle {
+
+    public static final String EUREKA_METADATA_KEY = "cache.port";
+
+    private static final Logger log = LoggerFactory.getLogger(PeerInvalidationChannel.class);
+
+    // Least time between registry reads caused by unknown senders, so a flood of them cannot keep it busy
+    private static final Duration UNKNOWN_SENDER_REFRESH = Duration.ofSeconds(1);
+
+    private final ProductCacheProperties properties;
+    private final LocalProductCache cache;
+    private final String serviceId;
+    private final DiscoveryClient discoveryClient; // null when discovery is disabled: no peers, nothing is sent
+    private final ApplicationInfoManager applicationInfoManager; // null when Eureka is not on the classpath/disabled
+    private final long sender = ThreadLocalRandom.current().nextLong();
+    private final Queue<InvalidationBatch.Invalidation> pending = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer sendBuffer = ByteBuffer.allocate(InvalidationBatch.maxBytes()); // Sender thread only
+    private final Timer lag;
+    private final Counter sent;
+    private final Counter received;
+    private final Counter droppedEntries;
+    private final Counter rejected;
+    private final Counter sendFailures;
+
+    private volatile long oldestPendingMillis; // Commit time of the oldest change in pending, 0 when none
+    private volatile List<InetSocketAddress> peers = List.of();
+    private long peersRefreshedAt; // System.nanoTime(), guarded by this
+    private long upSince; // System.nanoTime() when this instance was first seen UP, sender thread only
+    private DatagramChannel channel;
+    private ScheduledExecutorService senderExecutor;
+
+    public PeerInvalidationChannel(ProductCacheProperties properties, LocalProductCache cache, String serviceId,
+                                   DiscoveryClient discoveryClient, ApplicationInfoManager applicationInfoManager,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = cache;
+        this.serviceId = serviceId;
+        this.discoveryClient = discoveryClient;
+        this.applicationInfoManager = applicationInfoManager;
+        this.lag = Timer.builder("product.cache.invalidation.lag")
+                .description("From the commit of a change on a peer to its invalidation arriving here")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.sent = Counter.builder("product.cache.invalidations").tag("direction", "sent").register(meterRegistry);
+        this.received = Counter.builder("product.cache.invalidations").tag("direction", "received").register(meterRegistry);
+        this.droppedEntries = meterRegistry.counter("product.cache.invalidation.dropped.entries");
+        this.rejected = meterRegistry.counter("product.cache.invalidation.rejected.datagrams");
+        this.sendFailures = meterRegistry.counter("product.cache.invalidation.send.failures");
+        Gauge.builder("product.cache.peers", this, channel -> channel.peers.size()).register(meterRegistry);
+    }
+
+    /**
+     * Queues a committed change for the next datagram to the peers.
+     */
+    public void broadcast(long productId, int version) {
+        if (oldestPendingMillis == 0) {
+            oldestPendingMillis = System.currentTimeMillis(); // A race here only makes the lag look a little shorter
+        }
+        pending.add(new InvalidationBatch.Invalidation(productId, version));
+    }
+
+    @Override
+    public synchronized void start() {
+        try {
+            channel = DatagramChannel.open().bind(new InetSocketAddress(properties.getPort()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the cache invalidation channel on UDP port " + properties.getPort(), e);
+        }
+        int port = ((InetSocketAddress) localAddress()).getPort();
+        Thread.ofPlatform().name("cache-invalidation-receiver").daemon().start(this::receive);
+        senderExecutor = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().name("cache-invalidation-sender").daemon().unstarted(runnable));
+        long interval = properties.getBatchInterval().toNanos();
+        senderExecutor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.NANOSECONDS);
+        if (applicationInfoManager != null) {
+            applicationInfoManager.registerAppMetadata(Map.of(EUREKA_METADATA_KEY, String.valueOf(port)));
+        }
+        log.info("Cache invalidation channel listening on UDP port {}", port);
+    }
+
+    @Override
+    public int getPhase() {
+        return -1; // Before EurekaAutoServiceRegistration (phase 0), so cache.port is registered with the instance
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (channel == null) {
+            return;
+        }
+        senderExecutor.shutdown();
+        try {
+            senderExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush(); // Changes of the last interval still reach the peers
+        try {
+            channel.close(); // Ends the receiver
+        } catch (IOException e) {
+            log.debug("Closing the cache invalidation channel failed", e);
+        }
+        channel = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return channel != null;
+    }
+
+    public int port() {
+        Object address = localAddress();
+        return address == null ? properties.getPort() : ((InetSocketAddress) address).getPort();
+    }
+
+    public List<InetSocketAddress> peers() {
+        return peers;
+    }
+
+    private Object localAddress() {
+        try {
+            DatagramChannel current = channel;
+            return current == null ? null : current.getLocalAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void flush() {
+        try {
+            startServingOnceDiscoverable();
+            refreshPeersIfOlderThan(properties.getPeerRefreshInterval()); // Also when idle, the receiver checks senders against them
+            if (pending.isEmpty()) {
+                return;
+            }
+            long oldest = oldestPendingMillis;
+            oldestPendingMillis = 0;
+            List<InvalidationBatch.Invalidation> batch = new ArrayList<>(InvalidationBatch.MAX_PRODUCTS);
+            for (InvalidationBatch.Invalidation next; (next = pending.poll()) != null; ) {
+                batch.add(next);
+                if (batch.size() == InvalidationBatch.MAX_PRODUCTS) {
+                    send(new InvalidationBatch(sender, oldest, batch));
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                send(new InvalidationBatch(sender, oldest, batch));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Sending cache invalidations failed", e); // Keeps the scheduled task alive
+        }
+    }
+
+    private void send(InvalidationBatch batch) {
+        batch.encodeTo(sendBuffer);
+        for (InetSocketAddress peer : peers) {
+            try {
+                channel.send(sendBuffer, peer);
+                sent.increment(batch.invalidations().size());
+            } catch (IOException e) {
+                sendFailures.increment();
+                log.debug("Sending cache invalidations to {} failed", peer, e);
+            }
+            sendBuffer.rewind();
+        }
+    }
+
+    private void startServingOnceDiscoverable() {
+        if (cache.isServing()) {
+            return;
+        }
+        if (applicationInfoManager == null || discoveryClient == null) {
+            cache.startServing(); // No registry, no peers to wait for
+            return;
+        }
+        if (applicationInfoManager.getInfo().getStatus() != InstanceStatus.UP) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (upSince == 0) {
+            upSince = now;
+        }
+        if (now - upSince >= properties.getPeerDiscoveryDelay().toNanos()) {
+            cache.startServing();
+            log.info("Product cache serving, the peers have had {} to pick up UDP port {}", properties.getPeerDiscoveryDelay(), port());
+        }
+    }
+
+    private synchronized void refreshPeersIfOlderThan(Duration age) {
+        long now = System.nanoTime();
+        if (discoveryClient == null || (peersRefreshedAt != 0 && now - peersRefreshedAt < age.toNanos())) {
+            return;
+        }
+        peersRefreshedAt = now;
+        String ownInstanceId = applicationInfoManager == null ? null : applicationInfoManager.getInfo().getInstanceId();
+        List<InetSocketAddress> found = new ArrayList<>();
+        for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+            String port = instance.getMetadata().get(EUREKA_METADATA_KEY);
+            if (port != null && !Objects.equals(instance.getInstanceId(), ownInstanceId)) {
+                found.add(new InetSocketAddress(instance.getHost(), Integer.parseInt(port)));
+            }
+        }
+        peers = List.copyOf(found);
+    }
+
+    private boolean isPeer(SocketAddress source) {
+        if (!(source instanceof InetSocketAddress address)) {
+            return false;
+        }
+        for (InetSocketAddress peer : peers) {
+            if (peer.getPort() == address.getPort() && address.getAddress().equals(peer.getAddress())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void receive() {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * InvalidationBatch.maxBytes()); // A longer datagram is cut off and then rejected
+        DatagramChannel current = channel;
+        while (current.isOpen()) {
+            try {
+                buffer.clear();
+                SocketAddress source = current.receive(buffer);
+                buffer.flip();
+                if (!isPeer(source)) {
+                    refreshPeersIfOlderThan(UNKNOWN_SENDER_REFRESH); // A new instance may send before it shows up here
+                    if (!isPeer(source)) {
+                        rejected.increment();
+                        continue;
+                    }
+                }
+                InvalidationBatch batch = InvalidationBatch.decode(buffer);
+                if (batch == null || batch.sender() == sender) {
+                    continue;
+                }
+                lag.record(Math.max(0, System.currentTimeMillis() - batch.oldestChangeMillis()), TimeUnit.MILLISECONDS);
+                for (InvalidationBatch.Invalidation invalidation : batch.invalidations()) {
+                    if (cache.invalidate(invalidation.productId(), invalidation.version())) {
+                        droppedEntries.increment();
+                    }
+                }
+                received.increment(batch.invalidations().size());
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Receiving cache invalidations failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.rakesh.product_service.cache;
+
+import com.rakesh.product_service.dto.ProductDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-instance cache of products by id, kept coherent across instances: what ProductService and the other writers
+ * see. Lookups go to the {@link LocalProductCache}; every change invalidates it here once the transaction commits
+ * and is broadcast to the other instances through the {@link PeerInvalidationChannel}.
+ *
+ * The Hibernate @Cacheable on Product is the level below; no second-level cache provider is configured, so this is
+ * the only cache of products, and it works on DTOs so a hit costs no mapping either.
+ */
+public class ProductCache {
+
+    private final LocalProductCache local;
+    private final PeerInvalidationChannel channel;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ProductCache(LocalProductCache local, PeerInvalidationChannel channel, MeterRegistry meterRegistry) {
+        this.local = local;
+        this.channel = channel;
+        this.hits = Counter.builder("product.cache.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("product.cache.lookups").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("product.cache.size", local, LocalProductCache::size).register(meterRegistry);
+    }
+
+    /**
+     * @return the cached product, or null; must not be modified
+     */
+    public ProductDto get(long id) {
+        ProductDto product = local.get(id);
+        (product == null ? misses : hits).increment();
+        return product;
+    }
+
+    public void put(ProductDto product) {
+        local.put(product);
+    }
+
+    /**
+     * Drops the product here and on the peers; inside a transaction only once it commits, so no instance can
+     * read the old row again after the invalidation.
+     *
+     * @param version the product's version after the change, {@link LocalProductCache#UNKNOWN_VERSION} or
+     *                {@link LocalProductCache#DELETED}
+     */
+    public void invalidate(long id, int version) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow(id, version);
+                }
+            });
+        } else {
+            invalidateNow(id, version);
+        }
+    }
+
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("serving", local.isServing());
+        report.put("size", local.size());
+        report.put("hits", (long) hits.count());
+        report.put("misses", (long) misses.count());
+        report.put("port", channel.port());
+        report.put("peers", channel.peers().stream().map(Object::toString).toList());
+        return report;
+    }
+
+    private void invalidateNow(long id, int version) {
+        local.invalidate(id, version);
+        channel.broadcast(id, version);
+    }
+}
@@ -0,0 +1,25 @@
+package com.rakesh.product_service.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * `GET /actuator/productcache`: cached products, hits and misses, the invalidation port and the peers it sends to.
+ * The invalidation lag is the product.cache.invalidation.lag metric.
+ */
+@Endpoint(id = "productcache")
+public class ProductCacheEndpoint {
+
+    private final ProductCache cache;
+
+    public ProductCacheEndpoint(ProductCache cache) {
+        this.cache = cache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        return cache.report();
+    }
+}
@@ -0,0 +1,33 @@
+package com.rakesh.product_service.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the per-instance product cache and its peer invalidation channel, bound from {@code product.cache.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "product.cache")
+public class ProductCacheProperties {
+
+    private boolean enabled = false; // Off by default: every lookup by id reads the database
+
+    private int maxEntries = 100_000; // Cached products plus recent invalidation markers
+
+    // Longest an entry is served without being invalidated. Bounds staleness when an invalidation datagram is lost
+    private Duration ttl = Duration.ofMinutes(5);
+
+    // UDP port of the invalidation channel, published in the Eureka metadata as cache.port. 0 picks a free port,
+    // which is what lets several instances run on one machine. Keep it closed to anything but the other instances
+    private int port = 0;
+
+    private Duration batchInterval = Duration.ofMillis(10); // Changes are collected this long and sent in one datagram per peer
+
+    private Duration peerRefreshInterval = Duration.ofSeconds(30); // Between reads of the local copy of the Eureka registry
+
+    // How long after this instance is UP the cache starts serving: the peers' Eureka registry fetch (30s), the Eureka
+    // server's response cache (30s) and peer-refresh-interval, before every peer sends its invalidations here too
+    private Duration peerDiscoveryDelay = Duration.ofSeconds(90);
+}
@@ -0,0 +1,42 @@
+package com.rakesh.product_service.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * ObjectMappers for the binary encodings internal callers can ask for with the Accept header.
+ *
+ * Both are built from Spring Boot's Jackson2ObjectMapperBuilder, so they have the same modules and settings
+ * (JavaTime, Blackbird, property naming, ...) as the JSON mapper, only the wire format differs.
+ * They are deliberately not ObjectMapper beans: another ObjectMapper bean would replace Boot's JSON one.
+ */
+@Component
+public class BinaryCodecs {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+    public static final MediaType APPLICATION_CBOR = MediaType.valueOf("application/cbor");
+
+    private final ObjectMapper smileMapper;
+    private final ObjectMapper cborMapper;
+
+    @Autowired
+    public BinaryCodecs(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        // The builder bean is prototype scoped: every getObject() is a fresh builder with Boot's customizations applied
+        this.smileMapper = builders.getObject().factory(new SmileFactory()).build();
+        this.cborMapper = builders.getObject().factory(new CBORFactory()).build();
+    }
+
+    public ObjectMapper smileMapper() {
+        return smileMapper;
+    }
+
+    public ObjectMapper cborMapper() {
+        return cborMapper;
+    }
+}
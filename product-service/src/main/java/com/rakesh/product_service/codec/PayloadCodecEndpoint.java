@@ -0,0 +1,97 @@
+package com.rakesh.product_service.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rakesh.product_service.dto.PaginatedProductResponseDto;
+import com.rakesh.product_service.dto.ProductDetailsDto;
+import com.rakesh.product_service.dto.ProductDto;
+import com.rakesh.product_service.entity.ProductStatus;
+import com.rakesh.product_service.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * `GET /actuator/payloadcodecs?pageSize=50&iterations=2000`: compares JSON, Smile and CBOR on a real page of products
+ * (synthetic products if the table is empty), the same payload `GET /api/products/paginated` returns.
+ *
+ * For every codec it reports the encoded size and the average encode and decode time, measured after a warm-up
+ * of the same number of iterations. Decoding goes into {@link PaginatedProductResponseDto}, like a client would.
+ * It runs on the request thread, so pageSize and iterations are capped to keep one call to a few seconds.
+ */
+@Component
+@Endpoint(id = "payloadcodecs")
+public class PayloadCodecEndpoint {
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_ITERATIONS = 10_000;
+
+    private final ProductService productService;
+    private final ObjectMapper jsonMapper;
+    private final BinaryCodecs binaryCodecs;
+
+    @Autowired
+    public PayloadCodecEndpoint(ProductService productService, ObjectMapper jsonMapper, BinaryCodecs binaryCodecs) {
+        this.productService = productService;
+        this.jsonMapper = jsonMapper;
+        this.binaryCodecs = binaryCodecs;
+    }
+
+    @ReadOperation
+    public Map<String, CodecResult> compare(@Nullable Integer pageSize, @Nullable Integer iterations) throws IOException {
+        int size = Math.clamp(pageSize != null ? pageSize : 50, 1, MAX_PAGE_SIZE);
+        int rounds = Math.clamp(iterations != null ? iterations : 2000, 1, MAX_ITERATIONS);
+        Page<ProductDto> page = productService.getProductsPaginated(PageRequest.of(0, size));
+        if (page.isEmpty()) {
+            page = new PageImpl<>(syntheticProducts(size), PageRequest.of(0, size), size);
+        }
+        Map<String, CodecResult> results = new LinkedHashMap<>();
+        results.put("json", measure(jsonMapper, page, rounds));
+        results.put("smile", measure(binaryCodecs.smileMapper(), page, rounds));
+        results.put("cbor", measure(binaryCodecs.cborMapper(), page, rounds));
+        return results;
+    }
+
+    private static CodecResult measure(ObjectMapper mapper, Page<ProductDto> page, int rounds) throws IOException {
+        byte[] encoded = mapper.writeValueAsBytes(page);
+        for (int i = 0; i < rounds; i++) { // Warm-up, lets the JIT compile the serializers first
+            mapper.readValue(mapper.writeValueAsBytes(page), PaginatedProductResponseDto.class);
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            encoded = mapper.writeValueAsBytes(page);
+        }
+        long encodeNanos = (System.nanoTime() - started) / rounds;
+        started = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            mapper.readValue(encoded, PaginatedProductResponseDto.class);
+        }
+        long decodeNanos = (System.nanoTime() - started) / rounds;
+        return new CodecResult(encoded.length, encodeNanos / 1000.0, decodeNanos / 1000.0);
+    }
+
+    private static List<ProductDto> syntheticProducts(int count) {
+        List<ProductDto> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(new ProductDto(7_000_000_000L + i, "Product " + i, "Synthetic product used to compare encodings",
+                    BigDecimal.valueOf(1999 + i, 2), "SKU-" + i, 100 + i, ProductStatus.AVAILABLE,
+                    LocalDateTime.now(), LocalDateTime.now(), 0, new ProductDetailsDto("Manufacturer " + i, 250.0 + i)));
+        }
+        return products;
+    }
+
+    public record CodecResult(int bytes, double encodeMicros, double decodeMicros) {
+    }
+}
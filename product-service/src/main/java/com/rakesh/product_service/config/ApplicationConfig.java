@@ -1,8 +1,10 @@
 package com.rakesh.product_service.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableScheduling // Periodic jobs such as the ProductIdFilter rebuild
 public class ApplicationConfig {
 
 
@@ -0,0 +1,66 @@
+package com.rakesh.product_service.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.rakesh.product_service.codec.BinaryCodecs;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Content negotiation for the product API.
+ *
+ * JSON stays first in the converter list, so browsers, Swagger and any client sending `Accept: *&#47;*` get JSON
+ * as before. Internal callers that send `Accept: application/x-jackson-smile` or `Accept: application/cbor`
+ * (and the same Content-Type for request bodies) get the same DTOs in a smaller binary encoding that is
+ * cheaper to write and parse. Compare the codecs on real data at `/actuator/payloadcodecs`.
+ */
+@Configuration
+public class BinaryCodecConfig implements WebMvcConfigurer {
+
+    private final BinaryCodecs binaryCodecs;
+
+    @Autowired
+    public BinaryCodecConfig(BinaryCodecs binaryCodecs) {
+        this.binaryCodecs = binaryCodecs;
+    }
+
+    /**
+     * Blackbird generates accessors with LambdaMetafactory instead of calling getters and setters through reflection.
+     * Spring Boot registers every Module bean on its ObjectMapper builder, so JSON, Smile and CBOR all use it.
+     * Static, so creating it does not need this configuration (and through it BinaryCodecs and the builder) first.
+     */
+    @Bean
+    public static Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * With jackson-dataformat-smile/cbor on the classpath Spring MVC already registers a Smile and a CBOR converter,
+     * with mappers of its own, right behind the JSON one. Appended ones came after those and were never asked, so
+     * they go in directly behind the JSON converter instead and the defaults are removed. Not in front of it: with
+     * an `Accept` of `*&#47;*` the first converter able to write the type decides, and that has to stay JSON.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        int json = 0;
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                json = i + 1;
+                break;
+            }
+        }
+        converters.addAll(json, List.of(
+                new MappingJackson2SmileHttpMessageConverter(binaryCodecs.smileMapper()),
+                new MappingJackson2CborHttpMessageConverter(binaryCodecs.cborMapper())));
+    }
+}
@@ -0,0 +1,46 @@
+package com.rakesh.product_service.config;
+
+import com.rakesh.product_service.snapshot.CatalogSnapshotEndpoint;
+import com.rakesh.product_service.snapshot.CatalogSnapshotProperties;
+import com.rakesh.product_service.snapshot.CatalogSnapshotService;
+import com.rakesh.product_service.snapshot.CatalogSnapshotWriter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Catalog snapshot (see {@link CatalogSnapshotService}), active only with {@code product.snapshot.enabled=true}.
+ *
+ * ProductIdFilter builds from the snapshot on startup when there is a usable one, otherwise with its usual full scan;
+ * its scheduled rebuilds still scan the table. Keep product.snapshot.file on a volume that survives restarts.
+ */
+@Configuration
+@EnableConfigurationProperties(CatalogSnapshotProperties.class)
+@ConditionalOnProperty(prefix = "product.snapshot", name = "enabled", havingValue = "true")
+public class CatalogSnapshotConfig {
+
+    private final ObjectProvider<CatalogSnapshotService> service;
+
+    public CatalogSnapshotConfig(ObjectProvider<CatalogSnapshotService> service) {
+        this.service = service;
+    }
+
+    @Bean
+    public CatalogSnapshotService catalogSnapshotService(JdbcTemplate jdbcTemplate, CatalogSnapshotProperties properties) {
+        return new CatalogSnapshotService(jdbcTemplate, new CatalogSnapshotWriter(jdbcTemplate, properties), properties);
+    }
+
+    @Bean
+    public CatalogSnapshotEndpoint catalogSnapshotEndpoint(CatalogSnapshotService service) {
+        return new CatalogSnapshotEndpoint(service);
+    }
+
+    @Scheduled(fixedDelayString = "${product.snapshot.interval:PT15M}", initialDelayString = "${product.snapshot.initial-delay:PT1M}")
+    public void writeSnapshot() {
+        service.getObject().writeSnapshot();
+    }
+}
@@ -0,0 +1,41 @@
+package com.rakesh.product_service.config;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.rakesh.product_service.grpc.GrpcServerLifecycle;
+import com.rakesh.product_service.grpc.GrpcServerProperties;
+import com.rakesh.product_service.grpc.LookupLatencyEndpoint;
+import com.rakesh.product_service.grpc.ProductLookupGrpcService;
+import com.rakesh.product_service.service.ProductService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Internal gRPC endpoint (src/main/proto/product_lookup.proto), active only with {@code product.grpc.enabled=true}.
+ * It runs on its own port next to the REST API and serves the same data through {@link ProductService}.
+ */
+@Configuration
+@EnableConfigurationProperties(GrpcServerProperties.class)
+@ConditionalOnProperty(prefix = "product.grpc", name = "enabled", havingValue = "true")
+public class GrpcServerConfig {
+
+    @Bean
+    public ProductLookupGrpcService productLookupGrpcService(ProductService productService, GrpcServerProperties properties) {
+        return new ProductLookupGrpcService(productService, properties);
+    }
+
+    @Bean
+    public GrpcServerLifecycle grpcServerLifecycle(GrpcServerProperties properties, ProductLookupGrpcService lookupService,
+                                                   ObjectProvider<ApplicationInfoManager> applicationInfoManager) {
+        return new GrpcServerLifecycle(properties, lookupService, applicationInfoManager.getIfAvailable());
+    }
+
+    @Bean
+    public LookupLatencyEndpoint lookupLatencyEndpoint(ProductService productService, GrpcServerLifecycle grpcServer,
+                                                       Environment environment) {
+        return new LookupLatencyEndpoint(productService, grpcServer, environment);
+    }
+}
@@ -0,0 +1,77 @@
+package com.rakesh.product_service.config;
+
+import com.rakesh.product_service.pool.EndpointContext;
+import com.rakesh.product_service.pool.PoolDemandTrackerFactory;
+import com.rakesh.product_service.pool.PoolSizingController;
+import com.rakesh.product_service.pool.PoolSizingEndpoint;
+import com.rakesh.product_service.pool.PoolSizingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Adaptive connection pool sizing (see {@link PoolSizingController}), active only with
+ * {@code product.pool-sizing.enabled=true}.
+ *
+ * Every HikariDataSource bean (the auto-configured one, or the primary of the read/write split) and every replica
+ * pool is measured per endpoint; the spring.datasource.hikari.maximum-pool-size setting becomes the starting size.
+ * Leave apply off at first and compare /actuator/poolsizing with what the pools are set to.
+ */
+@Configuration
+@EnableScheduling // Drives the sizing windows below
+@EnableConfigurationProperties(PoolSizingProperties.class)
+@ConditionalOnProperty(prefix = "product.pool-sizing", name = "enabled", havingValue = "true")
+public class PoolSizingConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<PoolSizingController> controller;
+
+    public PoolSizingConfig(ObjectProvider<PoolSizingController> controller) {
+        this.controller = controller;
+    }
+
+    @Bean
+    public PoolSizingController poolSizingController(PoolSizingProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new PoolSizingController(properties, new PoolDemandTrackerFactory(meterRegistry), meterRegistry);
+    }
+
+    /*
+    The tracker factory has to be on the pool before its first connection, and Spring Boot only adds its own
+    Micrometer tracker when none is set. Static, so the post-processor exists before the DataSource beans.
+     */
+    @Bean
+    public static BeanPostProcessor poolSizingRegistrar(ObjectProvider<PoolSizingController> controller) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    controller.getObject().register(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public PoolSizingEndpoint poolSizingEndpoint(PoolSizingController controller) {
+        return new PoolSizingEndpoint(controller);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new EndpointContext());
+    }
+
+    @Scheduled(fixedRateString = "${product.pool-sizing.interval:PT10S}")
+    public void adjustPools() {
+        controller.getObject().adjust();
+    }
+}
@@ -0,0 +1,56 @@
+package com.rakesh.product_service.config;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.rakesh.product_service.cache.LocalProductCache;
+import com.rakesh.product_service.cache.PeerInvalidationChannel;
+import com.rakesh.product_service.cache.ProductCache;
+import com.rakesh.product_service.cache.ProductCacheEndpoint;
+import com.rakesh.product_service.cache.ProductCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-instance product cache with peer invalidation (see {@link ProductCache}), active only with
+ * {@code product.cache.enabled=true}. Enable it on every instance or on none: an instance without it neither
+ * caches nor tells the others about its changes, which then only expire with product.cache.ttl.
+ *
+ * To try it locally, start several instances with server.port=0 (the UDP port is free-picked by default) and
+ * update a product through one of them; /actuator/productcache on each lists its peers.
+ */
+@Configuration
+@EnableConfigurationProperties(ProductCacheProperties.class)
+@ConditionalOnProperty(prefix = "product.cache", name = "enabled", havingValue = "true")
+public class ProductCacheConfig {
+
+    @Bean
+    public LocalProductCache localProductCache(ProductCacheProperties properties) {
+        return new LocalProductCache(properties.getMaxEntries(), properties.getTtl().toNanos());
+    }
+
+    @Bean
+    public PeerInvalidationChannel peerInvalidationChannel(ProductCacheProperties properties, LocalProductCache localProductCache,
+                                                           @Value("${spring.application.name}") String serviceId,
+                                                           ObjectProvider<DiscoveryClient> discoveryClient,
+                                                           ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+                                                           MeterRegistry meterRegistry) {
+        return new PeerInvalidationChannel(properties, localProductCache, serviceId, discoveryClient.getIfAvailable(),
+                applicationInfoManager.getIfAvailable(), meterRegistry);
+    }
+
+    @Bean
+    public ProductCache productCache(LocalProductCache localProductCache, PeerInvalidationChannel peerInvalidationChannel,
+                                     MeterRegistry meterRegistry) {
+        return new ProductCache(localProductCache, peerInvalidationChannel, meterRegistry);
+    }
+
+    @Bean
+    public ProductCacheEndpoint productCacheEndpoint(ProductCache productCache) {
+        return new ProductCacheEndpoint(productCache);
+    }
+}
@@ -0,0 +1,47 @@
+package com.rakesh.product_service.config;
+
+import com.rakesh.product_service.history.ProductHistoryEndpoint;
+import com.rakesh.product_service.history.ProductHistoryProperties;
+import com.rakesh.product_service.history.ProductHistoryService;
+import com.rakesh.product_service.history.ProductHistoryWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+/**
+ * Product change history (see {@link ProductHistoryService}), active only with {@code product.history.enabled=true};
+ * ProductHistoryController is only mapped then too. ProductService and the transition applier record their changes
+ * when the service is there. Keep product.history.spill-file on a volume that survives restarts.
+ */
+@Configuration
+@EnableConfigurationProperties(ProductHistoryProperties.class)
+@ConditionalOnProperty(prefix = "product.history", name = "enabled", havingValue = "true")
+public class ProductHistoryConfig {
+
+    @Bean
+    public ProductHistoryWriter productHistoryWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                                     ProductHistoryProperties properties) {
+        return new ProductHistoryWriter(jdbcTemplate, new TransactionTemplate(transactionManager), properties.getBatchSize(),
+                Path.of(properties.getSpillFile()));
+    }
+
+    @Bean // close() on shutdown flushes the queue
+    public ProductHistoryService productHistoryService(ProductHistoryWriter writer, JdbcTemplate jdbcTemplate,
+                                                       AuditorAware<String> auditorAware, ProductHistoryProperties properties,
+                                                       MeterRegistry meterRegistry) {
+        return new ProductHistoryService(writer, jdbcTemplate, auditorAware, properties, meterRegistry);
+    }
+
+    @Bean
+    public ProductHistoryEndpoint productHistoryEndpoint(ProductHistoryService service) {
+        return new ProductHistoryEndpoint(service);
+    }
+}
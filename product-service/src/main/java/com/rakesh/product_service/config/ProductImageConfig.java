@@ -0,0 +1,49 @@
+package com.rakesh.product_service.config;
+
+import com.rakesh.product_service.image.ImageResizer;
+import com.rakesh.product_service.image.ImageVariantCacheEndpoint;
+import com.rakesh.product_service.image.ProductImageProperties;
+import com.rakesh.product_service.image.SegmentedVariantStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Product images (see ProductImageService). Uploading and resizing are always available; the disk cache of
+ * resized variants only with {@code product.images.cache.enabled=true}.
+ */
+@Configuration
+@EnableConfigurationProperties(ProductImageProperties.class)
+public class ProductImageConfig {
+
+    @Bean
+    public ImageResizer imageResizer(ProductImageProperties properties) {
+        return new ImageResizer(properties);
+    }
+
+    @Bean // close() on shutdown deletes the segment files
+    @ConditionalOnProperty(prefix = "product.images.cache", name = "enabled", havingValue = "true")
+    public SegmentedVariantStore segmentedVariantStore(ProductImageProperties properties, MeterRegistry meterRegistry) {
+        SegmentedVariantStore store = new SegmentedVariantStore(properties.getCache());
+        Gauge.builder("product.image.cache.size", store, SegmentedVariantStore::usedBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("product.image.cache.requests", store, SegmentedVariantStore::hits)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("product.image.cache.requests", store, SegmentedVariantStore::misses)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        return store;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.images.cache", name = "enabled", havingValue = "true")
+    public ImageVariantCacheEndpoint imageVariantCacheEndpoint(SegmentedVariantStore store) {
+        return new ImageVariantCacheEndpoint(store);
+    }
+}
@@ -0,0 +1,57 @@
+package com.rakesh.product_service.config;
+
+import com.rakesh.product_service.cache.ProductCache;
+import com.rakesh.product_service.history.ProductHistoryService;
+import com.rakesh.product_service.repository.ProductRepository;
+import com.rakesh.product_service.repository.ProductTransitionRepository;
+import com.rakesh.product_service.service.ProductIdFilter;
+import com.rakesh.product_service.transition.ProductTransitionEndpoint;
+import com.rakesh.product_service.transition.ProductTransitionProperties;
+import com.rakesh.product_service.transition.ProductTransitionService;
+import com.rakesh.product_service.transition.TransitionApplier;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Scheduled product transitions (see {@link ProductTransitionService}), active only with
+ * {@code product.transitions.enabled=true}; ProductTransitionController is only mapped then too.
+ *
+ * Run it on every instance: each one fires the transitions it holds, and an instance that stops leaves its
+ * transitions in the table for the others' next load.
+ */
+@Configuration
+@EnableConfigurationProperties(ProductTransitionProperties.class)
+@ConditionalOnProperty(prefix = "product.transitions", name = "enabled", havingValue = "true")
+public class ProductTransitionConfig {
+
+    @Bean
+    public TransitionApplier transitionApplier(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                               EntityManagerFactory entityManagerFactory, AuditorAware<String> auditorAware,
+                                               ObjectProvider<ProductHistoryService> productHistory,
+                                               ObjectProvider<ProductCache> productCache) {
+        return new TransitionApplier(jdbcTemplate, transactionTemplate, entityManagerFactory, auditorAware, productHistory,
+                productCache);
+    }
+
+    @Bean // close() on shutdown stops the wheel's thread
+    public ProductTransitionService productTransitionService(ProductTransitionRepository transitionRepository,
+                                                             ProductRepository productRepository, ProductIdFilter productIdFilter,
+                                                             TransitionApplier transitionApplier, ProductTransitionProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        return new ProductTransitionService(transitionRepository, productRepository, productIdFilter, transitionApplier,
+                properties, meterRegistry);
+    }
+
+    @Bean
+    public ProductTransitionEndpoint productTransitionEndpoint(ProductTransitionService service) {
+        return new ProductTransitionEndpoint(service);
+    }
+}
@@ -0,0 +1,53 @@
+package com.rakesh.product_service.config;
+
+import com.rakesh.product_service.requestcost.RequestCostEndpoint;
+import com.rakesh.product_service.requestcost.RequestCostFilter;
+import com.rakesh.product_service.requestcost.RequestCostProperties;
+import com.rakesh.product_service.requestcost.RequestCostRecorder;
+import com.rakesh.product_service.requestcost.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-request cost accounting (see {@link RequestCostRecorder}), active only with {@code product.request-cost.enabled=true}.
+ *
+ * Guards against N+1 queries and allocation regressions: a lazy association on Product or a query per item in a
+ * ProductService loop shows up as more statements than the endpoint's budget in product.request-cost.budgets.
+ * RequestCostBudgetTest runs every ProductController endpoint with it on and fails on any request over budget;
+ * other traffic (the load-test module, Swagger, a Postman collection) can be checked at /actuator/requestcost.
+ */
+@Configuration
+@EnableConfigurationProperties(RequestCostProperties.class)
+@ConditionalOnProperty(prefix = "product.request-cost", name = "enabled", havingValue = "true")
+public class RequestCostConfig {
+
+    @Bean
+    public RequestCostRecorder requestCostRecorder(RequestCostProperties properties, MeterRegistry meterRegistry) {
+        return new RequestCostRecorder(properties, meterRegistry);
+    }
+
+    // Hibernate hands every SQL statement to the inspector before preparing it, on the thread that runs it
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestCostFilter> requestCostFilter(RequestCostRecorder recorder, RequestCostProperties properties) {
+        FilterRegistrationBean<RequestCostFilter> registration =
+                new FilterRegistrationBean<>(new RequestCostFilter(recorder, properties.getKeptStatements()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    public RequestCostEndpoint requestCostEndpoint(RequestCostRecorder recorder) {
+        return new RequestCostEndpoint(recorder);
+    }
+}
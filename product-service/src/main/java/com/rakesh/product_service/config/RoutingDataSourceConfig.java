@@ -0,0 +1,121 @@
+package com.rakesh.product_service.config;
+
+import com.rakesh.product_service.datasource.*;
+import com.rakesh.product_service.pool.PoolSizingController;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read/write splitting, active only with {@code product.datasource.routing.enabled=true}.
+ *
+ * The primary pool is built from the usual {@code spring.datasource.*} / {@code spring.datasource.hikari.*} properties,
+ * each replica gets its own Hikari pool from {@code product.datasource.replicas[n].*}, e.g.
+ * <pre>
+ * product.datasource.replicas[0].jdbc-url=jdbc:mysql://replica-1:3306/product-service
+ * product.datasource.replicas[0].username=reader
+ * product.datasource.replicas[0].password=secret
+ * product.datasource.replicas[0].maximum-pool-size=20
+ * </pre>
+ * When the flag is off this class does nothing and Spring Boot's single DataSource is used as before.
+ */
+@Configuration
+@EnableScheduling // Drives the replica lag checks below
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+@ConditionalOnProperty(prefix = "product.datasource.routing", name = "enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    private ReplicaHealthMonitor healthMonitor;
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari") // Same pool settings the auto-configured DataSource would get
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaDataSources replicaDataSources(Environment environment, ObjectProvider<PoolSizingController> poolSizing) {
+        List<HikariConfig> configs = Binder.get(environment)
+                .bind("product.datasource.replicas", Bindable.listOf(HikariConfig.class))
+                .orElse(List.of());
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < configs.size(); i++) {
+            HikariConfig config = configs.get(i);
+            config.setReadOnly(true); // Guards against an accidental write being routed to a replica
+            if (config.getPoolName() == null) {
+                config.setPoolName("ProductReplicaHikariCP-" + i);
+            }
+            // Replica pools are not beans and start right away, so pool sizing has to be hooked in here
+            poolSizing.ifAvailable(sizing -> config.setMetricsTrackerFactory(sizing.trackerFactory()));
+            HikariDataSource replica = new HikariDataSource(config);
+            poolSizing.ifAvailable(sizing -> sizing.register(replica));
+            replicas.add(replica);
+        }
+        return new ReplicaDataSources(replicas);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(RoutingDataSourceProperties properties) {
+        readYourWritesTracker = new ReadYourWritesTracker(properties.getReadYourWritesWindow().toMillis());
+        return readYourWritesTracker;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource, ReplicaDataSources replicaDataSources,
+                                                             ReadYourWritesTracker readYourWritesTracker, RoutingDataSourceProperties properties) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaDataSources.size(), readYourWritesTracker);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRoute.PRIMARY, primaryDataSource);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            targets.put(DataSourceRoute.replica(i), replicaDataSources.get(i));
+        }
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        healthMonitor = new ReplicaHealthMonitor(routing, List.<DataSource>copyOf(replicaDataSources.pools()), properties.getLagQuery(),
+                properties.getMaxReplicaLag().toSeconds());
+        return routing;
+    }
+
+    /*
+    The DataSource that JPA and the transaction manager see. The lazy proxy only fetches a physical connection
+    (and therefore only asks the router) once the first statement runs, by which time the read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker readYourWritesTracker,
+                                                                            RoutingDataSourceProperties properties) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWritesTracker, properties.getSessionHeader()));
+    }
+
+    @Scheduled(fixedDelayString = "${product.datasource.routing.health-check-interval:PT2S}")
+    public void checkReplicaLag() {
+        healthMonitor.checkReplicas();
+        readYourWritesTracker.evictExpired();
+    }
+}
@@ -0,0 +1,73 @@
+package com.rakesh.product_service.config;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.rakesh.product_service.service.ProductIdFilter;
+import com.rakesh.product_service.service.ProductService;
+import com.rakesh.product_service.warmup.RequestSampleRecorder;
+import com.rakesh.product_service.warmup.WarmUpHealthIndicator;
+import com.rakesh.product_service.warmup.WarmUpProperties;
+import com.rakesh.product_service.warmup.WarmUpRunner;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cloud.netflix.eureka.EurekaInstanceConfigBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Startup warm-up (see {@link WarmUpRunner}), active only with {@code product.warmup.enabled=true}.
+ *
+ * Set {@code eureka.instance.initial-status=STARTING} together with the flag: the instance then registers with Eureka
+ * as STARTING instead of UP, so the gateway does not route to it until the warm-up has finished.
+ * Readiness: add "warmUp" to management.endpoint.health.group.readiness.include.
+ */
+@Configuration
+@EnableConfigurationProperties(WarmUpProperties.class)
+@ConditionalOnProperty(prefix = "product.warmup", name = "enabled", havingValue = "true")
+public class WarmUpConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpConfig.class);
+
+    @Bean
+    public RequestSampleRecorder requestSampleRecorder(WarmUpProperties properties) {
+        return new RequestSampleRecorder(properties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestSampleRecorder> requestSampleRecorderRegistration(RequestSampleRecorder recorder) {
+        FilterRegistrationBean<RequestSampleRecorder> registration = new FilterRegistrationBean<>(recorder);
+        registration.addUrlPatterns("/api/products/*");
+        return registration;
+    }
+
+    @Bean
+    public WarmUpRunner warmUpRunner(WarmUpProperties properties, ProductService productService, ProductIdFilter productIdFilter,
+                                     ObjectProvider<HikariDataSource> pools, RequestSampleRecorder recorder,
+                                     ObjectProvider<EurekaInstanceConfigBean> eurekaInstanceConfig,
+                                     ObjectProvider<ApplicationInfoManager> applicationInfoManager, MeterRegistry meterRegistry) {
+        eurekaInstanceConfig.ifAvailable(config -> {
+            if (config.getInitialStatus() != InstanceStatus.STARTING) {
+                log.warn("Warm-up is on but eureka.instance.initial-status is {}, the gateway routes here before it is done",
+                        config.getInitialStatus());
+            }
+        });
+        WarmUpRunner runner = new WarmUpRunner(properties, productService, productIdFilter, pools.orderedStream().toList(),
+                recorder, applicationInfoManager.getIfAvailable());
+        Gauge.builder("product.warmup.duration", runner, r -> r.getReport() == null ? Double.NaN : r.getReport().durationMillis() / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        return runner;
+    }
+
+    @Bean
+    public WarmUpHealthIndicator warmUpHealthIndicator(WarmUpRunner warmUpRunner) {
+        return new WarmUpHealthIndicator(warmUpRunner);
+    }
+}
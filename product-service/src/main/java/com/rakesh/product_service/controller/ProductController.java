@@ -2,6 +2,7 @@ package com.rakesh.product_service.controller;
 
 import com.rakesh.product_service.dto.PaginatedProductResponseDto;
 import com.rakesh.product_service.dto.ProductDto;
+import com.rakesh.product_service.dto.ProductPatchDto;
 import com.rakesh.product_service.exception.ExceptionResponseDetails;
 import com.rakesh.product_service.exception.ValidationErrorDetails;
 import com.rakesh.product_service.service.ProductService;
@@ -150,13 +151,54 @@ public class ProductController {
         return ResponseEntity.ok(updatedProduct);
     }
 
+    /**
+     * Partially updates a product: only the fields present in the body are changed, in one UPDATE statement
+     * guarded by the version the client read. The new version is returned in the ETag header.
+     * If the product is not found a 404 is returned, if it was changed in the meantime a 409.
+     *
+     * Example URL: `PATCH /api/products/123`
+     * Example Request Body:
+     * ```json
+     * {
+     *   "price": 699.99,
+     *   "quantityInStock": 80,
+     *   "version": 3
+     * }
+     * ```
+     *
+     * @param id The unique identifier of the product to update.
+     * @param patch The {@link ProductPatchDto} with the fields to change and the expected version.
+     * @return A {@link ResponseEntity} with no content, HTTP status NO_CONTENT and the new version as ETag.
+     */
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially update a product", description = "Update only the given fields of a product, with optimistic locking on the version")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Fields to change and the expected version", required = true,
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ProductPatchDto.class)))
+    @ApiResponse(responseCode = "204", description = "Product updated successfully, the new version is in the ETag header")
+    @ApiResponse(responseCode = "400", description = "Invalid input",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ValidationErrorDetails.class)))
+    @ApiResponse(responseCode = "404", description = "Product not found",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ExceptionResponseDetails.class)))
+    @ApiResponse(responseCode = "409", description = "Product was modified concurrently",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ExceptionResponseDetails.class)))
+    public ResponseEntity<Void> patchProduct(@PathVariable Long id, @Valid @RequestBody ProductPatchDto patch) {
+        int newVersion = productService.patchProduct(id, patch);
+        return ResponseEntity.noContent().eTag(String.valueOf(newVersion)).build();
+    }
+
     /**
      * Deletes a product identified by its unique identifier.
      * If the product with the given ID is not found, a 404 Not Found response is returned.
+     * With the optional {@code version} parameter the delete is refused with 409 if the product was changed since.
      *
-     * Example URL: `DELETE /api/products/123`
+     * Example URL: `DELETE /api/products/123` or `DELETE /api/products/123?version=3`
      *
      * @param id The unique identifier of the product to delete.
+     * @param version Optional version the client read the product at.
      * @return A {@link ResponseEntity} with no content and HTTP status NO_CONTENT if deletion is successful.
      */
     @DeleteMapping("/{id}")
@@ -165,8 +207,12 @@ public class ProductController {
     @ApiResponse(responseCode = "404", description = "Product not found",
             content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                     schema = @Schema(implementation = ExceptionResponseDetails.class)))
-    public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
-        productService.deleteProduct(id);
+    @ApiResponse(responseCode = "409", description = "Product was modified concurrently",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ExceptionResponseDetails.class)))
+    public ResponseEntity<Void> deleteProduct(@PathVariable Long id,
+                                              @Parameter(description = "Expected version of the product") @RequestParam(required = false) Integer version) {
+        productService.deleteProduct(id, version);
         return ResponseEntity.noContent().build();
     }
 
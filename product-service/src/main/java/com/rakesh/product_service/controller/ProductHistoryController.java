@@ -0,0 +1,62 @@
+package com.rakesh.product_service.controller;
+
+import com.rakesh.product_service.dto.PriceHistoryDto;
+import com.rakesh.product_service.exception.ExceptionResponseDetails;
+import com.rakesh.product_service.history.ProductHistoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/products/{id}/price-history")
+@ConditionalOnProperty(prefix = "product.history", name = "enabled", havingValue = "true")
+@Tag(name = "Product history API", description = "Past price changes of a product")
+public class ProductHistoryController {
+
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(30);
+
+    private final ProductHistoryService productHistoryService;
+
+    @Autowired
+    public ProductHistoryController(ProductHistoryService productHistoryService) {
+        this.productHistoryService = productHistoryService;
+    }
+
+    /**
+     * Returns the price changes of a product in [from, to), earliest first, with the price in effect at {@code from}.
+     * Also answers for deleted products, whose history stays.
+     *
+     * Example URL: `GET /api/products/123/price-history?from=2026-10-01T00:00:00Z&to=2026-11-01T00:00:00Z`
+     *
+     * @param id The unique identifier of the product.
+     * @param from Start of the range (inclusive), an ISO-8601 instant; defaults to 30 days before {@code to}.
+     * @param to End of the range (exclusive), an ISO-8601 instant; defaults to now.
+     * @return A {@link ResponseEntity} with the {@link PriceHistoryDto} and HTTP status OK.
+     */
+    @GetMapping
+    @Operation(summary = "Get price history", description = "Price changes of a product over a time range")
+    @ApiResponse(responseCode = "200", description = "The price history",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = PriceHistoryDto.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid range",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ExceptionResponseDetails.class)))
+    public ResponseEntity<PriceHistoryDto> getPriceHistory(@PathVariable Long id,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        Instant end = to == null ? Instant.now() : to;
+        Instant start = from == null ? end.minus(DEFAULT_RANGE) : from;
+        return ResponseEntity.ok(productHistoryService.getPriceHistory(id, start, end));
+    }
+}
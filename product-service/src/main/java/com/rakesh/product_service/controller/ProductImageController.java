@@ -0,0 +1,115 @@
+package com.rakesh.product_service.controller;
+
+import com.rakesh.product_service.dto.ProductImageDto;
+import com.rakesh.product_service.exception.ExceptionResponseDetails;
+import com.rakesh.product_service.exception.InvalidRequestException;
+import com.rakesh.product_service.image.ImageFormat;
+import com.rakesh.product_service.image.ProductImageProperties;
+import com.rakesh.product_service.service.ProductImageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/products/{id}/image")
+@Tag(name = "Product image API", description = "Upload product images and download resized variants")
+public class ProductImageController {
+
+    private final ProductImageService productImageService;
+    private final long maxUploadBytes;
+    private final String cacheControl;
+    private final String versionedCacheControl;
+
+    @Autowired
+    public ProductImageController(ProductImageService productImageService, ProductImageProperties properties) {
+        this.productImageService = productImageService;
+        this.maxUploadBytes = properties.getMaxUploadSize().toBytes();
+        this.cacheControl = CacheControl.maxAge(properties.getMaxAge()).cachePublic().getHeaderValue();
+        this.versionedCacheControl = CacheControl.maxAge(properties.getVersionedMaxAge()).cachePublic().immutable().getHeaderValue();
+    }
+
+    /**
+     * Replaces the product's image with the request body (JPEG, PNG, GIF or BMP, sent as is with an image/* or
+     * application/octet-stream Content-Type, not multipart).
+     * Variants of the previous image are no longer served.
+     *
+     * Example: `curl -X PUT --data-binary @phone.png -H "Content-Type: image/png" localhost:8083/api/products/123/image`
+     *
+     * @param id The unique identifier of the product.
+     * @param body The image bytes.
+     * @return A {@link ResponseEntity} with the stored image's {@link ProductImageDto} and HTTP status OK.
+     */
+    @PutMapping(consumes = {"image/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(summary = "Upload a product image", description = "Store the request body as the product's original image")
+    @ApiResponse(responseCode = "200", description = "Image stored",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ProductImageDto.class)))
+    @ApiResponse(responseCode = "400", description = "Not a readable image, or too large",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ExceptionResponseDetails.class)))
+    @ApiResponse(responseCode = "404", description = "Product not found",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ExceptionResponseDetails.class)))
+    public ResponseEntity<ProductImageDto> uploadImage(@PathVariable Long id, InputStream body) throws IOException {
+        byte[] image = body.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxUploadBytes + 1)); // One byte more tells "too large"
+        if (image.length > maxUploadBytes) {
+            throw new InvalidRequestException("Image exceeds the limit of " + maxUploadBytes + " bytes");
+        }
+        return ResponseEntity.ok(productImageService.uploadImage(id, image));
+    }
+
+    /**
+     * Downloads the product's image: the original, or with {@code width} a variant scaled down to the next configured
+     * width, generated on first request. With {@code v} equal to the current image version the response may be
+     * cached for good; otherwise it is cached briefly and revalidated with its ETag.
+     *
+     * Example URLs:
+     * - `GET /api/products/123/image` (original)
+     * - `GET /api/products/123/image?width=320` (JPEG, or PNG for a PNG original)
+     * - `GET /api/products/123/image?width=640&format=png&v=9f86d081...`
+     *
+     * @param id The unique identifier of the product.
+     * @param width Optional width in pixels.
+     * @param format Optional variant format, jpeg or png.
+     * @param v Optional image version from the upload response or an earlier ETag.
+     */
+    @GetMapping
+    @Operation(summary = "Download a product image", description = "Get the original image or a resized variant")
+    @Parameter(name = "width", description = "Width in pixels, rounded up to the next configured variant width", example = "320")
+    @Parameter(name = "format", description = "Variant format: jpeg or png (default: as the original)", example = "jpeg")
+    @Parameter(name = "v", description = "Image version; when current, the response is cacheable for good")
+    @ApiResponse(responseCode = "200", description = "The image", content = @Content(mediaType = "image/*"))
+    @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    @ApiResponse(responseCode = "404", description = "Product not found or without image",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ExceptionResponseDetails.class)))
+    public void getImage(@PathVariable Long id,
+                         @RequestParam(required = false) Integer width,
+                         @RequestParam(required = false) String format,
+                         @RequestParam(required = false) String v,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String imageVersion = productImageService.getImageVersion(id); // One primary key lookup, no LOB
+        String variantName = productImageService.variantName(width, format == null ? null : ImageFormat.parse(format));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, imageVersion.equals(v) ? versionedCacheControl : cacheControl);
+        String eTag = "\"" + imageVersion.substring(0, 16) + "-" + variantName + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(eTag)) {
+            return; // 304, the client's copy is current
+        }
+        productImageService.getVariant(id, imageVersion, variantName).writeTo(request, response);
+    }
+}
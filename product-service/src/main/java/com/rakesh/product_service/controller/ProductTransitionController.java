@@ -0,0 +1,98 @@
+package com.rakesh.product_service.controller;
+
+import com.rakesh.product_service.dto.ProductTransitionDto;
+import com.rakesh.product_service.exception.ExceptionResponseDetails;
+import com.rakesh.product_service.exception.ValidationErrorDetails;
+import com.rakesh.product_service.transition.ProductTransitionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products/{id}/transitions")
+@ConditionalOnProperty(prefix = "product.transitions", name = "enabled", havingValue = "true")
+@Tag(name = "Product transition API", description = "Schedule status changes, price changes and releases of a product")
+public class ProductTransitionController {
+
+    private final ProductTransitionService productTransitionService;
+
+    @Autowired
+    public ProductTransitionController(ProductTransitionService productTransitionService) {
+        this.productTransitionService = productTransitionService;
+    }
+
+    /**
+     * Schedules a change of the product at {@code fireAt}.
+     *
+     * Examples:
+     * - `{"type": "RELEASE", "fireAt": "2026-11-27T08:00:00Z"}`: AVAILABLE from then on, with that day as release date
+     * - `{"type": "PRICE", "fireAt": "2026-11-30T23:59:59Z", "price": 799.00}`
+     * - `{"type": "STATUS", "fireAt": "2027-01-01T00:00:00Z", "status": "DISCONTINUED"}`
+     *
+     * @param id The unique identifier of the product.
+     * @param transition The transition to schedule.
+     * @return A {@link ResponseEntity} with the PENDING transition and HTTP status CREATED.
+     */
+    @PostMapping
+    @Operation(summary = "Schedule a transition", description = "Change status or price, or release the product, at a given time")
+    @ApiResponse(responseCode = "201", description = "Transition scheduled",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ProductTransitionDto.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid transition",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ValidationErrorDetails.class)))
+    @ApiResponse(responseCode = "404", description = "Product not found",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ExceptionResponseDetails.class)))
+    public ResponseEntity<ProductTransitionDto> scheduleTransition(@PathVariable Long id,
+                                                                   @Valid @RequestBody ProductTransitionDto transition) {
+        return new ResponseEntity<>(productTransitionService.schedule(id, transition), HttpStatus.CREATED);
+    }
+
+    /**
+     * Lists the product's transitions, pending and past, in the order they fire.
+     *
+     * @param id The unique identifier of the product.
+     */
+    @GetMapping
+    @Operation(summary = "List transitions", description = "All transitions of the product, earliest first")
+    @ApiResponse(responseCode = "200", description = "The transitions",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = ProductTransitionDto.class))))
+    public ResponseEntity<List<ProductTransitionDto>> getTransitions(@PathVariable Long id) {
+        return ResponseEntity.ok(productTransitionService.getTransitions(id));
+    }
+
+    /**
+     * Cancels a pending transition.
+     *
+     * @param id The unique identifier of the product.
+     * @param transitionId The transition to cancel.
+     * @return A {@link ResponseEntity} with HTTP status NO_CONTENT.
+     */
+    @DeleteMapping("/{transitionId}")
+    @Operation(summary = "Cancel a transition", description = "Cancel a transition that has not fired yet")
+    @ApiResponse(responseCode = "204", description = "Transition cancelled")
+    @ApiResponse(responseCode = "404", description = "Transition not found",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ExceptionResponseDetails.class)))
+    @ApiResponse(responseCode = "409", description = "Transition already fired or cancelled",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ExceptionResponseDetails.class)))
+    public ResponseEntity<Void> cancelTransition(@PathVariable Long id, @PathVariable Long transitionId) {
+        productTransitionService.cancel(id, transitionId);
+        return ResponseEntity.noContent().build();
+    }
+}
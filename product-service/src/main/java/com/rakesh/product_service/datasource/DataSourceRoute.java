@@ -0,0 +1,13 @@
+package com.rakesh.product_service.datasource;
+
+/**
+ * Lookup key used by {@link ReplicaRoutingDataSource}: the primary, or one replica by its position in the config.
+ */
+public record DataSourceRoute(boolean primary, int replicaIndex) {
+
+    public static final DataSourceRoute PRIMARY = new DataSourceRoute(true, -1);
+
+    public static DataSourceRoute replica(int index) {
+        return new DataSourceRoute(false, index);
+    }
+}
@@ -0,0 +1,34 @@
+package com.rakesh.product_service.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the client session id (from the configured header) to the request thread for {@link ReadYourWritesTracker}.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWritesTracker tracker;
+    private final String sessionHeader;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker, String sessionHeader) {
+        this.tracker = tracker;
+        this.sessionHeader = sessionHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        tracker.bindSession(request.getHeader(sessionHeader));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            tracker.clearSession(); // Threads are pooled, never leak a session into the next request
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.rakesh.product_service.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each client session last wrote, so its next reads can be kept on the primary
+ * until the replicas have had time to catch up ("read your writes").
+ *
+ * The current session id is set per request by {@link ReadYourWritesFilter}; requests without a session id
+ * simply get no read-your-writes guarantee.
+ */
+public class ReadYourWritesTracker {
+
+    private static final ThreadLocal<String> CURRENT_SESSION = new ThreadLocal<>();
+
+    private final Map<String, Long> lastWriteBySession = new ConcurrentHashMap<>();
+    private final long windowMillis;
+
+    public ReadYourWritesTracker(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public void bindSession(String sessionId) {
+        CURRENT_SESSION.set(sessionId);
+    }
+
+    public void clearSession() {
+        CURRENT_SESSION.remove();
+    }
+
+    /**
+     * Called whenever the current session opens a read-write connection.
+     */
+    public void recordWrite() {
+        String session = CURRENT_SESSION.get();
+        if (session != null) {
+            lastWriteBySession.put(session, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * True if the current session wrote recently enough that a replica might not have its change yet.
+     */
+    public boolean mustReadFromPrimary() {
+        String session = CURRENT_SESSION.get();
+        if (session == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteBySession.get(session);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < windowMillis;
+    }
+
+    /**
+     * Drops sessions whose window has passed, so the map only holds recently writing sessions.
+     */
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - windowMillis;
+        lastWriteBySession.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+}
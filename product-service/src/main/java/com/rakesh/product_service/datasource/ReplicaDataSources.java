@@ -0,0 +1,32 @@
+package com.rakesh.product_service.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.List;
+
+/**
+ * The replica pools, in the order of {@code product.datasource.replicas[n]}.
+ *
+ * A bean of its own type rather than a {@code List<DataSource>}: Spring collects every DataSource bean into a list
+ * injection point, so the primary pool (and the routing DataSource itself) would have ended up among the replicas.
+ * Closing it closes the pools, which are not beans themselves.
+ */
+public record ReplicaDataSources(List<HikariDataSource> pools) implements AutoCloseable {
+
+    public ReplicaDataSources {
+        pools = List.copyOf(pools);
+    }
+
+    public int size() {
+        return pools.size();
+    }
+
+    public HikariDataSource get(int index) {
+        return pools.get(index);
+    }
+
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
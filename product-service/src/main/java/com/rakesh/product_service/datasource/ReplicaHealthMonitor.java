@@ -0,0 +1,75 @@
+package com.rakesh.product_service.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Measures replication lag of every replica and flips its health flag in the {@link ReplicaRoutingDataSource}.
+ *
+ * The lag query must return the lag in seconds as the first column of the first row. Without a configured
+ * query, MySQL's {@code SHOW REPLICA STATUS} is used: a NULL {@code Seconds_Behind_Source} means replication is
+ * stopped, so the replica is taken out of rotation; no row at all means the server is not a replica (lag 0).
+ */
+public class ReplicaHealthMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final List<DataSource> replicas;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+
+    public ReplicaHealthMonitor(ReplicaRoutingDataSource routingDataSource, List<DataSource> replicas, String lagQuery, long maxLagSeconds) {
+        this.routingDataSource = routingDataSource;
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public void checkReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            boolean wasHealthy = routingDataSource.isHealthy(i);
+            boolean healthy;
+            try {
+                long lag = measureLagSeconds(replicas.get(i));
+                healthy = lag >= 0 && lag <= maxLagSeconds;
+                if (!healthy && wasHealthy) {
+                    log.warn("Replica {} lags {} s (max {} s), routing its reads to the primary", i, lag, maxLagSeconds);
+                }
+            } catch (Exception e) {
+                healthy = false;
+                if (wasHealthy) {
+                    log.warn("Replica {} is unreachable, routing its reads to the primary: {}", i, e.getMessage());
+                }
+            }
+            if (healthy && !wasHealthy) {
+                log.info("Replica {} is healthy again, it receives reads", i);
+            }
+            routingDataSource.markHealthy(i, healthy);
+        }
+    }
+
+    /**
+     * Returns the lag in seconds, or -1 if replication is stopped.
+     */
+    private long measureLagSeconds(DataSource replica) throws Exception {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(2);
+            boolean customQuery = lagQuery != null && !lagQuery.isBlank();
+            try (ResultSet rs = statement.executeQuery(customQuery ? lagQuery : "SHOW REPLICA STATUS")) {
+                if (!rs.next()) {
+                    return 0;
+                }
+                Object lag = customQuery ? rs.getObject(1) : rs.getObject("Seconds_Behind_Source");
+                return lag == null ? -1 : ((Number) lag).longValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.rakesh.product_service.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Sends connections of {@code @Transactional(readOnly = true)} work to a healthy replica and everything else to the primary.
+ *
+ * A read goes to the primary anyway when:
+ *  - no replica is currently healthy (all down or lagging more than the configured maximum), or
+ *  - the calling session wrote within the read-your-writes window.
+ * Healthy replicas are used round robin. Health flags are maintained by {@link ReplicaHealthMonitor}.
+ *
+ * Must be wrapped in a LazyConnectionDataSourceProxy: the transaction manager asks for the connection before it
+ * publishes the read-only flag, the lazy proxy delays the real lookup until the first statement runs.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final int replicaCount;
+    private final AtomicIntegerArray healthy; // 1 = may serve reads, 0 = down or lagging
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final ReadYourWritesTracker readYourWrites;
+
+    public ReplicaRoutingDataSource(int replicaCount, ReadYourWritesTracker readYourWrites) {
+        this.replicaCount = replicaCount;
+        this.healthy = new AtomicIntegerArray(replicaCount);
+        for (int i = 0; i < replicaCount; i++) {
+            healthy.set(i, 1); // Optimistic until the first health check says otherwise
+        }
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.recordWrite();
+            }
+            return DataSourceRoute.PRIMARY;
+        }
+        if (readYourWrites.mustReadFromPrimary()) {
+            return DataSourceRoute.PRIMARY;
+        }
+        int start = Math.floorMod(roundRobin.getAndIncrement(), Math.max(1, replicaCount));
+        for (int i = 0; i < replicaCount; i++) {
+            int candidate = (start + i) % replicaCount;
+            if (healthy.get(candidate) == 1) {
+                return DataSourceRoute.replica(candidate);
+            }
+        }
+        return DataSourceRoute.PRIMARY; // No usable replica: fall back rather than fail the read
+    }
+
+    void markHealthy(int replicaIndex, boolean isHealthy) {
+        healthy.set(replicaIndex, isHealthy ? 1 : 0);
+    }
+
+    boolean isHealthy(int replicaIndex) {
+        return healthy.get(replicaIndex) == 1;
+    }
+
+    int replicaCount() {
+        return replicaCount;
+    }
+}
@@ -0,0 +1,27 @@
+package com.rakesh.product_service.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for read/write splitting, bound from {@code product.datasource.routing.*}.
+ * The replica pools themselves are configured as {@code product.datasource.replicas[n].*} (plain Hikari properties).
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "product.datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled = false; // Off by default: everything goes to spring.datasource.url like before
+
+    private Duration maxReplicaLag = Duration.ofSeconds(5); // Replicas lagging more than this stop receiving reads
+
+    private Duration readYourWritesWindow = Duration.ofSeconds(5); // After a write, the same session reads from the primary for this long
+
+    private Duration healthCheckInterval = Duration.ofSeconds(2); // How often replica lag is measured
+
+    private String lagQuery; // Query returning the lag in seconds as one number; empty uses MySQL's SHOW REPLICA STATUS
+
+    private String sessionHeader = "X-Session-Id"; // Header identifying the client session for read-your-writes
+}
@@ -0,0 +1,53 @@
+package com.rakesh.product_service.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.rakesh.product_service.history.ProductChange;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Price history of a product over [from, to), as returned by `GET /api/products/{id}/price-history`.
+ * Times are ISO-8601 instants in UTC.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceHistoryDto {
+
+    @JsonSerialize(using = ToStringSerializer.class) // Sent as a string like ProductDto.id
+    private Long productId;
+
+    private Instant from;
+
+    private Instant to;
+
+    private BigDecimal startPrice; // In effect at {@code from}; null when the history starts later
+
+    private List<PriceChange> changes; // Earliest first
+
+    private boolean truncated; // More changes in the range than product.history.max-query-rows; narrow the range
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceChange {
+
+        private Instant changedAt;
+
+        private BigDecimal price;
+
+        private BigDecimal previousPrice; // Null only when no earlier price is recorded, e.g. for the CREATE
+
+        private ProductChange.Type changeType;
+
+        private Integer version; // Product version after the change, when known
+
+        private String changedBy;
+    }
+}
@@ -1,6 +1,8 @@
 package com.rakesh.product_service.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import com.rakesh.product_service.entity.ProductStatus;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.DecimalMin;
@@ -41,6 +43,7 @@ public class ProductDto {
   *   maintaining a consistent API style or integrating with systems that have specific naming conventions.
   */
  @JsonProperty("productId") // Maps the internal 'id' field to 'productId' in JSON.
+ @JsonSerialize(using = ToStringSerializer.class) // Snowflake ids exceed 2^53, the largest integer a JavaScript number holds exactly, so they are sent as strings.
  private Long id; // Unique identifier for the product. Can be null for new products.
 
  @NotBlank(message = "Product name is required") // Validation: Ensures the 'name' field is not null, empty, or just whitespace.
@@ -72,6 +75,8 @@ public class ProductDto {
 
  private LocalDateTime updatedAt; // Timestamp indicating when the product record was last updated.
 
+ private Integer version; // Optimistic locking version, read-only; clients send it back in PATCH /api/products/{id}
+
  /**
   * Represents embedded details of the product.
   * When deserializing JSON, Jackson will map JSON fields corresponding to `ProductDetailsDto`
@@ -0,0 +1,39 @@
+package com.rakesh.product_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response of an image upload: what was stored and how to fetch it.
+ * {@code url} carries the image version, so responses to it can be cached for good (Cache-Control: immutable);
+ * a new upload gives a new version and therefore a new URL.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImageDto {
+
+    @JsonProperty("productId")
+    @JsonSerialize(using = ToStringSerializer.class) // Sent as a string like ProductDto.id
+    private Long id;
+
+    private String imageVersion; // SHA-256 of the original, also the ETag base of every variant
+
+    private String contentType; // Of the original, e.g. image/png
+
+    private long sizeBytes;
+
+    private int width;
+
+    private int height;
+
+    private List<Integer> variantWidths; // Widths ?width= is rounded up to
+
+    private String url; // /api/products/{id}/image?v={imageVersion}; add &width= for a variant
+}
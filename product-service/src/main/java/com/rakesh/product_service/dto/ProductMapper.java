@@ -2,6 +2,7 @@ package com.rakesh.product_service.dto;
 
 import com.rakesh.product_service.entity.Product;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
 @Mapper(componentModel = "spring", uses = { ProductDetailsMapper.class }) // Marks this interface as a MapStruct mapper; 'componentModel = "spring"' makes it a Spring bean; 'uses' specifies other mappers used by this one.
@@ -10,9 +11,13 @@ public interface ProductMapper { // Declares the ProductMapper interface, which
     ProductDto toDto(Product product); // Declares a method to convert a Product entity to a ProductDto (data transfer object).
 
     //@Mapping(source = "productId", target = "id"), use this if the dto has field name productId corresponding to field name id in entity
+    @Mapping(target = "version", ignore = true) // The version is owned by Hibernate, a client-sent value would make a new product look detached
+    @Mapping(target = "imageHash", ignore = true) // Set together with the image by ProductImageService only
     Product toEntity(ProductDto productDto); // Declares a method to convert a ProductDto back to a Product entity.
 
     //@Mapping(source = "productId", target = "id"), use this if the dto has field name productId corresponding to field name id in entity
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "imageHash", ignore = true)
     void updateProductFromDto(ProductDto dto, @MappingTarget Product entity); // Declares a method to update an existing Product entity using data from a ProductDto.
 }
 
@@ -0,0 +1,64 @@
+package com.rakesh.product_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.rakesh.product_service.entity.ProductStatus;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Partial update of a Product, used by `PATCH /api/products/{id}`.
+ * Every field except {@code version} is optional: a null (or missing) field means "leave the column as it is",
+ * so only the columns actually sent end up in the UPDATE statement.
+ * JSON names are the same as in {@link ProductDto}, so a client can send back a subset of what it read.
+ */
+@Data // Lombok: getters, setters, toString, equals and hashCode
+@NoArgsConstructor // Lombok: needed by Jackson for deserialization
+@AllArgsConstructor // Lombok: constructor with all fields
+public class ProductPatchDto {
+
+    // Optional fields cannot be @NotBlank, which also rejects null; this only rejects a value without any non-space
+    private static final String NOT_BLANK = "(?s).*\\S.*";
+
+    @JsonProperty("productName")
+    @Size(max = 100, message = "Product name cannot exceed 100 characters")
+    @Pattern(regexp = NOT_BLANK, message = "Product name cannot be blank") // Null (not sent) passes, like in every @Pattern
+    private String name;
+
+    @JsonProperty("productDescription")
+    private String description;
+
+    @DecimalMin(value = "0.01", message = "Price must be greater than zero")
+    private BigDecimal price;
+
+    @Size(max = 50, message = "SKU cannot exceed 50 characters")
+    @Pattern(regexp = NOT_BLANK, message = "SKU cannot be blank")
+    private String sku;
+
+    @JsonProperty("quantityInStock")
+    private Integer quantityInStock;
+
+    private ProductStatus status;
+
+    // No @Valid here: ProductDetailsDto requires the weight, but in a patch the manufacturer can be sent alone
+    @JsonProperty("details")
+    private ProductDetailsDto details;
+
+    // Version the client read the product at (from GET or the ETag of the previous PATCH), used for optimistic locking
+    @NotNull(message = "Version is required")
+    private Integer version;
+
+    @JsonIgnore
+    @AssertTrue(message = "Weight in grams must be greater than zero")
+    public boolean isWeightValid() {
+        return details == null || details.getWeightGrams() == null || details.getWeightGrams() > 0;
+    }
+}
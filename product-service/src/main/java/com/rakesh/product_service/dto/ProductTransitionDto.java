@@ -0,0 +1,49 @@
+package com.rakesh.product_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.rakesh.product_service.entity.ProductStatus;
+import com.rakesh.product_service.entity.TransitionState;
+import com.rakesh.product_service.entity.TransitionType;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A scheduled product transition, as sent to schedule one and as returned.
+ * Times are ISO-8601 instants, e.g. {@code 2026-11-27T08:00:00Z} or {@code 2026-11-27T09:00:00+01:00}.
+ */
+@Data
+@NoArgsConstructor
+public class ProductTransitionDto {
+
+    @JsonProperty(value = "transitionId", access = JsonProperty.Access.READ_ONLY)
+    @JsonSerialize(using = ToStringSerializer.class) // Snowflake ids, sent as strings like ProductDto.id
+    private Long id;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long productId;
+
+    @NotNull(message = "Transition type is required")
+    private TransitionType type; // STATUS, PRICE, or RELEASE (AVAILABLE from fireAt on, with that day as release date)
+
+    @NotNull(message = "Fire time is required")
+    private Instant fireAt; // One in the past fires right away
+
+    private ProductStatus status; // Required for STATUS
+
+    @DecimalMin(value = "0.01", message = "Price must be greater than zero")
+    private BigDecimal price; // Required for PRICE
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private TransitionState state;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant appliedAt;
+}
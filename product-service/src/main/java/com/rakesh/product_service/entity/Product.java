@@ -1,5 +1,6 @@
 package com.rakesh.product_service.entity;
 
+import com.rakesh.id_generator.SnowflakeId; // Shared Snowflake id generator (id-generator module)
 import com.rakesh.product_service.exception.customAnnotationForDTO.EnumSubset;
 import jakarta.persistence.*; // Core JPA annotations
 import lombok.AllArgsConstructor; // Lombok for generating constructor with all fields
@@ -21,7 +22,8 @@ import java.util.Date; // Legacy Date class, used here specifically for @Tempora
 @Entity // Marks this class as a JPA entity, meaning it maps to a database table.
 @Table(name = "products", // Specifies the actual table name in the database. Recommended to be explicit.
         // Defines unique constraints on one or more columns to ensure data integrity.
-        uniqueConstraints = {@UniqueConstraint(columnNames = "sku")}) // Ensures that the 'sku' column has unique values across all rows.
+        // Named like in V1__create_products_table.sql, GlobalExceptionHandler recognises a duplicate SKU by this name.
+        uniqueConstraints = {@UniqueConstraint(name = "uk_products_sku", columnNames = "sku")}) // Ensures that the 'sku' column has unique values across all rows.
 @Cacheable // Marks this entity as eligible for the JPA/Hibernate second-level cache.
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Configures the caching strategy. READ_WRITE allows updates, ensuring cache consistency.
 @Data // Lombok: Generates boilerplate code like getters, setters, toString(), equals(), and hashCode() methods automatically.
@@ -31,7 +33,8 @@ import java.util.Date; // Legacy Date class, used here specifically for @Tempora
 public class Product extends BaseEntity{
 
     @Id // Marks this field as the primary key of the entity.
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Configures how the primary key values are generated. IDENTITY means the database auto-increments the ID.
+    // @GeneratedValue(strategy = GenerationType.IDENTITY) made the database auto-increment the ID, which costs a round trip per insert and disables JDBC batching.
+    @SnowflakeId // Time-ordered 64-bit ID assigned in memory before the INSERT by the shared id-generator module, so inserts can be batched.
     @Column(name = "id") // Specifies the column name in the 'products' table for this field.
     private Long id; // The unique identifier for the product.
 
@@ -52,7 +55,7 @@ public class Product extends BaseEntity{
 
     @Column(name = "sku", // Maps this field to a database column named 'sku'.
             nullable = false, // Cannot be NULL.
-            unique = true, // Ensures that each SKU value is unique across all product records.
+            // Unique through uk_products_sku on the table; unique = true here would add a second, unnamed constraint.
             length = 50) // Maximum length for the SKU string.
     private String sku; // Stock Keeping Unit - a unique identifier for each product.
 
@@ -120,6 +123,9 @@ public class Product extends BaseEntity{
     @Column(name = "image") // Maps this field to a database column named 'image'.
     private byte[] image; // Example: Stores product image data as a byte array.
 
+    @Column(name = "image_hash", length = 64) // SHA-256 (hex) of image, written together with it by ProductImageService
+    private String imageHash; // Identifies the image version for the variant cache and HTTP caching without loading the LOB.
+
     /**
      * `@Enumerated(EnumType.STRING)`
      * Purpose: Defines how a Java `enum` should be persisted in the database. Enums in Java are distinct types, but databases typically don't have a direct enum type.
@@ -0,0 +1,51 @@
+package com.rakesh.product_service.entity;
+
+import com.rakesh.id_generator.SnowflakeId; // Shared Snowflake id generator (id-generator module)
+import jakarta.persistence.*; // Core JPA annotations
+import lombok.Getter; // Lombok for generating getters
+import lombok.NoArgsConstructor; // Lombok for generating no-argument constructor
+import lombok.Setter; // Lombok for generating setters
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A change of a product scheduled for a point in time (see ProductTransitionService).
+ * Not cached: pending transitions are held in the service's timing wheel, and the table is only read to fill it.
+ */
+@Entity
+@Table(name = "product_transitions")
+@Getter // Not @Data: equals/hashCode over mutable fields and a generated id break entities in sets, like in BaseEntity
+@Setter
+@NoArgsConstructor
+public class ProductTransition extends BaseEntity {
+
+    @Id
+    @SnowflakeId // Assigned before the INSERT, like Product ids
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId; // No foreign key: a transition of a deleted product is SKIPPED when it fires
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private TransitionType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_status")
+    private ProductStatus targetStatus; // Set for STATUS
+
+    @Column(name = "target_price", precision = 10, scale = 2)
+    private BigDecimal targetPrice; // Set for PRICE
+
+    @Column(name = "fire_at", nullable = false)
+    private LocalDateTime fireAt; // UTC, so instances in different time zones agree on when it is due
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false)
+    private TransitionState state;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt; // UTC
+}
@@ -0,0 +1,8 @@
+package com.rakesh.product_service.entity;
+
+/**
+ * Lifecycle of a {@link ProductTransition}: PENDING until it fires or is cancelled, then one of the other three for good.
+ */
+public enum TransitionState {
+    PENDING, APPLIED, SKIPPED, CANCELLED // SKIPPED: the product was gone when the transition fired
+}
@@ -0,0 +1,10 @@
+package com.rakesh.product_service.entity;
+
+/**
+ * What a {@link ProductTransition} changes when it fires, stored by name in product_transitions.type.
+ */
+public enum TransitionType {
+    STATUS, // Sets the product's status to the target status
+    PRICE, // Sets the product's price to the target price
+    RELEASE // Makes the product AVAILABLE and sets its release date to the day it fired
+}
@@ -1,6 +1,8 @@
 package com.rakesh.product_service.exception;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -10,10 +12,15 @@ import org.springframework.web.context.request.WebRequest;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 @ControllerAdvice // Makes this class a global exception handler
 public class GlobalExceptionHandler {
 
+    // MySQL's message for the SKU index: uk_products_sku, or the UK... name Hibernate gave it in a database created by
+    // ddl-auto=update that V7__name_products_sku_constraint.sql has not renamed yet
+    private static final Pattern DUPLICATE_SKU = Pattern.compile("Duplicate entry .* for key '(?:products\\.)?(?:uk_products_sku|UK\\w+)'");
+
     /*
     When springboot finds a method for a particular exception defined below then it will run that method, if not found
     then it will run this general method
@@ -31,7 +38,13 @@ public class GlobalExceptionHandler {
 
     // Handles specific ResourceNotFoundException
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<ExceptionResponseDetails> handleResourceNotFoundException(ResourceNotFoundException ex, WebRequest request) {
+    public ResponseEntity<?> handleResourceNotFoundException(ResourceNotFoundException ex, WebRequest request) {
+        if (ex.getProductId() != null) {
+            // Missing product ids are the common case (bots probing ids), so their body comes from a pre-serialized template
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(NotFoundResponseTemplate.productNotFound(ex.getProductId(), request.getDescription(false)));
+        }
         ExceptionResponseDetails errorDetails = new ExceptionResponseDetails(
                 LocalDateTime.now(),
                 ex.getMessage(),
@@ -41,6 +54,44 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
     }
 
+    // Handles ResourceConflictException, e.g. a versioned PATCH or DELETE that lost against a concurrent change
+    @ExceptionHandler(ResourceConflictException.class)
+    public ResponseEntity<ExceptionResponseDetails> handleResourceConflictException(ResourceConflictException ex, WebRequest request) {
+        ExceptionResponseDetails errorDetails = new ExceptionResponseDetails(
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false),
+                "CONFLICT"
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    // Handles DataIntegrityViolationException, e.g. a create or update with the SKU of another product
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ExceptionResponseDetails> handleDataIntegrityViolationException(DataIntegrityViolationException ex, WebRequest request) {
+        String cause = String.valueOf(ex.getMostSpecificCause().getMessage());
+        ExceptionResponseDetails errorDetails = new ExceptionResponseDetails(
+                LocalDateTime.now(),
+                DUPLICATE_SKU.matcher(cause).find() ? "A product with this SKU already exists"
+                        : "The change conflicts with existing data", // The driver's message would show SQL and values
+                request.getDescription(false),
+                "CONFLICT"
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    // Handles InvalidRequestException, e.g. an unknown product status
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ExceptionResponseDetails> handleInvalidRequestException(InvalidRequestException ex, WebRequest request) {
+        ExceptionResponseDetails errorDetails = new ExceptionResponseDetails(
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false),
+                "BAD_REQUEST"
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
     // Handles validation errors (@Valid)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex, WebRequest request) {
@@ -0,0 +1,16 @@
+package com.rakesh.product_service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown for request values that fail validation outside of bean validation, e.g. an unknown product status.
+ * A bad request is the client's mistake, so, like {@link ResourceNotFoundException}, no stack trace is captured.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST) // Sets the HTTP status code for this exception
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message, null, false, false); // No suppression, no stack trace
+    }
+}
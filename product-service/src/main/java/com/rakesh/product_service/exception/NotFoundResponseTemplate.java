@@ -0,0 +1,51 @@
+package com.rakesh.product_service.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The 404 body for a missing product, pre-serialized.
+ *
+ * The JSON is the same as Jackson would write for an {@link ExceptionResponseDetails}, but the constant parts are
+ * encoded to bytes once, and per request only the timestamp, the id and the path are written in between.
+ * No ExceptionResponseDetails object and no ObjectMapper call on the hot 404 path.
+ */
+public final class NotFoundResponseTemplate {
+
+    private static final String MESSAGE_PREFIX = "Product not found with id: ";
+
+    private static final byte[] TIMESTAMP = bytes("{\"timestamp\":\"");
+    private static final byte[] MESSAGE = bytes("\",\"message\":\"" + MESSAGE_PREFIX);
+    private static final byte[] PATH = bytes("\",\"path\":\"");
+    private static final byte[] ERROR_CODE = bytes("\",\"errorCode\":\"NOT_FOUND\"}");
+
+    private NotFoundResponseTemplate() {
+    }
+
+    static String productMessage(long productId) {
+        return MESSAGE_PREFIX + productId;
+    }
+
+    /**
+     * @param path the request description, e.g. "uri=/api/products/42"; escaped since it comes from the client
+     */
+    public static byte[] productNotFound(long productId, String path) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(160);
+        out.writeBytes(TIMESTAMP);
+        out.writeBytes(bytes(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.now())));
+        out.writeBytes(MESSAGE);
+        out.writeBytes(bytes(Long.toString(productId)));
+        out.writeBytes(PATH);
+        out.writeBytes(JsonStringEncoder.getInstance().quoteAsUTF8(path));
+        out.writeBytes(ERROR_CODE);
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,20 @@
+package com.rakesh.product_service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a write lost against a concurrent change. Like {@link ResourceNotFoundException} it is an expected
+ * outcome, so no stack trace is captured.
+ */
+@ResponseStatus(HttpStatus.CONFLICT) // Sets the HTTP status code for this exception
+public class ResourceConflictException extends RuntimeException {
+
+    public ResourceConflictException(String message) {
+        super(message, null, false, false); // No suppression, no stack trace
+    }
+
+    public ResourceConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -3,14 +3,44 @@ package com.rakesh.product_service.exception;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+/**
+ * Thrown when a requested resource does not exist.
+ * A not-found is an expected outcome, not a bug, so no stack trace is captured: filling it in is the most
+ * expensive part of creating an exception, and nobody looks at it for a 404.
+ */
 @ResponseStatus(HttpStatus.NOT_FOUND) // Sets the HTTP status code for this exception
 public class ResourceNotFoundException extends RuntimeException {
 
+    private final Long productId; // Set for product lookups, lets GlobalExceptionHandler use the pre-serialized 404 body
+
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false); // No suppression, no stack trace
+        this.productId = null;
     }
 
     public ResourceNotFoundException(String message, Throwable cause) {
         super(message, cause);
+        this.productId = null;
+    }
+
+    private ResourceNotFoundException(Long productId) {
+        super(null, null, false, false);
+        this.productId = productId;
+    }
+
+    /**
+     * Not-found for a product id. The message is only built if somebody asks for it.
+     */
+    public static ResourceNotFoundException forProduct(Long productId) {
+        return new ResourceNotFoundException(productId);
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    @Override
+    public String getMessage() {
+        return productId != null ? NotFoundResponseTemplate.productMessage(productId) : super.getMessage();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package com.rakesh.product_service.grpc;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.protobuf.services.HealthStatusManager;
+import io.grpc.protobuf.services.ProtoReflectionService;
+import io.grpc.health.v1.HealthCheckResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts and stops the gRPC server together with the Spring context.
+ *
+ * Calls run on virtual threads: the lookups block on JDBC, and a virtual thread per call costs next to nothing
+ * while waiting, so the Hikari pool stays the only limit. On start the port is added to the Eureka metadata
+ * ("grpc.port"), so internal clients find it through the same discovery as the REST port.
+ */
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    public static final String EUREKA_METADATA_KEY = "grpc.port";
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServerLifecycle.class);
+
+    private final GrpcServerProperties properties;
+    private final BindableService lookupService;
+    private final ApplicationInfoManager applicationInfoManager; // null when Eureka is not on the classpath/disabled
+    private final HealthStatusManager health = new HealthStatusManager();
+
+    private ExecutorService executor;
+    private Server server;
+
+    public GrpcServerLifecycle(GrpcServerProperties properties, BindableService lookupService,
+                               ApplicationInfoManager applicationInfoManager) {
+        this.properties = properties;
+        this.lookupService = lookupService;
+        this.applicationInfoManager = applicationInfoManager;
+    }
+
+    @Override
+    public synchronized void start() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = NettyServerBuilder.forPort(properties.getPort())
+                .executor(executor)
+                .addService(lookupService)
+                .addService(health.getHealthService()) // grpc.health.v1, for load balancers and probes
+                .addService(ProtoReflectionService.newInstance()) // Lets grpcurl list and call the service
+                .build();
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the gRPC server on port " + properties.getPort(), e);
+        }
+        health.setStatus("", HealthCheckResponse.ServingStatus.SERVING);
+        if (applicationInfoManager != null) {
+            applicationInfoManager.registerAppMetadata(Map.of(EUREKA_METADATA_KEY, String.valueOf(server.getPort())));
+        }
+        log.info("gRPC product lookup listening on port {}", server.getPort());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        health.enterTerminalState(); // Report NOT_SERVING first so clients move away before the port closes
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(properties.getShutdownGracePeriod().toMillis(), TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+        server = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    public synchronized int getPort() {
+        return server != null ? server.getPort() : properties.getPort();
+    }
+}
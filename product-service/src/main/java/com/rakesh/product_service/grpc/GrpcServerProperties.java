@@ -0,0 +1,24 @@
+package com.rakesh.product_service.grpc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the internal gRPC endpoint, bound from {@code product.grpc.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "product.grpc")
+public class GrpcServerProperties {
+
+    private boolean enabled = false; // Off by default: REST only, like before
+
+    private int port = 9083; // Published in Eureka metadata as "grpc.port"
+
+    private int scanBatchSize = 500; // Rows per query for ScanCatalog when the client does not ask for a size
+
+    private int maxScanBatchSize = 5000; // Upper bound for a client-requested batch size
+
+    private Duration shutdownGracePeriod = Duration.ofSeconds(10); // In-flight calls get this long to finish on shutdown
+}
@@ -0,0 +1,158 @@
+package com.rakesh.product_service.grpc;
+
+import com.rakesh.product_service.dto.ProductDto;
+import com.rakesh.product_service.grpc.v1.GetByIdRequest;
+import com.rakesh.product_service.grpc.v1.ProductLookupGrpc;
+import com.rakesh.product_service.grpc.v1.ProductReply;
+import com.rakesh.product_service.service.ProductService;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * `GET /actuator/lookuplatency?samples=200`: a local end-to-end check of the gRPC endpoint and a latency comparison
+ * with the REST path. Both are called over loopback for the same product ids (the first ones of the catalog):
+ * REST as `GET /api/products/{id}` with JSON, gRPC as unary GetById; MultiGet sends all ids on one stream.
+ *
+ * Every path gets one warm-up round before it is measured; results are in microseconds. The calls are made one after
+ * the other on the request thread, so samples is capped at {@link #MAX_SAMPLES}.
+ * Loopback numbers hide the network, so they show the per-call overhead of each protocol and encoding.
+ */
+@Endpoint(id = "lookuplatency")
+public class LookupLatencyEndpoint {
+
+    private static final int MAX_SAMPLES = 1000;
+
+    private final ProductService productService;
+    private final GrpcServerLifecycle grpcServer;
+    private final Environment environment;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    public LookupLatencyEndpoint(ProductService productService, GrpcServerLifecycle grpcServer, Environment environment) {
+        this.productService = productService;
+        this.grpcServer = grpcServer;
+        this.environment = environment;
+    }
+
+    @ReadOperation
+    public Map<String, Object> compare(@Nullable Integer samples) throws Exception {
+        List<Long> ids = productService.scanProducts(0, Math.clamp(samples != null ? samples : 200, 1, MAX_SAMPLES)).stream()
+                .map(ProductDto::getId)
+                .toList();
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            result.put("error", "No products to look up, create some first");
+            return result;
+        }
+        String restBase = "http://localhost:" + environment.getProperty("local.server.port") + "/api/products/";
+        ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", grpcServer.getPort()).usePlaintext().build();
+        try {
+            ProductLookupGrpc.ProductLookupBlockingStub blocking = ProductLookupGrpc.newBlockingStub(channel);
+            ProductLookupGrpc.ProductLookupStub async = ProductLookupGrpc.newStub(channel);
+
+            restRound(restBase, ids); // Warm-up
+            result.put("rest", LatencyStats.of(restRound(restBase, ids)));
+
+            grpcRound(blocking, ids); // Warm-up
+            result.put("grpcUnary", LatencyStats.of(grpcRound(blocking, ids)));
+
+            multiGet(async, ids); // Warm-up
+            long started = System.nanoTime();
+            int found = multiGet(async, ids);
+            result.put("grpcMultiGet", Map.of("ids", ids.size(), "found", found,
+                    "totalMicros", (System.nanoTime() - started) / 1000));
+        } finally {
+            channel.shutdownNow();
+        }
+        return result;
+    }
+
+    private long[] restRound(String base, List<Long> ids) throws IOException, InterruptedException {
+        long[] micros = new long[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            long started = System.nanoTime();
+            HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(URI.create(base + ids.get(i))).GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            micros[i] = (System.nanoTime() - started) / 1000;
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("REST lookup of " + ids.get(i) + " returned " + response.statusCode());
+            }
+        }
+        return micros;
+    }
+
+    private static long[] grpcRound(ProductLookupGrpc.ProductLookupBlockingStub stub, List<Long> ids) {
+        long[] micros = new long[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            long started = System.nanoTime();
+            ProductReply reply = stub.getById(GetByIdRequest.newBuilder().setId(ids.get(i)).build());
+            micros[i] = (System.nanoTime() - started) / 1000;
+            if (reply.getId() != ids.get(i)) {
+                throw new IllegalStateException("gRPC lookup of " + ids.get(i) + " returned product " + reply.getId());
+            }
+        }
+        return micros;
+    }
+
+    private static int multiGet(ProductLookupGrpc.ProductLookupStub stub, List<Long> ids) throws InterruptedException {
+        CountDownLatch completed = new CountDownLatch(1);
+        AtomicInteger found = new AtomicInteger();
+        StreamObserver<GetByIdRequest> requests = stub.multiGet(new StreamObserver<>() {
+            @Override
+            public void onNext(ProductReply reply) {
+                if (reply.getFound()) {
+                    found.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                completed.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.countDown();
+            }
+        });
+        for (Long id : ids) {
+            requests.onNext(GetByIdRequest.newBuilder().setId(id).build());
+        }
+        requests.onCompleted();
+        if (!completed.await(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("MultiGet did not complete within 30 seconds");
+        }
+        return found.get();
+    }
+
+    public record LatencyStats(int calls, long p50Micros, long p90Micros, long p99Micros, long maxMicros, double meanMicros) {
+
+        static LatencyStats of(long[] micros) {
+            long[] sorted = micros.clone();
+            Arrays.sort(sorted);
+            return new LatencyStats(sorted.length, percentile(sorted, 0.50), percentile(sorted, 0.90),
+                    percentile(sorted, 0.99), sorted[sorted.length - 1], Arrays.stream(sorted).average().orElse(0));
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+        }
+    }
+}
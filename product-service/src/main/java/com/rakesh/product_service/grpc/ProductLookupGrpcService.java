@@ -0,0 +1,173 @@
+package com.rakesh.product_service.grpc;
+
+import com.rakesh.product_service.dto.ProductDto;
+import com.rakesh.product_service.exception.ResourceNotFoundException;
+import com.rakesh.product_service.grpc.v1.GetByIdRequest;
+import com.rakesh.product_service.grpc.v1.GetBySkuRequest;
+import com.rakesh.product_service.grpc.v1.ProductLookupGrpc;
+import com.rakesh.product_service.grpc.v1.ProductReply;
+import com.rakesh.product_service.grpc.v1.ScanCatalogRequest;
+import com.rakesh.product_service.service.ProductService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * gRPC implementation of product_lookup.proto, backed by the same {@link ProductService} as the REST controller,
+ * so caching, the id filter and read replica routing apply to both.
+ */
+public class ProductLookupGrpcService extends ProductLookupGrpc.ProductLookupImplBase {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductLookupGrpcService.class);
+
+    private final ProductService productService;
+    private final GrpcServerProperties properties;
+
+    public ProductLookupGrpcService(ProductService productService, GrpcServerProperties properties) {
+        this.productService = productService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void getById(GetByIdRequest request, StreamObserver<ProductReply> responseObserver) {
+        productService.findProductById(request.getId()).ifPresentOrElse(
+                product -> {
+                    responseObserver.onNext(toReply(product));
+                    responseObserver.onCompleted();
+                },
+                () -> responseObserver.onError(Status.NOT_FOUND
+                        .withDescription("Product not found with id: " + request.getId()).asRuntimeException()));
+    }
+
+    @Override
+    public void getBySku(GetBySkuRequest request, StreamObserver<ProductReply> responseObserver) {
+        try {
+            responseObserver.onNext(toReply(productService.getProductBySku(request.getSku())));
+            responseObserver.onCompleted();
+        } catch (ResourceNotFoundException e) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException());
+        }
+    }
+
+    @Override
+    public StreamObserver<GetByIdRequest> multiGet(StreamObserver<ProductReply> responseObserver) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(GetByIdRequest request) {
+                // Answered one by one in request order; an unknown id is a normal reply, it does not end the stream
+                responseObserver.onNext(productService.findProductById(request.getId())
+                        .map(ProductLookupGrpcService::toReply)
+                        .orElseGet(() -> ProductReply.newBuilder().setFound(false).setId(request.getId()).build()));
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("MultiGet cancelled by the client: {}", t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    @Override
+    public void scanCatalog(ScanCatalogRequest request, StreamObserver<ProductReply> responseObserver) {
+        int batchSize = request.getBatchSize() > 0
+                ? Math.min(request.getBatchSize(), properties.getMaxScanBatchSize())
+                : properties.getScanBatchSize();
+        ServerCallStreamObserver<ProductReply> call = (ServerCallStreamObserver<ProductReply>) responseObserver;
+        CatalogCursor cursor = new CatalogCursor(call, request.getAfterId(), batchSize);
+        call.setOnReadyHandler(cursor::drain); // Also runs once when the call first becomes ready
+    }
+
+    /**
+     * Streams the catalog with flow control: replies are only sent while the transport is ready, and the next
+     * batch is only read from the database when the previous one has been sent. A slow client therefore slows
+     * the scan down instead of making the server buffer the whole catalog in memory.
+     */
+    private final class CatalogCursor {
+
+        private final ServerCallStreamObserver<ProductReply> call;
+        private final int batchSize;
+        private long lastId;
+        private Iterator<ProductDto> batch = List.<ProductDto>of().iterator();
+        private boolean done;
+
+        CatalogCursor(ServerCallStreamObserver<ProductReply> call, long afterId, int batchSize) {
+            this.call = call;
+            this.lastId = afterId;
+            this.batchSize = batchSize;
+        }
+
+        // gRPC never runs two onReady callbacks of the same call at once, so no locking is needed
+        void drain() {
+            try {
+                while (!done && !call.isCancelled() && call.isReady()) {
+                    if (!batch.hasNext()) {
+                        List<ProductDto> next = productService.scanProducts(lastId, batchSize);
+                        if (next.isEmpty()) {
+                            done = true;
+                            call.onCompleted();
+                            return;
+                        }
+                        batch = next.iterator();
+                    }
+                    ProductDto product = batch.next();
+                    lastId = product.getId();
+                    call.onNext(toReply(product));
+                }
+            } catch (RuntimeException e) {
+                done = true;
+                log.error("Catalog scan failed after id {}", lastId, e);
+                call.onError(Status.INTERNAL.withDescription("Catalog scan failed after id " + lastId).asRuntimeException());
+            }
+        }
+    }
+
+    static ProductReply toReply(ProductDto product) {
+        ProductReply.Builder reply = ProductReply.newBuilder().setFound(true).setId(product.getId());
+        // Protobuf builders reject null, so optional DTO fields are only set when present
+        if (product.getName() != null) {
+            reply.setName(product.getName());
+        }
+        if (product.getDescription() != null) {
+            reply.setDescription(product.getDescription());
+        }
+        if (product.getPrice() != null) {
+            reply.setPrice(product.getPrice().toPlainString());
+        }
+        if (product.getSku() != null) {
+            reply.setSku(product.getSku());
+        }
+        if (product.getQuantityInStock() != null) {
+            reply.setQuantityInStock(product.getQuantityInStock());
+        }
+        if (product.getStatus() != null) {
+            reply.setStatus(product.getStatus().name());
+        }
+        if (product.getVersion() != null) {
+            reply.setVersion(product.getVersion());
+        }
+        if (product.getUpdatedAt() != null) {
+            // Timestamps are stored in the JVM's zone (LocalDateTime), so that is the zone to convert from
+            reply.setUpdatedAtEpochMillis(product.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        if (product.getDetails() != null) {
+            if (product.getDetails().getManufacturer() != null) {
+                reply.setManufacturer(product.getDetails().getManufacturer());
+            }
+            if (product.getDetails().getWeightGrams() != null) {
+                reply.setWeightGrams(product.getDetails().getWeightGrams());
+            }
+        }
+        return reply.build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.rakesh.product_service.history;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and one consumer: a ring buffer with a sequence number per slot
+ * (Vyukov's bounded queue). A producer claims a slot with one CAS on the tail and publishes the item by setting
+ * the slot's sequence; the consumer reads slots in order and hands them back by advancing their sequence a lap.
+ *
+ * Nothing is allocated per item and producers never block each other for longer than a failed CAS, so the request
+ * threads recording changes pay a few nanoseconds. {@link #offer(Object)} returns false when the ring is full;
+ * what to do then is up to the caller.
+ */
+public class ChangeQueue<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> items;
+    private final AtomicLongArray sequences; // Slot i is free for the producer of position p when it holds p, readable at p + 1
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head; // Only written by the consumer
+
+    public ChangeQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two, got " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.items = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Safe to call from any thread.
+     *
+     * @return false when the queue is full
+     */
+    public boolean offer(T item) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items.lazySet(index, item);
+                    sequences.set(index, position + 1); // Publishes the item
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false; // The consumer has not freed this slot from the previous lap yet
+            }
+            // Otherwise another producer took the position first, retry with the new tail
+        }
+    }
+
+    /**
+     * Moves up to {@code max} items into {@code sink}, oldest first. Only the single consumer may call this.
+     *
+     * @return the number of items moved
+     */
+    public int drainTo(List<T> sink, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break; // Empty, or claimed by a producer that has not published yet
+            }
+            sink.add(items.get(index));
+            items.lazySet(index, null);
+            sequences.set(index, position + mask + 1); // Free for the producer one lap ahead
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    /**
+     * Approximate while producers are active.
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
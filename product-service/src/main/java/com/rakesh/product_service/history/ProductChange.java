@@ -0,0 +1,38 @@
+package com.rakesh.product_service.history;
+
+import com.rakesh.product_service.entity.Product;
+import com.rakesh.product_service.entity.ProductStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * One row of product_history: the price, stock and status of a product before and after a change.
+ *
+ * A null field in {@code after} means the change did not touch it; a null {@code before} means the old values were
+ * not read (single-statement PATCH, DELETE and transitions do not load the product), the previous row has them.
+ *
+ * @param id Snowflake id assigned when the change is recorded, so a batch written twice is not stored twice
+ * @param version the product's version after the change, null when the change does not know it
+ */
+public record ProductChange(long id, long productId, Type type, State before, State after, Integer version,
+                            Instant changedAt, String changedBy) {
+
+    public enum Type {
+        CREATE, UPDATE, PATCH, DELETE, TRANSITION
+    }
+
+    public record State(BigDecimal price, Integer quantityInStock, ProductStatus status) {
+
+        public static State of(Product product) {
+            return new State(product.getPrice(), product.getQuantityInStock(), product.getStatus());
+        }
+
+        // Prices by value: 10.5 and 10.50 are the same price
+        public boolean differsFrom(State other) {
+            boolean samePrice = price == null ? other.price == null : other.price != null && price.compareTo(other.price) == 0;
+            return !samePrice || !Objects.equals(quantityInStock, other.quantityInStock) || status != other.status;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.rakesh.product_service.history;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * `GET /actuator/producthistory`: changes waiting in the queue, the last batch written, and how many changes were
+ * written by the writer, written directly under backpressure, spilled or dropped since startup.
+ */
+@Endpoint(id = "producthistory")
+public class ProductHistoryEndpoint {
+
+    private final ProductHistoryService service;
+
+    public ProductHistoryEndpoint(ProductHistoryService service) {
+        this.service = service;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        return service.report();
+    }
+}
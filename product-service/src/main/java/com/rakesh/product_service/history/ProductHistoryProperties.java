@@ -0,0 +1,34 @@
+package com.rakesh.product_service.history;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the product change history, bound from {@code product.history.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "product.history")
+public class ProductHistoryProperties {
+
+    private boolean enabled = false; // Off by default: no history is recorded, no /price-history API
+
+    private int queueCapacity = 65_536; // Power of two. Changes recorded but not yet written; lost if the process is killed
+
+    private int batchSize = 1_000; // Rows per multi-row INSERT; a full batch is written without waiting for the interval
+
+    private Duration flushInterval = Duration.ofMillis(200); // Longest a change waits in the queue while traffic is low
+
+    // How long a request thread waits for room when the queue is full, before its change is dropped
+    private Duration offerTimeout = Duration.ofMillis(50);
+
+    private Duration retryBackoff = Duration.ofSeconds(1); // After a failed write; the batch stays at the front
+
+    private Duration shutdownTimeout = Duration.ofSeconds(10); // For the final flush before the rest is spilled to disk
+
+    // Changes that could not be written on shutdown (database down) go here and are written on the next start
+    private String spillFile = "history/product-history.spill";
+
+    private int maxQueryRows = 10_000; // Cap on the rows one price history request returns
+}
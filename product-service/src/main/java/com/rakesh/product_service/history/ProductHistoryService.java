@@ -0,0 +1,255 @@
+package com.rakesh.product_service.history;
+
+import com.rakesh.id_generator.SnowflakeIds;
+import com.rakesh.product_service.dto.PriceHistoryDto;
+import com.rakesh.product_service.exception.InvalidRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind history of product price, stock and status changes, stored in product_history.
+ *
+ * {@link #record} only puts the change into a bounded lock-free {@link ChangeQueue}, once the caller's transaction
+ * has committed, so a rolled-back update leaves no history and the request pays no extra statement. A writer thread
+ * drains the queue and writes a batch whenever a full one is waiting or the flush interval has passed.
+ *
+ * Backpressure: when the writer falls behind and the queue is full, a recording thread waits up to offer-timeout for
+ * room and then drops its change, counted in product.history.changes{outcome=dropped}. It never writes the change
+ * itself: the callback runs before the transaction's connection goes back to the pool, and asking for a second one
+ * while the pool is saturated by the same slow database would deadlock the requests against each other.
+ * A failed batch stays at the front and is retried after retry-backoff, while the queue fills and backpressure starts.
+ *
+ * Shutdown: the writer flushes what is left; what the database does not take is written to the spill file, which
+ * the next start writes first. A process killed outright loses the changes still in the queue, at most
+ * queue-capacity and usually one flush interval's worth.
+ */
+public class ProductHistoryService implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductHistoryService.class);
+
+    private final ProductHistoryWriter writer;
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<String> auditorAware;
+    private final ProductHistoryProperties properties;
+    private final ChangeQueue<ProductChange> queue;
+    private final List<ProductChange> batch; // Drained but not yet written; only touched by the writer thread
+    private final Thread writerThread;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter spilled;
+    private final Counter failedBatches;
+
+    private volatile boolean running = true;
+    private volatile Instant lastFlushAt;
+    private volatile int lastBatchSize;
+    private volatile long lastBatchMillis;
+
+    public ProductHistoryService(ProductHistoryWriter writer, JdbcTemplate jdbcTemplate, AuditorAware<String> auditorAware,
+                                 ProductHistoryProperties properties, MeterRegistry meterRegistry) {
+        this.writer = writer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditorAware = auditorAware;
+        this.properties = properties;
+        this.queue = new ChangeQueue<>(properties.getQueueCapacity());
+        this.batch = new ArrayList<>(properties.getBatchSize());
+        this.writerThread = Thread.ofPlatform().name("product-history-writer").daemon().unstarted(this::run);
+        this.written = Counter.builder("product.history.changes").tag("outcome", "written").register(meterRegistry);
+        this.dropped = Counter.builder("product.history.changes").tag("outcome", "dropped").register(meterRegistry);
+        this.spilled = Counter.builder("product.history.changes").tag("outcome", "spilled").register(meterRegistry);
+        this.failedBatches = meterRegistry.counter("product.history.failed.batches");
+        Gauge.builder("product.history.queued", queue, ChangeQueue::size)
+                .description("Changes recorded but not yet written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a change of a product; inside a transaction only once it commits.
+     *
+     * @param before the values before the change, null when not read
+     * @param after the values after the change, with null for those it did not touch; null for a delete
+     * @param version the product's version after the change, null when not known
+     */
+    public void record(ProductChange.Type type, long productId, ProductChange.State before, ProductChange.State after,
+                       Integer version) {
+        ProductChange change = new ProductChange(SnowflakeIds.nextId(), productId, type, before, after, version,
+                Instant.now(), auditorAware.getCurrentAuditor().orElse(null));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(change);
+                    }
+                }
+            });
+        } else {
+            enqueue(change);
+        }
+    }
+
+    /**
+     * Price changes of a product in [from, to), with the price in effect at {@code from}. Changes still waiting in
+     * the queue, at most one flush interval old, are not included yet.
+     */
+    public PriceHistoryDto getPriceHistory(long productId, Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidRequestException("from must be before to");
+        }
+        LocalDateTime start = LocalDateTime.ofInstant(from, ZoneOffset.UTC);
+        // Both queries are a range of the (product_id, changed_at) index, the first one read backwards for one row
+        List<BigDecimal> startPrice = jdbcTemplate.queryForList("SELECT new_price FROM product_history WHERE product_id = ? "
+                + "AND changed_at < ? AND new_price IS NOT NULL ORDER BY changed_at DESC, id DESC LIMIT 1", BigDecimal.class, productId, start);
+        int limit = properties.getMaxQueryRows();
+        List<PriceHistoryDto.PriceChange> changes = jdbcTemplate.query("SELECT changed_at, change_type, old_price, new_price, "
+                        + "product_version, changed_by FROM product_history WHERE product_id = ? AND changed_at >= ? AND changed_at < ? "
+                        + "AND new_price IS NOT NULL ORDER BY changed_at ASC, id ASC LIMIT ?",
+                (rs, rowNum) -> new PriceHistoryDto.PriceChange(
+                        rs.getObject("changed_at", LocalDateTime.class).toInstant(ZoneOffset.UTC),
+                        rs.getBigDecimal("new_price"),
+                        rs.getBigDecimal("old_price"),
+                        ProductChange.Type.valueOf(rs.getString("change_type")),
+                        rs.getObject("product_version", Integer.class),
+                        rs.getString("changed_by")),
+                productId, start, LocalDateTime.ofInstant(to, ZoneOffset.UTC), limit + 1);
+        boolean truncated = changes.size() > limit;
+        if (truncated) {
+            changes = changes.subList(0, limit);
+        }
+        // PATCHes and transitions do not read the old price; the row before has it
+        BigDecimal previous = startPrice.isEmpty() ? null : startPrice.get(0);
+        for (PriceHistoryDto.PriceChange change : changes) {
+            if (change.getPreviousPrice() == null) {
+                change.setPreviousPrice(previous);
+            }
+            previous = change.getPrice();
+        }
+        return new PriceHistoryDto(productId, from, to, startPrice.isEmpty() ? null : startPrice.get(0), changes, truncated);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writerThread.start();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(properties.getShutdownTimeout().toMillis());
+        if (writerThread.isAlive()) {
+            log.warn("History writer did not finish within {}, {} changes are lost", properties.getShutdownTimeout(), queue.size());
+        }
+    }
+
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("queued", queue.size());
+        report.put("capacity", queue.capacity());
+        report.put("lastFlushAt", lastFlushAt);
+        report.put("lastBatchSize", lastBatchSize);
+        report.put("lastBatchMillis", lastBatchMillis);
+        report.put("written", (long) written.count());
+        report.put("dropped", (long) dropped.count());
+        report.put("spilled", (long) spilled.count());
+        report.put("failedBatches", (long) failedBatches.count());
+        return report;
+    }
+
+    private void enqueue(ProductChange change) {
+        if (queue.offer(change)) {
+            if (queue.size() >= properties.getBatchSize()) {
+                LockSupport.unpark(writerThread); // A full batch is waiting, no need to sit out the interval
+            }
+            return;
+        }
+        LockSupport.unpark(writerThread);
+        long deadline = System.nanoTime() + properties.getOfferTimeout().toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (queue.offer(change)) {
+                return;
+            }
+        }
+        dropped.increment(); // Still full: the database is slower than the traffic
+        log.debug("History queue full, dropped change of product {}", change.productId());
+    }
+
+    private void run() {
+        writeSpilled();
+        long flushInterval = properties.getFlushInterval().toNanos();
+        while (running) {
+            if (batch.isEmpty() && queue.size() < properties.getBatchSize()) {
+                LockSupport.parkNanos(flushInterval); // Woken early by a full batch or close()
+            }
+            queue.drainTo(batch, properties.getBatchSize() - batch.size());
+            if (!batch.isEmpty() && !flush(batch)) {
+                LockSupport.parkNanos(properties.getRetryBackoff().toNanos());
+            }
+        }
+        // Final flush: everything left in one go, and to the spill file if the database does not take it
+        queue.drainTo(batch, Integer.MAX_VALUE);
+        if (!batch.isEmpty() && !flush(batch)) {
+            try {
+                writer.spill(batch);
+                spilled.increment(batch.size());
+                log.warn("Spilled {} unwritten changes to {}", batch.size(), properties.getSpillFile());
+            } catch (IOException e) {
+                dropped.increment(batch.size());
+                log.error("Could not spill {} unwritten changes, they are lost", batch.size(), e);
+            }
+        }
+    }
+
+    private boolean flush(List<ProductChange> changes) {
+        long start = System.nanoTime();
+        try {
+            writer.write(changes);
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            log.warn("Writing {} history changes failed, retrying in {}", changes.size(), properties.getRetryBackoff(), e);
+            return false;
+        }
+        written.increment(changes.size());
+        lastFlushAt = Instant.now();
+        lastBatchSize = changes.size();
+        lastBatchMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        changes.clear();
+        return true;
+    }
+
+    // Changes spilled by the previous shutdown go first; on failure the file stays for the next start
+    private void writeSpilled() {
+        try {
+            List<ProductChange> changes = writer.readSpilled();
+            if (!changes.isEmpty()) {
+                writer.write(changes);
+                writer.deleteSpilled();
+                written.increment(changes.size());
+                log.info("Wrote {} changes spilled by the previous shutdown", changes.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write the spilled history changes, keeping {} for the next start", properties.getSpillFile(), e);
+        }
+    }
+}
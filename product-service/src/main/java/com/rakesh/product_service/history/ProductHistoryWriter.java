@@ -0,0 +1,200 @@
+package com.rakesh.product_service.history;
+
+import com.rakesh.product_service.entity.ProductStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes recorded changes to product_history, and to the spill file when the database cannot take them.
+ *
+ * A batch is written as multi-row {@code INSERT IGNORE ... VALUES (...), (...)} statements of up to
+ * {@code batchSize} rows, one round trip each whatever the driver's batching settings, all in one transaction.
+ * The rows carry their ids from when they were recorded, so writing a batch again after a failure whose outcome is
+ * unknown (a lost commit acknowledgement) does not duplicate anything.
+ *
+ * The spill file is {@code [int magic][int count][records...][int crc32]}, written to a temp file and renamed over
+ * the old one, so a crash while spilling leaves the previous file intact.
+ */
+public class ProductHistoryWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductHistoryWriter.class);
+    private static final int SPILL_MAGIC = 0x50484953; // "PHIS"
+    private static final String COLUMNS = "(id, product_id, change_type, old_price, new_price, old_quantity, new_quantity, "
+            + "old_status, new_status, product_version, changed_at, changed_by)";
+    private static final String ROW = "(?,?,?,?,?,?,?,?,?,?,?,?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate; // Only the writer thread writes, outside any other transaction
+    private final int batchSize;
+    private final Path spillFile;
+
+    public ProductHistoryWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, int batchSize, Path spillFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.spillFile = spillFile;
+    }
+
+    /**
+     * Writes all changes in one transaction: all of them are stored, or none and the exception is thrown.
+     */
+    public void write(List<ProductChange> changes) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < changes.size(); from += batchSize) {
+                List<ProductChange> chunk = changes.subList(from, Math.min(changes.size(), from + batchSize));
+                List<Object> args = new ArrayList<>(chunk.size() * 12);
+                chunk.forEach(change -> addRow(args, change));
+                jdbcTemplate.update("INSERT IGNORE INTO product_history " + COLUMNS + " VALUES "
+                        + String.join(",", Collections.nCopies(chunk.size(), ROW)), args.toArray());
+            }
+        });
+    }
+
+    /**
+     * Adds the changes to the spill file, keeping what it already holds.
+     */
+    public synchronized void spill(List<ProductChange> changes) throws IOException {
+        List<ProductChange> all = new ArrayList<>(readSpilled());
+        all.addAll(changes);
+        if (spillFile.getParent() != null) {
+            Files.createDirectories(spillFile.getParent());
+        }
+        Path temp = spillFile.resolveSibling(spillFile.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc)))) {
+            out.writeInt(SPILL_MAGIC);
+            out.writeInt(all.size());
+            for (ProductChange change : all) {
+                encode(out, change);
+            }
+            out.flush();
+            new DataOutputStream(file).writeInt((int) crc.getValue()); // Past the checksum, straight to the file
+            file.getFD().sync();
+        }
+        Files.move(temp, spillFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * The changes in the spill file, empty when there is none. A damaged file is moved aside, not read.
+     */
+    public synchronized List<ProductChange> readSpilled() throws IOException {
+        if (!Files.exists(spillFile)) {
+            return List.of();
+        }
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(Files.newInputStream(spillFile)), crc))) {
+            if (in.readInt() != SPILL_MAGIC) {
+                throw new IOException("not a spill file");
+            }
+            int count = in.readInt();
+            List<ProductChange> changes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                changes.add(decode(in));
+            }
+            int expected = (int) crc.getValue();
+            if (in.readInt() != expected) {
+                throw new IOException("checksum mismatch");
+            }
+            return changes;
+        } catch (IOException | RuntimeException e) { // A damaged byte may turn into a bad ordinal before the checksum is reached
+            Path damaged = spillFile.resolveSibling(spillFile.getFileName() + ".damaged");
+            log.error("Spill file {} is unreadable ({}), moved to {}", spillFile, e.getMessage(), damaged);
+            Files.move(spillFile, damaged, StandardCopyOption.REPLACE_EXISTING);
+            return List.of();
+        }
+    }
+
+    public synchronized void deleteSpilled() throws IOException {
+        Files.deleteIfExists(spillFile);
+    }
+
+    private static void addRow(List<Object> args, ProductChange change) {
+        ProductChange.State before = change.before();
+        ProductChange.State after = change.after();
+        args.add(change.id());
+        args.add(change.productId());
+        args.add(change.type().name());
+        args.add(before == null ? null : before.price());
+        args.add(after == null ? null : after.price());
+        args.add(before == null ? null : before.quantityInStock());
+        args.add(after == null ? null : after.quantityInStock());
+        args.add(before == null || before.status() == null ? null : before.status().name());
+        args.add(after == null || after.status() == null ? null : after.status().name());
+        args.add(change.version());
+        args.add(LocalDateTime.ofInstant(change.changedAt(), ZoneOffset.UTC)); // UTC, like product_transitions
+        args.add(change.changedBy());
+    }
+
+    private static void encode(DataOutputStream out, ProductChange change) throws IOException {
+        out.writeLong(change.id());
+        out.writeLong(change.productId());
+        out.writeByte(change.type().ordinal());
+        encodeState(out, change.before());
+        encodeState(out, change.after());
+        out.writeInt(change.version() == null ? -1 : change.version());
+        out.writeLong(change.changedAt().getEpochSecond());
+        out.writeInt(change.changedAt().getNano());
+        writeNullable(out, change.changedBy());
+    }
+
+    private static ProductChange decode(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        long productId = in.readLong();
+        ProductChange.Type type = ProductChange.Type.values()[in.readByte()];
+        ProductChange.State before = decodeState(in);
+        ProductChange.State after = decodeState(in);
+        int version = in.readInt();
+        Instant changedAt = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        String changedBy = readNullable(in);
+        return new ProductChange(id, productId, type, before, after, version < 0 ? null : version, changedAt, changedBy);
+    }
+
+    private static void encodeState(DataOutputStream out, ProductChange.State state) throws IOException {
+        out.writeBoolean(state != null);
+        if (state != null) {
+            writeNullable(out, state.price() == null ? null : state.price().toPlainString());
+            out.writeInt(state.quantityInStock() == null ? Integer.MIN_VALUE : state.quantityInStock());
+            out.writeByte(state.status() == null ? -1 : state.status().ordinal());
+        }
+    }
+
+    private static ProductChange.State decodeState(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        String price = readNullable(in);
+        int quantity = in.readInt();
+        byte status = in.readByte();
+        return new ProductChange.State(price == null ? null : new BigDecimal(price),
+                quantity == Integer.MIN_VALUE ? null : quantity, status < 0 ? null : ProductStatus.values()[status]);
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
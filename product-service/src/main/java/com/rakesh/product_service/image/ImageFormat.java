@@ -0,0 +1,55 @@
+package com.rakesh.product_service.image;
+
+import com.rakesh.product_service.exception.InvalidRequestException;
+
+/**
+ * Formats resized variants can be written in; ImageIO has writers for both without extra libraries.
+ */
+public enum ImageFormat {
+
+    JPEG("jpeg", "jpg", "image/jpeg", false),
+    PNG("png", "png", "image/png", true);
+
+    private final String imageIoName;
+    private final String extension;
+    private final String contentType;
+    private final boolean alpha;
+
+    ImageFormat(String imageIoName, String extension, String contentType, boolean alpha) {
+        this.imageIoName = imageIoName;
+        this.extension = extension;
+        this.contentType = contentType;
+        this.alpha = alpha;
+    }
+
+    public String imageIoName() {
+        return imageIoName;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public boolean alpha() {
+        return alpha;
+    }
+
+    // Accepts "jpeg", "jpg" and "png" in any case
+    public static ImageFormat parse(String value) {
+        for (ImageFormat format : values()) {
+            if (format.imageIoName.equalsIgnoreCase(value) || format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidRequestException("Invalid image format: " + value + ", expected jpeg or png");
+    }
+
+    // The variant format of an original in ImageIO's format name: PNG stays PNG (it may be transparent), the rest is JPEG
+    public static ImageFormat forOriginal(String imageIoName) {
+        return PNG.imageIoName.equalsIgnoreCase(imageIoName) ? PNG : JPEG;
+    }
+}
@@ -0,0 +1,135 @@
+package com.rakesh.product_service.image;
+
+import com.rakesh.product_service.exception.InvalidRequestException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Decodes originals and writes the resized variants, with ImageIO and Java2D only (the JVM runs headless).
+ *
+ * Downscaling halves the image with bilinear filtering until the next halving would go below the target, then
+ * scales the rest in one step: a single bilinear step from a large original only samples a few of the source
+ * pixels per target pixel and aliases, while area-averaging scalers are several times slower.
+ */
+public class ImageResizer {
+
+    /**
+     * What an original is, read from its header without decoding the pixels.
+     */
+    public record ImageInfo(String formatName, int width, int height) {
+
+        public String contentType() {
+            return "image/" + formatName.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final float jpegQuality;
+    private final long maxPixels;
+
+    public ImageResizer(ProductImageProperties properties) {
+        this.jpegQuality = properties.getJpegQuality();
+        this.maxPixels = properties.getMaxPixels();
+    }
+
+    /**
+     * @throws InvalidRequestException if ImageIO cannot read the image or it has more than max-pixels pixels
+     */
+    public ImageInfo inspect(byte[] image) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new InvalidRequestException("Not an image in a supported format (JPEG, PNG, GIF, BMP)");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                ImageInfo info = new ImageInfo(reader.getFormatName(), reader.getWidth(0), reader.getHeight(0));
+                if ((long) info.width() * info.height() > maxPixels) {
+                    throw new InvalidRequestException("Image of " + info.width() + "x" + info.height()
+                            + " exceeds the limit of " + maxPixels + " pixels");
+                }
+                return info;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new InvalidRequestException("Unreadable image: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Scales the image down to {@code width} (never up) keeping the aspect ratio, and encodes it in {@code format}.
+     */
+    public byte[] resize(byte[] original, int width, ImageFormat format) {
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(original));
+            if (source == null) {
+                throw new IllegalStateException("Stored image can no longer be decoded");
+            }
+            int targetWidth = Math.min(width, source.getWidth());
+            int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+            return encode(scale(source, targetWidth, targetHeight, format.alpha()), format);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int targetWidth, int targetHeight, boolean alpha) {
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do { // At least once, which also converts to the pixel type of the output format
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (!alpha) {
+                    graphics.setColor(Color.WHITE); // Transparent areas of a PNG/GIF original become white in a JPEG, not black
+                    graphics.fillRect(0, 0, width, height);
+                }
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image, ImageFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format.imageIoName()).next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (format == ImageFormat.JPEG) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT); // Progressive JPEGs are usually smaller and render early
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,37 @@
+package com.rakesh.product_service.image;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * An image ready to be sent: either just generated, in memory, or an entry of the {@link SegmentedVariantStore},
+ * which is sent straight from its file.
+ */
+public interface ImageVariant {
+
+    String contentType();
+
+    long length();
+
+    /**
+     * Writes Content-Type, Content-Length and the image; status and caching headers are up to the caller.
+     */
+    void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException;
+
+    record InMemory(String contentType, byte[] bytes) implements ImageVariant {
+
+        @Override
+        public long length() {
+            return bytes.length;
+        }
+
+        @Override
+        public void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            response.setContentType(contentType);
+            response.setContentLength(bytes.length);
+            response.getOutputStream().write(bytes);
+        }
+    }
+}
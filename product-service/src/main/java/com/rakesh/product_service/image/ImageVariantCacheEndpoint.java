@@ -0,0 +1,24 @@
+package com.rakesh.product_service.image;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * `GET /actuator/imagecache`: entries, segments and bytes of the image variant cache, hit ratio and evictions.
+ */
+@Endpoint(id = "imagecache")
+public class ImageVariantCacheEndpoint {
+
+    private final SegmentedVariantStore store;
+
+    public ImageVariantCacheEndpoint(SegmentedVariantStore store) {
+        this.store = store;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        return store.report();
+    }
+}
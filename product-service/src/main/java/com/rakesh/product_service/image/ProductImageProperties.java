@@ -0,0 +1,48 @@
+package com.rakesh.product_service.image;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of product images and their resized variants, bound from {@code product.images.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "product.images")
+public class ProductImageProperties {
+
+    private DataSize maxUploadSize = DataSize.ofMegabytes(10); // Larger originals are refused with 400
+
+    private long maxPixels = 40_000_000; // Width * height of an original, checked before decoding it (decompression bombs)
+
+    // Widths a variant can have; a requested width is rounded up to the next one, so clients cannot fill the cache
+    // with a variant per pixel
+    private List<Integer> widths = new ArrayList<>(List.of(160, 320, 640, 1280));
+
+    private float jpegQuality = 0.82f; // 0..1, JPEG variants only
+
+    private Duration maxAge = Duration.ofMinutes(1); // Cache-Control of plain URLs: the image behind them can change
+
+    private Duration versionedMaxAge = Duration.ofDays(365); // Cache-Control of URLs with ?v=<imageVersion>, marked immutable
+
+    private Cache cache = new Cache();
+
+    @Data
+    public static class Cache {
+
+        private boolean enabled = false; // Off: variants are generated on every request
+
+        private String directory = System.getProperty("java.io.tmpdir") + "/product-image-cache"; // Emptied on start and stop
+
+        private DataSize segmentSize = DataSize.ofMegabytes(64); // Variants are appended to memory-mapped files of this size
+
+        private DataSize maxSize = DataSize.ofGigabytes(1); // Disk used by all segments; at least two segments
+
+        // How long an evicted segment is not written again: responses being sent from it by Tomcat still read the file
+        private Duration retiredGrace = Duration.ofMinutes(1);
+    }
+}
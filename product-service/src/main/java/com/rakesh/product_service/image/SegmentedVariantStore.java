@@ -0,0 +1,373 @@
+package com.rakesh.product_service.image;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local disk cache of image variants, as a log of memory-mapped segment files.
+ *
+ * A variant is appended to the current segment through its mapping (no write call per variant, no fragmentation)
+ * and indexed in memory by key. It is served from the file without passing through the heap: Tomcat's sendfile
+ * (FileChannel.transferTo on the socket) when the connector supports it, otherwise FileChannel.transferTo to the
+ * response stream.
+ *
+ * The segments are a fixed pool of max-size / segment-size files, created and mapped once and reused: a
+ * MappedByteBuffer is only unmapped when it is garbage collected, so deleting the file of an evicted segment would
+ * not free its disk space. When the last unused segment is taken, the least recently read full segment is evicted as
+ * a whole: LRU at segment granularity, which costs one timestamp per read instead of a shared access-ordered list.
+ * An evicted segment is only written again after retired-grace, since sendfile reads it after the request has
+ * returned; a variant that finds no segment to write to meanwhile is not cached.
+ *
+ * The index lives in memory only, so the files from a previous run are deleted on start: after a restart the cache
+ * starts cold, like the rest of the instance.
+ */
+public class SegmentedVariantStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentedVariantStore.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    // Tomcat's request attributes for sendfile (org.apache.coyote.Constants / Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSize;
+    private final long retiredGraceNanos;
+
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> keysByProduct = new ConcurrentHashMap<>();
+    private final int segmentCount;
+    private final List<Segment> segments = new ArrayList<>(); // Guarded by this; the last one is written to
+    private final List<Segment> retired = new ArrayList<>(); // Guarded by this; evicted, not written again before retired-grace
+    private int createdSegments; // Guarded by this; segment files are created on first use, up to segmentCount
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong evictedSegments = new AtomicLong();
+    private final AtomicLong evictedEntries = new AtomicLong();
+    private final AtomicLong invalidatedEntries = new AtomicLong();
+    private final AtomicLong declinedPuts = new AtomicLong();
+
+    public SegmentedVariantStore(ProductImageProperties.Cache properties) {
+        this.directory = Path.of(properties.getDirectory()).toAbsolutePath();
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, properties.getSegmentSize().toBytes()); // A mapping is at most 2GB
+        this.maxSize = properties.getMaxSize().toBytes();
+        this.retiredGraceNanos = properties.getRetiredGrace().toNanos();
+        if (maxSize < 2L * segmentSize) {
+            throw new IllegalArgumentException("product.images.cache.max-size must hold at least two segments of "
+                    + properties.getSegmentSize() + ", is " + properties.getMaxSize());
+        }
+        this.segmentCount = (int) Math.min(Integer.MAX_VALUE, maxSize / segmentSize);
+        try {
+            Files.createDirectories(directory);
+            deleteSegmentFiles();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot use " + directory + " for the image cache", e);
+        }
+        log.info("Image variant cache in {}: {} MB in segments of {} MB", directory, maxSize >> 20, segmentSize >> 20);
+    }
+
+    /**
+     * @return the cached variant, or null
+     */
+    public Entry get(String key) {
+        Entry entry = index.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        entry.segment.lastRead = System.nanoTime();
+        return entry;
+    }
+
+    /**
+     * Appends a variant. Returns the existing entry if another request stored the key first, and null if the
+     * variant is larger than a segment and is not cached.
+     */
+    public synchronized Entry put(long productId, String key, String contentType, byte[] bytes) {
+        Entry existing = index.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (bytes.length > segmentSize) {
+            return null;
+        }
+        Segment segment = segments.isEmpty() ? null : segments.getLast();
+        if (segment == null || segment.remaining() < bytes.length) {
+            segment = nextSegment();
+            if (segment == null) {
+                return null;
+            }
+        }
+        Entry entry = new Entry(productId, key, segment, segment.append(bytes), bytes.length, contentType);
+        segment.keys.add(key);
+        index.put(key, entry);
+        keysByProduct.computeIfAbsent(productId, id -> ConcurrentHashMap.newKeySet()).add(key);
+        return entry;
+    }
+
+    /**
+     * Drops every variant of a product from the index; their bytes stay in the segments until those are evicted.
+     */
+    public void invalidate(long productId) {
+        Set<String> keys = keysByProduct.remove(productId);
+        if (keys != null) {
+            for (String key : keys) {
+                Entry entry = index.remove(key);
+                if (entry != null) {
+                    entry.segment.deadBytes.addAndGet(entry.length);
+                    invalidatedEntries.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public synchronized Map<String, Object> report() {
+        long used = segments.stream().mapToLong(segment -> segment.position).sum();
+        long dead = segments.stream().mapToLong(segment -> segment.deadBytes.get()).sum();
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("directory", directory.toString());
+        report.put("entries", index.size());
+        report.put("products", keysByProduct.size());
+        report.put("segments", segments.size());
+        report.put("segmentFiles", createdSegments);
+        report.put("usedBytes", used);
+        report.put("deadBytes", dead); // Invalidated variants not yet evicted with their segment
+        report.put("maxBytes", maxSize);
+        report.put("hits", hitCount);
+        report.put("misses", lookups - hitCount);
+        report.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        report.put("evictedSegments", evictedSegments.get());
+        report.put("evictedEntries", evictedEntries.get());
+        report.put("invalidatedEntries", invalidatedEntries.get());
+        report.put("retiredSegments", retired.size());
+        report.put("declinedPuts", declinedPuts.get()); // No segment out of retired-grace to write to
+        return report;
+    }
+
+    public synchronized long usedBytes() {
+        return segments.stream().mapToLong(segment -> segment.position).sum();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        index.clear();
+        keysByProduct.clear();
+        segments.forEach(Segment::close);
+        retired.forEach(Segment::close);
+        segments.clear();
+        retired.clear();
+        try {
+            deleteSegmentFiles();
+        } catch (IOException e) {
+            log.warn("Could not delete the image cache segments in {}", directory, e);
+        }
+    }
+
+    // The segment to append to next: a new file while the pool is not complete, else the evicted segment that has
+    // been retired longest, once retired-grace is over. Evicts the next one as soon as no unused segment is left.
+    private Segment nextSegment() {
+        Segment segment = null;
+        if (createdSegments < segmentCount) {
+            segment = createSegment();
+        } else if (!retired.isEmpty() && System.nanoTime() - retired.getFirst().retiredAt >= retiredGraceNanos) {
+            segment = retired.removeFirst();
+            segment.reset();
+        }
+        if (segment != null) {
+            segments.add(segment);
+        }
+        if (createdSegments == segmentCount && retired.isEmpty() && segments.size() > 1) {
+            evictLeastRecentlyRead(segments.getLast());
+        }
+        if (segment == null) {
+            declinedPuts.incrementAndGet();
+        }
+        return segment;
+    }
+
+    private Segment createSegment() {
+        Path file = directory.resolve(String.format("%s%06d.dat", SEGMENT_PREFIX, createdSegments));
+        try {
+            Segment segment = new Segment(file, segmentSize);
+            createdSegments++;
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create image cache segment " + file, e);
+        }
+    }
+
+    // Drops the entries of the full segment read least recently and retires it, so that it can be reused
+    private void evictLeastRecentlyRead(Segment current) {
+        Segment victim = segments.stream()
+                .filter(segment -> segment != current)
+                .min(Comparator.comparingLong(segment -> segment.lastRead)).orElseThrow();
+        segments.remove(victim);
+        for (String key : victim.keys) {
+            Entry entry = index.get(key);
+            if (entry != null && entry.segment == victim && index.remove(key, entry)) {
+                evictedEntries.incrementAndGet();
+                keysByProduct.computeIfPresent(entry.productId, (id, keys) -> {
+                    keys.remove(key);
+                    return keys.isEmpty() ? null : keys;
+                });
+            }
+        }
+        victim.retiredAt = System.nanoTime();
+        retired.add(victim);
+        evictedSegments.incrementAndGet();
+    }
+
+    private void deleteSegmentFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*.dat")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * A cached variant: a region of a segment file.
+     */
+    public static final class Entry implements ImageVariant {
+
+        private final long productId;
+        private final String key;
+        private final Segment segment;
+        private final long offset;
+        private final int length;
+        private final String contentType;
+
+        private Entry(long productId, String key, Segment segment, long offset, int length, String contentType) {
+            this.productId = productId;
+            this.key = key;
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.contentType = contentType;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        @Override
+        public String contentType() {
+            return contentType;
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+                // Tomcat sends the region itself once the servlet returns, with transferTo on the socket channel
+                request.setAttribute(SENDFILE_FILENAME, segment.file.toString());
+                request.setAttribute(SENDFILE_START, offset);
+                request.setAttribute(SENDFILE_END, offset + length);
+                return;
+            }
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = offset;
+            long end = offset + length;
+            while (position < end) {
+                position += segment.channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path file;
+        private final FileChannel channel; // Positional reads only, safe to share between requests
+        private final MappedByteBuffer mapping; // Writes only, under the store's lock
+        private final int capacity;
+        private final Set<String> keys = ConcurrentHashMap.newKeySet();
+        private final AtomicLong deadBytes = new AtomicLong();
+        private volatile int position; // Written under the store's lock
+        private volatile long lastRead = System.nanoTime();
+        private long retiredAt;
+
+        Segment(Path file, int capacity) throws IOException {
+            this.file = file;
+            this.capacity = capacity;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                this.mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity); // Grows the file (sparse) to capacity
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        int remaining() {
+            return capacity - position;
+        }
+
+        // The bytes land in the page cache, which is where transferTo and sendfile read them from
+        long append(byte[] bytes) {
+            int offset = position;
+            mapping.put(offset, bytes);
+            position = offset + bytes.length;
+            return offset;
+        }
+
+        // Written from the start again; entries still pointing here were dropped from the index when it was evicted
+        void reset() {
+            keys.clear();
+            deadBytes.set(0);
+            position = 0;
+            lastRead = System.nanoTime();
+        }
+
+        // The mapping itself goes when the buffer is garbage collected
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Could not close image cache segment {}", file, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.rakesh.product_service.pool;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Remembers which endpoint the current thread is serving ("GET /api/products/{id}"), so that connection borrows
+ * can be attributed to it. Set once the handler is known and cleared when the request completes, after the response
+ * has been written; borrows outside of a request (scheduled jobs, warm-up, gRPC) count as "other".
+ *
+ * A handler that goes async (Callable, DeferredResult) releases the container thread without afterCompletion there;
+ * it is cleared when the async processing starts instead, and set again by the async dispatch that completes it.
+ */
+public class EndpointContext implements AsyncHandlerInterceptor {
+
+    static final String OTHER = "other";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    static String current() {
+        String endpoint = CURRENT.get();
+        return endpoint != null ? endpoint : OTHER;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        CURRENT.set(request.getMethod() + " " + (pattern != null ? pattern : "unmapped"));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        CURRENT.remove(); // The thread goes back to the pool and serves other requests
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,121 @@
+package com.rakesh.product_service.pool;
+
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection demand of one Hikari pool, per endpoint, over the current measurement window: how many borrows,
+ * how long callers waited for a connection, how long they kept it, and how many connections each endpoint holds
+ * right now. Fed by {@link PoolDemandTrackerFactory} on the borrowing threads, read and reset by
+ * {@link PoolSizingController} once per window.
+ */
+public class PoolDemand {
+
+    /**
+     * Totals of one endpoint (or of the whole pool) over a window.
+     */
+    public record Window(long borrows, long timeouts, double meanWaitMillis, double maxWaitMillis,
+                         double meanUsageMillis, long maxUsageMillis, int held, int peakHeld) {
+    }
+
+    private final String poolName;
+    private final PoolStats poolStats;
+    private final Map<String, Counters> endpoints = new ConcurrentHashMap<>();
+    private final Counters pool = new Counters();
+
+    PoolDemand(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+    }
+
+    public String poolName() {
+        return poolName;
+    }
+
+    PoolStats poolStats() {
+        return poolStats;
+    }
+
+    void acquired(String endpoint, long waitNanos) {
+        pool.acquired(waitNanos);
+        endpoints.computeIfAbsent(endpoint, e -> new Counters()).acquired(waitNanos);
+    }
+
+    void released(String endpoint, long usageMillis) {
+        pool.released(usageMillis);
+        endpoints.computeIfAbsent(endpoint, e -> new Counters()).released(usageMillis);
+    }
+
+    void timedOut(String endpoint) {
+        pool.timeouts.increment();
+        endpoints.computeIfAbsent(endpoint, e -> new Counters()).timeouts.increment();
+    }
+
+    /**
+     * Ends the window: returns the pool's totals and starts counting from zero again.
+     */
+    Window drainPool() {
+        return pool.drain();
+    }
+
+    /**
+     * Ends the window for every endpoint, sorted by endpoint.
+     */
+    Map<String, Window> drainEndpoints() {
+        Map<String, Window> windows = new TreeMap<>();
+        endpoints.forEach((endpoint, counters) -> {
+            Window window = counters.drain();
+            if (window.borrows() == 0 && window.held() == 0) {
+                endpoints.remove(endpoint, counters); // Idle since the last window, e.g. a startup-only caller
+            } else {
+                windows.put(endpoint, window);
+            }
+        });
+        return windows;
+    }
+
+    private static final class Counters {
+
+        private final LongAdder borrows = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final LongAdder releases = new LongAdder();
+        private final LongAdder usageMillis = new LongAdder();
+        private final AtomicLong maxUsageMillis = new AtomicLong();
+        private final AtomicInteger held = new AtomicInteger(); // Not reset: connections still out at the end of a window
+        private final AtomicInteger peakHeld = new AtomicInteger();
+
+        void acquired(long nanos) {
+            borrows.increment();
+            waitNanos.add(nanos);
+            maxWaitNanos.accumulateAndGet(nanos, Math::max);
+            peakHeld.accumulateAndGet(held.incrementAndGet(), Math::max);
+        }
+
+        void released(long millis) {
+            releases.increment();
+            usageMillis.add(millis);
+            maxUsageMillis.accumulateAndGet(millis, Math::max);
+            held.updateAndGet(count -> Math.max(0, count - 1)); // A connection borrowed before tracking started
+        }
+
+        Window drain() {
+            long borrowCount = borrows.sumThenReset();
+            long releaseCount = releases.sumThenReset();
+            double totalWaitMillis = waitNanos.sumThenReset() / 1e6;
+            long totalUsageMillis = usageMillis.sumThenReset();
+            int heldNow = held.get();
+            return new Window(borrowCount, timeouts.sumThenReset(),
+                    borrowCount == 0 ? 0 : totalWaitMillis / borrowCount, maxWaitNanos.getAndSet(0) / 1e6,
+                    releaseCount == 0 ? 0 : (double) totalUsageMillis / releaseCount, maxUsageMillis.getAndSet(0),
+                    heldNow, peakHeld.getAndSet(heldNow));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.rakesh.product_service.pool;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hikari calls its metrics tracker on the borrowing thread when a connection is handed out (with the wait) and
+ * when it is closed (with the usage time), which is what lets {@link PoolDemand} attribute both to the endpoint
+ * in {@link EndpointContext}. A pool takes only one tracker factory, and Spring Boot does not install its own
+ * when one is set, so this one also feeds Micrometer's tracker: the hikaricp.* metrics stay as they were.
+ *
+ * Per endpoint it records the product.pool.acquire and product.pool.usage timers.
+ */
+public class PoolDemandTrackerFactory implements MetricsTrackerFactory {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry; // Looked up when a pool starts, not when the factory is created
+    private final Map<String, PoolDemand> pools = new ConcurrentHashMap<>();
+
+    public PoolDemandTrackerFactory(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        MeterRegistry registry = meterRegistry.getObject();
+        IMetricsTracker micrometer = new MicrometerMetricsTrackerFactory(registry).create(poolName, poolStats);
+        PoolDemand demand = new PoolDemand(poolName, poolStats);
+        pools.put(poolName, demand);
+        return new IMetricsTracker() {
+
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                micrometer.recordConnectionCreatedMillis(connectionCreatedMillis);
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                micrometer.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+                String endpoint = EndpointContext.current();
+                demand.acquired(endpoint, elapsedAcquiredNanos);
+                timer(registry, "product.pool.acquire", poolName, endpoint).record(elapsedAcquiredNanos, TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                micrometer.recordConnectionUsageMillis(elapsedBorrowedMillis);
+                String endpoint = EndpointContext.current();
+                demand.released(endpoint, elapsedBorrowedMillis);
+                timer(registry, "product.pool.usage", poolName, endpoint).record(elapsedBorrowedMillis, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                micrometer.recordConnectionTimeout();
+                demand.timedOut(EndpointContext.current());
+            }
+
+            @Override
+            public void close() {
+                micrometer.close();
+                pools.remove(poolName, demand);
+            }
+        };
+    }
+
+    Map<String, PoolDemand> pools() {
+        return pools;
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String poolName, String endpoint) {
+        return Timer.builder(name).tags("pool", poolName, "endpoint", endpoint).register(registry);
+    }
+}
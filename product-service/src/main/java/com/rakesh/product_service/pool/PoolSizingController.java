@@ -0,0 +1,222 @@
+package com.rakesh.product_service.pool;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.PoolStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Sizes every registered Hikari pool from what its connections are actually used for, once per measurement window.
+ *
+ * Little's law gives the mean number of connections in use: L = arrival rate of borrows * mean usage time. The pool
+ * gets that plus safety-factor * sqrt(L) spare connections, since the number in use at any moment fluctuates around L
+ * by about sqrt(L). More connections only help while the database keeps up, though: once it saturates, every extra
+ * connection adds a query that waits inside the database, usage time climbs and Little's law asks for even more.
+ * So usage time is also compared with its baseline (the best seen lately, which slowly drifts up so that one lucky
+ * window does not pin it), and when it has grown by more than latency-tolerance the pool shrinks in proportion
+ * (baseline / usage, the gradient), which hands the queue back to Hikari, where it is visible and bounded by
+ * connection-timeout.
+ *
+ * Every change is at most max-step of the current size and stays within min-size and max-size. With
+ * {@code apply=false} the sizes are only recommended (product.pool.recommended.size, /actuator/poolsizing).
+ */
+public class PoolSizingController {
+
+    private static final Logger log = LoggerFactory.getLogger(PoolSizingController.class);
+    private static final double BASELINE_DRIFT = 0.05; // Share of the gap to the current usage time the baseline rises per window
+    private static final double MIN_USAGE_MILLIS = 1.0; // Hikari reports usage in whole milliseconds
+
+    /**
+     * One window of one pool and what was decided from it.
+     */
+    public record Decision(Instant at, int currentSize, int recommendedSize, boolean applied, long borrows,
+                           double borrowsPerSecond, double meanUsageMillis, double baselineUsageMillis, double gradient,
+                           double meanInUse, int littleSize, long timeouts, double meanWaitMillis, String reason) {
+    }
+
+    private final PoolSizingProperties properties;
+    private final PoolDemandTrackerFactory trackerFactory;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final List<Pool> pools = new CopyOnWriteArrayList<>();
+
+    public PoolSizingController(PoolSizingProperties properties, PoolDemandTrackerFactory trackerFactory,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.trackerFactory = trackerFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public PoolDemandTrackerFactory trackerFactory() {
+        return trackerFactory;
+    }
+
+    /**
+     * Puts a pool under control. Its tracker factory must be set before the pool starts: for a pool that has not
+     * started yet (a DataSource bean) it is set here, a pool started from a HikariConfig needs it on the config.
+     */
+    public void register(HikariDataSource dataSource) {
+        if (dataSource.getMetricsTrackerFactory() == null && dataSource.getMetricRegistry() == null && !dataSource.isRunning()) {
+            dataSource.setMetricsTrackerFactory(trackerFactory);
+        }
+        if (dataSource.getMetricsTrackerFactory() != trackerFactory) {
+            log.warn("Pool {} has its own metrics tracker, its size is not managed", dataSource.getPoolName());
+            return;
+        }
+        pools.add(new Pool(dataSource));
+    }
+
+    /**
+     * Closes the current window of every pool and decides its next size.
+     */
+    public void adjust() {
+        for (Pool pool : pools) {
+            try {
+                pool.adjust();
+            } catch (RuntimeException e) {
+                log.warn("Could not size pool {}", pool.dataSource.getPoolName(), e);
+            }
+        }
+    }
+
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        for (Pool pool : pools) {
+            String poolName = pool.dataSource.getPoolName();
+            if (poolName != null) {
+                report.put(poolName, pool.report());
+            }
+        }
+        return report;
+    }
+
+    private final class Pool {
+
+        private final HikariDataSource dataSource;
+        private final Deque<Decision> history = new ArrayDeque<>();
+        private long windowStart = System.nanoTime();
+        private double baselineUsageMillis = Double.NaN;
+        private Map<String, PoolDemand.Window> lastEndpoints = Map.of();
+        private PoolDemand.Window lastWindow;
+        private volatile int recommendedSize;
+        private boolean gaugeRegistered;
+
+        Pool(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+            this.recommendedSize = dataSource.getMaximumPoolSize();
+        }
+
+        synchronized void adjust() {
+            long now = System.nanoTime();
+            double seconds = (now - windowStart) / 1e9;
+            windowStart = now;
+            PoolDemand demand = dataSource.getPoolName() != null ? trackerFactory.pools().get(dataSource.getPoolName()) : null;
+            if (demand == null) {
+                return; // Not started yet: nothing has borrowed a connection
+            }
+            registerGauge(dataSource.getPoolName());
+            PoolDemand.Window window = demand.drainPool();
+            lastWindow = window;
+            lastEndpoints = demand.drainEndpoints();
+
+            HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+            int current = config.getMaximumPoolSize();
+            if (window.borrows() < properties.getMinSamples()) {
+                record(new Decision(Instant.now(), current, current, false, window.borrows(), window.borrows() / seconds,
+                        window.meanUsageMillis(), baselineUsageMillis, 1.0, 0, 0, window.timeouts(), window.meanWaitMillis(),
+                        "fewer than " + properties.getMinSamples() + " borrows, size kept"));
+                return;
+            }
+
+            double usageMillis = Math.max(MIN_USAGE_MILLIS, window.meanUsageMillis());
+            baselineUsageMillis = Double.isNaN(baselineUsageMillis) || usageMillis < baselineUsageMillis
+                    ? usageMillis
+                    : baselineUsageMillis + (usageMillis - baselineUsageMillis) * BASELINE_DRIFT;
+            double gradient = Math.max(0.5, Math.min(1.0, baselineUsageMillis / usageMillis));
+
+            double borrowsPerSecond = window.borrows() / seconds;
+            double meanInUse = borrowsPerSecond * usageMillis / 1000; // Little's law: L = lambda * W
+            int littleSize = (int) Math.ceil(meanInUse + properties.getSafetyFactor() * Math.sqrt(meanInUse));
+
+            int target = littleSize;
+            String reason = "Little's law";
+            if (gradient < 1 - properties.getLatencyTolerance()) {
+                target = Math.min(littleSize, (int) Math.ceil(current * gradient));
+                reason = String.format("usage time %.1f ms is %.0f%% over its baseline, database saturated",
+                        usageMillis, (usageMillis / baselineUsageMillis - 1) * 100);
+            } else if (window.timeouts() > 0) {
+                target = Math.max(littleSize, current + 1); // Callers gave up waiting while the database kept up
+                reason = window.timeouts() + " connection timeouts";
+            }
+            target = Math.max(properties.getMinSize(), Math.min(properties.getMaxSize(), target));
+            int step = Math.max(1, (int) Math.ceil(current * properties.getMaxStep()));
+            int recommended = Math.max(current - step, Math.min(current + step, target));
+            recommendedSize = recommended;
+
+            boolean applied = false;
+            if (properties.isApply() && recommended != current) {
+                if (recommended < config.getMinimumIdle()) {
+                    config.setMinimumIdle(recommended); // Hikari requires minimum-idle <= maximum-pool-size
+                }
+                config.setMaximumPoolSize(recommended); // Surplus idle connections are closed after idle-timeout
+                applied = true;
+                log.info("Pool {}: maximum-pool-size {} -> {} ({})", dataSource.getPoolName(), current, recommended, reason);
+            }
+            record(new Decision(Instant.now(), current, recommended, applied, window.borrows(), borrowsPerSecond,
+                    window.meanUsageMillis(), baselineUsageMillis, gradient, meanInUse, littleSize, window.timeouts(),
+                    window.meanWaitMillis(), reason));
+        }
+
+        synchronized Map<String, Object> report() {
+            HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+            Map<String, Object> limits = new LinkedHashMap<>();
+            limits.put("maximumPoolSize", config.getMaximumPoolSize());
+            limits.put("minimumIdle", config.getMinimumIdle());
+            limits.put("connectionTimeoutMs", config.getConnectionTimeout());
+            limits.put("bounds", List.of(properties.getMinSize(), properties.getMaxSize()));
+            limits.put("apply", properties.isApply());
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("limits", limits);
+            PoolDemand demand = trackerFactory.pools().get(dataSource.getPoolName());
+            if (demand != null) {
+                PoolStats stats = demand.poolStats();
+                report.put("connections", Map.of("active", stats.getActiveConnections(), "idle", stats.getIdleConnections(),
+                        "pending", stats.getPendingThreads(), "total", stats.getTotalConnections()));
+            }
+            report.put("recommendedSize", recommendedSize);
+            report.put("lastWindow", lastWindow);
+            report.put("endpoints", lastEndpoints);
+            report.put("history", new ArrayList<>(history).reversed()); // Newest first
+            return report;
+        }
+
+        private void record(Decision decision) {
+            history.addLast(decision);
+            while (history.size() > properties.getHistory()) {
+                history.removeFirst();
+            }
+        }
+
+        private void registerGauge(String poolName) {
+            if (!gaugeRegistered) {
+                Gauge.builder("product.pool.recommended.size", this, pool -> pool.recommendedSize)
+                        .tag("pool", poolName)
+                        .register(meterRegistry.getObject());
+                gaugeRegistered = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.rakesh.product_service.pool;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * `GET /actuator/poolsizing`: per pool the current limits and connections, the recommended size, the last window
+ * per endpoint (borrows, wait and usage time, connections held) and the recent decisions with their inputs.
+ */
+@Endpoint(id = "poolsizing")
+public class PoolSizingEndpoint {
+
+    private final PoolSizingController controller;
+
+    public PoolSizingEndpoint(PoolSizingController controller) {
+        this.controller = controller;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        return controller.report();
+    }
+}
@@ -0,0 +1,38 @@
+package com.rakesh.product_service.pool;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the connection pool controller, bound from {@code product.pool-sizing.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "product.pool-sizing")
+public class PoolSizingProperties {
+
+    private boolean enabled = false; // Measure connection demand per endpoint and recommend a pool size
+
+    private boolean apply = false; // Also resize the pools; off: recommendations only, see /actuator/poolsizing
+
+    private int minSize = 5; // Bounds for maximum-pool-size, whatever the measurements say
+
+    private int maxSize = 50; // Keep max-size times the instance count below the database's max_connections
+
+    private Duration interval = Duration.ofSeconds(10); // Measurement window, one decision per window
+
+    private int minSamples = 50; // Fewer connection borrows in a window: too little traffic to decide, the size is kept
+
+    // Spare connections on top of the mean demand L, as safety-factor * sqrt(L) (square-root staffing): demand
+    // fluctuates around its mean by about sqrt(L), so 2 keeps waits rare without sizing for the worst burst
+    private double safetyFactor = 2.0;
+
+    // Usage time may grow this much over its baseline before the pool stops growing: beyond it, more connections
+    // are mostly queueing inside the database and only make every query slower
+    private double latencyTolerance = 0.3;
+
+    private double maxStep = 0.25; // Largest change per window, as a share of the current size (at least 1)
+
+    private int history = 30; // Decisions kept for /actuator/poolsizing
+}
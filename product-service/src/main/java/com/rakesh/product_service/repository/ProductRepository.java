@@ -2,14 +2,19 @@ package com.rakesh.product_service.repository;
 
 import com.rakesh.product_service.entity.Product;
 import com.rakesh.product_service.entity.ProductStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     // Spring Data JPA automatically provides basic CRUD and pagination/sorting.
 
     // Custom query method: Find products whose name contains the keyword (case-insensitive)
@@ -21,6 +26,34 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Custom query method: Find products within a price range
     List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
 
+    // Custom query method: Find a product by its SKU (served by the unique SKU index)
+    Optional<Product> findBySku(String sku);
+
+    // Keyset paging for full catalog scans: "WHERE id > ? ORDER BY id LIMIT n" walks the primary key, unlike OFFSET paging
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Single-statement delete. deleteById() first loads the entity and then removes it, this returns the affected row count instead
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.id = :id")
+    int deleteByIdReturningCount(@Param("id") Long id);
+
+    // Same, but only if nobody has changed the product since the client read it at this version (optimistic locking)
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.id = :id AND p.version = :version")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Integer version);
+
+    // Current version of the product; read after a bulk update in the same transaction it is the updated row's version
+    @Query("SELECT p.version FROM Product p WHERE p.id = :id")
+    Optional<Integer> findVersionById(@Param("id") Long id);
+
+    // Version of the product's image, without loading the image LOB; empty if the product does not exist or has no image
+    @Query("SELECT p.imageHash FROM Product p WHERE p.id = :id AND p.imageHash IS NOT NULL")
+    Optional<String> findImageHashById(@Param("id") Long id);
+
+    // The original image only, not the rest of the product; empty if it is no longer the image with this hash
+    @Query("SELECT p.image FROM Product p WHERE p.id = :id AND p.imageHash = :imageHash")
+    Optional<byte[]> findImageByIdAndImageHash(@Param("id") Long id, @Param("imageHash") String imageHash);
+
     // Spring Data JPA also supports deriving queries from property names
     // For example, you could add:
     // List<Product> findByQuantityInStockLessThan(Integer quantity);
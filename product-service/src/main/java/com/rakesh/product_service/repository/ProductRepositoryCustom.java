@@ -0,0 +1,26 @@
+package com.rakesh.product_service.repository;
+
+import com.rakesh.product_service.dto.ProductPatchDto;
+
+/**
+ * Custom repository fragment for writes Spring Data can't derive from a method name.
+ * Spring Data picks up the implementation {@link ProductRepositoryImpl} by its "Impl" suffix.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Updates only the non-null fields of the patch in one statement:
+     * `UPDATE products SET <changed columns>, version = version + 1 WHERE id = ? AND version = ?`.
+     *
+     * @return the number of updated rows, 0 if the product does not exist or its version has moved on
+     */
+    int patchProduct(Long id, ProductPatchDto patch);
+
+    /**
+     * Replaces the image and its hash in one statement, without loading the product or its old image:
+     * `UPDATE products SET image = ?, image_hash = ?, version = version + 1 WHERE id = ?`.
+     *
+     * @return the number of updated rows, 0 if the product does not exist
+     */
+    int updateImage(Long id, byte[] image, String imageHash);
+}
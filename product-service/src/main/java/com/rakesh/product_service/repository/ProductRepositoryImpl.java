@@ -0,0 +1,88 @@
+package com.rakesh.product_service.repository;
+
+import com.rakesh.product_service.dto.ProductPatchDto;
+import com.rakesh.product_service.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
+
+import java.time.LocalDateTime;
+
+/**
+ * Implementation of {@link ProductRepositoryCustom}.
+ * The UPDATE is built with the Criteria API so that only the columns present in the patch are set,
+ * without loading the entity (and its image LOB) first.
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final AuditorAware<String> auditorAware;
+
+    @Autowired
+    public ProductRepositoryImpl(AuditorAware<String> auditorAware) {
+        this.auditorAware = auditorAware;
+    }
+
+    @Override
+    public int patchProduct(Long id, ProductPatchDto patch) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Product> update = cb.createCriteriaUpdate(Product.class);
+        Root<Product> product = update.from(Product.class);
+
+        if (patch.getName() != null) {
+            update.set(product.get("name"), patch.getName());
+        }
+        if (patch.getDescription() != null) {
+            update.set(product.get("description"), patch.getDescription());
+        }
+        if (patch.getPrice() != null) {
+            update.set(product.get("price"), patch.getPrice());
+        }
+        if (patch.getSku() != null) {
+            update.set(product.get("sku"), patch.getSku());
+        }
+        if (patch.getQuantityInStock() != null) {
+            update.set(product.get("quantityInStock"), patch.getQuantityInStock());
+        }
+        if (patch.getStatus() != null) {
+            update.set(product.get("status"), patch.getStatus());
+        }
+        if (patch.getDetails() != null && patch.getDetails().getManufacturer() != null) {
+            update.set(product.get("details").get("manufacturer"), patch.getDetails().getManufacturer());
+        }
+        if (patch.getDetails() != null && patch.getDetails().getWeightGrams() != null) {
+            update.set(product.get("details").get("weightGrams"), patch.getDetails().getWeightGrams());
+        }
+
+        // Bulk updates bypass the entity listeners, so @Version, @UpdateTimestamp and @LastModifiedBy are done by hand
+        update.set(product.<Integer>get("version"), cb.sum(product.<Integer>get("version"), 1));
+        update.set(product.get("updatedAt"), LocalDateTime.now());
+        update.set(product.get("updatedBy"), auditorAware.getCurrentAuditor().orElse(null));
+
+        update.where(cb.equal(product.get("id"), id), cb.equal(product.get("version"), patch.getVersion()));
+
+        // Hibernate evicts the Product second-level cache region after a bulk update, so no stale copy is served
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public int updateImage(Long id, byte[] image, String imageHash) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Product> update = cb.createCriteriaUpdate(Product.class);
+        Root<Product> product = update.from(Product.class);
+
+        update.set(product.get("image"), image);
+        update.set(product.get("imageHash"), imageHash);
+        update.set(product.<Integer>get("version"), cb.sum(product.<Integer>get("version"), 1));
+        update.set(product.get("updatedAt"), LocalDateTime.now());
+        update.set(product.get("updatedBy"), auditorAware.getCurrentAuditor().orElse(null));
+        update.where(cb.equal(product.get("id"), id));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -0,0 +1,20 @@
+package com.rakesh.product_service.repository;
+
+import com.rakesh.product_service.entity.ProductTransition;
+import com.rakesh.product_service.entity.TransitionState;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductTransitionRepository extends JpaRepository<ProductTransition, Long> {
+
+    // All transitions of a product, next one first (index on product_id, fire_at)
+    List<ProductTransition> findByProductIdOrderByFireAtAsc(Long productId);
+
+    // Pending transitions due before the wheel's horizon, overdue ones first: a range scan of (state, fire_at)
+    List<ProductTransition> findByStateAndFireAtBeforeOrderByFireAtAsc(TransitionState state, LocalDateTime before, Limit limit);
+}
@@ -0,0 +1,79 @@
+package com.rakesh.product_service.requestcost;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What one request costs on its thread: the SQL statements Hibernate ran and the bytes allocated on the heap.
+ *
+ * The allocation figure comes from HotSpot's per-thread allocation counter (com.sun.management.ThreadMXBean),
+ * which every TLAB refill bumps anyway, so reading it twice per request is nearly free. It only covers the
+ * request thread: work handed to other threads is not included.
+ */
+public final class RequestCost {
+
+    private static final ThreadLocal<RequestCost> CURRENT = new ThreadLocal<>();
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final long allocatedAtStart;
+    private final int keptStatements;
+    private final List<String> statements = new ArrayList<>();
+    private int statementCount;
+
+    private RequestCost(int keptStatements) {
+        this.keptStatements = keptStatements;
+        this.allocatedAtStart = allocatedBytes();
+    }
+
+    /**
+     * Starts accounting for the current thread, until {@link #end()}.
+     */
+    static RequestCost begin(int keptStatements) {
+        RequestCost cost = new RequestCost(keptStatements);
+        CURRENT.set(cost);
+        return cost;
+    }
+
+    static RequestCost current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops accounting and returns the bytes allocated since {@link #begin}, -1 when the JVM cannot tell.
+     */
+    long end() {
+        CURRENT.remove();
+        long now = allocatedBytes();
+        return now < 0 || allocatedAtStart < 0 ? -1 : now - allocatedAtStart;
+    }
+
+    void statement(String sql) {
+        statementCount++;
+        if (statements.size() < keptStatements) {
+            statements.add(sql);
+        }
+    }
+
+    int statementCount() {
+        return statementCount;
+    }
+
+    List<String> statements() {
+        return statements;
+    }
+
+    private static long allocatedBytes() {
+        // -1 for virtual threads, and when allocation measurement is unsupported or switched off
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+}
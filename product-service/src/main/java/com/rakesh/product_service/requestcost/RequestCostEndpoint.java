@@ -0,0 +1,32 @@
+package com.rakesh.product_service.requestcost;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * `GET /actuator/requestcost`: statements and allocated bytes per endpoint since start (or the last reset), with the
+ * endpoint's budget, the number of requests over it and the SQL of the costliest request.
+ * `DELETE /actuator/requestcost` starts over, e.g. between the warm-up and the measured part of a test run.
+ */
+@Endpoint(id = "requestcost")
+public class RequestCostEndpoint {
+
+    private final RequestCostRecorder recorder;
+
+    public RequestCostEndpoint(RequestCostRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        return recorder.report();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        recorder.reset();
+    }
+}
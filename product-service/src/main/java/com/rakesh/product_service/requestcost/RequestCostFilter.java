@@ -0,0 +1,42 @@
+package com.rakesh.product_service.requestcost;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Accounts each API request from the first filter to the last byte of the JSON response, so statements run
+ * while serializing (lazy loads under open-in-view) are counted as well.
+ */
+public class RequestCostFilter extends OncePerRequestFilter {
+
+    private final RequestCostRecorder recorder;
+    private final int keptStatements;
+
+    public RequestCostFilter(RequestCostRecorder recorder, int keptStatements) {
+        this.recorder = recorder;
+        this.keptStatements = keptStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestCost cost = RequestCost.begin(keptStatements);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long allocated = cost.end();
+            // Only requests a controller method handled: no static resource fallback ("/**") or 404
+            if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod) {
+                String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                recorder.record(request.getMethod(), pattern, cost, allocated);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.rakesh.product_service.requestcost;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the per-request cost accounting, bound from {@code product.request-cost.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "product.request-cost")
+public class RequestCostProperties {
+
+    private boolean enabled = false; // Off by default: RequestCostBudgetTest turns it on, production does not pay for it
+
+    private int keptStatements = 20; // SQL kept of the costliest request of each endpoint, for finding the extra queries
+
+    // Limits per endpoint; a request above one is logged as a violation and counted in /actuator/requestcost
+    private List<Budget> budgets = new ArrayList<>();
+
+    @Data
+    public static class Budget {
+
+        private String method; // GET, POST, ...
+
+        private String path; // The controller's mapping pattern, e.g. /api/products/{id}
+
+        private Integer maxStatements; // SQL statements per request, null for no limit
+
+        private DataSize maxAllocated; // Heap allocated by the request thread, null for no limit
+
+        String key() {
+            return method + " " + path;
+        }
+    }
+}
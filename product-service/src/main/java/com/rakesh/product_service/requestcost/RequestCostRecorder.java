@@ -0,0 +1,135 @@
+package com.rakesh.product_service.requestcost;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregates the {@link RequestCost} of every request per endpoint (method + mapping pattern) and checks it against
+ * the endpoint's budget. Published as the product.request.statements and product.request.allocated summaries, and
+ * as a report at /actuator/requestcost, where {@code "violations"} must stay 0; RequestCostBudgetTest asserts it.
+ */
+public class RequestCostRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestCostRecorder.class);
+
+    private final Map<String, RequestCostProperties.Budget> budgets;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, EndpointCost> endpoints = new ConcurrentHashMap<>();
+
+    public RequestCostRecorder(RequestCostProperties properties, MeterRegistry meterRegistry) {
+        this.budgets = properties.getBudgets().stream()
+                .collect(Collectors.toMap(RequestCostProperties.Budget::key, Function.identity()));
+        this.meterRegistry = meterRegistry;
+    }
+
+    void record(String method, String path, RequestCost cost, long allocatedBytes) {
+        String key = method + " " + path;
+        int statements = cost.statementCount();
+        DistributionSummary.builder("product.request.statements")
+                .tags("method", method, "uri", path)
+                .register(meterRegistry)
+                .record(statements);
+        if (allocatedBytes >= 0) {
+            DistributionSummary.builder("product.request.allocated")
+                    .baseUnit("bytes")
+                    .tags("method", method, "uri", path)
+                    .register(meterRegistry)
+                    .record(allocatedBytes);
+        }
+
+        List<String> exceeded = new ArrayList<>();
+        RequestCostProperties.Budget budget = budgets.get(key);
+        if (budget != null && budget.getMaxStatements() != null && statements > budget.getMaxStatements()) {
+            exceeded.add(statements + " statements (budget " + budget.getMaxStatements() + ")");
+        }
+        if (budget != null && budget.getMaxAllocated() != null && allocatedBytes > budget.getMaxAllocated().toBytes()) {
+            exceeded.add(DataSize.ofBytes(allocatedBytes).toKilobytes() + "KB allocated (budget "
+                    + budget.getMaxAllocated().toKilobytes() + "KB)");
+        }
+        endpoints.computeIfAbsent(key, k -> new EndpointCost()).add(cost, allocatedBytes, !exceeded.isEmpty());
+        if (!exceeded.isEmpty()) {
+            Counter.builder("product.request.cost.violations")
+                    .tags("method", method, "uri", path)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} over budget: {}. Statements:\n  {}", key, String.join(", ", exceeded), String.join("\n  ", cost.statements()));
+        }
+    }
+
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        Map<String, Object> perEndpoint = new TreeMap<>();
+        long violations = 0;
+        for (Map.Entry<String, EndpointCost> endpoint : endpoints.entrySet()) {
+            Map<String, Object> entry = endpoint.getValue().toMap();
+            RequestCostProperties.Budget budget = budgets.get(endpoint.getKey());
+            if (budget != null) {
+                Map<String, Object> limits = new LinkedHashMap<>();
+                limits.put("maxStatements", budget.getMaxStatements());
+                limits.put("maxAllocatedBytes", budget.getMaxAllocated() != null ? budget.getMaxAllocated().toBytes() : null);
+                entry.put("budget", limits);
+            }
+            violations += (long) entry.get("violations");
+            perEndpoint.put(endpoint.getKey(), entry);
+        }
+        report.put("violations", violations);
+        // Budgeted endpoints no request has reached: a test suite relying on this report does not cover them
+        report.put("unexercised", budgets.keySet().stream().filter(key -> !endpoints.containsKey(key)).sorted().toList());
+        report.put("endpoints", perEndpoint);
+        return report;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    private static final class EndpointCost {
+
+        private long requests;
+        private long violations;
+        private long totalStatements;
+        private int maxStatements;
+        private long totalAllocated;
+        private long maxAllocated;
+        private List<String> costliestStatements = List.of(); // Of the request with the most statements
+
+        synchronized void add(RequestCost cost, long allocatedBytes, boolean violation) {
+            requests++;
+            if (violation) {
+                violations++;
+            }
+            totalStatements += cost.statementCount();
+            if (cost.statementCount() > maxStatements || requests == 1) {
+                maxStatements = cost.statementCount();
+                costliestStatements = List.copyOf(cost.statements());
+            }
+            totalAllocated += Math.max(0, allocatedBytes);
+            maxAllocated = Math.max(maxAllocated, allocatedBytes);
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("requests", requests);
+            map.put("violations", violations);
+            map.put("meanStatements", (double) totalStatements / requests);
+            map.put("maxStatements", maxStatements);
+            map.put("meanAllocatedBytes", totalAllocated / requests);
+            map.put("maxAllocatedBytes", maxAllocated);
+            map.put("costliestStatements", costliestStatements);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.rakesh.product_service.requestcost;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Sees every SQL statement Hibernate prepares (queries, lazy loads, inserts, batched updates once per batch)
+ * and counts it against the request running on the thread, if any. The SQL is passed on unchanged.
+ */
+public class StatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestCost cost = RequestCost.current();
+        if (cost != null) {
+            cost.statement(sql);
+        }
+        return sql;
+    }
+}
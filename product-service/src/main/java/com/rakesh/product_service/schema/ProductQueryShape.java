@@ -0,0 +1,108 @@
+package com.rakesh.product_service.schema;
+
+/**
+ * The SQL shape of every ProductRepository query, together with the index V2__add_product_query_indexes.sql added for it.
+ * {@link SchemaVerifier} checks that each index exists and runs EXPLAIN on each shape to catch full table scans.
+ *
+ * The SQL mirrors what Hibernate generates for the derived query (parameters inlined with representative values).
+ * When a repository method is added or changed, add or update its shape here together with its migration: the verifier
+ * reports every query method of ProductRepository and ProductTransitionRepository that has no shape here.
+ */
+public enum ProductQueryShape {
+
+    FIND_BY_ID("findById",
+            "SELECT * FROM products WHERE id = 1",
+            "PRIMARY", false),
+
+    FIND_VERSION_BY_ID("findVersionById",
+            "SELECT version FROM products WHERE id = 1",
+            "PRIMARY", false),
+
+    FIND_IMAGE_HASH_BY_ID("findImageHashById",
+            "SELECT image_hash FROM products WHERE id = 1 AND image_hash IS NOT NULL",
+            "PRIMARY", false),
+
+    FIND_IMAGE_BY_ID("findImageByIdAndImageHash",
+            "SELECT image FROM products WHERE id = 1 AND image_hash = 'a'",
+            "PRIMARY", false),
+
+    FIND_BY_SKU("findBySku",
+            "SELECT * FROM products WHERE sku = 'SKU-1'",
+            "uk_products_sku", false),
+
+    SCAN_AFTER_ID("findByIdGreaterThanOrderByIdAsc",
+            "SELECT * FROM products WHERE id > 0 ORDER BY id ASC LIMIT 500",
+            "PRIMARY", false),
+
+    // CatalogSnapshotService: rows changed since the snapshot's high-water mark, a short range at the end of the index
+    CATALOG_CATCH_UP("CatalogSnapshotService catch-up",
+            "SELECT id, sku, price, status, quantity_in_stock, version FROM products WHERE updated_at >= NOW() - INTERVAL 1 HOUR",
+            "idx_products_updated_at", false),
+
+    // ProductTransitionService: filling the timing wheel with pending transitions due before the horizon
+    PENDING_TRANSITIONS("findByStateAndFireAtBeforeOrderByFireAtAsc",
+            "SELECT * FROM product_transitions WHERE state = 'PENDING' AND fire_at < NOW() ORDER BY fire_at ASC LIMIT 1000",
+            "idx_product_transitions_state_fire_at", false),
+
+    TRANSITIONS_OF_PRODUCT("findByProductIdOrderByFireAtAsc",
+            "SELECT * FROM product_transitions WHERE product_id = 1 ORDER BY fire_at ASC",
+            "idx_product_transitions_product_id", false),
+
+    // ProductHistoryService: price changes of one product in a time range
+    PRICE_HISTORY("ProductHistoryService price history",
+            "SELECT changed_at, new_price FROM product_history WHERE product_id = 1 AND changed_at >= NOW() - INTERVAL 30 DAY AND changed_at < NOW() AND new_price IS NOT NULL ORDER BY changed_at ASC LIMIT 10001",
+            "idx_product_history_product_changed_at", false),
+
+    FIND_BY_STATUS("findByStatus",
+            "SELECT * FROM products WHERE status = 'AVAILABLE'",
+            "idx_products_status_updated_at", false),
+
+    FIND_BY_PRICE_BETWEEN("findByPriceBetween",
+            "SELECT * FROM products WHERE price BETWEEN 10.00 AND 100.00",
+            "idx_products_price", false),
+
+    PAGE_SORTED_BY_NAME("findAll(Pageable) sort=name",
+            "SELECT * FROM products ORDER BY name ASC LIMIT 0, 20",
+            "idx_products_name", true),
+
+    PAGE_SORTED_BY_PRICE("findAll(Pageable) sort=price",
+            "SELECT * FROM products ORDER BY price DESC LIMIT 0, 20",
+            "idx_products_price", true),
+
+    PAGE_SORTED_BY_UPDATED_AT("findAll(Pageable) sort=updatedAt",
+            "SELECT * FROM products ORDER BY updated_at DESC LIMIT 0, 20",
+            "idx_products_updated_at", true),
+
+    // A leading wildcard cannot seek any B-tree index; the best MySQL can do is scan the narrow name index.
+    SEARCH_BY_NAME("findByNameContainingIgnoreCase",
+            "SELECT id FROM products WHERE UPPER(name) LIKE UPPER('%phone%')",
+            "idx_products_name", true);
+
+    private final String repositoryMethod;
+    private final String explainSql;
+    private final String expectedIndex;
+    private final boolean scanAllowed; // true = an ordered/covering index scan is fine, false = the expected index must be usable
+
+    ProductQueryShape(String repositoryMethod, String explainSql, String expectedIndex, boolean scanAllowed) {
+        this.repositoryMethod = repositoryMethod;
+        this.explainSql = explainSql;
+        this.expectedIndex = expectedIndex;
+        this.scanAllowed = scanAllowed;
+    }
+
+    public String repositoryMethod() {
+        return repositoryMethod;
+    }
+
+    public String explainSql() {
+        return explainSql;
+    }
+
+    public String expectedIndex() {
+        return expectedIndex;
+    }
+
+    public boolean scanAllowed() {
+        return scanAllowed;
+    }
+}
@@ -0,0 +1,26 @@
+package com.rakesh.product_service.schema;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * `GET /actuator/queryplans`: index presence and EXPLAIN result of every ProductRepository query shape.
+ */
+@Component
+@Endpoint(id = "queryplans")
+public class QueryPlanEndpoint {
+
+    private final SchemaVerifier schemaVerifier;
+
+    @Autowired
+    public QueryPlanEndpoint(SchemaVerifier schemaVerifier) {
+        this.schemaVerifier = schemaVerifier;
+    }
+
+    @ReadOperation
+    public SchemaVerifier.SchemaReport queryPlans() {
+        return schemaVerifier.verify();
+    }
+}
@@ -0,0 +1,143 @@
+package com.rakesh.product_service.schema;
+
+import com.rakesh.product_service.repository.ProductRepository;
+import com.rakesh.product_service.repository.ProductTransitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks at startup that the schema still matches the repository's query shapes:
+ *  1. every query method of ProductRepository and ProductTransitionRepository has a {@link ProductQueryShape};
+ *  2. every index named in {@link ProductQueryShape} exists on the products, product_transitions or product_history table;
+ *  3. EXPLAIN of every filtering shape lists its expected index among the possible keys, so the optimizer can use it
+ *     whatever the table holds, and no shape is a full table scan without any usable key.
+ *
+ * Problems are logged and fail startup (unless {@code product.schema.fail-on-problems=false}), so a migration dropping
+ * an index, an index the query cannot use or a new query without a shape never reaches production unnoticed.
+ * The same report is available at {@code /actuator/queryplans}. Only MySQL is checked, other databases are skipped.
+ */
+@Component
+public class SchemaVerifier implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaVerifier.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean verifyOnStartup;
+    private final boolean failOnProblems;
+
+    @Autowired
+    public SchemaVerifier(JdbcTemplate jdbcTemplate,
+                          @Value("${product.schema.verify-on-startup:true}") boolean verifyOnStartup,
+                          @Value("${product.schema.fail-on-problems:true}") boolean failOnProblems) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.verifyOnStartup = verifyOnStartup;
+        this.failOnProblems = failOnProblems;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!verifyOnStartup || !isMySql()) {
+            return;
+        }
+        SchemaReport report = verify();
+        if (report.problems().isEmpty()) {
+            log.info("Schema verification passed: {} indexes present, {} query shapes can use their index",
+                    report.presentIndexes().size(), report.plans().size());
+            return;
+        }
+        report.problems().forEach(problem -> log.error("Schema verification: {}", problem));
+        if (failOnProblems) {
+            throw new IllegalStateException("Schema verification failed: " + report.problems());
+        }
+    }
+
+    public SchemaReport verify() {
+        Set<String> present = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT INDEX_NAME FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME IN ('products', 'product_transitions', 'product_history')",
+                String.class));
+        List<String> problems = new ArrayList<>();
+        unshapedQueryMethods().forEach(method -> problems.add("no ProductQueryShape for repository query " + method));
+        List<QueryPlan> plans = new ArrayList<>();
+        for (ProductQueryShape shape : ProductQueryShape.values()) {
+            if (!present.contains(shape.expectedIndex())) {
+                problems.add("missing index " + shape.expectedIndex() + " used by " + shape.repositoryMethod());
+            }
+            QueryPlan plan = explain(shape);
+            plans.add(plan);
+            if (plan.fullTableScan()) {
+                problems.add(shape.repositoryMethod() + " falls back to a full table scan: " + shape.explainSql());
+            } else if (!shape.scanAllowed() && !plan.expectedIndexUsable()) {
+                problems.add(shape.repositoryMethod() + " cannot use " + shape.expectedIndex() + " (possible keys: "
+                        + plan.possibleKeys() + "): " + shape.explainSql());
+            }
+        }
+        return new SchemaReport(present, plans, problems);
+    }
+
+    private QueryPlan explain(ProductQueryShape shape) {
+        Map<String, Object> row = jdbcTemplate.queryForList("EXPLAIN " + shape.explainSql()).get(0);
+        String type = (String) row.get("type");
+        String possibleKeys = (String) row.get("possible_keys");
+        String key = (String) row.get("key");
+        String extra = (String) row.get("Extra");
+        // A primary or unique key lookup is answered while optimizing; on an empty table the plan then shows no key at all
+        boolean constLookup = extra != null && extra.contains("const table");
+        // MySQL may still pick ALL on a tiny table, so whether the index could be used is judged by the possible keys
+        boolean expectedIndexUsable = constLookup || shape.expectedIndex().equals(key)
+                || (possibleKeys != null && Set.of(possibleKeys.split(",")).contains(shape.expectedIndex()));
+        boolean fullTableScan = "ALL".equals(type) && possibleKeys == null && key == null;
+        return new QueryPlan(shape.name(), shape.repositoryMethod(), type, possibleKeys, key, expectedIndexUsable, fullTableScan);
+    }
+
+    /**
+     * Query methods declared on the repositories without a shape to check; bulk updates and deletes (@Modifying) go
+     * through the primary key and have none.
+     */
+    static List<String> unshapedQueryMethods() {
+        Set<String> shaped = new HashSet<>();
+        for (ProductQueryShape shape : ProductQueryShape.values()) {
+            shaped.add(shape.repositoryMethod());
+        }
+        List<String> unshaped = new ArrayList<>();
+        for (Class<?> repository : List.of(ProductRepository.class, ProductTransitionRepository.class)) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!method.isSynthetic() && !method.isAnnotationPresent(Modifying.class) && !shaped.contains(method.getName())) {
+                    unshaped.add(repository.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        return unshaped;
+    }
+
+    private boolean isMySql() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(), metaData -> metaData.getDatabaseProductName());
+            return "MySQL".equalsIgnoreCase(product);
+        } catch (Exception e) {
+            log.warn("Could not determine the database product, skipping schema verification", e);
+            return false;
+        }
+    }
+
+    public record QueryPlan(String shape, String repositoryMethod, String accessType, String possibleKeys, String chosenKey,
+                            boolean expectedIndexUsable, boolean fullTableScan) {
+    }
+
+    public record SchemaReport(Set<String> presentIndexes, List<QueryPlan> plans, List<String> problems) {
+    }
+}
@@ -0,0 +1,252 @@
+package com.rakesh.product_service.service;
+
+import com.rakesh.id_generator.SnowflakeIdGenerator;
+import com.rakesh.product_service.snapshot.CatalogSnapshotService;
+import com.rakesh.product_service.snapshot.CatalogView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter of all existing product ids, so lookups of ids that were never created
+ * (bots scanning GET /api/products/{id}) are answered without a database query.
+ *
+ * {@link #mightContain(long)} returning false means the product definitely does not exist; true means "maybe",
+ * the database decides. Until the first build has finished every id is "maybe".
+ *
+ * The filter of each instance only learns the ids created on that instance. Ids are Snowflake ids, which carry the
+ * time they were issued, so a miss is only trusted for ids issued before the filter was built (less commit-margin,
+ * for transactions still open and for clock differences between instances): a product created on another instance
+ * since then is "maybe" and goes to the database. Ids from more than commit-margin in the future cannot exist yet.
+ *
+ * A Bloom filter cannot forget an id, so deleted products stay "maybe" until the next scheduled rebuild
+ * (product.id-filter.rebuild-interval), which also resizes the filter when the catalog has grown.
+ *
+ * With product.snapshot.enabled the startup build reads the ids from the catalog snapshot plus the rows changed
+ * since, instead of scanning the whole table; the scheduled rebuilds still scan it.
+ */
+@Component
+public class ProductIdFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIdFilter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SnowflakeIdGenerator idGenerator;
+    private final ObjectProvider<CatalogSnapshotService> catalogSnapshot;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long commitMarginMillis;
+    private final Counter definiteMisses;
+
+    private volatile Bits current;
+    private volatile Bits building; // Filter being rebuilt; new ids go into both so none is lost in the swap
+    private volatile boolean ready;
+
+    @Autowired
+    public ProductIdFilter(JdbcTemplate jdbcTemplate, SnowflakeIdGenerator idGenerator, MeterRegistry meterRegistry,
+                           ObjectProvider<CatalogSnapshotService> catalogSnapshot,
+                           @Value("${product.id-filter.enabled:true}") boolean enabled,
+                           @Value("${product.id-filter.expected-insertions:1000000}") long expectedInsertions,
+                           @Value("${product.id-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${product.id-filter.commit-margin:PT5M}") Duration commitMargin) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idGenerator = idGenerator;
+        this.catalogSnapshot = catalogSnapshot;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.commitMarginMillis = commitMargin.toMillis();
+        this.current = Bits.sizedFor(expectedInsertions, falsePositiveRate, 0);
+        this.definiteMisses = meterRegistry.counter("product.id.filter.definite.misses");
+        Gauge.builder("product.id.filter.size", this, filter -> filter.current.approximateCount.sum()).register(meterRegistry);
+    }
+
+    /**
+     * False only if no product with this id exists.
+     */
+    public boolean mightContain(long id) {
+        if (!enabled || !ready) {
+            return true;
+        }
+        Bits bits = current;
+        if (bits.mightContain(id)) {
+            return true;
+        }
+        long issuedAt = idGenerator.timestampOf(id).toEpochMilli();
+        if (issuedAt >= bits.coversIdsBefore && issuedAt <= System.currentTimeMillis() + commitMarginMillis) {
+            return true; // Possibly created on another instance after this filter was built
+        }
+        definiteMisses.increment();
+        return false;
+    }
+
+    /**
+     * Records a newly created product. Inside a transaction the id is only added after commit,
+     * so a rebuild running at the same time either sees the committed row or already receives the id here.
+     */
+    public void add(long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addNow(id);
+                }
+            });
+        } else {
+            addNow(id);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        CatalogSnapshotService snapshots = catalogSnapshot.getIfAvailable();
+        if (enabled && snapshots != null) {
+            buildFromSnapshot(snapshots);
+        }
+        ensureBuilt();
+    }
+
+    private synchronized void buildFromSnapshot(CatalogSnapshotService snapshots) {
+        if (ready) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        long coversIdsBefore = System.currentTimeMillis() - commitMarginMillis; // The catch-up reads up to now
+        CatalogView catalog = snapshots.loadForStartup();
+        if (catalog == null) {
+            return; // ensureBuilt() scans the table
+        }
+        Bits next = Bits.sizedFor(Math.max(expectedInsertions, 2 * catalog.estimatedSize()), falsePositiveRate, coversIdsBefore);
+        building = next;
+        catalog.forEachId(next::add);
+        current = next;
+        building = null;
+        ready = true;
+        log.info("Product id filter built from the catalog snapshot with {} ids ({} bits, {} hashes) in {} ms",
+                next.approximateCount.sum(), next.bitCount, next.hashCount, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * Builds the filter unless a build has already succeeded; waits for a build that is running at the moment.
+     */
+    public synchronized void ensureBuilt() {
+        if (!ready) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Scheduled(fixedDelayString = "${product.id-filter.rebuild-interval:PT6H}", initialDelayString = "${product.id-filter.rebuild-interval:PT6H}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long startedAt = System.nanoTime();
+            long coversIdsBefore = System.currentTimeMillis() - commitMarginMillis;
+            Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class);
+            Bits next = Bits.sizedFor(Math.max(expectedInsertions, 2 * (rows == null ? 0 : rows)), falsePositiveRate, coversIdsBefore);
+            building = next;
+            jdbcTemplate.query("SELECT id FROM products", row -> {
+                next.add(row.getLong(1));
+            });
+            current = next;
+            building = null;
+            ready = true;
+            log.info("Product id filter built with {} ids ({} bits, {} hashes) in {} ms",
+                    next.approximateCount.sum(), next.bitCount, next.hashCount, (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (RuntimeException e) {
+            building = null;
+            log.warn("Could not build the product id filter, every lookup goes to the database until the next attempt", e);
+        }
+    }
+
+    private void addNow(long id) {
+        Bits next = building; // Read before current: if a swap happens in between, the id is in the new filter either way
+        current.add(id);
+        if (next != null) {
+            next.add(id);
+        }
+    }
+
+    /**
+     * The bit array itself. Bits are only ever set, with a CAS per word, so readers need no lock.
+     */
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+        private final long coversIdsBefore; // Epoch millis; a miss says nothing about ids issued from then on
+        private final LongAdder approximateCount = new LongAdder();
+
+        private Bits(long bitCount, int hashCount, long coversIdsBefore) {
+            this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+            this.bitCount = (long) words.length() << 6;
+            this.hashCount = hashCount;
+            this.coversIdsBefore = coversIdsBefore;
+        }
+
+        static Bits sizedFor(long expectedInsertions, double falsePositiveRate, long coversIdsBefore) {
+            long n = Math.max(1, expectedInsertions);
+            // Standard sizing: m = -n ln(p) / ln(2)^2 bits and k = m/n ln(2) hash functions
+            long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+            return new Bits(Math.min(bits, (long) Integer.MAX_VALUE << 6), hashes, coversIdsBefore);
+        }
+
+        void add(long id) {
+            long h1 = mix(id);
+            long h2 = mix(h1) | 1; // Odd step, so the k probes are all different (double hashing)
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long old = words.get(word);
+                while ((old & mask) == 0 && !words.compareAndSet(word, old, old | mask)) {
+                    old = words.get(word);
+                }
+            }
+            approximateCount.increment();
+        }
+
+        boolean mightContain(long id) {
+            long h1 = mix(id);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // SplitMix64 finalizer: Snowflake ids share their high bits, this spreads them over the whole long
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.rakesh.product_service.service;
+
+import com.rakesh.product_service.cache.LocalProductCache;
+import com.rakesh.product_service.cache.ProductCache;
+import com.rakesh.product_service.dto.ProductImageDto;
+import com.rakesh.product_service.exception.InvalidRequestException;
+import com.rakesh.product_service.exception.ResourceConflictException;
+import com.rakesh.product_service.exception.ResourceNotFoundException;
+import com.rakesh.product_service.image.ImageFormat;
+import com.rakesh.product_service.image.ImageResizer;
+import com.rakesh.product_service.image.ImageVariant;
+import com.rakesh.product_service.image.ProductImageProperties;
+import com.rakesh.product_service.image.SegmentedVariantStore;
+import com.rakesh.product_service.repository.ProductRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Product images: the original is kept in products.image, resized variants are generated on first request and,
+ * with product.images.cache.enabled, kept in the {@link SegmentedVariantStore}.
+ *
+ * Variants are keyed by the SHA-256 of the original (products.image_hash), so a new upload never hits the variants
+ * of the old image, on this or any other instance; this instance also drops them from its cache right away.
+ */
+@Service
+public class ProductImageService {
+
+    static final String ORIGINAL = "original"; // Variant name of the unchanged original
+
+    private final ProductRepository productRepository;
+    private final ProductIdFilter productIdFilter;
+    private final ImageResizer imageResizer;
+    private final SegmentedVariantStore variantStore; // null when the cache is off
+    private final ProductCache productCache; // null unless product.cache.enabled
+    private final List<Integer> widths;
+    private final Map<String, CompletableFuture<ImageVariant>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProductImageService(ProductRepository productRepository, ProductIdFilter productIdFilter, ImageResizer imageResizer,
+                               ObjectProvider<SegmentedVariantStore> variantStore, ProductImageProperties properties,
+                               ObjectProvider<ProductCache> productCache) {
+        this.productRepository = productRepository;
+        this.productIdFilter = productIdFilter;
+        this.imageResizer = imageResizer;
+        this.variantStore = variantStore.getIfAvailable();
+        this.productCache = productCache.getIfAvailable();
+        this.widths = properties.getWidths().stream().sorted().toList();
+    }
+
+    @Transactional
+    public ProductImageDto uploadImage(Long id, byte[] image) {
+        ImageResizer.ImageInfo info = imageResizer.inspect(image); // 400 for anything ImageIO cannot read
+        String imageVersion = sha256(image);
+        if (!productIdFilter.mightContain(id) || productRepository.updateImage(id, image, imageVersion) == 0) {
+            throw ResourceNotFoundException.forProduct(id);
+        }
+        if (variantStore != null) {
+            variantStore.invalidate(id);
+        }
+        if (productCache != null) {
+            // The UPDATE bumped the version in SQL; the row is locked by it until the commit, so this is the new one
+            productCache.invalidate(id, productRepository.findVersionById(id).orElse(LocalProductCache.UNKNOWN_VERSION));
+        }
+        return new ProductImageDto(id, imageVersion, info.contentType(), image.length, info.width(), info.height(),
+                widths, "/api/products/" + id + "/image?v=" + imageVersion);
+    }
+
+    /**
+     * The version of the product's current image, without loading it.
+     */
+    @Transactional(readOnly = true)
+    public String getImageVersion(Long id) {
+        if (!productIdFilter.mightContain(id)) {
+            throw ResourceNotFoundException.forProduct(id);
+        }
+        return productRepository.findImageHashById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("No image for product " + id));
+    }
+
+    /**
+     * Name of the variant a request gets: "original" without a width, otherwise the width rounded up to the next
+     * configured one (the largest if above all of them) and the format, e.g. "320.jpg" or "320.auto".
+     */
+    public String variantName(Integer width, ImageFormat format) {
+        if (width == null) {
+            return ORIGINAL;
+        }
+        if (width <= 0) {
+            throw new InvalidRequestException("Invalid image width: " + width);
+        }
+        int snapped = widths.stream().filter(w -> w >= width).findFirst().orElse(widths.getLast());
+        return snapped + "." + (format == null ? "auto" : format.extension());
+    }
+
+    /**
+     * Not transactional on purpose: the original is read in the repository's own short transaction, so the
+     * connection is back in the pool while the image is resized.
+     */
+    public ImageVariant getVariant(Long id, String imageVersion, String variantName) {
+        String key = id + "/" + imageVersion + "/" + variantName;
+        if (variantStore != null) {
+            ImageVariant cached = variantStore.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // Concurrent first requests for one variant wait for a single resize instead of each doing their own
+        CompletableFuture<ImageVariant> own = new CompletableFuture<>();
+        CompletableFuture<ImageVariant> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            ImageVariant variant = generate(id, imageVersion, variantName);
+            if (variantStore != null) {
+                byte[] bytes = ((ImageVariant.InMemory) variant).bytes();
+                SegmentedVariantStore.Entry entry = variantStore.put(id, key, variant.contentType(), bytes);
+                variant = entry != null ? entry : variant;
+            }
+            own.complete(variant);
+            return variant;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private ImageVariant.InMemory generate(Long id, String imageVersion, String variantName) {
+        byte[] original = productRepository.findImageByIdAndImageHash(id, imageVersion)
+                .orElseThrow(() -> new ResourceConflictException("Image of product " + id + " changed while it was read, retry"));
+        ImageResizer.ImageInfo info = imageResizer.inspect(original);
+        if (ORIGINAL.equals(variantName)) {
+            return new ImageVariant.InMemory(info.contentType(), original);
+        }
+        int dot = variantName.indexOf('.');
+        int width = Integer.parseInt(variantName.substring(0, dot));
+        String formatName = variantName.substring(dot + 1);
+        ImageFormat format = "auto".equals(formatName) ? ImageFormat.forOriginal(info.formatName()) : ImageFormat.parse(formatName);
+        return new ImageVariant.InMemory(format.contentType(), imageResizer.resize(original, width, format));
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+    }
+}
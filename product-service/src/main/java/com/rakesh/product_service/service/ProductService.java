@@ -1,12 +1,21 @@
 package com.rakesh.product_service.service;
 
+import com.rakesh.product_service.cache.LocalProductCache;
+import com.rakesh.product_service.cache.ProductCache;
 import com.rakesh.product_service.dto.ProductMapper;
 import com.rakesh.product_service.dto.ProductDto;
+import com.rakesh.product_service.dto.ProductPatchDto;
 import com.rakesh.product_service.entity.Product;
 import com.rakesh.product_service.entity.ProductStatus;
+import com.rakesh.product_service.exception.InvalidRequestException;
+import com.rakesh.product_service.exception.ResourceConflictException;
 import com.rakesh.product_service.exception.ResourceNotFoundException;
+import com.rakesh.product_service.history.ProductChange;
+import com.rakesh.product_service.history.ProductHistoryService;
 import com.rakesh.product_service.repository.ProductRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -14,17 +23,25 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper; // Inject MapStruct mapper
+    private final ProductIdFilter productIdFilter; // Answers lookups of ids that never existed without a query
+    private final ObjectProvider<ProductHistoryService> productHistory; // Only there with product.history.enabled
+    private final ProductCache productCache; // Null unless product.cache.enabled
 
     @Autowired
-    public ProductService(ProductRepository productRepository, ProductMapper productMapper) {
+    public ProductService(ProductRepository productRepository, ProductMapper productMapper, ProductIdFilter productIdFilter,
+                          ObjectProvider<ProductHistoryService> productHistory, ObjectProvider<ProductCache> productCache) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
+        this.productIdFilter = productIdFilter;
+        this.productHistory = productHistory;
+        this.productCache = productCache.getIfAvailable();
     }
 
     /**
@@ -43,9 +60,48 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public ProductDto getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        return productMapper.toDto(product); // Convert entity to DTO
+        return findProductById(id).orElseThrow(() -> ResourceNotFoundException.forProduct(id));
+    }
+
+    /**
+     * Same lookup as {@link #getProductById(Long)}, but an unknown id is an empty result instead of an exception,
+     * for callers where misses are normal (e.g. the gRPC multi-get).
+     */
+    @Transactional(readOnly = true)
+    public Optional<ProductDto> findProductById(Long id) {
+        if (!productIdFilter.mightContain(id)) {
+            return Optional.empty(); // Definitely not there, skip the database
+        }
+        if (productCache == null) {
+            return productRepository.findById(id).map(productMapper::toDto); // Convert entity to DTO
+        }
+        ProductDto cached = productCache.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<ProductDto> product = productRepository.findById(id).map(productMapper::toDto);
+        product.ifPresent(productCache::put); // Refused if a newer version has been invalidated meanwhile
+        return product;
+    }
+
+    /**
+     * Retrieve a product by its SKU. Throws exception if not found.
+     */
+    @Transactional(readOnly = true)
+    public ProductDto getProductBySku(String sku) {
+        return productRepository.findBySku(sku)
+                .map(productMapper::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with sku: " + sku));
+    }
+
+    /**
+     * Next batch of products in id order after the given id, for walking the whole catalog batch by batch.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDto> scanProducts(long afterId, int batchSize) {
+        return productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(batchSize)).stream()
+                .map(productMapper::toDto)
+                .toList();
     }
 
     /**
@@ -55,6 +111,8 @@ public class ProductService {
     public ProductDto createProduct(ProductDto productDto) {
         Product product = productMapper.toEntity(productDto); // Convert DTO to entity
         Product savedProduct = productRepository.save(product); // Save to DB
+        productIdFilter.add(savedProduct.getId()); // Becomes visible to lookups once the transaction commits
+        recordChange(ProductChange.Type.CREATE, savedProduct.getId(), null, ProductChange.State.of(savedProduct), savedProduct.getVersion());
         return productMapper.toDto(savedProduct); // Convert back to DTO
     }
 
@@ -67,29 +125,87 @@ public class ProductService {
         // Fetch the product entity from the database by its ID
         // If not found, throw a ResourceNotFoundException with a message
         Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+                .orElseThrow(() -> ResourceNotFoundException.forProduct(id));
+
+        // Keep the price, stock and status from before the update for the change history
+        ProductChange.State before = ProductChange.State.of(product);
 
         // Update the fields of the existing product entity using values from the provided DTO
         // This uses MapStruct to map fields from the DTO to the entity
         productMapper.updateProductFromDto(productDto, product);
 
-        // Save the updated product entity back to the database
-        Product updatedProduct = productRepository.save(product);
+        // Save the updated product entity back to the database. Flushed right away (the same single UPDATE the commit
+        // would issue) so the version is the new one: Hibernate only bumps it when something actually changed
+        Product updatedProduct = productRepository.saveAndFlush(product);
+
+        // Only changes of the tracked columns go into the history
+        Integer version = updatedProduct.getVersion();
+        ProductChange.State after = ProductChange.State.of(updatedProduct);
+        if (after.differsFrom(before)) {
+            recordChange(ProductChange.Type.UPDATE, id, before, after, version);
+        }
+        invalidateCached(id, version == null ? LocalProductCache.UNKNOWN_VERSION : version);
 
         // Convert the updated product entity back into a DTO to return
         return productMapper.toDto(updatedProduct);
     }
 
+    /**
+     * Apply a partial update in a single UPDATE statement and return the new version.
+     * Throws 404 if the product does not exist, 409 if it was changed since the client read the given version.
+     */
+    @Transactional
+    public int patchProduct(Long id, ProductPatchDto patch) {
+        int updated = productRepository.patchProduct(id, patch); // No SELECT before, the WHERE clause does the checks
+        if (updated == 0) {
+            throw notFoundOrConflict(id, patch.getVersion());
+        }
+        if (patch.getPrice() != null || patch.getQuantityInStock() != null || patch.getStatus() != null) {
+            // The old values are not read, the history's previous row has them
+            recordChange(ProductChange.Type.PATCH, id, null,
+                    new ProductChange.State(patch.getPrice(), patch.getQuantityInStock(), patch.getStatus()), patch.getVersion() + 1);
+        }
+        invalidateCached(id, patch.getVersion() + 1);
+        return patch.getVersion() + 1;
+    }
 
     /**
-     * Delete a product by its ID after verifying existence.
+     * Delete a product by its ID in a single DELETE statement.
+     * When a version is given the delete only succeeds if the product is still at that version.
      */
     @Transactional
-    public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Product not found with id: " + id);
+    public void deleteProduct(Long id, Integer version) {
+        int deleted = version == null
+                ? productRepository.deleteByIdReturningCount(id)
+                : productRepository.deleteByIdAndVersion(id, version);
+        if (deleted == 0) {
+            throw notFoundOrConflict(id, version);
+        }
+        recordChange(ProductChange.Type.DELETE, id, null, null, null);
+        invalidateCached(id, LocalProductCache.DELETED);
+    }
+
+    // Here and on the other instances, once the transaction commits
+    private void invalidateCached(Long id, int version) {
+        if (productCache != null) {
+            productCache.invalidate(id, version);
         }
-        productRepository.deleteById(id); // Delete the product
+    }
+
+    // Handed to the history once the transaction commits, written in the background
+    private void recordChange(ProductChange.Type type, Long id, ProductChange.State before, ProductChange.State after, Integer version) {
+        productHistory.ifAvailable(history -> history.record(type, id, before, after, version));
+    }
+
+    /**
+     * Zero affected rows means the product is gone or its version has moved on.
+     * Only this failure path pays for the extra lookup to tell the two apart.
+     */
+    private RuntimeException notFoundOrConflict(Long id, Integer expectedVersion) {
+        if (expectedVersion == null || !productIdFilter.mightContain(id) || !productRepository.existsById(id)) {
+            return ResourceNotFoundException.forProduct(id);
+        }
+        return new ResourceConflictException("Product " + id + " was modified concurrently, expected version " + expectedVersion);
     }
 
     /**
@@ -121,15 +237,21 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public List<ProductDto> getProductsByStatus(String status) {
-        try {
-            ProductStatus productStatus = ProductStatus.valueOf(status.toUpperCase()); // Convert string to enum
-            List<Product> products = productRepository.findByStatus(productStatus); // Query by enum
-            return products.stream()
-                    .map(productMapper::toDto)
-                    .toList();
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid product status: " + status); // Handle invalid input
+        ProductStatus productStatus = parseStatus(status); // Convert string to enum
+        List<Product> products = productRepository.findByStatus(productStatus); // Query by enum
+        return products.stream()
+                .map(productMapper::toDto)
+                .toList();
+    }
+
+    // Looks the status up instead of catching the exception of ProductStatus.valueOf, which captures a stack trace per bad request
+    private static ProductStatus parseStatus(String status) {
+        for (ProductStatus candidate : ProductStatus.values()) {
+            if (candidate.name().equalsIgnoreCase(status)) {
+                return candidate;
+            }
         }
+        throw new InvalidRequestException("Invalid product status: " + status); // Handle invalid input
     }
 
     /**
@@ -0,0 +1,22 @@
+package com.rakesh.product_service.snapshot;
+
+import com.rakesh.product_service.entity.ProductStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * The columns of one product kept in the snapshot. Integer columns use {@link #NULL} for SQL NULL, the status
+ * is the ordinal of {@link ProductStatus} or -1.
+ */
+public record CatalogRow(long id, String sku, long priceCents, int statusOrdinal, int quantityInStock, int version) {
+
+    public static final int NULL = Integer.MIN_VALUE;
+
+    public BigDecimal price() {
+        return BigDecimal.valueOf(priceCents, 2);
+    }
+
+    public ProductStatus status() {
+        return statusOrdinal < 0 ? null : ProductStatus.values()[statusOrdinal];
+    }
+}
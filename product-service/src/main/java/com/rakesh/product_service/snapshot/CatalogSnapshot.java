@@ -0,0 +1,180 @@
+package com.rakesh.product_service.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only view of a snapshot file written by {@link CatalogSnapshotWriter}. Every column is memory-mapped on
+ * its own, so opening costs a checksum pass over the file instead of parsing it into objects, and the rows stay
+ * in the page cache, outside of the heap.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * header      magic "PCAT", format version, row count, high-water updated_at (epoch micros, as stored),
+ *             written at (epoch millis), column count, then per column: offset, length, CRC32
+ * IDS         long per row, ascending
+ * PRICE_CENTS long per row
+ * STOCK       int per row, {@link CatalogRow#NULL} for NULL
+ * VERSION     int per row, {@link CatalogRow#NULL} for NULL
+ * SKU_OFFSETS int per row + 1, start of each SKU in SKU_BYTES
+ * STATUS      byte per row, ordinal of ProductStatus or -1
+ * SKU_BYTES   UTF-8 SKUs, back to back
+ * </pre>
+ * Columns of longs come first and those of single bytes last, so every value is aligned to its size.
+ */
+public final class CatalogSnapshot {
+
+    static final int MAGIC = 0x50434154; // "PCAT"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 256;
+
+    enum Column {
+        IDS, PRICE_CENTS, STOCK, VERSION, SKU_OFFSETS, STATUS, SKU_BYTES
+    }
+
+    private final Path file;
+    private final int rowCount;
+    private final LocalDateTime highWater;
+    private final Instant writtenAt;
+    private final Map<Column, ByteBuffer> columns;
+
+    private CatalogSnapshot(Path file, int rowCount, LocalDateTime highWater, Instant writtenAt, Map<Column, ByteBuffer> columns) {
+        this.file = file;
+        this.rowCount = rowCount;
+        this.highWater = highWater;
+        this.writtenAt = writtenAt;
+        this.columns = columns;
+    }
+
+    /**
+     * Maps the file and verifies it.
+     *
+     * @throws IOException if it cannot be read, is of another format version, or a column fails its checksum
+     */
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) { // Mappings outlive the channel
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Read the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException(file + " is not a catalog snapshot");
+            }
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException(file + " has format version " + version + ", expected " + FORMAT_VERSION);
+            }
+            long rows = header.getLong();
+            LocalDateTime highWater = fromMicros(header.getLong());
+            Instant writtenAt = Instant.ofEpochMilli(header.getLong());
+            int columnCount = header.getInt();
+            if (columnCount != Column.values().length || rows > Integer.MAX_VALUE / Long.BYTES) {
+                throw new IOException(file + " has an unexpected layout");
+            }
+
+            Map<Column, ByteBuffer> columns = new EnumMap<>(Column.class);
+            for (Column column : Column.values()) {
+                long offset = header.getLong();
+                long length = header.getLong();
+                int crc = header.getInt();
+                if (offset + length > channel.size()) {
+                    throw new IOException(file + " is truncated in column " + column);
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                CRC32 checksum = new CRC32();
+                checksum.update(buffer.duplicate());
+                if ((int) checksum.getValue() != crc) {
+                    throw new IOException(file + " fails the checksum of column " + column);
+                }
+                columns.put(column, buffer);
+            }
+            return new CatalogSnapshot(file, (int) rows, highWater, writtenAt, columns);
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * Rows changed at or after this updated_at may be missing or outdated in the snapshot.
+     */
+    public LocalDateTime highWater() {
+        return highWater;
+    }
+
+    public Instant writtenAt() {
+        return writtenAt;
+    }
+
+    public long id(int row) {
+        return columns.get(Column.IDS).getLong(row * Long.BYTES);
+    }
+
+    public CatalogRow row(int row) {
+        ByteBuffer offsets = columns.get(Column.SKU_OFFSETS);
+        int start = offsets.getInt(row * Integer.BYTES);
+        byte[] sku = new byte[offsets.getInt((row + 1) * Integer.BYTES) - start];
+        columns.get(Column.SKU_BYTES).get(start, sku);
+        return new CatalogRow(id(row), new String(sku, StandardCharsets.UTF_8),
+                columns.get(Column.PRICE_CENTS).getLong(row * Long.BYTES),
+                columns.get(Column.STATUS).get(row),
+                columns.get(Column.STOCK).getInt(row * Integer.BYTES),
+                columns.get(Column.VERSION).getInt(row * Integer.BYTES));
+    }
+
+    /**
+     * Binary search over the id column.
+     *
+     * @return the row of the id, or -1
+     */
+    public int indexOf(long id) {
+        int low = 0;
+        int high = rowCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long candidate = id(middle);
+            if (candidate < id) {
+                low = middle + 1;
+            } else if (candidate > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    public void forEachId(LongConsumer consumer) {
+        ByteBuffer ids = columns.get(Column.IDS);
+        for (int row = 0; row < rowCount; row++) {
+            consumer.accept(ids.getLong(row * Long.BYTES));
+        }
+    }
+
+    // updated_at is a LocalDateTime in the database; it is stored as if it were UTC, only ever compared with itself
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
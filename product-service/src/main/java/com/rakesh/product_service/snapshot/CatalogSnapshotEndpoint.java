@@ -0,0 +1,32 @@
+package com.rakesh.product_service.snapshot;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Map;
+
+/**
+ * `GET /actuator/catalogsnapshot`: how the snapshot was used on startup (rows mapped, rows caught up, timings)
+ * and the last scheduled write. `POST /actuator/catalogsnapshot` writes a snapshot now, e.g. before a deployment.
+ */
+@Endpoint(id = "catalogsnapshot")
+public class CatalogSnapshotEndpoint {
+
+    private final CatalogSnapshotService service;
+
+    public CatalogSnapshotEndpoint(CatalogSnapshotService service) {
+        this.service = service;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        return service.report();
+    }
+
+    @WriteOperation
+    public Map<String, Object> write() {
+        service.writeSnapshot();
+        return service.report();
+    }
+}
@@ -0,0 +1,33 @@
+package com.rakesh.product_service.snapshot;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the catalog snapshot, bound from {@code product.snapshot.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "product.snapshot")
+public class CatalogSnapshotProperties {
+
+    private boolean enabled = false; // Off by default: in-memory structures are built with a full table scan on startup
+
+    private String file = "snapshot/catalog.snap"; // Local to the instance; replaced atomically on every write
+
+    private Duration interval = Duration.ofMinutes(15); // Between snapshot writes
+
+    private Duration initialDelay = Duration.ofMinutes(1); // First write after startup, once the instance has settled
+
+    private int batchSize = 10_000; // Rows per keyset-paged query while writing
+
+    // How far before the start of a write the snapshot's high-water mark is put. updated_at comes from the clock of
+    // whichever instance wrote the row and is set before its transaction commits, so a row can appear with an
+    // updated_at a little in the past; the catch-up re-reads this margin instead of missing such rows
+    private Duration catchUpOverlap = Duration.ofMinutes(5);
+
+    // Older snapshots are ignored on startup: deleted products are only dropped when a snapshot is rewritten,
+    // and a long catch-up is no faster than a full scan
+    private Duration maxAge = Duration.ofDays(1);
+}
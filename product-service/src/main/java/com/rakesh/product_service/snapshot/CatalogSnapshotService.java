@@ -0,0 +1,116 @@
+package com.rakesh.product_service.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps a catalog snapshot on local disk and serves it to whatever is built over the products table on startup.
+ *
+ * {@link #loadForStartup()} maps the snapshot and reads only the rows with updated_at at or after its high-water
+ * mark (one range query on idx_products_updated_at) instead of the whole table. {@link #writeSnapshot()} runs on a
+ * schedule and replaces the file.
+ */
+public class CatalogSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    static final String CATCH_UP_SQL = "SELECT id, sku, price, status, quantity_in_stock, version FROM products WHERE updated_at >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogSnapshotWriter writer;
+    private final Path file;
+    private final Duration maxAge;
+
+    private volatile Map<String, Object> lastLoad = Map.of("result", "not loaded");
+    private volatile Map<String, Object> lastWrite = Map.of("result", "not written");
+
+    public CatalogSnapshotService(JdbcTemplate jdbcTemplate, CatalogSnapshotWriter writer, CatalogSnapshotProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writer = writer;
+        this.file = Path.of(properties.getFile()).toAbsolutePath();
+        this.maxAge = properties.getMaxAge();
+    }
+
+    /**
+     * The catalog from the snapshot and the rows changed since, or null when there is no usable snapshot (none yet,
+     * too old, corrupt): callers then fall back to a full scan.
+     */
+    public CatalogView loadForStartup() {
+        if (!Files.exists(file)) {
+            lastLoad = Map.of("result", "no snapshot at " + file);
+            return null;
+        }
+        long startedAt = System.nanoTime();
+        try {
+            CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+            Duration age = Duration.between(snapshot.writtenAt(), Instant.now());
+            if (age.compareTo(maxAge) > 0) {
+                lastLoad = Map.of("result", "snapshot ignored, written " + age + " ago");
+                log.info("Catalog snapshot {} is older than {}, not used", file, maxAge);
+                return null;
+            }
+            long mappedAt = System.nanoTime();
+            Map<Long, CatalogRow> changed = new HashMap<>();
+            jdbcTemplate.query(CATCH_UP_SQL, resultSet -> {
+                CatalogRow row = CatalogSnapshotWriter.toRow(resultSet);
+                changed.put(row.id(), row);
+            }, snapshot.highWater());
+            long doneAt = System.nanoTime();
+
+            Map<String, Object> load = new LinkedHashMap<>();
+            load.put("result", "loaded");
+            load.put("file", file.toString());
+            load.put("rows", snapshot.size());
+            load.put("writtenAt", snapshot.writtenAt());
+            load.put("highWater", snapshot.highWater());
+            load.put("changedRows", changed.size());
+            load.put("mapMillis", (mappedAt - startedAt) / 1_000_000);
+            load.put("catchUpMillis", (doneAt - mappedAt) / 1_000_000);
+            lastLoad = load;
+            log.info("Catalog snapshot loaded: {} rows mapped in {} ms, {} changed rows caught up in {} ms",
+                    snapshot.size(), (mappedAt - startedAt) / 1_000_000, changed.size(), (doneAt - mappedAt) / 1_000_000);
+            return new CatalogView(snapshot, changed);
+        } catch (IOException | RuntimeException e) {
+            lastLoad = Map.of("result", "failed: " + e.getMessage());
+            log.warn("Could not load the catalog snapshot {}, falling back to a full scan", file, e);
+            return null;
+        }
+    }
+
+    public void writeSnapshot() {
+        long startedAt = System.nanoTime();
+        try {
+            long rows = writer.write(file);
+            long millis = (System.nanoTime() - startedAt) / 1_000_000;
+            Map<String, Object> write = new LinkedHashMap<>();
+            write.put("result", "written");
+            write.put("file", file.toString());
+            write.put("rows", rows);
+            write.put("bytes", Files.size(file));
+            write.put("millis", millis);
+            write.put("at", Instant.now());
+            lastWrite = write;
+            log.info("Catalog snapshot written: {} rows, {} bytes in {} ms", rows, Files.size(file), millis);
+        } catch (IOException | RuntimeException e) {
+            lastWrite = Map.of("result", "failed: " + e.getMessage(), "at", Instant.now());
+            log.warn("Could not write the catalog snapshot {}", file, e);
+        }
+    }
+
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("lastLoad", lastLoad);
+        report.put("lastWrite", lastWrite);
+        return report;
+    }
+}
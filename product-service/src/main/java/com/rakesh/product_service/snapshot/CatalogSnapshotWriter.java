@@ -0,0 +1,160 @@
+package com.rakesh.product_service.snapshot;
+
+import com.rakesh.product_service.entity.ProductStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes the catalog to a snapshot file (layout in {@link CatalogSnapshot}).
+ *
+ * The table is read in keyset-paged batches ("WHERE id > ? ORDER BY id LIMIT n"): short statements on the primary
+ * key, and MySQL's driver does not buffer the whole table in the heap as it does for one big result set.
+ * Each column is streamed into a temporary file of its own, with its checksum computed on the way; the columns
+ * are then copied behind the header with transferTo and the result moved over the previous snapshot in one
+ * atomic rename, so a reader never sees a half-written file.
+ */
+public class CatalogSnapshotWriter {
+
+    static final String SCAN_SQL = "SELECT id, sku, price, status, quantity_in_stock, version FROM products WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Duration catchUpOverlap;
+
+    public CatalogSnapshotWriter(JdbcTemplate jdbcTemplate, CatalogSnapshotProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = properties.getBatchSize();
+        this.catchUpOverlap = properties.getCatchUpOverlap();
+    }
+
+    /**
+     * @return the number of rows written
+     */
+    public long write(Path file) throws IOException {
+        // Anything changed from here on may or may not be in the scan; the catch-up after loading re-reads it
+        LocalDateTime highWater = LocalDateTime.now().minus(catchUpOverlap);
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+
+        Map<CatalogSnapshot.Column, Path> columnFiles = new EnumMap<>(CatalogSnapshot.Column.class);
+        Map<CatalogSnapshot.Column, CRC32> checksums = new EnumMap<>(CatalogSnapshot.Column.class);
+        Map<CatalogSnapshot.Column, DataOutputStream> outputs = new EnumMap<>(CatalogSnapshot.Column.class);
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        try {
+            for (CatalogSnapshot.Column column : CatalogSnapshot.Column.values()) {
+                Path columnFile = Files.createTempFile(directory, "catalog-", "-" + column.name().toLowerCase() + ".col");
+                CRC32 checksum = new CRC32();
+                columnFiles.put(column, columnFile);
+                checksums.put(column, checksum);
+                outputs.put(column, new DataOutputStream(new CheckedOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(columnFile), 64 * 1024), checksum)));
+            }
+
+            long rows = scan(outputs);
+            for (DataOutputStream output : outputs.values()) {
+                output.close();
+            }
+
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(CatalogSnapshot.HEADER_SIZE);
+                header.putInt(CatalogSnapshot.MAGIC).putInt(CatalogSnapshot.FORMAT_VERSION).putLong(rows)
+                        .putLong(CatalogSnapshot.toMicros(highWater)).putLong(System.currentTimeMillis())
+                        .putInt(CatalogSnapshot.Column.values().length);
+                long offset = CatalogSnapshot.HEADER_SIZE;
+                for (CatalogSnapshot.Column column : CatalogSnapshot.Column.values()) {
+                    long length = Files.size(columnFiles.get(column));
+                    header.putLong(offset).putLong(length).putInt((int) checksums.get(column).getValue());
+                    offset += length;
+                }
+                header.clear(); // Write the full header block, the unused rest stays zero
+                while (header.hasRemaining()) {
+                    out.write(header);
+                }
+                for (CatalogSnapshot.Column column : CatalogSnapshot.Column.values()) {
+                    try (FileChannel in = FileChannel.open(columnFiles.get(column), StandardOpenOption.READ)) {
+                        long position = 0;
+                        long size = in.size();
+                        while (position < size) {
+                            position += in.transferTo(position, size - position, out);
+                        }
+                    }
+                }
+                out.force(true); // On disk before the rename makes it the snapshot
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return rows;
+        } finally {
+            for (DataOutputStream output : outputs.values()) {
+                try {
+                    output.close();
+                } catch (IOException e) {
+                    // Only cleaning up after a failure
+                }
+            }
+            for (Path columnFile : columnFiles.values()) {
+                Files.deleteIfExists(columnFile);
+            }
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private long scan(Map<CatalogSnapshot.Column, DataOutputStream> outputs) throws IOException {
+        long rows = 0;
+        long afterId = Long.MIN_VALUE;
+        int skuOffset = 0;
+        outputs.get(CatalogSnapshot.Column.SKU_OFFSETS).writeInt(0);
+        List<CatalogRow> batch;
+        do {
+            batch = jdbcTemplate.query(SCAN_SQL, (resultSet, rowNum) -> toRow(resultSet), afterId, batchSize);
+            for (CatalogRow row : batch) {
+                byte[] sku = row.sku().getBytes(StandardCharsets.UTF_8);
+                skuOffset += sku.length;
+                outputs.get(CatalogSnapshot.Column.IDS).writeLong(row.id());
+                outputs.get(CatalogSnapshot.Column.PRICE_CENTS).writeLong(row.priceCents());
+                outputs.get(CatalogSnapshot.Column.STOCK).writeInt(row.quantityInStock());
+                outputs.get(CatalogSnapshot.Column.VERSION).writeInt(row.version());
+                outputs.get(CatalogSnapshot.Column.SKU_OFFSETS).writeInt(skuOffset);
+                outputs.get(CatalogSnapshot.Column.STATUS).writeByte(row.statusOrdinal());
+                outputs.get(CatalogSnapshot.Column.SKU_BYTES).write(sku);
+                afterId = row.id();
+            }
+            rows += batch.size();
+        } while (batch.size() == batchSize);
+        return rows;
+    }
+
+    static CatalogRow toRow(ResultSet resultSet) throws SQLException {
+        BigDecimal price = resultSet.getBigDecimal("price");
+        String status = resultSet.getString("status");
+        int quantity = resultSet.getInt("quantity_in_stock");
+        boolean quantityNull = resultSet.wasNull();
+        int version = resultSet.getInt("version");
+        boolean versionNull = resultSet.wasNull();
+        return new CatalogRow(resultSet.getLong("id"), resultSet.getString("sku"),
+                price == null ? 0 : price.movePointRight(2).longValueExact(), // DECIMAL(10, 2): always whole cents
+                status == null ? -1 : ProductStatus.valueOf(status).ordinal(),
+                quantityNull ? CatalogRow.NULL : quantity,
+                versionNull ? CatalogRow.NULL : version);
+    }
+}
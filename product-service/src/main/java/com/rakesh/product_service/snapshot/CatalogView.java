@@ -0,0 +1,64 @@
+package com.rakesh.product_service.snapshot;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * The catalog as of startup: the mapped snapshot plus the rows changed since its high-water mark, which take
+ * precedence. Products deleted since the snapshot was written are still in it (a delete leaves no updated_at
+ * behind), so this is what existed "recently": fine for structures that already tolerate stale entries, such as
+ * {@link com.rakesh.product_service.service.ProductIdFilter}.
+ */
+public class CatalogView {
+
+    private final CatalogSnapshot snapshot;
+    private final Map<Long, CatalogRow> changed;
+
+    CatalogView(CatalogSnapshot snapshot, Map<Long, CatalogRow> changed) {
+        this.snapshot = snapshot;
+        this.changed = changed;
+    }
+
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public int changedRows() {
+        return changed.size();
+    }
+
+    /**
+     * Upper bound of the product count: changed rows that are also in the snapshot are counted twice.
+     */
+    public long estimatedSize() {
+        return (long) snapshot.size() + changed.size();
+    }
+
+    public CatalogRow find(long id) {
+        CatalogRow row = changed.get(id);
+        if (row != null) {
+            return row;
+        }
+        int index = snapshot.indexOf(id);
+        return index < 0 ? null : snapshot.row(index);
+    }
+
+    public void forEachId(LongConsumer consumer) {
+        snapshot.forEachId(id -> {
+            if (!changed.containsKey(id)) {
+                consumer.accept(id);
+            }
+        });
+        changed.keySet().forEach(consumer::accept);
+    }
+
+    public void forEach(Consumer<CatalogRow> consumer) {
+        for (int row = 0; row < snapshot.size(); row++) {
+            if (!changed.containsKey(snapshot.id(row))) {
+                consumer.accept(snapshot.row(row));
+            }
+        }
+        changed.values().forEach(consumer);
+    }
+}
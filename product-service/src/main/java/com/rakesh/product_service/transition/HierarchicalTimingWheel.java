@@ -0,0 +1,170 @@
+package com.rakesh.product_service.transition;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel (Varghese and Lauck; the layout of the Linux kernel timers): {@code levels} wheels of
+ * {@code slotsPerLevel} slots, a slot of level n spanning slotsPerLevel^n ticks. An item goes into the lowest level
+ * whose range covers its deadline; when a lower wheel wraps around, the next slot of the level above is cascaded
+ * down, so every item moves at most {@code levels - 1} times before it expires.
+ *
+ * Scheduling and cancelling are O(1), and advancing one tick only touches one slot per level, however many items
+ * are pending and however far out they are; a sorted queue would pay O(log n) per item.
+ * Deadlines are rounded up to a tick, so an item never expires early, at most one tick late.
+ *
+ * Thread-safe; the methods synchronize on the wheel.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int bits; // log2(slotsPerLevel)
+    private final int mask;
+    private final int levels;
+    private final long spanTicks; // Deadlines at least this far out do not fit
+    private final ArrayDeque<Timeout<T>>[][] slots; // [level][slot]
+    private long currentTick; // Ticks since the epoch; everything up to and including it has expired
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(Duration tick, int slotsPerLevel, int levels, long nowMillis) {
+        if (Integer.bitCount(slotsPerLevel) != 1 || slotsPerLevel < 2) {
+            throw new IllegalArgumentException("slotsPerLevel must be a power of two, got " + slotsPerLevel);
+        }
+        this.tickMillis = tick.toMillis();
+        this.bits = Integer.numberOfTrailingZeros(slotsPerLevel);
+        this.mask = slotsPerLevel - 1;
+        this.levels = levels;
+        if (tickMillis < 1 || levels < 1 || (long) bits * levels > 62) {
+            throw new IllegalArgumentException("Unusable wheel: tick " + tick + ", " + slotsPerLevel + " slots, " + levels + " levels");
+        }
+        this.spanTicks = 1L << (bits * levels);
+        this.slots = new ArrayDeque[levels][slotsPerLevel];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < slotsPerLevel; slot++) {
+                slots[level][slot] = new ArrayDeque<>();
+            }
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * How far ahead of the current tick a deadline may be.
+     */
+    public Duration span() {
+        return Duration.ofMillis((spanTicks - 1) * tickMillis);
+    }
+
+    /**
+     * Schedules {@code item} to expire at {@code deadlineMillis} (epoch millis). A deadline that has already passed
+     * expires with the next tick.
+     *
+     * @return the handle to cancel it with, or null when the deadline is beyond {@link #span()}
+     */
+    public synchronized Timeout<T> schedule(long deadlineMillis, T item) {
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        if (tick - currentTick >= spanTicks) {
+            return null;
+        }
+        Timeout<T> timeout = new Timeout<>(tick, item);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Removes a scheduled item. The entry is only marked and dropped when its slot is next touched.
+     *
+     * @return false when it had already expired or been cancelled
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.done) {
+            return false;
+        }
+        timeout.done = true;
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and returns the items that expired on the way, earliest first.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            // When the level below wraps around, the next slot of a level holds everything due in the coming round
+            for (int level = 1; level < levels && (currentTick & ((1L << (bits * level)) - 1)) == 0; level++) {
+                cascade(level);
+            }
+            ArrayDeque<Timeout<T>> slot = slots[0][(int) (currentTick & mask)];
+            for (Timeout<T> timeout; (timeout = slot.poll()) != null; ) {
+                if (!timeout.done) {
+                    timeout.done = true;
+                    size--;
+                    expired.add(timeout.item);
+                }
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Live items per level, lowest first, for reports.
+     */
+    public synchronized int[] sizeByLevel() {
+        int[] sizes = new int[levels];
+        for (int level = 0; level < levels; level++) {
+            for (ArrayDeque<Timeout<T>> slot : slots[level]) {
+                for (Timeout<T> timeout : slot) {
+                    sizes[level] += timeout.done ? 0 : 1;
+                }
+            }
+        }
+        return sizes;
+    }
+
+    private void cascade(int level) {
+        ArrayDeque<Timeout<T>> slot = slots[level][(int) ((currentTick >>> (bits * level)) & mask)];
+        for (Timeout<T> timeout; (timeout = slot.poll()) != null; ) {
+            if (!timeout.done) {
+                place(timeout); // Closer now, lands in a lower level
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.tick - currentTick;
+        int level = 0;
+        while (delta >= 1L << (bits * (level + 1))) {
+            level++;
+        }
+        slots[level][(int) ((timeout.tick >>> (bits * level)) & mask)].add(timeout);
+    }
+
+    /**
+     * A scheduled item, see {@link #cancel(Timeout)}.
+     */
+    public static final class Timeout<T> {
+
+        private final long tick;
+        private final T item;
+        private boolean done; // Expired or cancelled; guarded by the wheel
+
+        private Timeout(long tick, T item) {
+            this.tick = tick;
+            this.item = item;
+        }
+
+        public T item() {
+            return item;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.rakesh.product_service.transition;
+
+import com.rakesh.product_service.entity.ProductStatus;
+import com.rakesh.product_service.entity.ProductTransition;
+import com.rakesh.product_service.entity.TransitionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+/**
+ * What the timing wheel holds of a pending transition: everything needed to apply it without reading the row again.
+ */
+public record PendingTransition(long id, long productId, TransitionType type, ProductStatus targetStatus,
+                                BigDecimal targetPrice, Instant fireAt) {
+
+    public static PendingTransition of(ProductTransition transition) {
+        return new PendingTransition(transition.getId(), transition.getProductId(), transition.getType(),
+                transition.getTargetStatus(), transition.getTargetPrice(), transition.getFireAt().toInstant(ZoneOffset.UTC));
+    }
+}
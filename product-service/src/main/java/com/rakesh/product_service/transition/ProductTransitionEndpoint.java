@@ -0,0 +1,25 @@
+package com.rakesh.product_service.transition;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * `GET /actuator/transitions`: transitions held in the timing wheel (per level), the last load and batch, and how
+ * many were applied, skipped or failed since startup.
+ */
+@Endpoint(id = "transitions")
+public class ProductTransitionEndpoint {
+
+    private final ProductTransitionService service;
+
+    public ProductTransitionEndpoint(ProductTransitionService service) {
+        this.service = service;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        return service.report();
+    }
+}
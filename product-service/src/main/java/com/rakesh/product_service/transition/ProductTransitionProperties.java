@@ -0,0 +1,34 @@
+package com.rakesh.product_service.transition;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of scheduled product transitions, bound from {@code product.transitions.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "product.transitions")
+public class ProductTransitionProperties {
+
+    private boolean enabled = false; // Off by default: no /transitions API, nothing fires
+
+    private Duration tick = Duration.ofSeconds(1); // Resolution of the timing wheel: transitions fire up to one tick late
+
+    private int slotsPerLevel = 64; // Power of two
+
+    private int levels = 3; // 64^3 ticks of 1s: the wheel reaches about three days ahead, well beyond the horizon
+
+    // Only pending transitions due within this window are held in memory; later ones stay in the table until a
+    // load brings them closer. Bounds the wheel's memory however far ahead transitions are scheduled
+    private Duration horizon = Duration.ofHours(1);
+
+    // Between loads of the table into the wheel. Also how late a transition fires after the instance that scheduled
+    // it died, or after a failed batch, since other instances and retries pick it up with the next load
+    private Duration loadInterval = Duration.ofMinutes(1);
+
+    private int loadBatchSize = 10_000; // Pending rows read per load, overdue ones first
+
+    private int batchSize = 500; // Transitions applied per transaction; bounds the IN lists of the UPDATEs
+}
@@ -0,0 +1,245 @@
+package com.rakesh.product_service.transition;
+
+import com.rakesh.product_service.dto.ProductTransitionDto;
+import com.rakesh.product_service.entity.ProductTransition;
+import com.rakesh.product_service.entity.TransitionState;
+import com.rakesh.product_service.entity.TransitionType;
+import com.rakesh.product_service.exception.InvalidRequestException;
+import com.rakesh.product_service.exception.ResourceConflictException;
+import com.rakesh.product_service.exception.ResourceNotFoundException;
+import com.rakesh.product_service.repository.ProductRepository;
+import com.rakesh.product_service.repository.ProductTransitionRepository;
+import com.rakesh.product_service.service.ProductIdFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduled product transitions: a status change, a price change, or a release at a given time.
+ *
+ * Transitions are stored in product_transitions first, so they survive restarts. Those due within the horizon are
+ * also held in a {@link HierarchicalTimingWheel}, which a thread of this service advances every tick; whatever
+ * expires is applied by the {@link TransitionApplier} in batches. No query runs per tick: the table is only read
+ * every load-interval, for the pending rows due before the horizon (an index range scan), never as a whole.
+ *
+ * Recovery is the same load: on startup it brings in everything pending up to the horizon, overdue transitions
+ * first, which fire with the first tick. Every instance loads every pending transition; the applier's claim makes
+ * sure only one of them applies each.
+ */
+public class ProductTransitionService implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductTransitionService.class);
+
+    private final ProductTransitionRepository transitionRepository;
+    private final ProductRepository productRepository;
+    private final ProductIdFilter productIdFilter;
+    private final TransitionApplier applier;
+    private final ProductTransitionProperties properties;
+    private final HierarchicalTimingWheel<PendingTransition> wheel;
+    private final Map<Long, HierarchicalTimingWheel.Timeout<PendingTransition>> scheduled = new ConcurrentHashMap<>();
+    // Own thread rather than the shared @Scheduled one, so a long snapshot write does not hold transitions back
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            runnable -> Thread.ofPlatform().name("product-transitions").daemon().unstarted(runnable));
+    private final Counter applied;
+    private final Counter skipped;
+    private final Counter failed;
+
+    private volatile Instant lastLoadAt;
+    private volatile int lastLoadRows;
+    private volatile Instant lastBatchAt;
+    private volatile int lastBatchSize;
+    private volatile long lastBatchMillis;
+
+    public ProductTransitionService(ProductTransitionRepository transitionRepository, ProductRepository productRepository,
+                                    ProductIdFilter productIdFilter, TransitionApplier applier,
+                                    ProductTransitionProperties properties, MeterRegistry meterRegistry) {
+        this.transitionRepository = transitionRepository;
+        this.productRepository = productRepository;
+        this.productIdFilter = productIdFilter;
+        this.applier = applier;
+        this.properties = properties;
+        this.wheel = new HierarchicalTimingWheel<>(properties.getTick(), properties.getSlotsPerLevel(), properties.getLevels(),
+                System.currentTimeMillis());
+        if (wheel.span().compareTo(properties.getHorizon()) < 0) {
+            throw new IllegalStateException("product.transitions.horizon " + properties.getHorizon()
+                    + " is beyond the timing wheel's span " + wheel.span() + ": add a level or lengthen the tick");
+        }
+        this.applied = Counter.builder("product.transitions.fired").tag("outcome", "applied").register(meterRegistry);
+        this.skipped = Counter.builder("product.transitions.fired").tag("outcome", "skipped").register(meterRegistry);
+        this.failed = Counter.builder("product.transitions.fired").tag("outcome", "failed").register(meterRegistry);
+        Gauge.builder("product.transitions.scheduled", wheel, HierarchicalTimingWheel::size)
+                .description("Pending transitions held in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    public ProductTransitionDto schedule(Long productId, ProductTransitionDto request) {
+        if (request.getType() == TransitionType.STATUS && (request.getStatus() == null || request.getPrice() != null)) {
+            throw new InvalidRequestException("A STATUS transition needs a status and no price");
+        }
+        if (request.getType() == TransitionType.PRICE && (request.getPrice() == null || request.getStatus() != null)) {
+            throw new InvalidRequestException("A PRICE transition needs a price and no status");
+        }
+        if (request.getType() == TransitionType.RELEASE && (request.getStatus() != null || request.getPrice() != null)) {
+            throw new InvalidRequestException("A RELEASE transition takes neither status nor price");
+        }
+        if (!productIdFilter.mightContain(productId) || !productRepository.existsById(productId)) {
+            throw ResourceNotFoundException.forProduct(productId);
+        }
+        ProductTransition transition = new ProductTransition();
+        transition.setProductId(productId);
+        transition.setType(request.getType());
+        transition.setTargetStatus(request.getStatus());
+        transition.setTargetPrice(request.getPrice());
+        transition.setFireAt(LocalDateTime.ofInstant(request.getFireAt(), ZoneOffset.UTC));
+        transition.setState(TransitionState.PENDING);
+        transition = transitionRepository.save(transition); // Committed before it can fire
+        enqueue(PendingTransition.of(transition)); // Beyond the horizon it waits in the table for a later load
+        return toDto(transition);
+    }
+
+    public List<ProductTransitionDto> getTransitions(Long productId) {
+        return transitionRepository.findByProductIdOrderByFireAtAsc(productId).stream().map(this::toDto).toList();
+    }
+
+    public void cancel(Long productId, Long transitionId) {
+        ProductTransition transition = transitionRepository.findById(transitionId)
+                .filter(found -> found.getProductId().equals(productId))
+                .orElseThrow(() -> new ResourceNotFoundException("Transition " + transitionId + " of product " + productId + " not found"));
+        if (transition.getState() != TransitionState.PENDING) {
+            throw new ResourceConflictException("Transition " + transitionId + " is already " + transition.getState());
+        }
+        transition.setState(TransitionState.CANCELLED);
+        try {
+            transitionRepository.save(transition); // Versioned: loses against an instance applying it right now
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ResourceConflictException("Transition " + transitionId + " fired while being cancelled", e);
+        }
+        HierarchicalTimingWheel.Timeout<PendingTransition> timeout = scheduled.remove(transitionId);
+        if (timeout != null) {
+            wheel.cancel(timeout); // Other instances holding it find it CANCELLED when they claim it
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Same thread for both: the load right away is the recovery, and completes before the first tick
+        executor.scheduleWithFixedDelay(this::load, 0, properties.getLoadInterval().toMillis(), TimeUnit.MILLISECONDS);
+        long tick = properties.getTick().toMillis();
+        executor.scheduleAtFixedRate(this::tick, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow(); // A batch in flight rolls back and stays PENDING for the next start
+    }
+
+    /**
+     * Brings the pending transitions due before the horizon into the wheel.
+     */
+    void load() {
+        try {
+            LocalDateTime horizon = LocalDateTime.ofInstant(Instant.now().plus(properties.getHorizon()), ZoneOffset.UTC);
+            List<ProductTransition> pending = transitionRepository.findByStateAndFireAtBeforeOrderByFireAtAsc(
+                    TransitionState.PENDING, horizon, Limit.of(properties.getLoadBatchSize()));
+            pending.forEach(transition -> enqueue(PendingTransition.of(transition)));
+            lastLoadAt = Instant.now();
+            lastLoadRows = pending.size();
+            if (pending.size() == properties.getLoadBatchSize()) {
+                log.warn("{} pending transitions loaded, the limit; later ones follow with the next loads", pending.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Loading pending transitions failed, retrying in {}", properties.getLoadInterval(), e);
+        }
+    }
+
+    /**
+     * Advances the wheel and applies what expired.
+     */
+    void tick() {
+        List<PendingTransition> due = expire();
+        for (int from = 0; from < due.size(); from += properties.getBatchSize()) {
+            List<PendingTransition> batch = due.subList(from, Math.min(due.size(), from + properties.getBatchSize()));
+            long start = System.nanoTime();
+            try {
+                TransitionApplier.Result result = applier.apply(batch);
+                applied.increment(result.applied());
+                skipped.increment(result.skipped());
+                if (result.skipped() > 0) {
+                    log.info("Skipped {} transitions of deleted products", result.skipped());
+                }
+            } catch (RuntimeException e) {
+                // Still PENDING in the table, and no longer in the wheel: the next load brings them back as overdue
+                failed.increment(batch.size());
+                log.warn("Applying {} transitions failed, retrying after the next load", batch.size(), e);
+            }
+            lastBatchAt = Instant.now();
+            lastBatchSize = batch.size();
+            lastBatchMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+    }
+
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scheduled", wheel.size());
+        report.put("scheduledByLevel", wheel.sizeByLevel());
+        report.put("tick", properties.getTick().toString());
+        report.put("span", wheel.span().toString());
+        report.put("horizon", properties.getHorizon().toString());
+        report.put("lastLoadAt", lastLoadAt);
+        report.put("lastLoadRows", lastLoadRows);
+        report.put("lastBatchAt", lastBatchAt);
+        report.put("lastBatchSize", lastBatchSize);
+        report.put("lastBatchMillis", lastBatchMillis);
+        report.put("applied", (long) applied.count());
+        report.put("skipped", (long) skipped.count());
+        report.put("failed", (long) failed.count());
+        return report;
+    }
+
+    // Synchronized with expire(), so a transition is never both re-added by a load and handed out as expired
+    private synchronized void enqueue(PendingTransition transition) {
+        if (scheduled.containsKey(transition.id())) {
+            return;
+        }
+        HierarchicalTimingWheel.Timeout<PendingTransition> timeout = wheel.schedule(transition.fireAt().toEpochMilli(), transition);
+        if (timeout != null) {
+            scheduled.put(transition.id(), timeout);
+        }
+    }
+
+    private synchronized List<PendingTransition> expire() {
+        List<PendingTransition> due = wheel.advance(System.currentTimeMillis());
+        due.forEach(transition -> scheduled.remove(transition.id()));
+        return due;
+    }
+
+    private ProductTransitionDto toDto(ProductTransition transition) {
+        ProductTransitionDto dto = new ProductTransitionDto();
+        dto.setId(transition.getId());
+        dto.setProductId(transition.getProductId());
+        dto.setType(transition.getType());
+        dto.setFireAt(transition.getFireAt().toInstant(ZoneOffset.UTC));
+        dto.setStatus(transition.getTargetStatus());
+        dto.setPrice(transition.getTargetPrice());
+        dto.setState(transition.getState());
+        dto.setAppliedAt(transition.getAppliedAt() == null ? null : transition.getAppliedAt().toInstant(ZoneOffset.UTC));
+        return dto;
+    }
+}
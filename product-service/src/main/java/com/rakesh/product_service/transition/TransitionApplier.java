@@ -0,0 +1,196 @@
+package com.rakesh.product_service.transition;
+
+import com.rakesh.product_service.cache.LocalProductCache;
+import com.rakesh.product_service.cache.ProductCache;
+import com.rakesh.product_service.entity.Product;
+import com.rakesh.product_service.entity.ProductStatus;
+import com.rakesh.product_service.entity.TransitionState;
+import com.rakesh.product_service.entity.TransitionType;
+import com.rakesh.product_service.history.ProductChange;
+import com.rakesh.product_service.history.ProductHistoryService;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a batch of due transitions in one transaction, with a handful of statements however large the batch:
+ * <ol>
+ *     <li>claim: {@code SELECT ... FOR UPDATE} of the batch's rows still PENDING. Another instance firing the same
+ *     transitions waits on the row locks and then finds them APPLIED; a cancelled one is not PENDING any more,</li>
+ *     <li>one {@code UPDATE products ... WHERE id IN (...)} per target status or release date, and one JDBC batch
+ *     for the prices, which differ per product,</li>
+ *     <li>one UPDATE per outcome marking the transitions APPLIED, or SKIPPED for products deleted in the meantime.</li>
+ * </ol>
+ * The product rows and the transition states commit together, so after a crash a transition is either applied and
+ * marked or still PENDING, and the next load fires it again. The products' second-level cache entries are evicted
+ * after the commit, as these are plain JDBC updates Hibernate does not see, as are the per-instance product caches
+ * when enabled: with the versions the UPDATEs left, read back in the same transaction while the rows are still
+ * locked. The changes that took effect are handed to the product history when it is enabled.
+ */
+public class TransitionApplier {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditorAware<String> auditorAware;
+    private final ObjectProvider<ProductHistoryService> productHistory;
+    private final ObjectProvider<ProductCache> productCache;
+
+    public TransitionApplier(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             EntityManagerFactory entityManagerFactory, AuditorAware<String> auditorAware,
+                             ObjectProvider<ProductHistoryService> productHistory, ObjectProvider<ProductCache> productCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditorAware = auditorAware;
+        this.productHistory = productHistory;
+        this.productCache = productCache;
+    }
+
+    public Result apply(List<PendingTransition> batch) {
+        Result result = transactionTemplate.execute(status -> applyInTransaction(batch));
+        result.productIds().forEach(id -> entityManagerFactory.getCache().evict(Product.class, id));
+        productCache.ifAvailable(cache -> result.productIds().forEach(id ->
+                cache.invalidate(id, result.versions().getOrDefault(id, LocalProductCache.UNKNOWN_VERSION))));
+        productHistory.ifAvailable(history -> result.effective().forEach(transition -> history.record(
+                ProductChange.Type.TRANSITION, transition.productId(), null, targetState(transition), null)));
+        return result;
+    }
+
+    private Result applyInTransaction(List<PendingTransition> batch) {
+        Map<Long, PendingTransition> byId = batch.stream().collect(Collectors.toMap(PendingTransition::id, Function.identity()));
+        List<Long> claimedIds = jdbcTemplate.queryForList("SELECT id FROM product_transitions WHERE state = 'PENDING' AND id IN ("
+                + placeholders(byId.size()) + ") FOR UPDATE", Long.class, byId.keySet().toArray());
+        if (claimedIds.isEmpty()) {
+            return new Result(0, 0, batch.size(), Set.of(), Map.of(), List.of());
+        }
+        List<PendingTransition> claimed = claimedIds.stream().map(byId::get)
+                .sorted(Comparator.comparing(PendingTransition::fireAt).thenComparing(PendingTransition::id))
+                .toList();
+
+        // Only the last transition per product and column counts; earlier ones of the same batch are overtaken at once
+        Map<Long, PendingTransition> statusChanges = new LinkedHashMap<>();
+        Map<Long, PendingTransition> priceChanges = new LinkedHashMap<>();
+        for (PendingTransition transition : claimed) {
+            (transition.type() == TransitionType.PRICE ? priceChanges : statusChanges).put(transition.productId(), transition);
+        }
+        Set<Long> productIds = new HashSet<>(statusChanges.keySet());
+        productIds.addAll(priceChanges.keySet());
+        Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM products WHERE id IN ("
+                + placeholders(productIds.size()) + ")", Long.class, productIds.toArray()));
+
+        // Bulk updates bypass the entity listeners, so version, updated_at and updated_by are set by hand. Rows from
+        // before versioning have a NULL version, which version + 1 would keep NULL
+        LocalDateTime now = LocalDateTime.now();
+        String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+        Map<Object, List<Long>> byTarget = statusChanges.values().stream()
+                .filter(transition -> existing.contains(transition.productId()))
+                .collect(Collectors.groupingBy(TransitionApplier::statusTarget, LinkedHashMap::new,
+                        Collectors.mapping(PendingTransition::productId, Collectors.toList())));
+        byTarget.forEach((target, ids) -> {
+            List<Object> args = new ArrayList<>();
+            String sql;
+            if (target instanceof LocalDate releaseDate) {
+                sql = "UPDATE products SET status = 'AVAILABLE', release_date = ?, ";
+                args.add(releaseDate);
+            } else {
+                sql = "UPDATE products SET status = ?, ";
+                args.add(((ProductStatus) target).name());
+            }
+            args.add(now);
+            args.add(updatedBy);
+            args.addAll(ids);
+            jdbcTemplate.update(sql + "version = COALESCE(version, 0) + 1, updated_at = ?, updated_by = ? WHERE id IN ("
+                    + placeholders(ids.size()) + ")", args.toArray());
+        });
+        List<Object[]> prices = priceChanges.values().stream()
+                .filter(transition -> existing.contains(transition.productId()))
+                .map(transition -> new Object[]{transition.targetPrice(), now, updatedBy, transition.productId()})
+                .toList();
+        if (!prices.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE products SET price = ?, version = COALESCE(version, 0) + 1, updated_at = ?, updated_by = ? WHERE id = ?", prices);
+        }
+
+        Map<Boolean, List<Long>> outcomes = claimed.stream().collect(Collectors.partitioningBy(
+                transition -> existing.contains(transition.productId()),
+                Collectors.mapping(PendingTransition::id, Collectors.toList())));
+        markAs(TransitionState.APPLIED, outcomes.get(true), now);
+        markAs(TransitionState.SKIPPED, outcomes.get(false), now);
+        productIds.retainAll(existing);
+        Map<Long, Integer> versions = productCache.getIfAvailable() == null ? Map.of() : versionsOf(productIds);
+        List<PendingTransition> effective = new ArrayList<>(statusChanges.values());
+        effective.addAll(priceChanges.values());
+        effective.removeIf(transition -> !existing.contains(transition.productId()));
+        return new Result(outcomes.get(true).size(), outcomes.get(false).size(), batch.size() - claimed.size(),
+                Collections.unmodifiableSet(productIds), versions, effective);
+    }
+
+    // The UPDATEs bump the versions in SQL; their rows stay locked until the commit, so these are the new ones
+    private Map<Long, Integer> versionsOf(Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Integer> versions = new HashMap<>();
+        jdbcTemplate.query("SELECT id, version FROM products WHERE id IN (" + placeholders(productIds.size()) + ")",
+                row -> { versions.put(row.getLong(1), row.getInt(2)); }, productIds.toArray());
+        return versions;
+    }
+
+    private void markAs(TransitionState state, Collection<Long> ids, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Object> args = new ArrayList<>(List.of(state.name(), LocalDateTime.now(ZoneOffset.UTC), now));
+        args.addAll(ids);
+        jdbcTemplate.update("UPDATE product_transitions SET state = ?, applied_at = ?, version = COALESCE(version, 0) + 1, updated_at = ? WHERE id IN ("
+                + placeholders(ids.size()) + ")", args.toArray());
+    }
+
+    // A release goes by the day it fired in this instance's zone, like the other product dates
+    private static Object statusTarget(PendingTransition transition) {
+        return transition.type() == TransitionType.RELEASE
+                ? transition.fireAt().atZone(ZoneId.systemDefault()).toLocalDate()
+                : transition.targetStatus();
+    }
+
+    private static ProductChange.State targetState(PendingTransition transition) {
+        return switch (transition.type()) {
+            case PRICE -> new ProductChange.State(transition.targetPrice(), null, null);
+            case STATUS -> new ProductChange.State(null, null, transition.targetStatus());
+            case RELEASE -> new ProductChange.State(null, null, ProductStatus.AVAILABLE);
+        };
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * @param lost transitions of the batch no longer PENDING: cancelled, or applied by another instance
+     * @param productIds the products that were changed
+     * @param versions their versions after the change; empty when no product cache needs them
+     * @param effective the transitions whose values the products now have, without those overtaken in the same batch
+     */
+    public record Result(int applied, int skipped, int lost, Set<Long> productIds, Map<Long, Integer> versions,
+                         List<PendingTransition> effective) {
+    }
+}
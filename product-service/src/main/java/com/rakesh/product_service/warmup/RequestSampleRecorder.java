@@ -0,0 +1,137 @@
+package com.rakesh.product_service.warmup;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records a sample of the live GET /api/products requests (path and query string), which {@link WarmUpRunner}
+ * replays on the next start. The sample is a reservoir: every recorded request has the same chance to be in it,
+ * so it follows the real mix of endpoints and ids. It is kept in a plain text file, one request per line.
+ *
+ * Requests sent by the warm-up itself carry {@link #WARM_UP_HEADER} and are not recorded, nor is the unpaged
+ * GET /api/products: it reads the whole table, and replaying it thousands of times would load the database
+ * rather than warm the instance.
+ */
+public class RequestSampleRecorder extends OncePerRequestFilter {
+
+    public static final String WARM_UP_HEADER = "X-Warm-Up";
+
+    private static final String UNPAGED_LIST = "/api/products";
+
+    private static final Logger log = LoggerFactory.getLogger(RequestSampleRecorder.class);
+
+    private final Path sampleFile;
+    private final double sampleRate;
+    private final String[] reservoir;
+    private long recorded; // All requests offered to the reservoir, guarded by this
+    private boolean changed;
+
+    public RequestSampleRecorder(WarmUpProperties properties) {
+        this.sampleFile = Path.of(properties.getSampleFile());
+        this.sampleRate = properties.getSampleRate();
+        this.reservoir = new String[properties.getMaxSamples()];
+        load();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+        if ("GET".equals(request.getMethod()) && request.getHeader(WARM_UP_HEADER) == null && isReplayable(request.getRequestURI())
+                && response.getStatus() < 500 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            String query = request.getQueryString();
+            record(query == null ? request.getRequestURI() : request.getRequestURI() + "?" + query);
+        }
+    }
+
+    private synchronized void record(String pathAndQuery) {
+        long seen = recorded++;
+        if (seen < reservoir.length) {
+            reservoir[(int) seen] = pathAndQuery;
+        } else {
+            long slot = ThreadLocalRandom.current().nextLong(seen + 1); // Algorithm R: keep with probability size/seen
+            if (slot < reservoir.length) {
+                reservoir[(int) slot] = pathAndQuery;
+            }
+        }
+        changed = true;
+    }
+
+    /**
+     * The current sample, in no particular order.
+     */
+    public synchronized List<String> sample() {
+        List<String> sample = new ArrayList<>();
+        for (int i = 0; i < Math.min(recorded, reservoir.length); i++) {
+            sample.add(reservoir[i]);
+        }
+        return sample;
+    }
+
+    /**
+     * Writes the sample to the file if anything was recorded since the last write.
+     * Written to a temporary file first and moved, so a crash never leaves a half-written sample.
+     */
+    @Scheduled(fixedDelayString = "${product.warmup.sample-flush-interval:PT10M}", initialDelayString = "${product.warmup.sample-flush-interval:PT10M}")
+    public void flush() {
+        List<String> sample;
+        synchronized (this) {
+            if (!changed) {
+                return;
+            }
+            sample = sample();
+            changed = false;
+        }
+        try {
+            Path parent = sampleFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "request-sample", ".tmp");
+            Files.write(temp, sample, StandardCharsets.UTF_8);
+            Files.move(temp, sampleFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write the warm-up request sample to {}", sampleFile.toAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush(); // Shutdown: keep what this run recorded for the next start
+    }
+
+    private static boolean isReplayable(String path) {
+        return !path.equals(UNPAGED_LIST) && !path.equals(UNPAGED_LIST + "/");
+    }
+
+    // The previous run's sample is the starting content of the reservoir, so new traffic gradually replaces it
+    private void load() {
+        if (!Files.isReadable(sampleFile)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(sampleFile, StandardCharsets.UTF_8)) {
+                String path = line.strip().split("\\?", 2)[0];
+                if (path.startsWith("/api/products") && isReplayable(path) && recorded < reservoir.length) {
+                    reservoir[(int) recorded++] = line.strip();
+                }
+            }
+            log.info("Loaded {} recorded requests for warm-up from {}", recorded, sampleFile.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Could not read the warm-up request sample from {}", sampleFile.toAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.rakesh.product_service.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * The "warmUp" health component: OUT_OF_SERVICE until {@link WarmUpRunner} has finished, then UP with its report.
+ * application-dev.properties puts it in the readiness group, so /actuator/health/readiness only turns UP once the
+ * instance is warm.
+ */
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private final WarmUpRunner runner;
+
+    public WarmUpHealthIndicator(WarmUpRunner runner) {
+        this.runner = runner;
+    }
+
+    @Override
+    public Health health() {
+        WarmUpReport report = runner.getReport();
+        if (report == null) {
+            return Health.outOfService().withDetail("phase", runner.getPhase()).build();
+        }
+        return Health.up().withDetail("report", report).build();
+    }
+}
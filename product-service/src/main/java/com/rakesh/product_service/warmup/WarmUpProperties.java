@@ -0,0 +1,34 @@
+package com.rakesh.product_service.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the startup warm-up, bound from {@code product.warmup.*}.
+ */
+@Data // Lombok: getters/setters so Spring can bind the properties
+@ConfigurationProperties(prefix = "product.warmup")
+public class WarmUpProperties {
+
+    private boolean enabled = false; // Off by default: the instance goes UP in Eureka as soon as it has started, like before
+
+    private Duration timeout = Duration.ofSeconds(60); // The instance goes UP after this long even if warm-up is not finished
+
+    private boolean prefillPool = true; // Open the connection pool up to maximum-pool-size before taking traffic
+
+    private int hotProducts = 200; // Products loaded up front, the most requested ones in the recorded sample
+
+    private int replayRequests = 3000; // GET requests replayed in total (the sample is repeated until this count)
+
+    private int replayConcurrency = 4; // Parallel replay clients, so the request path also warms up under contention
+
+    private String sampleFile = "warmup/request-sample.txt"; // Where the recorded GET sample is kept between runs
+
+    private double sampleRate = 0.01; // Share of live GET /api/products requests that are recorded
+
+    private int maxSamples = 1000; // Size of the recorded sample, kept as a uniform reservoir over everything recorded so far
+
+    private Duration sampleFlushInterval = Duration.ofMinutes(10); // The sample is also written on shutdown
+}
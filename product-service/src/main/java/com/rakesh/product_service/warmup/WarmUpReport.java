@@ -0,0 +1,26 @@
+package com.rakesh.product_service.warmup;
+
+import java.util.Map;
+
+/**
+ * What the startup warm-up did, shown in the details of the "warmUp" health component and logged when it finishes.
+ *
+ * Coverage is measured on request patterns (numeric path segments folded into {id}), i.e. which endpoints were
+ * exercised, and how much JIT compilation happened meanwhile. The first/last batch latencies show the effect:
+ * once the code is compiled the last batch should be several times faster than the first.
+ */
+public record WarmUpReport(
+        long durationMillis,
+        boolean timedOut,
+        int poolConnectionsOpened,
+        int hotProductsLoaded,
+        int recordedRequests,
+        int requestsReplayed,
+        int replayErrors,
+        int patternsReplayed,
+        int patternsRecorded,
+        Map<String, Integer> requestsPerPattern,
+        double firstBatchMeanMicros,
+        double lastBatchMeanMicros,
+        long jitCompilationMillis) {
+}
@@ -0,0 +1,285 @@
+package com.rakesh.product_service.warmup;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.rakesh.product_service.dto.ProductDto;
+import com.rakesh.product_service.service.ProductIdFilter;
+import com.rakesh.product_service.service.ProductService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Warms the instance up before it takes traffic, then marks it UP in Eureka and in the readiness probe.
+ *
+ * The instance registers with Eureka as STARTING (eureka.instance.initial-status), which the gateway's load balancer skips.
+ * Once the application is ready, a background thread
+ * <ol>
+ *     <li>opens the connection pool up to its maximum size, so the first burst does not wait for new connections,</li>
+ *     <li>builds the product id filter and loads the hot products (the most requested ids in the recorded sample,
+ *     else the most recently updated ones), which pulls their rows and indexes into MySQL's buffer pool,</li>
+ *     <li>replays the recorded GET requests ({@link RequestSampleRecorder}) against its own port, so Tomcat, Spring MVC,
+ *     Jackson, Hibernate and the JDBC driver are JIT-compiled on the real request mix,</li>
+ * </ol>
+ * and finally switches the status to UP. Warm-up never keeps an instance out for good: after
+ * product.warmup.timeout, or when a step fails, it goes UP anyway with what it has.
+ */
+public class WarmUpRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+    private static final Pattern PRODUCT_ID = Pattern.compile("^/api/products/(\\d+)$");
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final int LATENCY_BATCH = 100;
+
+    private final WarmUpProperties properties;
+    private final ProductService productService;
+    private final ProductIdFilter productIdFilter;
+    private final List<HikariDataSource> pools;
+    private final RequestSampleRecorder recorder;
+    private final ApplicationInfoManager applicationInfoManager; // null when Eureka is not on the classpath/disabled
+
+    private volatile String phase = "waiting for application start";
+    private volatile WarmUpReport report;
+
+    public WarmUpRunner(WarmUpProperties properties, ProductService productService, ProductIdFilter productIdFilter,
+                        List<HikariDataSource> pools, RequestSampleRecorder recorder, ApplicationInfoManager applicationInfoManager) {
+        this.properties = properties;
+        this.productService = productService;
+        this.productIdFilter = productIdFilter;
+        this.pools = pools;
+        this.recorder = recorder;
+        this.applicationInfoManager = applicationInfoManager;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmUp(ApplicationReadyEvent event) {
+        String port = event.getApplicationContext().getEnvironment().getProperty("local.server.port");
+        Thread.ofPlatform().name("product-warm-up").daemon().start(() -> run("http://localhost:" + port));
+    }
+
+    /**
+     * Null while warm-up is still running.
+     */
+    public WarmUpReport getReport() {
+        return report;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    private void run(String baseUrl) {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + properties.getTimeout().toNanos();
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        long jitBefore = jit.isCompilationTimeMonitoringSupported() ? jit.getTotalCompilationTime() : 0;
+        List<String> sample = recorder.sample();
+        int connections = 0;
+        int hotLoaded = 0;
+        Replay replay = Replay.NONE;
+        try {
+            phase = "prefilling connection pool";
+            connections = prefillPools();
+
+            phase = "loading hot products";
+            productIdFilter.ensureBuilt();
+            List<Long> hotIds = hotProductIds(sample);
+            hotLoaded = loadHotProducts(hotIds, deadline);
+
+            phase = "replaying requests";
+            List<String> requests = sample.isEmpty() ? defaultRequests(hotIds) : sample;
+            replay = replay(baseUrl, requests, deadline);
+        } catch (Exception e) {
+            log.warn("Warm-up failed during '{}', marking the instance UP anyway", phase, e);
+        }
+        long jitAfter = jit.isCompilationTimeMonitoringSupported() ? jit.getTotalCompilationTime() : 0;
+        report = new WarmUpReport((System.nanoTime() - startedAt) / 1_000_000, System.nanoTime() > deadline,
+                connections, hotLoaded, sample.size(), replay.replayed(), replay.errors(),
+                replay.requestsPerPattern().size(), countPatterns(sample), replay.requestsPerPattern(),
+                replay.firstBatchMeanMicros(), replay.lastBatchMeanMicros(), jitAfter - jitBefore);
+        phase = "done";
+        if (applicationInfoManager != null) {
+            applicationInfoManager.setInstanceStatus(InstanceStatus.UP); // Eureka now hands the instance to the gateway
+        }
+        log.info("Warm-up finished, instance is UP: {}", report);
+    }
+
+    // Holds maximum-pool-size connections at once, which forces the pool to open that many; they stay idle afterwards
+    private int prefillPools() throws SQLException {
+        if (!properties.isPrefillPool()) {
+            return 0;
+        }
+        int opened = 0;
+        for (HikariDataSource pool : pools) {
+            List<Connection> held = new ArrayList<>();
+            try {
+                for (int i = 0; i < pool.getMaximumPoolSize(); i++) {
+                    Connection connection = pool.getConnection();
+                    held.add(connection);
+                    connection.isValid(5); // Makes sure it is a working physical connection, in seconds
+                }
+                opened += held.size();
+            } finally {
+                for (Connection connection : held) {
+                    connection.close(); // Back to the pool, not closed
+                }
+            }
+        }
+        return opened;
+    }
+
+    private List<Long> hotProductIds(List<String> sample) {
+        Map<Long, Long> hits = new LinkedHashMap<>();
+        for (String request : sample) {
+            Matcher matcher = PRODUCT_ID.matcher(request);
+            if (matcher.matches()) {
+                hits.merge(Long.parseLong(matcher.group(1)), 1L, Long::sum);
+            }
+        }
+        if (hits.isEmpty()) {
+            // Nothing recorded yet: recently updated products are the best guess for what is being looked at
+            return productService.getProductsPaginated(PageRequest.of(0, properties.getHotProducts(), Sort.by(Sort.Direction.DESC, "updatedAt")))
+                    .map(ProductDto::getId)
+                    .toList();
+        }
+        return hits.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(properties.getHotProducts())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private int loadHotProducts(List<Long> ids, long deadline) {
+        int loaded = 0;
+        for (Long id : ids) {
+            if (System.nanoTime() > deadline) {
+                break;
+            }
+            if (productService.findProductById(id).isPresent()) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    // Used on the very first start, before any traffic has been recorded: every GET endpoint once per round
+    private static List<String> defaultRequests(List<Long> hotIds) {
+        List<String> requests = new ArrayList<>();
+        for (Long id : hotIds) {
+            requests.add("/api/products/" + id);
+        }
+        requests.add("/api/products/1"); // Unknown id, the 404 path
+        requests.add("/api/products/paginated?page=0&size=20&sort=updatedAt,desc");
+        requests.add("/api/products/paginated?page=0&size=20&sort=name,asc");
+        requests.add("/api/products/search?nameKeyword=a");
+        requests.add("/api/products/status/AVAILABLE");
+        requests.add("/api/products/price-range?minPrice=0&maxPrice=100");
+        return requests;
+    }
+
+    private Replay replay(String baseUrl, List<String> requests, long deadline) throws Exception {
+        List<String> shuffled = new ArrayList<>(requests);
+        Collections.shuffle(shuffled); // Recorded order is arbitrary anyway, this avoids long runs of one endpoint
+        int total = properties.getReplayRequests();
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicLongArray micros = new AtomicLongArray(total);
+        Map<String, AtomicInteger> perPattern = new TreeMap<>();
+        shuffled.forEach(request -> perPattern.put(pattern(request), new AtomicInteger()));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < properties.getReplayConcurrency(); w++) {
+                futures.add(workers.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < total && System.nanoTime() < deadline) {
+                        String request = shuffled.get(i % shuffled.size());
+                        long started = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + request))
+                                    .header(RequestSampleRecorder.WARM_UP_HEADER, "true")
+                                    .timeout(Duration.ofSeconds(10))
+                                    .GET().build(), HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 500) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        micros.set(i, (System.nanoTime() - started) / 1000);
+                        perPattern.get(pattern(request)).incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        int replayed = Math.min(next.get(), total);
+        Map<String, Integer> counts = perPattern.entrySet().stream()
+                .filter(entry -> entry.getValue().get() > 0)
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get(), (a, b) -> a, TreeMap::new));
+        return new Replay(replayed, errors.get(), counts,
+                meanMicros(micros, 0, Math.min(LATENCY_BATCH, replayed)),
+                meanMicros(micros, Math.max(0, replayed - LATENCY_BATCH), replayed));
+    }
+
+    private static double meanMicros(AtomicLongArray micros, int from, int to) {
+        long sum = 0;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (micros.get(i) > 0) { // Slots claimed after the deadline were never sent
+                sum += micros.get(i);
+                count++;
+            }
+        }
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    private static int countPatterns(List<String> sample) {
+        return (int) sample.stream().map(WarmUpRunner::pattern).distinct().count();
+    }
+
+    // "/api/products/123?x=1" -> "/api/products/{id}", so coverage counts endpoints rather than individual ids
+    static String pattern(String request) {
+        int query = request.indexOf('?');
+        String path = query < 0 ? request : request.substring(0, query);
+        return NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    private record Replay(int replayed, int errors, Map<String, Integer> requestsPerPattern,
+                          double firstBatchMeanMicros, double lastBatchMeanMicros) {
+
+        static final Replay NONE = new Replay(0, 0, Map.of(), 0, 0);
+    }
+}
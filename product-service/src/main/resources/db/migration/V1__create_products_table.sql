@@ -0,0 +1,22 @@
+-- Baseline: the products table exactly as Hibernate's ddl-auto=update used to create it from Product/BaseEntity.
+-- Existing databases already have this table; spring.flyway.baseline-on-migrate marks them as version 1 and skips this file.
+CREATE TABLE IF NOT EXISTS products (
+    id                BIGINT         NOT NULL,
+    name              VARCHAR(100)   NOT NULL,
+    description       TEXT,
+    price             DECIMAL(10, 2) NOT NULL,
+    sku               VARCHAR(50)    NOT NULL,
+    quantity_in_stock INT,
+    release_date      DATE,
+    image             LONGBLOB,
+    status            ENUM ('AVAILABLE', 'OUT_OF_STOCK', 'DISCONTINUED'),
+    manufacturer      VARCHAR(255),
+    weight_grams      DOUBLE,
+    version           INT,
+    created_at        DATETIME(6),
+    updated_at        DATETIME(6),
+    created_by        VARCHAR(255),
+    updated_by        VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_products_sku UNIQUE (sku)
+) ENGINE = InnoDB;
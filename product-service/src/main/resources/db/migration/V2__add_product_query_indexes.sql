@@ -0,0 +1,14 @@
+-- Indexes matched to the query shapes of ProductRepository (see ProductQueryShape for the full mapping).
+-- InnoDB secondary indexes carry the primary key, so (status, updated_at) also serves "ORDER BY id" inside one status.
+
+-- findByStatus(status), optionally paged newest first
+CREATE INDEX idx_products_status_updated_at ON products (status, updated_at);
+
+-- findByPriceBetween(min, max) and paging sorted by price
+CREATE INDEX idx_products_price ON products (price);
+
+-- paging sorted by name; also the smallest index to scan for findByNameContainingIgnoreCase (a leading % cannot seek)
+CREATE INDEX idx_products_name ON products (name);
+
+-- paging sorted by updated_at (recently changed products first)
+CREATE INDEX idx_products_updated_at ON products (updated_at);
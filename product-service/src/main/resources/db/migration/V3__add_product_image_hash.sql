@@ -0,0 +1,4 @@
+-- SHA-256 of the original in products.image, set together with it. Image variants are cached under this hash,
+-- so a new image is never answered from the cache of the old one, on any instance, and the hash is read
+-- without loading the LOB.
+ALTER TABLE products ADD COLUMN image_hash VARCHAR(64);
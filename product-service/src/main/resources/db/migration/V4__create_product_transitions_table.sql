@@ -0,0 +1,26 @@
+-- Scheduled changes of a product (see ProductTransitionService): a status, a price, or a release that makes it
+-- AVAILABLE with its release_date, applied at fire_at. fire_at and applied_at are UTC.
+-- A transition is applied exactly once: the instance that moves it from PENDING to APPLIED does the product update,
+-- in the same transaction.
+CREATE TABLE IF NOT EXISTS product_transitions (
+    id            BIGINT         NOT NULL,
+    product_id    BIGINT         NOT NULL,
+    type          ENUM ('STATUS', 'PRICE', 'RELEASE') NOT NULL,
+    target_status ENUM ('AVAILABLE', 'OUT_OF_STOCK', 'DISCONTINUED'),
+    target_price  DECIMAL(10, 2),
+    fire_at       DATETIME(6)    NOT NULL,
+    state         ENUM ('PENDING', 'APPLIED', 'SKIPPED', 'CANCELLED') NOT NULL,
+    applied_at    DATETIME(6),
+    version       INT,
+    created_at    DATETIME(6),
+    updated_at    DATETIME(6),
+    created_by    VARCHAR(255),
+    updated_by    VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- Loading the wheel: pending transitions due before the horizon, a range scan that only reads what is due soon
+CREATE INDEX idx_product_transitions_state_fire_at ON product_transitions (state, fire_at);
+
+-- Listing the transitions of one product
+CREATE INDEX idx_product_transitions_product_id ON product_transitions (product_id, fire_at);
@@ -0,0 +1,21 @@
+-- Price, stock and status of a product before and after each change (see ProductHistoryService), written in
+-- batches behind the change itself. old_* are NULL when the change did not read them, new_* when it did not touch
+-- them. changed_at is UTC. Rows are only ever inserted; ids come from the instance that recorded the change.
+CREATE TABLE IF NOT EXISTS product_history (
+    id              BIGINT         NOT NULL,
+    product_id      BIGINT         NOT NULL,
+    change_type     ENUM ('CREATE', 'UPDATE', 'PATCH', 'DELETE', 'TRANSITION') NOT NULL,
+    old_price       DECIMAL(10, 2),
+    new_price       DECIMAL(10, 2),
+    old_quantity    INT,
+    new_quantity    INT,
+    old_status      ENUM ('AVAILABLE', 'OUT_OF_STOCK', 'DISCONTINUED'),
+    new_status      ENUM ('AVAILABLE', 'OUT_OF_STOCK', 'DISCONTINUED'),
+    product_version INT,
+    changed_at      DATETIME(6)    NOT NULL,
+    changed_by      VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- Price history of one product over a time range, and the last price before it
+CREATE INDEX idx_product_history_product_changed_at ON product_history (product_id, changed_at);
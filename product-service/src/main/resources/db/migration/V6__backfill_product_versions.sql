@@ -0,0 +1,3 @@
+-- Rows written before the version column was maintained have a NULL version. A versioned PATCH or DELETE compares
+-- the version with =, which never matches NULL, so those products could only ever get a 409; start them at 0.
+UPDATE products SET version = 0 WHERE version IS NULL;
@@ -0,0 +1,30 @@
+-- Databases created by the old ddl-auto=update (and baselined as version 1) got the SKU unique index under a generated
+-- UK... name, V1 creates it as uk_products_sku. GlobalExceptionHandler and SchemaVerifier rely on that name, so the
+-- generated one is renamed; a second generated index on sku (from both @UniqueConstraint and unique = true) is dropped.
+-- MySQL has no RENAME INDEX IF EXISTS, so each statement is built from information_schema and is a no-op when not needed.
+
+SET @sku_index = (SELECT INDEX_NAME FROM information_schema.STATISTICS
+                  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'products' AND NON_UNIQUE = 0
+                    AND INDEX_NAME NOT IN ('PRIMARY', 'uk_products_sku')
+                  GROUP BY INDEX_NAME HAVING COUNT(*) = 1 AND MAX(COLUMN_NAME) = 'sku'
+                  ORDER BY INDEX_NAME LIMIT 1);
+SET @named = (SELECT COUNT(*) FROM information_schema.STATISTICS
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'products' AND INDEX_NAME = 'uk_products_sku');
+SET @ddl = CASE
+               WHEN @sku_index IS NULL THEN 'DO 0'
+               WHEN @named = 0 THEN CONCAT('ALTER TABLE products RENAME INDEX `', @sku_index, '` TO uk_products_sku')
+               ELSE CONCAT('ALTER TABLE products DROP INDEX `', @sku_index, '`') END;
+PREPARE name_sku_index FROM @ddl;
+EXECUTE name_sku_index;
+DEALLOCATE PREPARE name_sku_index;
+
+-- The duplicate, if Hibernate created one, is left over now that uk_products_sku exists
+SET @sku_index = (SELECT INDEX_NAME FROM information_schema.STATISTICS
+                  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'products' AND NON_UNIQUE = 0
+                    AND INDEX_NAME NOT IN ('PRIMARY', 'uk_products_sku')
+                  GROUP BY INDEX_NAME HAVING COUNT(*) = 1 AND MAX(COLUMN_NAME) = 'sku'
+                  ORDER BY INDEX_NAME LIMIT 1);
+SET @ddl = IF(@sku_index IS NULL, 'DO 0', CONCAT('ALTER TABLE products DROP INDEX `', @sku_index, '`'));
+PREPARE drop_sku_index FROM @ddl;
+EXECUTE drop_sku_index;
+DEALLOCATE PREPARE drop_sku_index;
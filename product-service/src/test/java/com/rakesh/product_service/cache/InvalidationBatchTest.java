@@ -0,0 +1,55 @@
+package com.rakesh.product_service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The datagram format of the invalidation channel.
+ */
+class InvalidationBatchTest {
+
+    @Test
+    void decodesWhatWasEncoded() {
+        InvalidationBatch batch = new InvalidationBatch(42, 1_700_000_000_000L, List.of(
+                new InvalidationBatch.Invalidation(1, 3),
+                new InvalidationBatch.Invalidation(Long.MAX_VALUE, LocalProductCache.DELETED),
+                new InvalidationBatch.Invalidation(7, LocalProductCache.UNKNOWN_VERSION)));
+        ByteBuffer buffer = ByteBuffer.allocate(InvalidationBatch.maxBytes());
+
+        batch.encodeTo(buffer);
+
+        assertThat(buffer.remaining()).isEqualTo(22 + 3 * 12);
+        assertThat(InvalidationBatch.decode(buffer)).isEqualTo(batch);
+    }
+
+    @Test
+    void aFullBatchFitsInOneUnfragmentedDatagram() {
+        List<InvalidationBatch.Invalidation> invalidations = new ArrayList<>();
+        for (int i = 0; i < InvalidationBatch.MAX_PRODUCTS; i++) {
+            invalidations.add(new InvalidationBatch.Invalidation(i, i));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(InvalidationBatch.maxBytes());
+
+        new InvalidationBatch(1, 2, invalidations).encodeTo(buffer);
+
+        assertThat(buffer.remaining()).isEqualTo(InvalidationBatch.maxBytes()).isLessThanOrEqualTo(1472);
+        assertThat(InvalidationBatch.decode(buffer).invalidations()).isEqualTo(invalidations);
+    }
+
+    @Test
+    void rejectsDatagramsThatAreNotABatch() {
+        ByteBuffer buffer = ByteBuffer.allocate(InvalidationBatch.maxBytes());
+        new InvalidationBatch(1, 2, List.of(new InvalidationBatch.Invalidation(1, 1))).encodeTo(buffer);
+
+        assertThat(InvalidationBatch.decode(buffer.duplicate().limit(buffer.limit() - 1))).as("truncated").isNull();
+        assertThat(InvalidationBatch.decode(buffer.duplicate().limit(10))).as("shorter than the header").isNull();
+        ByteBuffer otherMagic = buffer.duplicate();
+        otherMagic.putInt(0, 0x12345678);
+        assertThat(InvalidationBatch.decode(otherMagic)).as("other magic").isNull();
+    }
+}
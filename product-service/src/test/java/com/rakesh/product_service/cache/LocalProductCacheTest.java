@@ -0,0 +1,115 @@
+package com.rakesh.product_service.cache;
+
+import com.rakesh.product_service.dto.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entries and invalidation markers of the per-instance cache.
+ */
+class LocalProductCacheTest {
+
+    private LocalProductCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new LocalProductCache(100, Duration.ofMinutes(5).toNanos());
+        cache.startServing();
+    }
+
+    @Test
+    void cachesNothingBeforeItServes() {
+        LocalProductCache starting = new LocalProductCache(100, Duration.ofMinutes(5).toNanos());
+
+        starting.put(product(1, 3));
+
+        assertThat(starting.get(1)).isNull();
+        assertThat(starting.size()).isZero();
+    }
+
+    @Test
+    void anInvalidationDropsAnOlderEntryAndKeepsItsVersionOutAfterwards() {
+        cache.put(product(1, 3));
+
+        assertThat(cache.invalidate(1, 4)).isTrue();
+        assertThat(cache.get(1)).isNull();
+
+        cache.put(product(1, 3)); // A read that started before the change
+        assertThat(cache.get(1)).isNull();
+        cache.put(product(1, 4));
+        assertThat(cache.get(1).getVersion()).isEqualTo(4);
+    }
+
+    @Test
+    void anInvalidationOlderThanTheCachedEntryKeepsIt() {
+        cache.put(product(1, 5));
+
+        assertThat(cache.invalidate(1, 4)).isFalse();
+        assertThat(cache.get(1).getVersion()).isEqualTo(5);
+    }
+
+    @Test
+    void anInvalidationOfAnUncachedProductLeavesAMarker() {
+        assertThat(cache.invalidate(1, 4)).isFalse();
+
+        cache.put(product(1, 2));
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void anUnknownVersionKeepsOutWhatWasCachedBefore() {
+        cache.put(product(1, 3));
+
+        assertThat(cache.invalidate(1, LocalProductCache.UNKNOWN_VERSION)).isTrue();
+        cache.put(product(1, 3));
+        assertThat(cache.get(1)).isNull();
+        cache.put(product(1, 4));
+        assertThat(cache.get(1)).isNotNull();
+
+        cache.invalidate(2, LocalProductCache.UNKNOWN_VERSION); // Nothing cached: any read may be old
+        cache.put(product(2, 1000));
+        assertThat(cache.get(2)).isNull();
+    }
+
+    @Test
+    void aDeletedProductStaysOut() {
+        cache.put(product(1, 3));
+
+        cache.invalidate(1, LocalProductCache.DELETED);
+        cache.put(product(1, 3));
+
+        assertThat(cache.get(1)).isNull();
+    }
+
+    @Test
+    void trimmingEvictsCachedProductsBeforeMarkers() {
+        LocalProductCache small = new LocalProductCache(16, Duration.ofMinutes(5).toNanos());
+        small.startServing();
+        for (long id = 1; id <= 8; id++) {
+            small.invalidate(id, 2);
+        }
+        for (long id = 101; id <= 108; id++) {
+            small.put(product(id, 1));
+        }
+
+        small.put(product(109, 1)); // One over the limit, a sixteenth of it more goes: two entries
+
+        assertThat(small.size()).isEqualTo(15);
+        for (long id = 1; id <= 8; id++) {
+            small.put(product(id, 1));
+            assertThat(small.get(id)).as("product %s", id).isNull(); // Every marker is still there
+        }
+    }
+
+    private static ProductDto product(long id, int version) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setVersion(version);
+        return product;
+    }
+}
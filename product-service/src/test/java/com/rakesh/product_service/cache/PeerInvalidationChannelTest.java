@@ -0,0 +1,107 @@
+package com.rakesh.product_service.cache;
+
+import com.rakesh.product_service.dto.ProductDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two instances on ephemeral UDP ports of this machine, each seeing the other in a mocked registry.
+ */
+class PeerInvalidationChannelTest {
+
+    private final LocalProductCache cacheA = new LocalProductCache(100, Duration.ofMinutes(5).toNanos());
+    private final LocalProductCache cacheB = new LocalProductCache(100, Duration.ofMinutes(5).toNanos());
+    private final SimpleMeterRegistry metersB = new SimpleMeterRegistry();
+    private PeerInvalidationChannel channelA;
+    private PeerInvalidationChannel channelB;
+
+    @BeforeEach
+    void setUp() {
+        DiscoveryClient registryOfA = mock(DiscoveryClient.class);
+        DiscoveryClient registryOfB = mock(DiscoveryClient.class);
+        channelA = new PeerInvalidationChannel(properties(), cacheA, "product-service", registryOfA, null, new SimpleMeterRegistry());
+        channelB = new PeerInvalidationChannel(properties(), cacheB, "product-service", registryOfB, null, metersB);
+        when(registryOfA.getInstances("product-service")).thenAnswer(invocation -> List.of(instance("b", channelB.port())));
+        when(registryOfB.getInstances("product-service")).thenAnswer(invocation -> List.of(instance("a", channelA.port())));
+        channelA.start();
+        channelB.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channelA.stop();
+        channelB.stop();
+    }
+
+    @Test
+    void aChangeOnOneInstanceDropsTheProductOnTheOther() throws InterruptedException {
+        await(() -> cacheB.isServing() && !channelB.peers().isEmpty());
+        cacheB.put(product(1, 3));
+        cacheB.put(product(2, 3));
+
+        channelA.broadcast(1, 4);
+
+        await(() -> cacheB.get(1) == null);
+        assertThat(cacheB.get(2)).isNotNull();
+        assertThat(channelA.peers()).containsExactly(new InetSocketAddress("127.0.0.1", channelB.port()));
+    }
+
+    @Test
+    void datagramsFromAnAddressThatIsNoPeerAreRejected() throws IOException, InterruptedException {
+        await(() -> cacheB.isServing() && !channelB.peers().isEmpty());
+        cacheB.put(product(1, 3));
+        ByteBuffer datagram = ByteBuffer.allocate(InvalidationBatch.maxBytes());
+        new InvalidationBatch(7, System.currentTimeMillis(), List.of(new InvalidationBatch.Invalidation(1, 4))).encodeTo(datagram);
+
+        try (DatagramChannel stranger = DatagramChannel.open().bind(new InetSocketAddress("127.0.0.1", 0))) {
+            stranger.send(datagram, new InetSocketAddress("127.0.0.1", channelB.port()));
+        }
+
+        await(() -> metersB.counter("product.cache.invalidation.rejected.datagrams").count() == 1);
+        assertThat(cacheB.get(1)).isNotNull();
+    }
+
+    private static ProductCacheProperties properties() {
+        ProductCacheProperties properties = new ProductCacheProperties();
+        properties.setBatchInterval(Duration.ofMillis(5));
+        return properties;
+    }
+
+    private static ServiceInstance instance(String instanceId, int port) {
+        return new DefaultServiceInstance(instanceId, "product-service", "127.0.0.1", 8080, false,
+                Map.of(PeerInvalidationChannel.EUREKA_METADATA_KEY, String.valueOf(port)));
+    }
+
+    private static ProductDto product(long id, int version) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setVersion(version);
+        return product;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() - deadline < 0) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,111 @@
+package com.rakesh.product_service.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Replica lag read through mocked JDBC objects, with a maximum lag of 5 seconds.
+ */
+class ReplicaHealthMonitorTest {
+
+    private static final long MAX_LAG_SECONDS = 5;
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRoutingDataSource(1, new ReadYourWritesTracker(0));
+    }
+
+    @Test
+    void keepsAReplicaWithinTheMaximumLag() throws Exception {
+        monitor(replicaStatus(5L), null).checkReplicas();
+
+        assertThat(routing.isHealthy(0)).isTrue();
+    }
+
+    @Test
+    void takesOutAReplicaThatLagsTooFarAndBringsItBackOnceCaughtUp() throws Exception {
+        ResultSet status = mock(ResultSet.class);
+        when(status.next()).thenReturn(true);
+        when(status.getObject("Seconds_Behind_Source")).thenReturn(6L, 1L);
+        ReplicaHealthMonitor monitor = monitor(replicaWith("SHOW REPLICA STATUS", status), null);
+
+        monitor.checkReplicas();
+        assertThat(routing.isHealthy(0)).isFalse();
+
+        monitor.checkReplicas();
+        assertThat(routing.isHealthy(0)).isTrue();
+    }
+
+    @Test
+    void takesOutAReplicaWhoseReplicationIsStopped() throws Exception {
+        monitor(replicaStatus(null), null).checkReplicas();
+
+        assertThat(routing.isHealthy(0)).isFalse();
+    }
+
+    @Test
+    void takesOutAnUnreachableReplica() throws Exception {
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        monitor(replica, null).checkReplicas();
+
+        assertThat(routing.isHealthy(0)).isFalse();
+    }
+
+    @Test
+    void treatsAServerThatIsNoReplicaAsUpToDate() throws Exception {
+        routing.markHealthy(0, false);
+        ResultSet empty = mock(ResultSet.class);
+
+        monitor(replicaWith("SHOW REPLICA STATUS", empty), null).checkReplicas();
+
+        assertThat(routing.isHealthy(0)).isTrue();
+    }
+
+    @Test
+    void readsTheFirstColumnOfACustomLagQuery() throws Exception {
+        String lagQuery = "SELECT lag_seconds FROM replication_heartbeat";
+        ResultSet row = mock(ResultSet.class);
+        when(row.next()).thenReturn(true);
+        when(row.getObject(1)).thenReturn(12);
+
+        monitor(replicaWith(lagQuery, row), lagQuery).checkReplicas();
+
+        assertThat(routing.isHealthy(0)).isFalse();
+    }
+
+    private ReplicaHealthMonitor monitor(DataSource replica, String lagQuery) {
+        return new ReplicaHealthMonitor(routing, List.of(replica), lagQuery, MAX_LAG_SECONDS);
+    }
+
+    private static DataSource replicaStatus(Long secondsBehindSource) throws SQLException {
+        ResultSet status = mock(ResultSet.class);
+        when(status.next()).thenReturn(true);
+        when(status.getObject("Seconds_Behind_Source")).thenReturn(secondsBehindSource);
+        return replicaWith("SHOW REPLICA STATUS", status);
+    }
+
+    private static DataSource replicaWith(String query, ResultSet resultSet) throws SQLException {
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(query)).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenReturn(connection);
+        return replica;
+    }
+}
@@ -0,0 +1,146 @@
+package com.rakesh.product_service.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A router over a primary and two replicas; the transaction flags are set on the thread the way the transaction manager does.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private ReadYourWritesTracker tracker;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ReadYourWritesTracker(60_000);
+        routing = new ReplicaRoutingDataSource(2, tracker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        tracker.clearSession();
+    }
+
+    @Test
+    void sendsWritesToThePrimary() {
+        transaction(false);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.PRIMARY);
+    }
+
+    @Test
+    void spreadsReadsOverTheReplicasRoundRobin() {
+        transaction(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.replica(0));
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.replica(1));
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.replica(0));
+    }
+
+    @Test
+    void skipsUnhealthyReplicasAndFallsBackToThePrimaryWhenNoneIsLeft() {
+        transaction(true);
+        routing.markHealthy(0, false);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.replica(1));
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.replica(1));
+
+        routing.markHealthy(1, false);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.PRIMARY);
+
+        routing.markHealthy(0, true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.replica(0));
+    }
+
+    @Test
+    void readsFromThePrimaryWithoutReplicas() {
+        transaction(true);
+
+        assertThat(new ReplicaRoutingDataSource(0, tracker).determineCurrentLookupKey()).isEqualTo(DataSourceRoute.PRIMARY);
+    }
+
+    @Test
+    void keepsASessionOnThePrimaryAfterItWrote() {
+        tracker.bindSession("writer");
+        transaction(false);
+        routing.determineCurrentLookupKey();
+
+        transaction(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.PRIMARY);
+
+        tracker.bindSession("other");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.replica(0));
+
+        tracker.clearSession();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.replica(1));
+    }
+
+    @Test
+    void doesNotCountAConnectionOutsideATransactionAsAWrite() {
+        tracker.bindSession("reader");
+        routing.determineCurrentLookupKey(); // Neither read-only nor in a transaction, e.g. a schema check at startup
+
+        transaction(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.replica(0));
+    }
+
+    @Test
+    void forgetsWritesOnceTheWindowHasPassed() throws InterruptedException {
+        ReadYourWritesTracker shortWindow = new ReadYourWritesTracker(200);
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(1, shortWindow);
+        shortWindow.bindSession("writer");
+        transaction(false);
+        router.determineCurrentLookupKey();
+
+        transaction(true);
+        assertThat(router.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.PRIMARY);
+        Thread.sleep(250);
+        shortWindow.evictExpired();
+        assertThat(router.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.replica(0));
+    }
+
+    @Test
+    void handsOutConnectionsOfTheChosenPool() throws Exception {
+        DataSource primary = dataSourceWith(mock(Connection.class));
+        DataSource replica0 = dataSourceWith(mock(Connection.class));
+        DataSource replica1 = dataSourceWith(mock(Connection.class));
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRoute.PRIMARY, primary);
+        targets.put(DataSourceRoute.replica(0), replica0);
+        targets.put(DataSourceRoute.replica(1), replica1);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        routing.markHealthy(0, false);
+
+        transaction(false);
+        assertThat(routing.getConnection()).isSameAs(primary.getConnection());
+        transaction(true);
+        assertThat(routing.getConnection()).isSameAs(replica1.getConnection());
+    }
+
+    private static void transaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static DataSource dataSourceWith(Connection connection) throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
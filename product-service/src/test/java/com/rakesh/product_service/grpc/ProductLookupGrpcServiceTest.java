@@ -0,0 +1,152 @@
+package com.rakesh.product_service.grpc;
+
+import com.rakesh.product_service.dto.ProductDetailsDto;
+import com.rakesh.product_service.dto.ProductDto;
+import com.rakesh.product_service.entity.ProductStatus;
+import com.rakesh.product_service.exception.ResourceNotFoundException;
+import com.rakesh.product_service.grpc.v1.GetByIdRequest;
+import com.rakesh.product_service.grpc.v1.GetBySkuRequest;
+import com.rakesh.product_service.grpc.v1.ProductLookupGrpc;
+import com.rakesh.product_service.grpc.v1.ProductReply;
+import com.rakesh.product_service.grpc.v1.ScanCatalogRequest;
+import com.rakesh.product_service.service.ProductService;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The lookup service behind the real server on a free port, called through a plaintext channel like an internal
+ * client would; the products come from a mocked ProductService.
+ */
+class ProductLookupGrpcServiceTest {
+
+    private ProductService productService;
+    private GrpcServerLifecycle server;
+    private ManagedChannel channel;
+    private ProductLookupGrpc.ProductLookupBlockingStub blocking;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        when(productService.findProductById(anyLong())).thenReturn(Optional.empty());
+        GrpcServerProperties properties = new GrpcServerProperties();
+        properties.setPort(0);
+        properties.setScanBatchSize(2);
+        properties.setShutdownGracePeriod(Duration.ofSeconds(1));
+        server = new GrpcServerLifecycle(properties, new ProductLookupGrpcService(productService, properties), null);
+        server.start();
+        channel = ManagedChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+        blocking = ProductLookupGrpc.newBlockingStub(channel).withDeadlineAfter(10, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.stop();
+    }
+
+    @Test
+    void getByIdReturnsTheProductWithItsFields() {
+        when(productService.findProductById(7L)).thenReturn(Optional.of(product(7)));
+
+        ProductReply reply = blocking.getById(GetByIdRequest.newBuilder().setId(7).build());
+
+        assertThat(reply.getFound()).isTrue();
+        assertThat(reply.getId()).isEqualTo(7);
+        assertThat(reply.getName()).isEqualTo("Product 7");
+        assertThat(reply.getPrice()).isEqualTo("19.99");
+        assertThat(reply.getSku()).isEqualTo("SKU-7");
+        assertThat(reply.getStatus()).isEqualTo("AVAILABLE");
+        assertThat(reply.getManufacturer()).isEqualTo("Acme");
+        assertThat(reply.getVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void unknownIdsAndSkusAreNotFound() {
+        when(productService.getProductBySku("NOPE")).thenThrow(new ResourceNotFoundException("Product not found with SKU: NOPE"));
+
+        assertThatThrownBy(() -> blocking.getById(GetByIdRequest.newBuilder().setId(1).build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND));
+        assertThatThrownBy(() -> blocking.getBySku(GetBySkuRequest.newBuilder().setSku("NOPE").build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND));
+    }
+
+    @Test
+    void multiGetAnswersEveryIdInOrderAndUnknownOnesAsNotFound() throws InterruptedException {
+        when(productService.findProductById(1L)).thenReturn(Optional.of(product(1)));
+        when(productService.findProductById(3L)).thenReturn(Optional.of(product(3)));
+        List<ProductReply> replies = new ArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+
+        StreamObserver<GetByIdRequest> requests = ProductLookupGrpc.newStub(channel).multiGet(collect(replies, completed));
+        for (long id : new long[]{3, 2, 1}) {
+            requests.onNext(GetByIdRequest.newBuilder().setId(id).build());
+        }
+        requests.onCompleted();
+
+        assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(replies).extracting(ProductReply::getId).containsExactly(3L, 2L, 1L);
+        assertThat(replies).extracting(ProductReply::getFound).containsExactly(true, false, true);
+    }
+
+    @Test
+    void scanCatalogStreamsTheWholeCatalogInBatchesFromTheGivenId() {
+        when(productService.scanProducts(10, 2)).thenReturn(List.of(product(11), product(12)));
+        when(productService.scanProducts(12, 2)).thenReturn(List.of(product(13)));
+        when(productService.scanProducts(13, 2)).thenReturn(List.of());
+
+        List<Long> ids = new ArrayList<>();
+        blocking.scanCatalog(ScanCatalogRequest.newBuilder().setAfterId(10).build())
+                .forEachRemaining(reply -> ids.add(reply.getId()));
+
+        assertThat(ids).containsExactly(11L, 12L, 13L);
+        verify(productService).scanProducts(13, 2);
+    }
+
+    private static StreamObserver<ProductReply> collect(List<ProductReply> replies, CountDownLatch completed) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(ProductReply reply) {
+                replies.add(reply);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                completed.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.countDown();
+            }
+        };
+    }
+
+    private static ProductDto product(long id) {
+        return new ProductDto(id, "Product " + id, "A product", new BigDecimal("19.99"), "SKU-" + id, 5,
+                ProductStatus.AVAILABLE, LocalDateTime.now(), LocalDateTime.now(), 3, new ProductDetailsDto("Acme", 250.0));
+    }
+}
@@ -0,0 +1,100 @@
+package com.rakesh.product_service.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChangeQueueTest {
+
+    @Test
+    void rejectsACapacityThatIsNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new ChangeQueue<>(6)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void keepsTheOrderAcrossManyLapsOfTheRing() {
+        ChangeQueue<Integer> queue = new ChangeQueue<>(4);
+        List<Integer> drained = new ArrayList<>();
+        int next = 0;
+        for (int lap = 0; lap < 10; lap++) {
+            for (int i = 0; i < 3; i++) {
+                assertThat(queue.offer(next++)).isTrue();
+            }
+            assertThat(queue.drainTo(drained, Integer.MAX_VALUE)).isEqualTo(3);
+        }
+
+        assertThat(drained).hasSize(30);
+        for (int i = 0; i < 30; i++) {
+            assertThat(drained.get(i)).isEqualTo(i);
+        }
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void refusesOffersWhileFullAndTakesThemAgainOnceDrained() {
+        ChangeQueue<String> queue = new ChangeQueue<>(4);
+        for (String item : List.of("a", "b", "c", "d")) {
+            assertThat(queue.offer(item)).isTrue();
+        }
+
+        assertThat(queue.offer("e")).isFalse();
+        assertThat(queue.size()).isEqualTo(4);
+
+        List<String> drained = new ArrayList<>();
+        assertThat(queue.drainTo(drained, 1)).isEqualTo(1);
+        assertThat(queue.offer("e")).isTrue();
+        assertThat(queue.offer("f")).isFalse();
+        assertThat(queue.drainTo(drained, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly("a", "b", "c", "d", "e");
+    }
+
+    @Test
+    void deliversEveryItemOfConcurrentProducersOnceAndInEachProducersOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 100_000;
+        ChangeQueue<Long> queue = new ChangeQueue<>(1024); // Small, so the producers keep running into a full ring
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    while (!queue.offer(producer << 32 | i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+
+        start.countDown();
+        List<Long> drained = new ArrayList<>(producers * perProducer);
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (drained.size() < producers * perProducer && System.nanoTime() - deadline < 0) {
+            if (queue.drainTo(drained, 256) == 0) {
+                Thread.onSpinWait();
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(drained).hasSize(producers * perProducer);
+        long[] expected = new long[producers];
+        for (long item : drained) {
+            int producer = (int) (item >>> 32);
+            assertThat(item & 0xFFFFFFFFL).as("next item of producer %s", producer).isEqualTo(expected[producer]);
+            expected[producer]++;
+        }
+        assertThat(queue.size()).isZero();
+    }
+}
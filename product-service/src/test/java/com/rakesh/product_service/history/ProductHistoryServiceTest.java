@@ -0,0 +1,103 @@
+package com.rakesh.product_service.history;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The queue and writer thread of the history, against a mocked writer. Nothing runs inside a transaction here, so
+ * {@link ProductHistoryService#record} queues at once.
+ */
+class ProductHistoryServiceTest {
+
+    private final ProductHistoryWriter writer = mock(ProductHistoryWriter.class);
+    private final List<List<Long>> attempts = new CopyOnWriteArrayList<>(); // Product ids of each write call
+    private final ProductHistoryProperties properties = new ProductHistoryProperties();
+    private ProductHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(2);
+        properties.setFlushInterval(Duration.ofMillis(5));
+        properties.setRetryBackoff(Duration.ofMillis(20));
+        properties.setOfferTimeout(Duration.ofMillis(5));
+        properties.setShutdownTimeout(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    @Test
+    void retriesAFailedBatchInPlaceBeforeTakingMoreChanges() throws InterruptedException {
+        properties.setQueueCapacity(8);
+        service = service();
+        doAnswer(invocation -> {
+            attempts.add(productIds(invocation.getArgument(0))); // Copied: the service reuses its batch list
+            if (attempts.size() == 1) {
+                throw new DataAccessResourceFailureException("database down");
+            }
+            return null;
+        }).when(writer).write(anyList());
+        record(10, 20, 30);
+
+        service.start();
+        awaitWritten(3);
+
+        assertThat(attempts.get(0)).containsExactly(10L, 20L);
+        assertThat(attempts.get(1)).containsExactly(10L, 20L);
+        assertThat(attempts.subList(1, attempts.size()).stream().flatMap(List::stream)).containsExactly(10L, 20L, 30L);
+        assertThat(service.report()).containsEntry("failedBatches", 1L).containsEntry("dropped", 0L);
+    }
+
+    @Test
+    void dropsAChangeWhenTheQueueStaysFullAndWritesTheRest() throws InterruptedException {
+        properties.setQueueCapacity(2);
+        service = service();
+        doAnswer(invocation -> attempts.add(productIds(invocation.getArgument(0)))).when(writer).write(anyList());
+
+        record(10, 20, 30); // The writer is not running yet, so the third finds no room
+
+        assertThat(service.report()).containsEntry("queued", 2).containsEntry("dropped", 1L);
+        service.start();
+        awaitWritten(2);
+        assertThat(attempts.stream().flatMap(List::stream)).containsExactly(10L, 20L);
+    }
+
+    private ProductHistoryService service() {
+        return new ProductHistoryService(writer, null, Optional::empty, properties, new SimpleMeterRegistry());
+    }
+
+    private void record(long... productIds) {
+        for (long productId : productIds) {
+            service.record(ProductChange.Type.PATCH, productId, null, new ProductChange.State(null, 1, null), null);
+        }
+    }
+
+    private void awaitWritten(long count) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while ((long) service.report().get("written") < count && System.nanoTime() - deadline < 0) {
+            Thread.sleep(5);
+        }
+        assertThat(service.report()).containsEntry("written", count);
+    }
+
+    private static List<Long> productIds(List<ProductChange> changes) {
+        return changes.stream().map(ProductChange::productId).toList();
+    }
+}
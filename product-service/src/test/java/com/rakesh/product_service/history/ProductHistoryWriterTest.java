@@ -0,0 +1,102 @@
+package com.rakesh.product_service.history;
+
+import com.rakesh.product_service.entity.ProductStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The spill file codec; writing to the database is not involved.
+ */
+class ProductHistoryWriterTest {
+
+    private static final ProductChange CREATED = new ProductChange(1, 10, ProductChange.Type.CREATE, null,
+            new ProductChange.State(new BigDecimal("19.90"), 5, ProductStatus.AVAILABLE), 0,
+            Instant.parse("2026-03-01T10:00:00.123456789Z"), "alice");
+    private static final ProductChange PATCHED = new ProductChange(2, 10, ProductChange.Type.PATCH, null,
+            new ProductChange.State(null, 7, null), null, Instant.parse("2026-03-01T10:05:00Z"), null);
+    private static final ProductChange UPDATED = new ProductChange(3, 20, ProductChange.Type.UPDATE,
+            new ProductChange.State(new BigDecimal("5"), 1, ProductStatus.OUT_OF_STOCK),
+            new ProductChange.State(new BigDecimal("4.50"), 0, ProductStatus.DISCONTINUED), 12,
+            Instant.parse("2026-03-01T11:00:00Z"), "bob");
+
+    @TempDir
+    Path directory;
+
+    private Path spillFile;
+    private ProductHistoryWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        spillFile = directory.resolve("history/product-history.spill");
+        writer = new ProductHistoryWriter(null, null, 100, spillFile);
+    }
+
+    @Test
+    void readsNothingWithoutASpillFile() throws IOException {
+        assertThat(writer.readSpilled()).isEmpty();
+    }
+
+    @Test
+    void readsBackWhatWasSpilled() throws IOException {
+        writer.spill(List.of(CREATED, PATCHED, UPDATED));
+
+        assertThat(writer.readSpilled()).containsExactly(CREATED, PATCHED, UPDATED);
+    }
+
+    @Test
+    void addsToWhatTheFileAlreadyHolds() throws IOException {
+        writer.spill(List.of(CREATED));
+        writer.spill(List.of(PATCHED, UPDATED));
+
+        assertThat(writer.readSpilled()).containsExactly(CREATED, PATCHED, UPDATED);
+        writer.deleteSpilled();
+        assertThat(writer.readSpilled()).isEmpty();
+    }
+
+    @Test
+    void movesAFileWithAFlippedByteAside() throws IOException {
+        writer.spill(List.of(CREATED, PATCHED, UPDATED));
+        byte[] bytes = Files.readAllBytes(spillFile);
+        bytes[bytes.length / 2] ^= 0x20;
+        Files.write(spillFile, bytes);
+
+        assertDamaged();
+    }
+
+    @Test
+    void movesATruncatedFileAside() throws IOException {
+        writer.spill(List.of(CREATED, PATCHED, UPDATED));
+        byte[] bytes = Files.readAllBytes(spillFile);
+        Files.write(spillFile, Arrays.copyOf(bytes, bytes.length - 7));
+
+        assertDamaged();
+    }
+
+    @Test
+    void movesAFileThatIsNoSpillFileAside() throws IOException {
+        Files.createDirectories(spillFile.getParent());
+        Files.writeString(spillFile, "something else entirely");
+
+        assertDamaged();
+    }
+
+    private void assertDamaged() throws IOException {
+        assertThat(writer.readSpilled()).isEmpty();
+        assertThat(spillFile).doesNotExist();
+        assertThat(spillFile.resolveSibling("product-history.spill.damaged")).exists();
+        assertThat(writer.readSpilled()).isEmpty(); // And a new spill starts from scratch
+        writer.spill(List.of(PATCHED));
+        assertThat(writer.readSpilled()).containsExactly(PATCHED);
+    }
+}
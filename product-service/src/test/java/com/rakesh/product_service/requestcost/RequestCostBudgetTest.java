@@ -0,0 +1,122 @@
+package com.rakesh.product_service.requestcost;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every ProductController endpoint against a MySQL in Docker and checks the statements (counted by the
+ * {@link StatementCounter}) and heap bytes (from the thread's allocation counter) of each request against the budgets
+ * in application-dev.properties. Each endpoint is called a few times first, so the allocation budgets are checked
+ * on a warmed-up JVM as they are meant to be. Skipped when no Docker is available.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "product.request-cost.enabled=true",
+        "eureka.client.enabled=false",
+        "spring.boot.admin.client.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("dev")
+@Testcontainers(disabledWithoutDocker = true)
+class RequestCostBudgetTest {
+
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private RequestCostRecorder recorder;
+
+    private int created;
+
+    @BeforeEach
+    void supportPatch() {
+        rest.getRestTemplate().setRequestFactory(new JdkClientHttpRequestFactory()); // HttpURLConnection cannot send PATCH
+    }
+
+    @Test
+    void everyProductEndpointStaysWithinItsBudget() {
+        for (int i = 0; i < 30; i++) {
+            create(); // Data for the list endpoints to return
+        }
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            exerciseAllEndpoints();
+        }
+        recorder.reset();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            exerciseAllEndpoints();
+        }
+
+        Map<String, Object> report = recorder.report();
+        assertThat((List<?>) report.get("unexercised")).as("budgeted endpoints without requests").isEmpty();
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> endpoints = (Map<String, Map<String, Object>>) report.get("endpoints");
+        endpoints.forEach((endpoint, cost) -> assertThat((long) cost.get("violations"))
+                .as("%s over budget %s: max %s statements, max %s bytes, statements %s", endpoint, cost.get("budget"),
+                        cost.get("maxStatements"), cost.get("maxAllocatedBytes"), cost.get("costliestStatements"))
+                .isZero());
+    }
+
+    private void exerciseAllEndpoints() {
+        String id = create();
+        expect(rest.getForEntity("/api/products/{id}", String.class, id), HttpStatus.OK);
+        expect(rest.getForEntity("/api/products/paginated?page=0&size=20", String.class), HttpStatus.OK);
+        expect(rest.getForEntity("/api/products", String.class), HttpStatus.OK);
+        expect(rest.getForEntity("/api/products/search?nameKeyword=Budget", String.class), HttpStatus.OK);
+        expect(rest.getForEntity("/api/products/status/AVAILABLE", String.class), HttpStatus.OK);
+        expect(rest.getForEntity("/api/products/price-range?minPrice=1&maxPrice=100", String.class), HttpStatus.OK);
+
+        ResponseEntity<Map> updated = rest.exchange("/api/products/{id}", HttpMethod.PUT,
+                new HttpEntity<>(product("Budget product " + id + " v2")), Map.class, id);
+        expect(updated, HttpStatus.OK);
+        int version = ((Number) updated.getBody().get("version")).intValue();
+        expect(rest.exchange("/api/products/{id}", HttpMethod.PATCH,
+                new HttpEntity<>(Map.of("quantityInStock", 7, "version", version)), Void.class, id), HttpStatus.NO_CONTENT);
+        expect(rest.exchange("/api/products/{id}?version={version}", HttpMethod.DELETE, null, Void.class, id, version + 1),
+                HttpStatus.NO_CONTENT);
+    }
+
+    private String create() {
+        ResponseEntity<Map> response = rest.postForEntity("/api/products", product("Budget product " + created), Map.class);
+        expect(response, HttpStatus.CREATED);
+        return String.valueOf(response.getBody().get("productId")); // Ids may be sent as strings
+    }
+
+    private Map<String, Object> product(String name) {
+        created++;
+        return Map.of(
+                "productName", name,
+                "price", "19.99",
+                "sku", "BUDGET-" + System.nanoTime() + "-" + created,
+                "quantityInStock", 10,
+                "status", "AVAILABLE",
+                "details", Map.of("manufacturer", "Acme", "weightGrams", 250.0));
+    }
+
+    private static void expect(ResponseEntity<?> response, HttpStatus status) {
+        assertThat(response.getStatusCode()).as("%s", response.getBody()).isEqualTo(status);
+    }
+}
@@ -0,0 +1,16 @@
+package com.rakesh.product_service.schema;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every repository query is checked by {@link SchemaVerifier}; no database needed.
+ */
+class ProductQueryShapeTest {
+
+    @Test
+    void everyRepositoryQueryMethodHasAShape() {
+        assertThat(SchemaVerifier.unshapedQueryMethods()).isEmpty();
+    }
+}
@@ -0,0 +1,60 @@
+package com.rakesh.product_service.schema;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the verifier against a MySQL in Docker migrated by Flyway, as the application starts with it. Startup itself
+ * already fails on a problem (dev sets product.schema.fail-on-problems=true). Skipped when no Docker is available.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.boot.admin.client.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("dev")
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaVerifierTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private SchemaVerifier schemaVerifier;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void theMigratedSchemaServesEveryQueryShape() {
+        SchemaVerifier.SchemaReport report = schemaVerifier.verify();
+
+        assertThat(report.problems()).isEmpty();
+        assertThat(report.presentIndexes()).contains("uk_products_sku");
+        assertThat(report.plans()).hasSize(ProductQueryShape.values().length)
+                .noneMatch(SchemaVerifier.QueryPlan::fullTableScan);
+    }
+
+    @Test
+    void reportsAnIndexThatADroppedMigrationTookAway() {
+        jdbcTemplate.execute("DROP INDEX idx_products_status_updated_at ON products");
+        try {
+            assertThat(schemaVerifier.verify().problems()).anySatisfy(problem ->
+                    assertThat(problem).contains("missing index idx_products_status_updated_at"));
+            assertThat(schemaVerifier.verify().problems()).anySatisfy(problem ->
+                    assertThat(problem).startsWith("findByStatus cannot use idx_products_status_updated_at"));
+        } finally {
+            jdbcTemplate.execute("CREATE INDEX idx_products_status_updated_at ON products (status, updated_at)");
+        }
+    }
+}
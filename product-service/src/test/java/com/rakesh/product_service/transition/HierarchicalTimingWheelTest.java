@@ -0,0 +1,117 @@
+package com.rakesh.product_service.transition;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A wheel of 10 ms ticks, 4 slots and 3 levels: level 0 covers 4 ticks, level 1 16 and level 2 64, the span.
+ */
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 10;
+
+    private final HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(Duration.ofMillis(TICK), 4, 3, 0);
+
+    @Test
+    void roundsDeadlinesUpToATick() {
+        wheel.schedule(15, "a");
+
+        assertThat(wheel.advance(19)).isEmpty();
+        assertThat(wheel.advance(20)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void everyDeadlineWithinTheSpanExpiresOnItsTick() {
+        for (long tick = 1; tick < 64; tick++) {
+            wheel.schedule(tick * TICK, "t" + tick);
+        }
+
+        for (long tick = 1; tick < 64; tick++) {
+            assertThat(wheel.advance(tick * TICK)).as("tick %s", tick).containsExactly("t" + tick);
+            assertThat(wheel.size()).isEqualTo(63 - (int) tick);
+        }
+        assertThat(wheel.advance(64 * TICK)).isEmpty();
+    }
+
+    @Test
+    void cascadesDownWhenALowerLevelWrapsAround() {
+        wheel.schedule(3 * TICK, "level 0");
+        wheel.schedule(5 * TICK, "level 1");
+        wheel.schedule(17 * TICK, "level 2");
+        wheel.schedule(63 * TICK, "last tick of the span");
+        assertThat(wheel.sizeByLevel()).containsExactly(1, 1, 2);
+
+        assertThat(wheel.advance(4 * TICK)).containsExactly("level 0");
+        assertThat(wheel.sizeByLevel()).containsExactly(1, 0, 2); // Level 0 wrapped: the level 1 item is due within 4 ticks
+
+        assertThat(wheel.advance(16 * TICK)).containsExactly("level 1");
+        assertThat(wheel.sizeByLevel()).containsExactly(1, 0, 1); // Level 1 wrapped as well
+
+        assertThat(wheel.advance(17 * TICK)).containsExactly("level 2");
+        assertThat(wheel.advance(62 * TICK)).isEmpty();
+        assertThat(wheel.advance(63 * TICK)).containsExactly("last tick of the span");
+    }
+
+    @Test
+    void returnsItemsExpiringInOneAdvanceEarliestFirst() {
+        wheel.schedule(50 * TICK, "c");
+        wheel.schedule(2 * TICK, "a");
+        wheel.schedule(20 * TICK, "b");
+
+        assertThat(wheel.advance(60 * TICK)).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void cancelledItemsNeverExpire() {
+        HierarchicalTimingWheel.Timeout<String> near = wheel.schedule(2 * TICK, "near");
+        HierarchicalTimingWheel.Timeout<String> far = wheel.schedule(40 * TICK, "far");
+        wheel.schedule(41 * TICK, "kept");
+
+        assertThat(wheel.cancel(near)).isTrue();
+        assertThat(wheel.cancel(far)).isTrue();
+        assertThat(wheel.cancel(far)).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.sizeByLevel()).containsExactly(0, 0, 1);
+
+        List<String> expired = new ArrayList<>();
+        for (long tick = 1; tick <= 64; tick++) {
+            expired.addAll(wheel.advance(tick * TICK));
+        }
+        assertThat(expired).containsExactly("kept");
+    }
+
+    @Test
+    void cannotCancelAnExpiredItem() {
+        HierarchicalTimingWheel.Timeout<String> timeout = wheel.schedule(TICK, "a");
+        wheel.advance(TICK);
+
+        assertThat(wheel.cancel(timeout)).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDueDeadlinesExpireWithTheNextTick() {
+        wheel.advance(100);
+        wheel.schedule(30, "late");
+        wheel.schedule(100, "now");
+
+        assertThat(wheel.advance(109)).isEmpty();
+        assertThat(wheel.advance(110)).containsExactly("late", "now");
+    }
+
+    @Test
+    void rejectsDeadlinesBeyondTheSpan() {
+        wheel.advance(100);
+
+        assertThat(wheel.span()).isEqualTo(Duration.ofMillis(63 * TICK));
+        assertThat(wheel.schedule(100 + 63 * TICK, "last")).isNotNull();
+        assertThat(wheel.schedule(100 + 64 * TICK, "beyond")).isNull();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+}
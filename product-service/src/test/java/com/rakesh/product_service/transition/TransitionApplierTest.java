@@ -0,0 +1,163 @@
+package com.rakesh.product_service.transition;
+
+import com.rakesh.product_service.cache.ProductCache;
+import com.rakesh.product_service.entity.Product;
+import com.rakesh.product_service.entity.ProductStatus;
+import com.rakesh.product_service.entity.TransitionType;
+import com.rakesh.product_service.history.ProductHistoryService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The statements the applier sends for a batch, against a mocked JdbcTemplate.
+ */
+class TransitionApplierTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T10:00:00Z");
+
+    private JdbcTemplate jdbcTemplate;
+    private Cache secondLevelCache;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        secondLevelCache = mock(Cache.class);
+        entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void appliesClaimedTransitionsAndSkipsThoseOfDeletedProducts() {
+        List<PendingTransition> batch = List.of(
+                status(1, 10, ProductStatus.DISCONTINUED, 1),
+                price(2, 20, "9.99", 2),
+                status(3, 30, ProductStatus.OUT_OF_STOCK, 3), // Product 30 was deleted
+                status(4, 40, ProductStatus.OUT_OF_STOCK, 4)); // Cancelled or applied elsewhere
+        claim(1L, 2L, 3L);
+        existingProducts(10L, 20L);
+
+        TransitionApplier.Result result = applier(null).apply(batch);
+
+        verify(jdbcTemplate).update(eq("UPDATE products SET status = ?, version = COALESCE(version, 0) + 1, updated_at = ?, "
+                + "updated_by = ? WHERE id IN (?)"), eq("DISCONTINUED"), any(LocalDateTime.class), eq("scheduler"), eq(10L));
+        verify(jdbcTemplate).batchUpdate(eq("UPDATE products SET price = ?, version = COALESCE(version, 0) + 1, "
+                        + "updated_at = ?, updated_by = ? WHERE id = ?"),
+                argThat((List<Object[]> rows) -> rows.size() == 1
+                        && new BigDecimal("9.99").equals(rows.get(0)[0]) && Long.valueOf(20).equals(rows.get(0)[3])));
+        verify(jdbcTemplate).update(eq("UPDATE product_transitions SET state = ?, applied_at = ?, "
+                        + "version = COALESCE(version, 0) + 1, updated_at = ? WHERE id IN (?,?)"),
+                eq("APPLIED"), any(LocalDateTime.class), any(LocalDateTime.class), eq(1L), eq(2L));
+        verify(jdbcTemplate).update(eq("UPDATE product_transitions SET state = ?, applied_at = ?, "
+                        + "version = COALESCE(version, 0) + 1, updated_at = ? WHERE id IN (?)"),
+                eq("SKIPPED"), any(LocalDateTime.class), any(LocalDateTime.class), eq(3L));
+        verify(secondLevelCache).evict(Product.class, 10L);
+        verify(secondLevelCache).evict(Product.class, 20L);
+
+        assertThat(result.applied()).isEqualTo(2);
+        assertThat(result.skipped()).isEqualTo(1);
+        assertThat(result.lost()).isEqualTo(1);
+        assertThat(result.productIds()).containsExactlyInAnyOrder(10L, 20L);
+        assertThat(result.versions()).isEmpty(); // No product cache to invalidate
+        assertThat(result.effective()).extracting(PendingTransition::id).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void changesNothingWhenNoTransitionIsStillPending() {
+        claim();
+
+        TransitionApplier.Result result = applier(null).apply(List.of(status(1, 10, ProductStatus.DISCONTINUED, 1)));
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(secondLevelCache, never()).evict(any(), any());
+        assertThat(result.lost()).isEqualTo(1);
+        assertThat(result.productIds()).isEmpty();
+    }
+
+    @Test
+    void invalidatesTheProductCacheWithTheVersionsReadBackAndKeepsOnlyTheLastTransitionPerProduct() {
+        ProductCache productCache = mock(ProductCache.class);
+        claim(1L, 2L);
+        existingProducts(10L);
+        doAnswer(invocation -> {
+            ResultSet row = mock(ResultSet.class);
+            when(row.getLong(1)).thenReturn(10L);
+            when(row.getInt(2)).thenReturn(4);
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT id, version FROM products"), any(RowCallbackHandler.class), any(Object[].class));
+
+        TransitionApplier.Result result = applier(productCache).apply(List.of(
+                status(2, 10, ProductStatus.AVAILABLE, 2),
+                status(1, 10, ProductStatus.OUT_OF_STOCK, 1)));
+
+        verify(jdbcTemplate).update(startsWith("UPDATE products SET status = ?"), eq("AVAILABLE"), any(LocalDateTime.class),
+                eq("scheduler"), eq(10L));
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE products SET status = ?"), eq("OUT_OF_STOCK"),
+                any(LocalDateTime.class), any(), any());
+        verify(productCache).invalidate(10L, 4);
+        assertThat(result.applied()).isEqualTo(2); // The overtaken one is done as well
+        assertThat(result.versions()).containsExactlyEntriesOf(Map.of(10L, 4));
+        assertThat(result.effective()).extracting(PendingTransition::id).containsExactly(2L);
+    }
+
+    private TransitionApplier applier(ProductCache productCache) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        if (productCache != null) {
+            beans.addBean("productCache", productCache);
+        }
+        ObjectProvider<ProductHistoryService> productHistory = beans.getBeanProvider(ProductHistoryService.class);
+        return new TransitionApplier(jdbcTemplate, transactionTemplate, entityManagerFactory, () -> Optional.of("scheduler"),
+                productHistory, beans.getBeanProvider(ProductCache.class));
+    }
+
+    private void claim(Long... ids) {
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM product_transitions WHERE state = 'PENDING'"), eq(Long.class),
+                any(Object[].class))).thenReturn(List.of(ids));
+    }
+
+    private void existingProducts(Long... ids) {
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM products WHERE id IN"), eq(Long.class), any(Object[].class)))
+                .thenReturn(List.of(ids));
+    }
+
+    private static PendingTransition status(long id, long productId, ProductStatus status, int minutes) {
+        return new PendingTransition(id, productId, TransitionType.STATUS, status, null, NOW.plusSeconds(60L * minutes));
+    }
+
+    private static PendingTransition price(long id, long productId, String price, int minutes) {
+        return new PendingTransition(id, productId, TransitionType.PRICE, null, new BigDecimal(price), NOW.plusSeconds(60L * minutes));
+    }
+}